@@ -13,6 +13,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -20,12 +21,18 @@ import java.util.stream.Stream;
 public interface MessageRequestQueueRepository extends CHSRepository<MessageRequest> {
 
     Stream<MessageRequest> findAllByDeliveryStatusNotAndIsVoidedFalseAndScheduledDateTimeBetween(MessageDeliveryStatus messageDeliveryStatus, DateTime then, DateTime now);
+    long countAllByDeliveryStatusNotAndIsVoidedFalseAndScheduledDateTimeBetween(MessageDeliveryStatus messageDeliveryStatus, DateTime then, DateTime now);
     Optional<MessageRequest> findByEntityIdAndMessageRule(Long entityId, MessageRule messageRule);
+    List<MessageRequest> findAllByEntityIdAndMessageRuleIn(Long entityId, List<MessageRule> messageRules);
 
     default Stream<MessageRequest> findDueMessageRequests(Duration duration) {
         return findAllByDeliveryStatusNotAndIsVoidedFalseAndScheduledDateTimeBetween(MessageDeliveryStatus.Sent, DateTime.now().minus(duration), DateTime.now());
     }
 
+    default long countDueMessageRequests(Duration duration) {
+        return countAllByDeliveryStatusNotAndIsVoidedFalseAndScheduledDateTimeBetween(MessageDeliveryStatus.Sent, DateTime.now().minus(duration), DateTime.now());
+    }
+
     @Modifying(clearAutomatically = true, flushAutomatically=true)
     @Query(value = "update message_request_queue mr set " +
             "is_voided = :isVoided, " +
@@ -36,5 +43,27 @@ public interface MessageRequestQueueRepository extends CHSRepository<MessageRequ
         this.updateVoided(isVoided, entityId, new Date(), UserContextHolder.getUserId());
     }
 
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update message_request_queue mr set " +
+            "delivery_status = :deliveryStatus, delivered_date_time = :deliveredDateTime, " +
+            "last_modified_date_time = :lastModifiedDateTime, last_modified_by_id = :lastModifiedById " +
+            "where mr.id in :ids", nativeQuery = true)
+    void updateDeliveredStatus(List<Long> ids, String deliveryStatus, Date deliveredDateTime, Date lastModifiedDateTime, Long lastModifiedById);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update message_request_queue mr set " +
+            "delivery_status = :deliveryStatus, " +
+            "last_modified_date_time = :lastModifiedDateTime, last_modified_by_id = :lastModifiedById " +
+            "where mr.id in :ids", nativeQuery = true)
+    void updateDeliveryStatus(List<Long> ids, String deliveryStatus, Date lastModifiedDateTime, Long lastModifiedById);
+
+    default void updateDeliveryStatus(List<Long> ids, MessageDeliveryStatus deliveryStatus) {
+        Date now = new Date();
+        if (deliveryStatus == MessageDeliveryStatus.Sent)
+            this.updateDeliveredStatus(ids, deliveryStatus.name(), now, now, UserContextHolder.getUserId());
+        else
+            this.updateDeliveryStatus(ids, deliveryStatus.name(), now, UserContextHolder.getUserId());
+    }
+
     Stream<MessageRequest> findAllByDeliveryStatusAndMessageReceiverAndIsVoidedFalse(MessageDeliveryStatus notSent, MessageReceiver messageReceiver);
 }
@@ -0,0 +1,43 @@
+package org.avni.messaging.service;
+
+import org.avni.messaging.domain.MessageDeliveryStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue depth and send latency of one organisation's run of the message sender job, logged when the run ends.
+ */
+class MessageDispatchMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(MessageDispatchMetrics.class);
+    private final String organisationName;
+    private final long queueDepth;
+    private final long startNanos = System.nanoTime();
+    private final Map<MessageDeliveryStatus, Integer> countsByStatus = new EnumMap<>(MessageDeliveryStatus.class);
+    private int messages;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    MessageDispatchMetrics(String organisationName, long queueDepth) {
+        this.organisationName = organisationName;
+        this.queueDepth = queueDepth;
+    }
+
+    void recordSend(MessageDeliveryStatus deliveryStatus, long latencyNanos) {
+        countsByStatus.merge(deliveryStatus, 1, Integer::sum);
+        messages++;
+        totalLatencyNanos += latencyNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+    }
+
+    void log() {
+        logger.info(String.format("Message dispatch for organisation %s: queueDepth=%d, processed=%d, byStatus=%s, meanSendLatencyMs=%d, maxSendLatencyMs=%d, elapsedMs=%d",
+                organisationName, queueDepth, messages, countsByStatus,
+                messages == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos / messages),
+                TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+    }
+}
@@ -8,6 +8,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -22,19 +27,33 @@ public class MessageRequestService {
         this.messageReceiverService = messageReceiverService;
     }
 
-    public MessageRequest createOrUpdateAutomatedMessageRequest(MessageRule messageRule, MessageReceiver messageReceiver, Long entityId, DateTime scheduledDateTime) {
-        MessageRequest messageRequest = messageRequestRepository.findByEntityIdAndMessageRule(entityId, messageRule)
-                .orElse(new MessageRequest(messageRule, messageReceiver, entityId, scheduledDateTime));
-        if (messageRequest.isDelivered()) {
-            return messageRequest;
-        }
-        if(scheduledDateTime == null){
-            logger.error("Missing Schedule dateTime in message rule template " + messageRule.getName());
-            return messageRequest;
+    /**
+     * Creates or reschedules the automated message requests of one entity, with the existing requests of the entity looked
+     * up in one query and the changes saved together. Delivered requests are left as they are.
+     */
+    public List<MessageRequest> createOrUpdateAutomatedMessageRequests(Long entityId, List<MessageRequest> messageRequests) {
+        if (messageRequests.isEmpty()) return new ArrayList<>();
+        List<MessageRule> messageRules = messageRequests.stream().map(MessageRequest::getMessageRule).collect(Collectors.toList());
+        Map<Long, MessageRequest> existingMessageRequests = messageRequestRepository.findAllByEntityIdAndMessageRuleIn(entityId, messageRules).stream()
+                .collect(Collectors.toMap(messageRequest -> messageRequest.getMessageRule().getId(), Function.identity(), (first, second) -> first));
+
+        List<MessageRequest> messageRequestsToSave = new ArrayList<>();
+        for (MessageRequest newMessageRequest : messageRequests) {
+            MessageRequest messageRequest = existingMessageRequests.getOrDefault(newMessageRequest.getMessageRule().getId(), newMessageRequest);
+            if (messageRequest.isDelivered()) {
+                continue;
+            }
+            if (newMessageRequest.getScheduledDateTime() == null) {
+                logger.error("Missing Schedule dateTime in message rule template " + newMessageRequest.getMessageRule().getName());
+                continue;
+            }
+            messageRequest.setScheduledDateTime(newMessageRequest.getScheduledDateTime());
+            messageRequest.assignUUIDIfRequired();
+            messageRequestsToSave.add(messageRequest);
         }
-        messageRequest.setScheduledDateTime(scheduledDateTime);
-        messageRequest.assignUUIDIfRequired();
-        return messageRequestRepository.save(messageRequest);
+        List<MessageRequest> savedMessageRequests = new ArrayList<>();
+        messageRequestRepository.saveAll(messageRequestsToSave).forEach(savedMessageRequests::add);
+        return savedMessageRequests;
     }
 
     public MessageRequest createManualMessageRequest(ManualMessage manualMessage, MessageReceiver messageReceiver, DateTime scheduledDateTime) {
@@ -63,6 +82,11 @@ public class MessageRequestService {
         ).orElse(Stream.empty());
     }
 
+    public void updateDeliveryStatus(List<Long> messageRequestIds, MessageDeliveryStatus messageDeliveryStatus) {
+        if (messageRequestIds.isEmpty()) return;
+        messageRequestRepository.updateDeliveryStatus(messageRequestIds, messageDeliveryStatus);
+    }
+
     public MessageRequest markFailed(MessageRequest messageRequest, MessageDeliveryStatus messageDeliveryStatus) {
         messageRequest.markFailed(messageDeliveryStatus);
         return messageRequestRepository.save(messageRequest);
@@ -0,0 +1,76 @@
+package org.avni.messaging.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the rate at which messages are sent to Glific, with a token bucket per organisation so that one tenant's backlog
+ * does not use up another tenant's rate.
+ */
+@Component
+public class MessageSendRateLimiter {
+    private final double messagesPerSecond;
+    private final LongSupplier nanoClock;
+    private final Map<Long, TokenBucket> tokenBuckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MessageSendRateLimiter(@Value("${avni.messaging.maxMessagesPerSecond}") double messagesPerSecond) {
+        this(messagesPerSecond, System::nanoTime);
+    }
+
+    MessageSendRateLimiter(double messagesPerSecond, LongSupplier nanoClock) {
+        this.messagesPerSecond = messagesPerSecond;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Waits until the organisation may send its next message. Returns false if the wait was interrupted.
+     */
+    public boolean acquire(long organisationId) {
+        long waitNanos = reserve(organisationId);
+        if (waitNanos <= 0) return true;
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    long reserve(long organisationId) {
+        return tokenBuckets.computeIfAbsent(organisationId, id -> new TokenBucket(messagesPerSecond, nanoClock.getAsLong())).reserve(nanoClock.getAsLong());
+    }
+
+    private static class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(double messagesPerSecond, long nowNanos) {
+            //allows a burst of up to one second's worth of messages
+            this.capacity = Math.max(1, messagesPerSecond);
+            this.tokensPerNano = messagesPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        /**
+         * Takes a token and returns how long the caller has to wait before using it. Tokens can go negative, so that
+         * callers waiting on the same organisation are spaced out instead of all waking up together.
+         */
+        private synchronized long reserve(long nowNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = nowNanos;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : Math.round(-tokens / tokensPerNano);
+        }
+    }
+}
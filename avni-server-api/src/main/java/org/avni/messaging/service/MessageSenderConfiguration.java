@@ -0,0 +1,21 @@
+package org.avni.messaging.service;
+
+import org.avni.server.framework.security.UserContextTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MessageSenderConfiguration {
+    @Bean("messageSenderExecutor")
+    public ThreadPoolTaskExecutor messageSenderExecutor(@Value("${avni.messaging.senderThreads}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("message-sender-");
+        executor.setTaskDecorator(new UserContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -11,11 +11,14 @@ import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Component
 public class MessageSenderJob {
@@ -24,16 +27,19 @@ public class MessageSenderJob {
     private final OrganisationConfigService organisationConfigService;
     private final AuthService authService;
     private final ExternalSystemConfigRepository externalSystemConfigRepository;
+    private final Executor messageSenderExecutor;
     @Value("${avni.messaging.scheduledSinceDays}")
     private String scheduledSinceDays;
 
     @Autowired
     public MessageSenderJob(MessagingService messagingService, OrganisationConfigService organisationConfigService,
-                            AuthService authService, ExternalSystemConfigRepository externalSystemConfigRepository) {
+                            AuthService authService, ExternalSystemConfigRepository externalSystemConfigRepository,
+                            @Qualifier("messageSenderExecutor") Executor messageSenderExecutor) {
         this.messagingService = messagingService;
         this.organisationConfigService = organisationConfigService;
         this.authService = authService;
         this.externalSystemConfigRepository = externalSystemConfigRepository;
+        this.messageSenderExecutor = messageSenderExecutor;
     }
 
     @Scheduled(fixedDelayString = "${avni.messagingScheduleMillis}")
@@ -43,10 +49,10 @@ public class MessageSenderJob {
         List<OrganisationConfig> enabledOrganisations = organisationConfigService
                 .findAllWithFeatureEnabled(OrganisationConfigSettingKey.enableMessaging.name());
 
-        for (OrganisationConfig enabledOrganisation : enabledOrganisations) {
-            sendMessages(enabledOrganisation);
-            authService.authenticateByUserName("admin", null);
-        }
+        //each organisation is sent on its own worker, so that a slow Glific account does not hold up the others
+        CompletableFuture.allOf(enabledOrganisations.stream()
+                .map(enabledOrganisation -> CompletableFuture.runAsync(() -> sendMessages(enabledOrganisation), messageSenderExecutor))
+                .toArray(CompletableFuture[]::new)).join();
         logger.info("Job ended");
     }
 
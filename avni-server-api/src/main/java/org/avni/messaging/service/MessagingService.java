@@ -8,6 +8,7 @@ import org.avni.messaging.domain.exception.GlificNotConfiguredException;
 import org.avni.messaging.repository.ManualMessageRepository;
 import org.avni.messaging.repository.MessageRequestQueueRepository;
 import org.avni.messaging.repository.MessageRuleRepository;
+import org.avni.server.domain.Organisation;
 import org.avni.server.domain.RuleExecutionException;
 import org.avni.server.domain.User;
 import org.avni.server.framework.security.UserContextHolder;
@@ -22,15 +23,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class MessagingService {
     private static final Logger logger = LoggerFactory.getLogger(MessagingService.class);
+    private static final int STATUS_UPDATE_BATCH_SIZE = 100;
 
     private final MessageRuleRepository messageRuleRepository;
     private final MessageReceiverService messageReceiverService;
@@ -43,6 +49,8 @@ public class MessagingService {
 
     private final IndividualMessagingService individualMessagingService;
     private final EntityTypeRetrieverService entityTypeRetrieverService;
+    private final MessageSendRateLimiter messageSendRateLimiter;
+    private final TransactionTemplate statusUpdateTransactionTemplate;
 
     @Autowired
     public MessagingService(MessageRuleRepository messageRuleRepository, MessageReceiverService messageReceiverService,
@@ -50,7 +58,8 @@ public class MessagingService {
                             MessageRequestQueueRepository messageRequestQueueRepository,
                             ManualMessageRepository manualMessageRepository,
                             RuleService ruleService, GroupMessagingService groupMessagingService,
-                            IndividualMessagingService individualMessagingService, Bugsnag bugsnag, EntityTypeRetrieverService entityTypeRetrieverService) {
+                            IndividualMessagingService individualMessagingService, Bugsnag bugsnag, EntityTypeRetrieverService entityTypeRetrieverService,
+                            MessageSendRateLimiter messageSendRateLimiter, PlatformTransactionManager platformTransactionManager) {
         this.messageRuleRepository = messageRuleRepository;
         this.messageReceiverService = messageReceiverService;
         this.messageRequestService = messageRequestService;
@@ -61,6 +70,9 @@ public class MessagingService {
         this.bugsnag = bugsnag;
         this.individualMessagingService = individualMessagingService;
         this.entityTypeRetrieverService = entityTypeRetrieverService;
+        this.messageSendRateLimiter = messageSendRateLimiter;
+        this.statusUpdateTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.statusUpdateTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     public MessageRule find(Long id) {
@@ -89,20 +101,27 @@ public class MessagingService {
 
     public void onEntitySave(Long entityId, Long entityTypeId, EntityType entityType, Long subjectId, Long userId) throws RuleExecutionException {
         List<MessageRule> messageRules = messageRuleRepository.findAllByEntityTypeAndEntityTypeIdAndIsVoidedFalse(entityType, entityTypeId);
-
-        for (MessageRule messageRule : messageRules) {
+        List<ScheduleRuleResponseEntity> scheduleRuleResponses = ruleService.executeScheduleRules(entityType.name(), entityId,
+                messageRules.stream().map(MessageRule::getScheduleRule).collect(Collectors.toList()));
+
+        //the receivers are resolved once per receiver type, however many rules send to them
+        Map<ReceiverType, MessageReceiver> messageReceivers = new EnumMap<>(ReceiverType.class);
+        List<MessageRequest> messageRequests = new ArrayList<>();
+        for (int i = 0; i < messageRules.size(); i++) {
+            MessageRule messageRule = messageRules.get(i);
             MessageReceiver messageReceiver = null;
             if (messageRule.getReceiverType() == ReceiverType.Subject)
-                messageReceiver = messageReceiverService.saveReceiverIfRequired(ReceiverType.Subject, subjectId);
+                messageReceiver = messageReceivers.computeIfAbsent(ReceiverType.Subject, receiverType -> messageReceiverService.saveReceiverIfRequired(receiverType, subjectId));
             else if (messageRule.getReceiverType() == ReceiverType.User)
-                messageReceiver = messageReceiverService.saveReceiverIfRequired(ReceiverType.User, userId);
+                messageReceiver = messageReceivers.computeIfAbsent(ReceiverType.User, receiverType -> messageReceiverService.saveReceiverIfRequired(receiverType, userId));
 
-            ScheduleRuleResponseEntity scheduleRuleResponse = ruleService.executeScheduleRule(messageRule.getEntityType().name(), entityId, messageRule.getScheduleRule());
+            ScheduleRuleResponseEntity scheduleRuleResponse = scheduleRuleResponses.get(i);
             Boolean shouldSend = scheduleRuleResponse.getShouldSend();
             if (shouldSend == null || shouldSend) {
-                messageRequestService.createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, entityId, scheduleRuleResponse.getScheduledDateTime());
+                messageRequests.add(new MessageRequest(messageRule, messageReceiver, entityId, scheduleRuleResponse.getScheduledDateTime()));
             }
         }
+        messageRequestService.createOrUpdateAutomatedMessageRequests(entityId, messageRequests);
     }
 
     public void onEntityDelete(Long entityId, EntityType entityType, Long receiverId) {
@@ -116,49 +135,76 @@ public class MessagingService {
     public void onUserEntitySave(Long userId, User createdBy) throws RuleExecutionException {
         List<MessageRule> messageRules = messageRuleRepository.findAllByReceiverTypeAndEntityTypeAndIsVoidedFalse(ReceiverType.User, EntityType.User);
 
+        if (messageRules.isEmpty()) return;
+        MessageReceiver messageReceiver = messageReceiverService.saveReceiverIfRequired(ReceiverType.User, userId);
+        List<MessageRequest> messageRequests = new ArrayList<>();
         for (MessageRule messageRule : messageRules) {
-            MessageReceiver messageReceiver = messageReceiverService.saveReceiverIfRequired(ReceiverType.User, userId);
             ScheduleRuleResponseEntity scheduleRuleResponse = ruleService.executeScheduleRuleForEntityTypeUser(userId, messageRule.getScheduleRule());
             Boolean shouldSend = scheduleRuleResponse.getShouldSend();
             if (shouldSend == null || shouldSend) {
-                messageRequestService.createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, userId, scheduleRuleResponse.getScheduledDateTime());
+                messageRequests.add(new MessageRequest(messageRule, messageReceiver, userId, scheduleRuleResponse.getScheduledDateTime()));
             }
         }
+        messageRequestService.createOrUpdateAutomatedMessageRequests(userId, messageRequests);
     }
 
     public Page<MessageRule> findByEntityTypeAndEntityTypeId(EntityType entityType, Long entityTypeId, Pageable pageable) {
         return messageRuleRepository.findByEntityTypeAndEntityTypeId(entityType, entityTypeId, pageable);
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public MessageRequest sendMessage(MessageRequest messageRequest) {
+    private MessageDeliveryStatus sendMessage(MessageRequest messageRequest) {
         logger.debug(String.format("Sending message for %d", messageRequest.getId()));
         try {
             sendMessageToGlific(messageRequest);
-            messageRequest = messageRequestService.markComplete(messageRequest);
             logger.debug(String.format("Sent message for %d", messageRequest.getId()));
+            return MessageDeliveryStatus.Sent;
         } catch (PhoneNumberNotAvailableOrIncorrectException p) {
-            messageRequest = messageRequestService.markFailed(messageRequest, MessageDeliveryStatus.NotSentNoPhoneNumberInAvni);
             logger.warn("Phone number not available or incorrect for receiver: " + messageRequest.getMessageReceiver().getReceiverId());
+            return MessageDeliveryStatus.NotSentNoPhoneNumberInAvni;
         } catch (GlificGroupMessageFailureException e) {
-            messageRequestService.markPartiallyComplete(messageRequest);
             logger.error("Message sending to all contacts for message request id: " + messageRequest.getId() +
                     "failed with message " + e.getMessage() + ".Will retry again after sometime.");
             bugsnag.notify(e);
+            return MessageDeliveryStatus.PartiallySent;
         } catch (Exception e) {
-            messageRequest = messageRequestService.markFailed(messageRequest, MessageDeliveryStatus.Failed);
             logger.error("Could not send message for message request id: " + messageRequest.getId(), e);
             bugsnag.notify(e);
+            return MessageDeliveryStatus.Failed;
         }
-
-        return messageRequest;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void sendMessages(Duration duration) {
-        logger.info("Sending messages for organisation " + UserContextHolder.getOrganisation().getName());
-        Stream<MessageRequest> requests = messageRequestQueueRepository.findDueMessageRequests(duration);
-        requests.forEach(this::sendMessage);
+        Organisation organisation = UserContextHolder.getOrganisation();
+        logger.info("Sending messages for organisation " + organisation.getName());
+        MessageDispatchMetrics metrics = new MessageDispatchMetrics(organisation.getName(), messageRequestQueueRepository.countDueMessageRequests(duration));
+        //delivery statuses are written in bulk, a batch of requests at a time. Each batch is committed on its own, so that the
+        //messages already sent are not sent again when the rest of the run fails
+        Map<MessageDeliveryStatus, List<Long>> pendingStatusUpdates = new EnumMap<>(MessageDeliveryStatus.class);
+        int pendingUpdates = 0;
+        try (Stream<MessageRequest> requests = messageRequestQueueRepository.findDueMessageRequests(duration)) {
+            Iterator<MessageRequest> iterator = requests.iterator();
+            while (iterator.hasNext() && messageSendRateLimiter.acquire(organisation.getId())) {
+                MessageRequest messageRequest = iterator.next();
+                long start = System.nanoTime();
+                MessageDeliveryStatus deliveryStatus = sendMessage(messageRequest);
+                metrics.recordSend(deliveryStatus, System.nanoTime() - start);
+                pendingStatusUpdates.computeIfAbsent(deliveryStatus, status -> new ArrayList<>()).add(messageRequest.getId());
+                if (++pendingUpdates >= STATUS_UPDATE_BATCH_SIZE) {
+                    updateDeliveryStatuses(pendingStatusUpdates);
+                    pendingUpdates = 0;
+                }
+            }
+        }
+        updateDeliveryStatuses(pendingStatusUpdates);
+        metrics.log();
+    }
+
+    private void updateDeliveryStatuses(Map<MessageDeliveryStatus, List<Long>> pendingStatusUpdates) {
+        if (pendingStatusUpdates.isEmpty()) return;
+        statusUpdateTransactionTemplate.executeWithoutResult(transactionStatus ->
+                pendingStatusUpdates.forEach((deliveryStatus, messageRequestIds) -> messageRequestService.updateDeliveryStatus(messageRequestIds, deliveryStatus)));
+        pendingStatusUpdates.clear();
     }
 
     public void scheduleManualMessage(String receiverId, ReceiverType receiverType, String messageTemplateId, String[] parameters, DateTime scheduledDateTime) {
@@ -37,8 +37,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static org.avni.server.framework.security.AuthenticatedPrincipalCache.AUTHENTICATED_PRINCIPALS;
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT;
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS;
+import static org.avni.server.service.SyncableMetadataCache.SYNCABLE_METADATA_PER_ORGANISATION;
+import static org.avni.server.service.accessControl.GroupPrivilegesCache.GROUP_PRIVILEGES_PER_USER;
 
 @Configuration
 @EnableCaching
@@ -60,6 +63,12 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
     @Value("${avni.cache.max.weight}")
     private int cacheMaxWeight;
 
+    @Value("${avni.cache.perUser.max.entries}")
+    private int maxPerUserEntriesToCache;
+
+    @Value("${avni.cache.perOrganisation.max.entries}")
+    private int maxPerOrganisationEntriesToCache;
+
     @Value("${avni.custom.query.timeout}")
     private int timeout;
 
@@ -156,8 +165,13 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
                     case ADDRESSES_PER_CATCHMENT:
                     case ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS:
                         return getConcurrentMapCacheWithWeightedCapacityForAddressesConfig(name);
+                    case AUTHENTICATED_PRINCIPALS:
+                    case GROUP_PRIVILEGES_PER_USER:
+                        return getConcurrentMapCacheWithMaxEntriesConfig(name, maxPerUserEntriesToCache);
+                    case SYNCABLE_METADATA_PER_ORGANISATION:
+                        return getConcurrentMapCacheWithMaxEntriesConfig(name, maxPerOrganisationEntriesToCache);
                     default:
-                        return getConcurrentMapCacheWithMaxEntriesConfig(name);
+                        return getConcurrentMapCacheWithMaxEntriesConfig(name, maxEntriesToCache);
                 }
             }
 
@@ -170,10 +184,10 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
                         .build().asMap(), DISALLOW_NULL_VALUES);
             }
 
-            private ConcurrentMapCache getConcurrentMapCacheWithMaxEntriesConfig(String name) {
+            private ConcurrentMapCache getConcurrentMapCacheWithMaxEntriesConfig(String name, int maxEntries) {
                 return new ConcurrentMapCache(name, CacheBuilder.newBuilder()
                                 .expireAfterWrite(timeToLiveInSeconds, TimeUnit.SECONDS)
-                                .maximumSize(maxEntriesToCache)
+                                .maximumSize(maxEntries)
                         .build().asMap(), DISALLOW_NULL_VALUES);
             }
         };
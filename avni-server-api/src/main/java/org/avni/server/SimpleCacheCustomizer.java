@@ -7,9 +7,12 @@ import org.springframework.stereotype.Component;
 import static java.util.Arrays.asList;
 import static org.avni.messaging.repository.GlificContactRepository.GLIFIC_CONTACT_FOR_PHONE_NUMBER;
 import static org.avni.messaging.repository.GlificMessageTemplateRepository.GLIFIC_TEMPLATES_FOR_ORG;
+import static org.avni.server.framework.security.AuthenticatedPrincipalCache.AUTHENTICATED_PRINCIPALS;
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT;
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS;
 import static org.avni.server.service.IndividualService.PHONE_NUMBER_FOR_SUBJECT_ID;
+import static org.avni.server.service.SyncableMetadataCache.SYNCABLE_METADATA_PER_ORGANISATION;
+import static org.avni.server.service.accessControl.GroupPrivilegesCache.GROUP_PRIVILEGES_PER_USER;
 
 @Component
 public class SimpleCacheCustomizer
@@ -21,6 +24,9 @@ public class SimpleCacheCustomizer
                 ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS,
                 PHONE_NUMBER_FOR_SUBJECT_ID,
                 GLIFIC_CONTACT_FOR_PHONE_NUMBER,
-                GLIFIC_TEMPLATES_FOR_ORG));
+                GLIFIC_TEMPLATES_FOR_ORG,
+                AUTHENTICATED_PRINCIPALS,
+                GROUP_PRIVILEGES_PER_USER,
+                SYNCABLE_METADATA_PER_ORGANISATION));
     }
 }
@@ -46,13 +46,23 @@ public class AvniJobRepository {
                 "       string_agg(case when bjep.parameter_name = 'programUUID' then bjep.parameter_value::text else '' end::text, '') programUUID,\n" +
                 "       string_agg(case when bjep.parameter_name = 'encounterTypeUUID' then bjep.parameter_value::text else '' end::text, '') encounterTypeUUID,\n" +
                 "       string_agg(case when bjep.parameter_name = 'reportType' then bjep.parameter_value::text else '' end::text, '') reportType,\n" +
-                "       max(bse.read_count) read_count,\n" +
-                "       max(bse.write_count) write_count,\n" +
-                "       max(bse.write_skip_count) write_skip_count\n" +
+                "       bse.read_count read_count,\n" +
+                "       bse.write_count write_count,\n" +
+                "       bse.write_skip_count write_skip_count\n" +
                 "from batch_job_execution bje\n" +
                 "left outer join  batch_job_execution_params bjep on bje.job_execution_id = bjep.job_execution_id\n" +
-                "left outer join batch_step_execution bse on bje.job_execution_id = bse.job_execution_id\n" +
-                "group by bje.job_execution_id, bje.status, bje.exit_code, bje.create_time, bje.start_time, bje.end_time\n" +
+                //the counts of a partitioned step are summed over its partitions (named step:partition), leaving out the
+                //manager step, which repeats their totals
+                "left outer join (select se.job_execution_id,\n" +
+                "                        sum(se.read_count) read_count,\n" +
+                "                        sum(se.write_count) write_count,\n" +
+                "                        sum(se.write_skip_count) write_skip_count\n" +
+                "                 from batch_step_execution se\n" +
+                "                 where se.step_name like '%:%'\n" +
+                "                    or not exists(select 1 from batch_step_execution partition_se\n" +
+                "                                  where partition_se.job_execution_id = se.job_execution_id and partition_se.step_name like '%:%')\n" +
+                "                 group by se.job_execution_id) bse on bje.job_execution_id = bse.job_execution_id\n" +
+                "group by bje.job_execution_id, bje.status, bje.exit_code, bje.create_time, bje.start_time, bje.end_time, bse.read_count, bse.write_count, bse.write_skip_count\n" +
                 "order by bje.create_time desc) jobs\n" +
                 "where jobs.userId = :userId\n";
 
@@ -0,0 +1,30 @@
+package org.avni.server.dao;
+
+import org.avni.server.domain.ExtensionFile;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface ExtensionFileRepository extends CHSRepository<ExtensionFile> {
+    boolean existsByFileModifiedDateTimeGreaterThan(Date fileModifiedDateTime);
+
+    List<ExtensionFile> findAllByFileModifiedDateTimeGreaterThanOrderByS3Key(Date fileModifiedDateTime);
+
+    ExtensionFile findFirstByS3Key(String s3Key);
+
+    @Modifying
+    @Query(value = "delete from extension_file where organisation_id = :organisationId", nativeQuery = true)
+    int deleteAllOfOrganisation(Long organisationId);
+
+    @Query(value = "select exists(select 1 from extension_manifest where organisation_id = :organisationId)", nativeQuery = true)
+    boolean isManifestBuilt(Long organisationId);
+
+    @Modifying
+    @Query(value = "insert into extension_manifest (organisation_id, built_date_time) values (:organisationId, now())\n" +
+            "on conflict (organisation_id) do update set built_date_time = excluded.built_date_time", nativeQuery = true)
+    void markManifestBuilt(Long organisationId);
+}
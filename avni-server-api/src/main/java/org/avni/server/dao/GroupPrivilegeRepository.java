@@ -39,6 +39,14 @@ public interface GroupPrivilegeRepository extends ReferenceDataRepository<GroupP
             "  and allow = true", nativeQuery = true)
     List<GroupPrivilege> getAllAllowedPrivilegesForUser(Long userId);
 
+    @Query(value = "select concat_ws('_', count(distinct ug.id), max(ug.last_modified_date_time), max(g.last_modified_date_time),\n" +
+            "                 count(distinct gp.id), max(gp.last_modified_date_time))\n" +
+            "from user_group ug\n" +
+            "         join groups g on g.id = ug.group_id\n" +
+            "         left join group_privilege gp on gp.group_id = ug.group_id\n" +
+            "where ug.user_id = :userId", nativeQuery = true)
+    String getGroupPrivilegesVersion(Long userId);
+
     @RestResource(path = "lastModified", rel = "lastModified")
     Page<GroupPrivilege> findBySubjectTypeIsNotNullAndLastModifiedDateTimeIsBetweenOrderByLastModifiedDateTimeAscIdAsc(
             @Param("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date lastModifiedDateTime,
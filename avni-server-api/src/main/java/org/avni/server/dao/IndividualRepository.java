@@ -106,15 +106,52 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
             "where ind.isVoided = false " +
             "and ind.subjectType.id = :subjectTypeId " +
             "and ind.registrationDate between :startDateTime and :endDateTime " +
-            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds)")
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
     Stream<Individual> findNonVoidedIndividuals(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime);
 
     @Query("select ind from Individual ind " +
             "where ind.subjectType.id = :subjectTypeId " +
             "and ind.registrationDate between :startDateTime and :endDateTime " +
-            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds)")
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
     Stream<Individual> findAllIndividuals(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime);
 
+    @Query("select ind from Individual ind " +
+            "where ind.isVoided = false " +
+            "and ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "and ind.id between :fromId and :toId " +
+            "order by ind.id")
+    Stream<Individual> findNonVoidedIndividualsInPartition(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, long fromId, long toId);
+
+    @Query("select ind from Individual ind " +
+            "where ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "and ind.id between :fromId and :toId " +
+            "order by ind.id")
+    Stream<Individual> findAllIndividualsInPartition(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, long fromId, long toId);
+
+    @Query("select coalesce(max(ind.id), 0) from Individual ind where ind.subjectType.id = :subjectTypeId")
+    long getMaxIdOfSubjectType(Long subjectTypeId);
+
+    @Query("select ind.id from Individual ind " +
+            "where ind.isVoided = false " +
+            "and ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
+    List<Long> findNonVoidedIndividualIds(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, Pageable pageable);
+
+    @Query("select ind.id from Individual ind " +
+            "where ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
+    List<Long> findAllIndividualIds(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, Pageable pageable);
+
     //group by is added for distinct ind records
     @Query("select i from Individual i " +
             "join i.encounters enc " +
@@ -135,6 +172,24 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
     Stream<Individual> findAllEncounters(List<Long> locationIds, DateTime startDateTime, DateTime endDateTime, Long encounterTypeId);
 
 
+    //fetch queries below only initialise the collections of individuals already loaded in the persistence context
+    @Query("select distinct i from Individual i left join fetch i.encounters where i.id in :individualIds")
+    List<Individual> fetchEncounters(List<Long> individualIds);
+
+    @Query("select distinct i from Individual i left join fetch i.programEnrolments where i.id in :individualIds")
+    List<Individual> fetchProgramEnrolments(List<Long> individualIds);
+
+    @Query("select distinct i from Individual i " +
+            "left join fetch i.memberGroupSubjects gs " +
+            "left join fetch gs.groupSubject " +
+            "where i.id in :individualIds")
+    List<Individual> fetchMemberGroupSubjects(List<Long> individualIds);
+
+    @Query("select distinct g from Individual g " +
+            "left join fetch g.encounters " +
+            "where g.id in (select gs.groupSubject.id from GroupSubject gs where gs.memberSubject.id in :memberIndividualIds)")
+    List<Individual> fetchEncountersOfGroupSubjects(List<Long> memberIndividualIds);
+
     @Query("select i from Individual i where i.uuid =:id or i.legacyId = :id")
     Individual findByLegacyIdOrUuid(String id);
 
@@ -0,0 +1,96 @@
+package org.avni.server.dao;
+
+import org.avni.server.domain.CHSEntity;
+import org.avni.server.util.BadRequestError;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Page request for clients which sync using a continuation token instead of only the page number. The token is the
+ * (lastModifiedDateTime, id) of the last entity the client received, so that the next page can be found by seeking on the
+ * sync order rather than reading and discarding all earlier rows. An empty token means the first page. Repositories which
+ * cannot seek on this order simply use the page number, hence the client keeps sending the page number too.
+ */
+public class KeysetPageRequest extends PageRequest {
+    private static final String SEPARATOR = ":";
+
+    private final Date lastModifiedDateTime;
+    private final Long id;
+    private final boolean seeking;
+
+    private KeysetPageRequest(Pageable pageable, Date lastModifiedDateTime, Long id, boolean seeking) {
+        super(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        this.lastModifiedDateTime = lastModifiedDateTime;
+        this.id = id;
+        this.seeking = seeking;
+    }
+
+    /**
+     * @return the pageable as is when the client has not asked for continuation tokens
+     */
+    public static Pageable of(Pageable pageable, String continuationToken) {
+        if (continuationToken == null || pageable.isUnpaged()) return pageable;
+        if (continuationToken.isEmpty()) return new KeysetPageRequest(pageable, null, null, false);
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestError("Invalid continuation token: %s", continuationToken);
+        }
+        String[] parts = decoded.split(SEPARATOR);
+        if (parts.length != 2) throw new BadRequestError("Invalid continuation token: %s", continuationToken);
+        try {
+            return new KeysetPageRequest(pageable, new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1]), false);
+        } catch (NumberFormatException e) {
+            throw new BadRequestError("Invalid continuation token: %s", continuationToken);
+        }
+    }
+
+    public static String continuationTokenAfter(CHSEntity entity) {
+        String token = entity.getLastModifiedDateTime().getMillis() + SEPARATOR + entity.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean hasCursor() {
+        return id != null;
+    }
+
+    public Date getLastModifiedDateTime() {
+        return lastModifiedDateTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * To be used once the query has the seek predicate, so that rows are not skipped a second time by an offset.
+     */
+    public KeysetPageRequest seeking() {
+        return new KeysetPageRequest(this, lastModifiedDateTime, id, true);
+    }
+
+    @Override
+    public long getOffset() {
+        return seeking ? 0 : super.getOffset();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof KeysetPageRequest)) return false;
+        KeysetPageRequest that = (KeysetPageRequest) obj;
+        return super.equals(that) && seeking == that.seeking && Objects.equals(lastModifiedDateTime, that.lastModifiedDateTime) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), lastModifiedDateTime, id, seeking);
+    }
+}
@@ -10,6 +10,7 @@ import org.avni.server.domain.Catchment;
 import org.avni.server.framework.security.UserContextHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
@@ -194,6 +195,19 @@ public interface LocationRepository extends ReferenceDataRepository<AddressLevel
     @Query(value = "select * from address_level where lineage ~ cast(:lquery as lquery)", nativeQuery = true)
     List<AddressLevel> getAllChildLocations(@Param("lquery") String lquery);
 
+    /**
+     * Moves the descendants of a location along with it, by replacing the lineage prefix of the location in the whole
+     * subtree. The location itself is saved by the caller.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update address_level al set lineage = cast(:newLineage as ltree) || subpath(al.lineage, nlevel(cast(:oldLineage as ltree))), " +
+            "last_modified_date_time = (current_timestamp + al.id * (interval '1 millisecond')/1000), last_modified_by_id = :lastModifiedById " +
+            "where al.lineage <@ cast(:oldLineage as ltree) and nlevel(al.lineage) > nlevel(cast(:oldLineage as ltree))", nativeQuery = true)
+    int updateDescendantLineage(String oldLineage, String newLineage, Long lastModifiedById);
+    default int updateDescendantLineage(String oldLineage, String newLineage) {
+        return this.updateDescendantLineage(oldLineage, newLineage, UserContextHolder.getUserId());
+    }
+
     String CATCHMENT_ADDRESS_MAPPING_BASE_QUERY = "select row_number() over () as id, c.id as catchment_id, al1.id as addresslevel_id, al1.type_id as type_id from catchment c\n" +
             "                         inner join catchment_address_mapping cam on c.id = cam.catchment_id\n" +
             "                         inner join address_level al on cam.addresslevel_id = al.id\n" +
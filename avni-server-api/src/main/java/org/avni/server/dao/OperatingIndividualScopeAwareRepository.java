@@ -14,6 +14,7 @@ import org.avni.server.util.JsonObjectUtil;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -46,7 +47,12 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
     @Override
     default Slice<T> getSyncResultsAsSlice(SyncParameters syncParameters) {
         Specification specification = getSpecification(syncParameters);
-        return findAllAsSlice(specification, syncParameters.getPageable());
+        Pageable pageable = syncParameters.getPageable();
+        if (pageable instanceof KeysetPageRequest && ((KeysetPageRequest) pageable).hasCursor() && syncParameters.isModificationCheckOnEntity()) {
+            KeysetPageRequest keysetPageRequest = (KeysetPageRequest) pageable;
+            return findAllAsSlice(specification.and(keysetSpecification(keysetPageRequest)), keysetPageRequest.seeking());
+        }
+        return findAllAsSlice(specification, pageable);
     }
 
     @Override
@@ -65,11 +71,29 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
             List<Predicate> predicates = new ArrayList<>();
             if (syncParameters.getSubjectType() == null || !syncParameters.getSubjectType().isDirectlyAssignable())
                 predicates.add(cb.between(root.get("lastModifiedDateTime"), cb.literal(lastModifiedDateTime), cb.literal(now)));
-            query.orderBy(cb.asc(root.get("lastModifiedDateTime")), cb.asc(root.get("id")));
+            query.orderBy(cb.asc(lastModifiedDateTimeInMillis(root, cb)), cb.asc(root.get("id")));
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
+    /**
+     * Rows after the cursor in (lastModifiedDateTime, id) order, seeking only on the values in the token. The database keeps
+     * sub millisecond precision which the token does not, so the rows are ordered and compared on their time to the
+     * millisecond.
+     */
+    default Specification<T> keysetSpecification(KeysetPageRequest keysetPageRequest) {
+        return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            Expression<Date> lastModifiedDateTime = lastModifiedDateTimeInMillis(root, cb);
+            Expression<Date> cursorLastModifiedDateTime = cb.literal(keysetPageRequest.getLastModifiedDateTime());
+            return cb.or(cb.greaterThan(lastModifiedDateTime, cursorLastModifiedDateTime),
+                    cb.and(cb.equal(lastModifiedDateTime, cursorLastModifiedDateTime), cb.greaterThan(root.get("id"), keysetPageRequest.getId())));
+        };
+    }
+
+    static Expression<Date> lastModifiedDateTimeInMillis(Root<?> root, CriteriaBuilder cb) {
+        return cb.function("date_trunc", Date.class, cb.literal("milliseconds"), root.get("lastModifiedDateTime"));
+    }
+
     default Specification<T> syncTypeIdSpecification(Long typeId) {
         return null;
     }
@@ -185,10 +209,12 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
     }
 
     default <S extends T> S saveEntity(S entity) {
+        boolean isNew = Objects.isNull(entity.getId());
         try {
-            return save(entity);
+            //Ids come from sequences, so a new entity is inserted only on flush. Flushing it here raises its constraint violations below.
+            return isNew ? saveAndFlush(entity) : save(entity);
         } catch (DataIntegrityViolationException dive) {
-            if (Objects.isNull(entity.getId()) && dive.getCause() != null && dive.getCause().getClass().equals(ConstraintViolationException.class)) {
+            if (isNew && dive.getCause() != null && dive.getCause().getClass().equals(ConstraintViolationException.class)) {
                 throw new ConstraintViolationExceptionAcrossOrganisations(String.format("Entity=> ID: %d, UUID: %s, Type:%s, User:%s, Msg: %s", entity.getId(), entity.getUuid(), entity.getClass().getCanonicalName(), entity.getLastModifiedByName(), dive.getMessage()), (ConstraintViolationException) dive.getCause());
             }
             throw dive;
@@ -29,6 +29,9 @@ public interface ProgramEnrolmentRepository extends TransactionalDataRepository<
     @Query("select new org.avni.server.projection.SearchSubjectEnrolledProgram(pe.individual.id, pe.program) from ProgramEnrolment pe join pe.program join pe.program.operationalPrograms where pe.individual.id in :individualIds and pe.programExitDateTime is null and pe.isVoided = false")
     List<SearchSubjectEnrolledProgram> findActiveEnrolmentsByIndividualIds(List<Long> individualIds);
 
+    @Query("select distinct pe from ProgramEnrolment pe left join fetch pe.programEncounters where pe.individual.id in :individualIds")
+    List<ProgramEnrolment> fetchProgramEncounters(List<Long> individualIds);
+
     @Query("select enl from ProgramEnrolment enl " +
             "join enl.individual i " +
             "where enl.program.id = :programId " +
@@ -102,6 +102,13 @@ public interface UserRepository extends AvniJpaRepository<User, Long>, JpaSpecif
             "where users.id = :userId", nativeQuery = true)
     Boolean hasAll(long userId);
 
+    @Query(value = "select concat_ws('_', u.last_modified_date_time, u.organisation_id, count(aa.id), max(aa.id))\n" +
+            "from users u\n" +
+            "         left join account_admin aa on aa.admin_id = u.id\n" +
+            "where u.id = :userId\n" +
+            "group by u.id", nativeQuery = true)
+    String getAuthenticatedPrincipalVersion(Long userId);
+
     String BASE_ENTITY_TYPE_QUERY = "select (count(p.id) > 0) as exists from group_privilege\n" +
             "    join privilege p on group_privilege.privilege_id = p.id\n" +
             "    join groups on group_privilege.group_id = groups.id and groups.is_voided=false\n" +
@@ -0,0 +1,97 @@
+package org.avni.server.dao.sync;
+
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.avni.server.dao.sync.SyncEntityName.*;
+
+/**
+ * Answers "has anything changed since the client last synced" for many metadata tables in one round trip.
+ * Only entities whose change check is a plain existsByLastModifiedDateTimeGreaterThan on their table are listed here,
+ * rest have to go through their own NonScopeAwareService. Row level security applies as the connection is set to the
+ * organisation's db user like any other query.
+ */
+@Repository
+public class SyncChangeDetectionRepository {
+    private static final Map<SyncEntityName, String> tableNames = new EnumMap<>(SyncEntityName.class);
+
+    static {
+        tableNames.put(ChecklistDetail, "checklist_detail");
+        tableNames.put(Rule, "rule");
+        tableNames.put(RuleDependency, "rule_dependency");
+        tableNames.put(Form, "form");
+        tableNames.put(FormMapping, "form_mapping");
+        tableNames.put(EncounterType, "encounter_type");
+        tableNames.put(Program, "program");
+        tableNames.put(Gender, "gender");
+        tableNames.put(IndividualRelation, "individual_relation");
+        tableNames.put(IndividualRelationGenderMapping, "individual_relation_gender_mapping");
+        tableNames.put(IndividualRelationshipType, "individual_relationship_type");
+        tableNames.put(Concept, "concept");
+        tableNames.put(Video, "video");
+        tableNames.put(SubjectType, "subject_type");
+        tableNames.put(ChecklistItemDetail, "checklist_item_detail");
+        tableNames.put(FormElementGroup, "form_element_group");
+        tableNames.put(FormElement, "form_element");
+        tableNames.put(ConceptAnswer, "concept_answer");
+        tableNames.put(IdentifierSource, "identifier_source");
+        tableNames.put(OrganisationConfig, "organisation_config");
+        tableNames.put(Translation, "translation");
+        tableNames.put(Groups, "groups");
+        tableNames.put(GroupPrivileges, "group_privilege");
+        tableNames.put(GroupRole, "group_role");
+        tableNames.put(ReportCard, "report_card");
+        tableNames.put(Dashboard, "dashboard");
+        tableNames.put(DashboardSection, "dashboard_section");
+        tableNames.put(DashboardFilter, "dashboard_filter");
+        tableNames.put(DashboardSectionCardMapping, "dashboard_section_card_mapping");
+        tableNames.put(ApprovalStatus, "approval_status");
+        tableNames.put(GroupDashboard, "group_dashboard");
+        tableNames.put(EntityApprovalStatus, "entity_approval_status");
+        tableNames.put(Documentation, "documentation");
+        tableNames.put(DocumentationItem, "documentation_item");
+        tableNames.put(UserInfo, "users");
+        tableNames.put(Privilege, "privilege");
+        tableNames.put(StandardReportCardType, "standard_report_card_type");
+        tableNames.put(TaskType, "task_type");
+        tableNames.put(TaskStatus, "task_status");
+        tableNames.put(MenuItem, "menu_item");
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SyncChangeDetectionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static boolean supports(SyncEntityName syncEntityName) {
+        return tableNames.containsKey(syncEntityName);
+    }
+
+    public Set<SyncEntityName> getChangedEntities(Map<SyncEntityName, DateTime> loadedSinceMap) {
+        Map<SyncEntityName, DateTime> supported = loadedSinceMap.entrySet().stream()
+                .filter(entry -> supports(entry.getKey()) && entry.getValue() != null)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, () -> new EnumMap<>(SyncEntityName.class)));
+        if (supported.isEmpty()) return Collections.emptySet();
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        supported.forEach((syncEntityName, loadedSince) -> parameters.addValue(syncEntityName.name(), new Timestamp(loadedSince.getMillis())));
+        List<String> changedEntityNames = jdbcTemplate.queryForList(buildQuery(supported.keySet()), parameters, String.class);
+        return changedEntityNames.stream().map(SyncEntityName::valueOf).collect(Collectors.toCollection(() -> EnumSet.noneOf(SyncEntityName.class)));
+    }
+
+    static String buildQuery(Collection<SyncEntityName> syncEntityNames) {
+        return syncEntityNames.stream()
+                .map(syncEntityName -> String.format("select '%s' where exists (select 1 from %s where last_modified_date_time > :%s)",
+                        syncEntityName.name(), tableNames.get(syncEntityName), syncEntityName.name()))
+                .collect(Collectors.joining(" union all "));
+    }
+}
@@ -0,0 +1,34 @@
+package org.avni.server.dao.sync;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Version stamp of the metadata that the syncable items of an organisation are worked out from. It is made of the row count
+ * and the latest last modified time of each table, so it changes when a row is added, voided or edited. Row level security
+ * applies as for any other query, so the stamp covers the rows the organisation can see.
+ */
+@Repository
+public class SyncMetadataVersionRepository {
+    private static final List<String> tableNames = Arrays.asList("subject_type", "operational_subject_type", "form", "form_mapping", "checklist_detail");
+    private static final String query = tableNames.stream()
+            .map(tableName -> String.format("select count(*) || '@' || coalesce(cast(max(last_modified_date_time) as text), '') from %s", tableName))
+            .collect(Collectors.joining(" union all "));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SyncMetadataVersionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String getSyncMetadataVersion() {
+        return String.join("/", jdbcTemplate.queryForList(query, new MapSqlParameterSource(), String.class));
+    }
+}
@@ -2,11 +2,16 @@ package org.avni.server.domain;
 
 
 import jakarta.persistence.*;
+import org.avni.server.framework.security.AuthenticatedPrincipalChangeListener;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "account_admin")
 @BatchSize(size = 100)
+@EntityListeners(AuthenticatedPrincipalChangeListener.class)
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class AccountAdmin {
 
     @Id
@@ -11,7 +11,8 @@ import java.util.UUID;
 
 @MappedSuperclass
 public class CHSBaseEntity implements IdHolder {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //from the table's serial sequence in blocks, so that inserts can be batched (see SerialSequenceNamingStrategy)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = "id", updatable = false, nullable = false)
     @Id
     private Long id;
@@ -0,0 +1,57 @@
+package org.avni.server.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.validation.constraints.NotNull;
+import org.joda.time.DateTime;
+
+import java.util.Date;
+
+@Entity
+public class ExtensionFile extends OrganisationAwareEntity {
+    @NotNull
+    @Column(name = "s3_key")
+    private String s3Key;
+
+    @Column
+    private long size;
+
+    @Column(name = "e_tag")
+    private String eTag;
+
+    @NotNull
+    @Column
+    private Date fileModifiedDateTime;
+
+    public String getS3Key() {
+        return s3Key;
+    }
+
+    public void setS3Key(String s3Key) {
+        this.s3Key = s3Key;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+
+    public DateTime getFileModifiedDateTime() {
+        return new DateTime(fileModifiedDateTime);
+    }
+
+    public void setFileModifiedDateTime(DateTime fileModifiedDateTime) {
+        this.fileModifiedDateTime = toDate(fileModifiedDateTime);
+    }
+}
@@ -2,6 +2,7 @@ package org.avni.server.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.avni.server.domain.accessControl.GroupPrivilege;
+import org.avni.server.service.accessControl.GroupPrivilegesChangeListener;
 import org.hibernate.annotations.BatchSize;
 
 import jakarta.persistence.*;
@@ -11,6 +12,7 @@ import java.util.Set;
 @Entity
 @Table(name = "groups")
 @BatchSize(size = 100)
+@EntityListeners(GroupPrivilegesChangeListener.class)
 public class Group extends OrganisationAwareEntity {
     public static final String Administrators = "Administrators";
     public static final String Everyone = "Everyone";
@@ -5,11 +5,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.avni.server.domain.organisation.OrganisationCategory;
 import org.avni.server.domain.organisation.OrganisationStatus;
+import org.avni.server.framework.security.AuthenticatedPrincipalChangeListener;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "organisation")
 @BatchSize(size = 100)
+@EntityListeners(AuthenticatedPrincipalChangeListener.class)
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Organisation extends ETLEntity {
     @Column
     private String mediaDirectory;
@@ -96,6 +96,11 @@ public class OrganisationConfig extends OrganisationAwareEntity {
             return extensions.stream().map(map -> new Extension((Map<String, Object>) map)).collect(Collectors.toList());
         }
 
+        public boolean hasExtensions() {
+            List<Object> extensions = (List<Object>) settings.get(Extension.EXTENSION_DIR);
+            return extensions != null && !extensions.isEmpty();
+        }
+
         public boolean useKeycloakAsIdp() {
             Object value = settings.get(OrganisationConfigSettingKey.useKeycloakAsIDP.toString());
             if (value == null)
@@ -8,10 +8,14 @@ import org.joda.time.DateTime;
 public class S3ExtensionFile {
     private final S3File s3File;
     private final DateTime lastModifiedDateTime;
+    private final long size;
+    private final String eTag;
 
-    public S3ExtensionFile(S3File s3File, DateTime lastModifiedDateTime) {
+    public S3ExtensionFile(S3File s3File, DateTime lastModifiedDateTime, long size, String eTag) {
         this.s3File = s3File;
         this.lastModifiedDateTime = lastModifiedDateTime;
+        this.size = size;
+        this.eTag = eTag;
     }
 
     @JsonProperty("url")
@@ -27,4 +31,14 @@ public class S3ExtensionFile {
     public S3File getS3File() {
         return s3File;
     }
+
+    @JsonIgnore
+    public long getSize() {
+        return size;
+    }
+
+    @JsonIgnore
+    public String getETag() {
+        return eTag;
+    }
 }
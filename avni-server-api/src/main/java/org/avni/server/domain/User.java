@@ -8,6 +8,7 @@ import org.apache.commons.validator.routines.EmailValidator;
 import org.avni.server.domain.framework.IdHolder;
 import org.avni.server.framework.hibernate.JSONObjectUserType;
 import org.avni.server.framework.hibernate.JodaDateTimeConverter;
+import org.avni.server.framework.security.AuthenticatedPrincipalChangeListener;
 import org.avni.server.util.DateTimeUtil;
 import org.avni.server.util.ObjectMapperSingleton;
 import org.avni.server.util.ValidationUtil;
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 @BatchSize(size = 100)
 @Cacheable
 @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(AuthenticatedPrincipalChangeListener.class)
 public class User implements IdHolder {
     public static final String DEFAULT_SUPER_ADMIN = "5fed2907-df3a-4867-aef5-c87f4c78a31a";
 
@@ -4,6 +4,7 @@ package org.avni.server.domain;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.avni.server.service.accessControl.GroupPrivilegesChangeListener;
 import org.hibernate.annotations.BatchSize;
 
 import java.util.UUID;
@@ -12,6 +13,7 @@ import java.util.UUID;
 @Table(name = "user_group")
 @JsonIgnoreProperties({"user", "group"})
 @BatchSize(size = 100)
+@EntityListeners(GroupPrivilegesChangeListener.class)
 public class UserGroup extends OrganisationAwareEntity {
 
     @NotNull
@@ -4,12 +4,14 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.avni.server.domain.*;
+import org.avni.server.service.accessControl.GroupPrivilegesChangeListener;
 import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "group_privilege")
 @JsonIgnoreProperties({"group", "privilege", "subjectType", "program", "programEncounterType", "encounterType", "checklistDetail"})
 @BatchSize(size = 100)
+@EntityListeners(GroupPrivilegesChangeListener.class)
 public class GroupPrivilege extends OrganisationAwareEntity {
     public static final int IMPL_VERSION = 1;
 
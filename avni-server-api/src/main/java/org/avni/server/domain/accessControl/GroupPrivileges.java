@@ -5,29 +5,45 @@ import org.avni.server.domain.accessControl.GroupPrivilege;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class GroupPrivileges {
     private final boolean hasAllPrivileges;
     private final List<GroupPrivilege> privileges;
+    private final PrivilegeIndex privilegeIndex;
 
     public GroupPrivileges(boolean hasAllPrivileges, List<GroupPrivilege> privileges) {
         this.hasAllPrivileges = hasAllPrivileges;
         this.privileges = privileges;
+        this.privilegeIndex = PrivilegeIndex.compile(privileges);
     }
 
     public GroupPrivileges(boolean hasAllPrivileges, GroupPrivilege ... privileges) {
-        this.hasAllPrivileges = hasAllPrivileges;
-        this.privileges = Arrays.asList(privileges);
+        this(hasAllPrivileges, Arrays.asList(privileges));
     }
 
     public GroupPrivileges() {
         this.hasAllPrivileges = true;
         this.privileges = new ArrayList<>();
+        this.privilegeIndex = PrivilegeIndex.empty();
+    }
+
+    /**
+     * Only the index is kept, so getPrivileges is empty. Used for privileges that are cached across requests.
+     */
+    public GroupPrivileges(PrivilegeIndex privilegeIndex) {
+        this.hasAllPrivileges = false;
+        this.privileges = Collections.emptyList();
+        this.privilegeIndex = privilegeIndex;
     }
 
     public boolean hasPrivilege(PrivilegeType privilegeType, SubjectType subjectType, Program program, EncounterType encounterType, ChecklistDetail checklistDetail) {
-        return this.hasAllPrivileges || privileges.stream().anyMatch(groupPrivilege -> groupPrivilege.matches(privilegeType, subjectType, program, encounterType, checklistDetail));
+        return this.hasPrivilegeByIds(privilegeType, PrivilegeIndex.idOf(subjectType), PrivilegeIndex.idOf(program), PrivilegeIndex.idOf(encounterType), PrivilegeIndex.idOf(checklistDetail));
+    }
+
+    public boolean hasPrivilegeByIds(PrivilegeType privilegeType, Long subjectTypeId, Long programId, Long encounterTypeId, Long checklistDetailId) {
+        return this.hasAllPrivileges || privilegeIndex.contains(privilegeType, subjectTypeId, programId, encounterTypeId, checklistDetailId);
     }
 
     public boolean hasViewPrivilege(ChecklistItem checklistItem) {
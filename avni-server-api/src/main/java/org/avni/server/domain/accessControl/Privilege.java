@@ -86,6 +86,10 @@ public class Privilege extends CHSBaseEntity {
         return type;
     }
 
+    public void setType(PrivilegeType type) {
+        this.type = type;
+    }
+
     @Override
     public String toString() {
         return "Privilege{" +
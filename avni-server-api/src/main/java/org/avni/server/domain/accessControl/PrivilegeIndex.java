@@ -0,0 +1,83 @@
+package org.avni.server.domain.accessControl;
+
+import org.avni.server.domain.CHSBaseEntity;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The allowed group privileges of a user, hashed by privilege type and the ids of the entities they are for, so that a
+ * privilege check is a lookup instead of a scan of all the privileges. Holds only ids, so it can be kept across requests.
+ */
+public class PrivilegeIndex {
+    private static final PrivilegeIndex EMPTY = new PrivilegeIndex(Collections.emptySet());
+    private final Set<Key> keys;
+
+    private PrivilegeIndex(Set<Key> keys) {
+        this.keys = keys;
+    }
+
+    public static PrivilegeIndex empty() {
+        return EMPTY;
+    }
+
+    public static PrivilegeIndex compile(List<GroupPrivilege> groupPrivileges) {
+        Set<Key> keys = new HashSet<>();
+        for (GroupPrivilege groupPrivilege : groupPrivileges) {
+            PrivilegeType privilegeType = groupPrivilege.getPrivilege().getType();
+            Long subjectTypeId = idOf(groupPrivilege.getSubjectType());
+            Long programId = idOf(groupPrivilege.getProgram());
+            Long checklistDetailId = idOf(groupPrivilege.getChecklistDetail());
+            //a privilege matches an encounter type that is either its encounter type or its program encounter type
+            keys.add(new Key(privilegeType, subjectTypeId, programId, idOf(groupPrivilege.getEncounterType()), checklistDetailId));
+            keys.add(new Key(privilegeType, subjectTypeId, programId, idOf(groupPrivilege.getProgramEncounterType()), checklistDetailId));
+        }
+        return new PrivilegeIndex(Collections.unmodifiableSet(keys));
+    }
+
+    public boolean contains(PrivilegeType privilegeType, Long subjectTypeId, Long programId, Long encounterTypeId, Long checklistDetailId) {
+        return keys.contains(new Key(privilegeType, subjectTypeId, programId, encounterTypeId, checklistDetailId));
+    }
+
+    static Long idOf(CHSBaseEntity entity) {
+        return entity == null ? null : entity.getId();
+    }
+
+    private static final class Key {
+        private final PrivilegeType privilegeType;
+        private final Long subjectTypeId;
+        private final Long programId;
+        private final Long encounterTypeId;
+        private final Long checklistDetailId;
+        private final int hashCode;
+
+        private Key(PrivilegeType privilegeType, Long subjectTypeId, Long programId, Long encounterTypeId, Long checklistDetailId) {
+            this.privilegeType = privilegeType;
+            this.subjectTypeId = subjectTypeId;
+            this.programId = programId;
+            this.encounterTypeId = encounterTypeId;
+            this.checklistDetailId = checklistDetailId;
+            this.hashCode = Objects.hash(privilegeType, subjectTypeId, programId, encounterTypeId, checklistDetailId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return privilegeType == key.privilegeType
+                    && Objects.equals(subjectTypeId, key.subjectTypeId)
+                    && Objects.equals(programId, key.programId)
+                    && Objects.equals(encounterTypeId, key.encounterTypeId)
+                    && Objects.equals(checklistDetailId, key.checklistDetailId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package org.avni.server.domain.organisation;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import org.avni.server.domain.CHSEntity;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class OrganisationCategory extends CHSEntity {
     public static final String Production = "Production";
     private String name;
@@ -1,10 +1,13 @@
 package org.avni.server.domain.organisation;
 
 import org.avni.server.domain.CHSEntity;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import jakarta.persistence.*;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class OrganisationStatus extends CHSEntity {
     private String name;
 
@@ -3,9 +3,12 @@ package org.avni.server.exporter;
 import org.avni.server.dao.*;
 import org.avni.server.domain.*;
 import org.avni.server.exporter.v2.ExportV2CSVFieldExtractor;
+import org.avni.server.exporter.v2.ExportV2Prefetcher;
 import org.avni.server.exporter.v2.ExportV2Processor;
 import org.avni.server.exporter.v2.LongitudinalExportV2TaskletImpl;
+import org.avni.server.exporter.v2.PartitionedLongitudinalExportV2Tasklet;
 import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.UserContextTaskDecorator;
 import org.avni.server.service.ExportS3Service;
 import org.avni.server.util.DateTimeUtil;
 import org.avni.server.web.external.request.export.ExportFilters;
@@ -23,13 +26,17 @@ import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import jakarta.persistence.EntityManager;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -54,6 +61,7 @@ public class ExportBatchConfiguration {
     private final JobRepository jobRepository;
     private final PlatformTransactionManager platformTransactionManager;
     private final int longitudinalExportV2Limit;
+    private final int longitudinalExportV2Partitions;
     private final int legacyLongitudinalExportLimit;
 
     @Autowired
@@ -70,6 +78,7 @@ public class ExportBatchConfiguration {
                                     JobRepository jobRepository,
                                     PlatformTransactionManager platformTransactionManager,
                                     @Value("${avni.longitudinal.export.v2.limit}") int longitudinalExportV2Limit,
+                                    @Value("${avni.longitudinal.export.v2.partitions}") int longitudinalExportV2Partitions,
                                     @Value("${avni.legacy.longitudinal.export.limit}") int legacyLongitudinalExportLimit
     ) {
         this.programEnrolmentRepository = programEnrolmentRepository;
@@ -85,6 +94,7 @@ public class ExportBatchConfiguration {
         this.jobRepository = jobRepository;
         this.platformTransactionManager = platformTransactionManager;
         this.longitudinalExportV2Limit = longitudinalExportV2Limit;
+        this.longitudinalExportV2Partitions = longitudinalExportV2Partitions;
         this.legacyLongitudinalExportLimit = legacyLongitudinalExportLimit;
     }
 
@@ -123,16 +133,34 @@ public class ExportBatchConfiguration {
                                    @Value("#{jobParameters['exportJobParamsUUID']}") String exportJobParamsUUID,
                                    LongitudinalExportJobStepListener listener,
                                    ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
-                                   ExportV2Processor exportV2Processor) {
+                                   ExportV2Processor exportV2Processor,
+                                   ExportV2Prefetcher exportV2Prefetcher,
+                                   @Qualifier("exportV2PartitionExecutor") ThreadPoolTaskExecutor exportV2PartitionExecutor) {
         authService.authenticateByUserId(userId, organisationUUID);
         ExportOutput exportOutput = exportV2CSVFieldExtractor.getExportOutput();
         ExportFilters subjectFilters = exportOutput.getFilters();
         List<Long> addressLevelIds = subjectFilters.getAddressLevelIds();
         List<Long> selectedAddressIds = getLocations(addressLevelIds);
         List<Long> addressParam = selectedAddressIds.isEmpty() ? null : selectedAddressIds;
-        Stream stream = getRegistrationStream(exportOutput.getUuid(), addressParam, subjectFilters.getDate().getFrom().toLocalDate(), subjectFilters.getDate().getTo().toLocalDate(), subjectFilters.includeVoided());
+        LocalDate startDate = subjectFilters.getDate().getFrom().toLocalDate();
+        LocalDate endDate = subjectFilters.getDate().getTo().toLocalDate();
+        if (longitudinalExportV2Partitions > 1) {
+            SubjectType subjectType = subjectTypeRepository.findByUuid(exportOutput.getUuid());
+            long lastId = getLastIdWithinLimit(subjectType, addressParam, startDate, endDate, subjectFilters.includeVoided());
+            long idsPerPartition = PartitionedLongitudinalExportV2Tasklet.getIdsPerPartition(lastId, longitudinalExportV2Partitions);
+            TransactionTemplate partitionTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+            partitionTransactionTemplate.setReadOnly(true);
+            LongitudinalExportTasklet partitionedTasklet = new PartitionedLongitudinalExportV2Tasklet(longitudinalExportV2Partitions, CHUNK_SIZE, entityManager,
+                    exportV2CSVFieldExtractor, exportV2Processor, exportV2Prefetcher, exportS3Service, uuid,
+                    partition -> getRegistrationStreamOfPartition(subjectType, addressParam, startDate, endDate, subjectFilters.includeVoided(),
+                            partition * idsPerPartition, Math.min((partition + 1) * idsPerPartition - 1, lastId)),
+                    partitionTransactionTemplate, exportV2PartitionExecutor);
+            listener.setItemReaderCleaner(partitionedTasklet);
+            return partitionedTasklet;
+        }
+        Stream stream = getRegistrationStream(exportOutput.getUuid(), addressParam, startDate, endDate, subjectFilters.includeVoided());
         Stream alteredStream = truncateStream(stream);
-        LongitudinalExportTasklet encounterTasklet = new LongitudinalExportV2TaskletImpl(CHUNK_SIZE, entityManager, exportV2CSVFieldExtractor, exportV2Processor, exportS3Service, uuid, alteredStream);
+        LongitudinalExportTasklet encounterTasklet = new LongitudinalExportV2TaskletImpl(CHUNK_SIZE, entityManager, exportV2CSVFieldExtractor, exportV2Processor, exportV2Prefetcher, exportS3Service, uuid, alteredStream);
         listener.setItemReaderCleaner(encounterTasklet);
         return encounterTasklet;
     }
@@ -141,6 +169,28 @@ public class ExportBatchConfiguration {
         return stream.limit(longitudinalExportV2Limit); //Truncate stream
     }
 
+    /**
+     * The id of the last subject within the export limit, in id order, so that the partitions together export the same
+     * subjects as the truncated single stream.
+     */
+    private long getLastIdWithinLimit(SubjectType subjectType, List<Long> addressParam, LocalDate startDate, LocalDate endDate, boolean includeVoided) {
+        PageRequest lastSubjectWithinLimit = PageRequest.of(longitudinalExportV2Limit - 1, 1);
+        List<Long> ids = includeVoided ? individualRepository.findAllIndividualIds(subjectType.getId(), addressParam, startDate, endDate, lastSubjectWithinLimit) :
+                individualRepository.findNonVoidedIndividualIds(subjectType.getId(), addressParam, startDate, endDate, lastSubjectWithinLimit);
+        return ids.isEmpty() ? individualRepository.getMaxIdOfSubjectType(subjectType.getId()) : ids.get(0);
+    }
+
+    @Bean("exportV2PartitionExecutor")
+    public ThreadPoolTaskExecutor exportV2PartitionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(longitudinalExportV2Partitions, 1));
+        executor.setMaxPoolSize(Math.max(longitudinalExportV2Partitions, 1));
+        executor.setThreadNamePrefix("export-v2-partition-");
+        executor.setTaskDecorator(new UserContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
     @Bean
     public Step step1(Tasklet tasklet,
                       LongitudinalExportJobStepListener listener) {
@@ -233,6 +283,11 @@ public class ExportBatchConfiguration {
                 individualRepository.findNonVoidedIndividuals(subjectType.getId(), addressParam, startDateTime, endDateTime);
     }
 
+    private Stream getRegistrationStreamOfPartition(SubjectType subjectType, List<Long> addressParam, LocalDate startDate, LocalDate endDate, boolean includeVoided, long fromId, long toId) {
+        return includeVoided ? individualRepository.findAllIndividualsInPartition(subjectType.getId(), addressParam, startDate, endDate, fromId, toId) :
+                individualRepository.findNonVoidedIndividualsInPartition(subjectType.getId(), addressParam, startDate, endDate, fromId, toId);
+    }
+
     private List<Long> getLocations(List<Long> locationIds) {
         List<AddressLevel> selectedAddressLevels = locationRepository.findAllById(locationIds);
         List<AddressLevel> allAddressLevels = locationRepository.findAllByIsVoidedFalse();
@@ -2,21 +2,20 @@ package org.avni.server.exporter.v2;
 
 import org.avni.server.application.Form;
 import org.avni.server.application.FormElement;
-import org.avni.server.application.FormElementType;
 import org.avni.server.dao.*;
 import org.avni.server.domain.*;
 import org.avni.server.exporter.ExportJobService;
 import org.avni.server.service.AddressLevelService;
 import org.avni.server.service.FormMappingService;
 import org.avni.server.service.ObservationService;
-import org.avni.server.util.DateTimeUtil;
 import org.avni.server.web.external.request.export.ExportEntityType;
 import org.avni.server.web.external.request.export.ExportFilters;
 import org.avni.server.web.external.request.export.ExportOutput;
-import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.file.FlatFileHeaderCallback;
 import org.springframework.batch.item.file.transform.FieldExtractor;
+import org.springframework.batch.item.file.transform.LineAggregator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -26,15 +25,14 @@ import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Component
 @StepScope
-public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExportItemRow>, FlatFileHeaderCallback {
-    private static final String selectedAnswerFieldValue = "1";
-    private static final String unSelectedAnswerFieldValue = "0";
-    private static final String EMPTY_STRING = "";
+public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExportItemRow>, LineAggregator<LongitudinalExportItemRow>, FlatFileHeaderCallback {
+    private static final String DELIMITER = ",";
     private final ExportJobParametersRepository exportJobParametersRepository;
     private final EncounterRepository encounterRepository;
     private final ProgramEncounterRepository programEncounterRepository;
@@ -52,6 +50,8 @@ public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExp
     private List<String> addressLevelTypes = new ArrayList<>();
     private ExportFieldsManager exportFieldsManager;
     private Map<FormElement, Integer> maxNumberOfQuestionGroupObservations;
+    private volatile ExportColumns compiledColumns;
+    private final ThreadLocal<StringBuilder> lineBuilder = ThreadLocal.withInitial(StringBuilder::new);
 
     @Autowired
     public ExportV2CSVFieldExtractor(EncounterRepository encounterRepository,
@@ -98,123 +98,141 @@ public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExp
         writer.write(this.headerCreator.getHeader());
     }
 
+    /**
+     * Resolves the column layout of the export once, into the values to pick per entity and the observation columns per
+     * form. Called before rows are written from more than one thread, otherwise on the first row.
+     */
+    public synchronized void compileColumns() {
+        if (compiledColumns != null) return;
+        DateTimeZone dateTimeZone = DateTimeZone.forID(timeZone);
+        ExportColumns exportColumns = new ExportColumns();
+        exportColumns.subject = compile(exportOutput, HeaderCreator.registrationDataMap, false, dateTimeZone);
+        exportOutput.getEncounters().forEach(enc -> exportColumns.encounters.add(compile(enc, HeaderCreator.encounterDataMap, true, dateTimeZone)));
+        exportOutput.getGroups().forEach(grp -> exportColumns.groups.add(new NestedOutputColumns<>(compile(grp, HeaderCreator.registrationDataMap, false, dateTimeZone),
+                grp.getEncounters().stream().map(ge -> compile(ge, HeaderCreator.encounterDataMap, true, dateTimeZone)).collect(Collectors.toList()))));
+        exportOutput.getPrograms().forEach(program -> exportColumns.programs.add(new NestedOutputColumns<>(compile(program, HeaderCreator.enrolmentDataMap, true, dateTimeZone),
+                program.getEncounters().stream().map(pe -> compile(pe, HeaderCreator.encounterDataMap, true, dateTimeZone)).collect(Collectors.toList()))));
+        compiledColumns = exportColumns;
+    }
+
+    private <T> EntityTypeColumns<T> compile(ExportEntityType exportEntityType, Map<String, HeaderNameAndFunctionMapper<T>> dataMap, boolean hasSecondaryFields, DateTimeZone dateTimeZone) {
+        List<Function<T, ?>> coreValueFunctions = exportFieldsManager.getCoreFields(exportEntityType).stream()
+                .filter(dataMap::containsKey)
+                .<Function<T, ?>>map(key -> dataMap.get(key).getValueFunction())
+                .collect(Collectors.toList());
+        ExportV2ObservationColumns mainColumns = new ExportV2ObservationColumns(exportFieldsManager.getMainFields(exportEntityType), maxNumberOfQuestionGroupObservations, dateTimeZone);
+        ExportV2ObservationColumns secondaryColumns = hasSecondaryFields ? new ExportV2ObservationColumns(exportFieldsManager.getSecondaryFields(exportEntityType), maxNumberOfQuestionGroupObservations, dateTimeZone) : null;
+        return new EntityTypeColumns<>(exportEntityType.getUuid(), coreValueFunctions, mainColumns, secondaryColumns,
+                exportFieldsManager.getMaxEntityCount(exportEntityType), exportFieldsManager.getTotalNumberOfColumns(exportEntityType));
+    }
+
     public ExportOutput getExportOutput() {
         return exportOutput;
     }
 
     @Override
     public Object[] extract(LongitudinalExportItemRow individual) {
-        return createRow(individual);
+        List<Object> columnsData = new ArrayList<>();
+        writeRow(individual, ExportV2RowSink.of(columnsData));
+        return columnsData.toArray();
     }
 
-    private Object[] createRow(LongitudinalExportItemRow itemRow) {
-        List<Object> columnsData = new ArrayList<>();
-        addRegistrationColumns(columnsData, itemRow.getIndividual(), exportFieldsManager.getMainFields(exportOutput), exportFieldsManager.getCoreFields(exportOutput));
-        exportOutput.getEncounters().forEach(enc -> {
-            List<Encounter> encounters = itemRow.getEncounterTypeToEncountersMap().get(enc.getUuid());
+    @Override
+    public String aggregate(LongitudinalExportItemRow item) {
+        StringBuilder line = lineBuilder.get();
+        line.setLength(0);
+        writeRow(item, ExportV2RowSink.delimited(line, DELIMITER));
+        return line.toString();
+    }
+
+    private void writeRow(LongitudinalExportItemRow itemRow, ExportV2RowSink sink) {
+        if (compiledColumns == null) compileColumns();
+        ExportColumns exportColumns = compiledColumns;
+        addRegistrationColumns(sink, itemRow.getIndividual(), exportColumns.subject);
+        exportColumns.encounters.forEach(enc -> {
+            List<Encounter> encounters = itemRow.getEncounterTypeToEncountersMap().get(enc.uuid);
             if (encounters != null) {
-                addEncounterColumns(exportFieldsManager.getMaxEntityCount(enc), columnsData, encounters,
-                        exportFieldsManager.getMainFields(enc), exportFieldsManager.getSecondaryFields(enc), enc);
+                addEncounterColumns(sink, encounters, enc);
             } else {
-                addBlanks(columnsData, exportFieldsManager.getTotalNumberOfColumns(enc));
+                sink.addBlanks(enc.totalNumberOfColumns);
             }
         });
-        exportOutput.getGroups().forEach(grp -> {
-            String groupSubjectTypeUUID = grp.getUuid();
-            Map<Individual, Map<String, List<Encounter>>> groupSubjectToEncountersMap = itemRow.getGroupSubjectToEncountersMap();
-            Optional<Individual> groupSubjectOptional = groupSubjectToEncountersMap.keySet().stream()
-                    .filter(individual -> individual.getSubjectType().getUuid().equals(groupSubjectTypeUUID)).findFirst();
-            if (groupSubjectOptional.isPresent()) {
-                groupSubjectOptional.ifPresent(individual -> {
-                    addRegistrationColumns(columnsData, individual, exportFieldsManager.getMainFields(grp), exportFieldsManager.getCoreFields(grp));
-                    Map<String, List<Encounter>> encounters = groupSubjectToEncountersMap.get(individual);
-                    grp.getEncounters().forEach(ge -> {
-                        if (encounters != null && encounters.get(ge.getUuid()) != null) {
-                            addEncounterColumns(exportFieldsManager.getMaxEntityCount(ge), columnsData, encounters.get(ge.getUuid()),
-                                    exportFieldsManager.getMainFields(ge), exportFieldsManager.getSecondaryFields(ge), ge);
-                        } else {
-                            addBlanks(columnsData, exportFieldsManager.getTotalNumberOfColumns(ge));
-                        }
-                    });
+        Map<Individual, Map<String, List<Encounter>>> groupSubjectToEncountersMap = itemRow.getGroupSubjectToEncountersMap();
+        exportColumns.groups.forEach(grp -> {
+            Individual groupSubject = findFirst(groupSubjectToEncountersMap.keySet(), individual -> individual.getSubjectType().getUuid().equals(grp.entityType.uuid));
+            if (groupSubject != null) {
+                addRegistrationColumns(sink, groupSubject, grp.entityType);
+                Map<String, List<Encounter>> encounters = groupSubjectToEncountersMap.get(groupSubject);
+                grp.encounters.forEach(ge -> {
+                    if (encounters != null && encounters.get(ge.uuid) != null) {
+                        addEncounterColumns(sink, encounters.get(ge.uuid), ge);
+                    } else {
+                        sink.addBlanks(ge.totalNumberOfColumns);
+                    }
                 });
             } else {
-                addBlanks(columnsData, exportFieldsManager.getTotalNumberOfColumns(grp));
-                addBlanks(columnsData, addressLevelTypes.size());//Blanks for GroupSubject addressLevels
-                addBlanks(columnsData, 1);//Blanks for No of Group members
+                sink.addBlanks(grp.entityType.totalNumberOfColumns);
+                sink.addBlanks(addressLevelTypes.size());//Blanks for GroupSubject addressLevels
+                sink.addBlanks(1);//Blanks for No of Group members
             }
         });
         Map<ProgramEnrolment, Map<String, List<ProgramEncounter>>> programEnrolmentToEncountersMap = itemRow.getProgramEnrolmentToEncountersMap();
-        exportOutput.getPrograms().forEach(program -> {
-            Optional<ProgramEnrolment> programEnrolmentOptional = programEnrolmentToEncountersMap.keySet().stream().filter(pe -> pe.getProgram().getUuid().equals(program.getUuid())).findFirst();
-            if (programEnrolmentOptional.isPresent()) {
-                programEnrolmentOptional.ifPresent(programEnrolment -> {
-                    addEnrolmentColumns(columnsData, programEnrolment, exportFieldsManager.getMainFields(program), exportFieldsManager.getSecondaryFields(program), program);
-                    program.getEncounters().forEach(pe -> {
-                        Map<String, List<ProgramEncounter>> encounterTypeListMap = programEnrolmentToEncountersMap.get(programEnrolment);
-                        if (encounterTypeListMap != null && encounterTypeListMap.get(pe.getUuid()) != null) {
-                            addEncounterColumns(exportFieldsManager.getMaxEntityCount(pe), columnsData, encounterTypeListMap.get(pe.getUuid()), exportFieldsManager.getMainFields(pe),
-                                    exportFieldsManager.getSecondaryFields(pe), pe);
-                        } else {
-                            addBlanks(columnsData, exportFieldsManager.getTotalNumberOfColumns(pe));
-                        }
-                    });
+        exportColumns.programs.forEach(program -> {
+            ProgramEnrolment programEnrolment = findFirst(programEnrolmentToEncountersMap.keySet(), pe -> pe.getProgram().getUuid().equals(program.entityType.uuid));
+            if (programEnrolment != null) {
+                addEnrolmentColumns(sink, programEnrolment, program.entityType);
+                Map<String, List<ProgramEncounter>> encounterTypeListMap = programEnrolmentToEncountersMap.get(programEnrolment);
+                program.encounters.forEach(pe -> {
+                    if (encounterTypeListMap != null && encounterTypeListMap.get(pe.uuid) != null) {
+                        addEncounterColumns(sink, encounterTypeListMap.get(pe.uuid), pe);
+                    } else {
+                        sink.addBlanks(pe.totalNumberOfColumns);
+                    }
                 });
             } else {
-                addBlanks(columnsData, exportFieldsManager.getTotalNumberOfColumns(program));
+                sink.addBlanks(program.entityType.totalNumberOfColumns);
             }
         });
-        return columnsData.toArray();
     }
 
-    private void addRegistrationColumns(List<Object> columnsData, Individual individual, Map<String, FormElement> registrationMap, List<String> coreFields) {
-        addStaticRegistrationColumns(columnsData, individual, HeaderCreator.registrationDataMap, coreFields);
-        addAddressLevels(columnsData, individual.getAddressLevel());
-        if (individual.getSubjectType().isGroup()) {
-            columnsData.add(getTotalMembers(individual));
+    private static <T> T findFirst(Collection<T> items, Predicate<T> predicate) {
+        for (T item : items) {
+            if (predicate.test(item)) return item;
         }
-        columnsData.addAll(addObservations(individual.getObservations(), registrationMap));
+        return null;
     }
 
-    private void addStaticRegistrationColumns(List<Object> columnsData, Individual individual,
-                                              Map<String, HeaderNameAndFunctionMapper<Individual>> registrationDataMap, List<String> fields) {
-        fields.stream()
-                .filter(registrationDataMap::containsKey)
-                .forEach(key -> columnsData.add(registrationDataMap.get(key).getValueFunction().apply(individual)));
+    private void addRegistrationColumns(ExportV2RowSink sink, Individual individual, EntityTypeColumns<Individual> subjectColumns) {
+        addCoreColumns(sink, individual, subjectColumns);
+        addAddressLevels(sink, individual.getAddressLevel());
+        if (individual.getSubjectType().isGroup()) {
+            sink.add(getTotalMembers(individual));
+        }
+        subjectColumns.mainColumns.write(individual.getObservations(), sink);
     }
 
-    private void addEnrolmentColumns(List<Object> columnsData, ProgramEnrolment programEnrolment, Map<String, FormElement> enrolmentMap,
-                                     Map<String, FormElement> exitEnrolmentMap,
-                                     ExportOutput.ExportNestedOutput program) {
-        addStaticEnrolmentColumns(program, columnsData, programEnrolment, HeaderCreator.enrolmentDataMap);
-        columnsData.addAll(addObservations(programEnrolment.getObservations(), enrolmentMap));
-        columnsData.addAll(addObservations(programEnrolment.getObservations(), exitEnrolmentMap));
+    private void addEnrolmentColumns(ExportV2RowSink sink, ProgramEnrolment programEnrolment, EntityTypeColumns<ProgramEnrolment> programColumns) {
+        addCoreColumns(sink, programEnrolment, programColumns);
+        programColumns.mainColumns.write(programEnrolment.getObservations(), sink);
+        programColumns.secondaryColumns.write(programEnrolment.getObservations(), sink);
     }
 
-    private <T extends AbstractEncounter> void addEncounterColumns(Long maxVisitCount, List<Object> columnsData, List<T> encounters,
-                                                                   Map<String, FormElement> map, Map<String, FormElement> cancelMap, ExportEntityType encounterEntityType) {
-        AtomicInteger counter = new AtomicInteger(0);
-        encounters.forEach(encounter -> {
-            appendStaticEncounterColumns(encounterEntityType, columnsData, encounter, HeaderCreator.encounterDataMap);
-            columnsData.addAll(addObservations(encounter.getObservations(), map));
-            columnsData.addAll(addObservations(encounter.getObservations(), cancelMap));
-            counter.getAndIncrement();
-        });
-        int visit = counter.get();
-        while (visit++ < maxVisitCount) {
-            addBlanks(columnsData, exportFieldsManager.getTotalNumberOfColumns(encounterEntityType));
+    private <T extends AbstractEncounter> void addEncounterColumns(ExportV2RowSink sink, List<T> encounters, EntityTypeColumns<AbstractEncounter> encounterColumns) {
+        for (T encounter : encounters) {
+            addCoreColumns(sink, encounter, encounterColumns);
+            encounterColumns.mainColumns.write(encounter.getObservations(), sink);
+            encounterColumns.secondaryColumns.write(encounter.getObservations(), sink);
+        }
+        int visit = encounters.size();
+        while (visit++ < encounterColumns.maxEntityCount) {
+            sink.addBlanks(encounterColumns.totalNumberOfColumns);
         }
     }
 
-    private void addStaticEnrolmentColumns(ExportOutput.ExportNestedOutput program, List<Object> columnsData, ProgramEnrolment programEnrolment,
-                                           Map<String, HeaderNameAndFunctionMapper<ProgramEnrolment>> enrolmentDataMap) {
-        exportFieldsManager.getCoreFields(program).stream().filter(enrolmentDataMap::containsKey)
-                .forEach(key -> columnsData.add(enrolmentDataMap.get(key).getValueFunction().apply(programEnrolment)));
-    }
-
-    private void appendStaticEncounterColumns(ExportEntityType encounterEntityType, List<Object> columnsData, AbstractEncounter encounter,
-                                              Map<String, HeaderNameAndFunctionMapper<AbstractEncounter>> encounterDataMap) {
-        exportFieldsManager.getCoreFields(encounterEntityType).stream().filter(encounterDataMap::containsKey)
-                .forEach(key -> columnsData.add(encounterDataMap.get(key).getValueFunction().apply(encounter)));
+    private <T> void addCoreColumns(ExportV2RowSink sink, T entity, EntityTypeColumns<? super T> entityTypeColumns) {
+        for (Function<? super T, ?> coreValueFunction : entityTypeColumns.coreValueFunctions) {
+            sink.add(coreValueFunction.apply(entity));
+        }
     }
 
     private long getTotalMembers(Individual individual) {
@@ -224,111 +242,10 @@ public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExp
                 .count();
     }
 
-    private List<Object> addObservations(ObservationCollection observations, Map<String, FormElement> obsMap) {
-        List<Object> values = new ArrayList<>(obsMap.size());
-        obsMap.forEach((conceptUUID, formElement) -> {
-            if (formElement.isPartOfRepeatableQuestionGroup() || formElement.isQuestionGroupElement()) return;
-
-            Object val;
-            if (formElement.getGroup() != null) {
-                Concept parentConcept = formElement.getGroup().getConcept();
-                Map<String, Object> nestedObservations = observations == null ? Collections.EMPTY_MAP : (Map<String, Object>) observations.getOrDefault(parentConcept.getUuid(), new HashMap<String, Object>());
-                val = nestedObservations.getOrDefault(conceptUUID, null);
-            } else {
-                val = observations == null ? null : observations.getOrDefault(conceptUUID, null);
-            }
-
-            addObservation(values, formElement, val);
-        });
-
-        List<FormElement> observationsRepeatedMultipleTimes = obsMap.values().stream()
-                .filter(FormElement::isPartOfRepeatableQuestionGroup)
-                .collect(Collectors.toList());
-        Map<FormElement, List<FormElement>> repeatedFormElements = ExportFieldsManager.groupByQuestionGroup(observationsRepeatedMultipleTimes);
-        repeatedFormElements.forEach((group, formElements) -> {
-            Integer maxRepeats = maxNumberOfQuestionGroupObservations.get(group);
-            Concept questionGroupConcept = group.getConcept();
-            List<Map<String, Object>> repeatableObservations;
-            if (observations == null) repeatableObservations = new ArrayList<>();
-            else {
-                repeatableObservations = (List<Map<String, Object>>) observations.getOrDefault(questionGroupConcept.getUuid(), new ArrayList<>());
-            }
-            for (int i = 0; i < maxRepeats; i++) {
-                if (repeatableObservations.size() > i) {
-                    Map<String, Object> observationsItem = repeatableObservations.get(i);
-                    for (FormElement formElement : formElements) {
-                        Object val = observationsItem.getOrDefault(formElement.getConcept().getUuid(), null);
-                        addObservation(values, formElement, val);
-                    }
-                } else {
-                    formElements.forEach(formElement -> values.add(""));
-                }
-            }
-        });
-        return values;
-    }
-
-    private void addObservation(List<Object> values, FormElement formElement, Object val) {
-        String dataType = formElement.getConcept().getDataType();
-        if (dataType.equals(ConceptDataType.Coded.toString())) {
-            values.addAll(processCodedObs(formElement.getType(), val, formElement));
-        } else if (dataType.equals(ConceptDataType.DateTime.toString()) || dataType.equals(ConceptDataType.Date.toString())) {
-            values.add(processDateObs(val));
-        } else if (ConceptDataType.isMedia(dataType)) {
-            values.add(processMediaObs(val));
-        } else {
-            values.add(getFieldValue(String.valueOf(Optional.ofNullable(val).orElse(""))));
-        }
-    }
-
-    private Object processDateObs(Object val) {
-        if (val == null) return "";
-        return DateTimeUtil.getDateForTimeZone(new DateTime(String.valueOf(val)), timeZone);
-    }
-
-    private List<Object> processCodedObs(String formType, Object val, FormElement formElement) {
-        List<Object> values = new ArrayList<>();
-        if (formType.equals(FormElementType.MultiSelect.toString())) {
-            List<Object> codedObs = getObservationValueList(val);
-            values.addAll(getAns(formElement.getConcept(), codedObs));
-        } else {
-            values.add(val == null ? "" : getAnsName(formElement.getConcept(), val));
-        }
-        return values;
-    }
-
-    private List<Object> getObservationValueList(Object val) {
-        return val == null ?
-                Collections.emptyList() :
-                val instanceof List ? (List<Object>) val : Collections.singletonList(val);
-    }
-
-    private String processMediaObs(Object val) {
-        List<String> imageURIs = getObservationValueList(val).stream().map(t -> (String) t).collect(Collectors.toList());
-        return getFieldValue(String.join(",", imageURIs));
-    }
-
-    private String getFieldValue(String value) {
-        return String.format("\"%s\"", value);
-    }
-
-    private String getAnsName(Concept concept, Object val) {
-        return concept.getSortedAnswers()
-                .filter(ca -> ca.getAnswerConcept().getUuid().equals(val))
-                .map(ca -> getFieldValue(ca.getAnswerConcept().getName()))
-                .findFirst().orElse("");
-    }
-
-    private List<String> getAns(Concept concept, List<Object> val) {
-        return concept.getSortedAnswers()
-                .map(ca -> val.contains(ca.getAnswerConcept().getUuid()) ? selectedAnswerFieldValue : unSelectedAnswerFieldValue)
-                .collect(Collectors.toList());
-    }
-
-    private void addAddressLevels(List<Object> row, AddressLevel addressLevel) {
+    private void addAddressLevels(ExportV2RowSink sink, AddressLevel addressLevel) {
         Map<String, String> addressLevelMap = addressLevel != null ?
                 getAddressTypeAddressLevelMap(addressLevel, addressLevel.getParentLocationMapping()) : new HashMap<>();
-        this.addressLevelTypes.forEach(level -> row.add(QuotedStringValue(addressLevelMap.getOrDefault(level, ""))));
+        this.addressLevelTypes.forEach(level -> sink.add(QuotedStringValue(addressLevelMap.getOrDefault(level, ""))));
     }
 
     private Map<String, String> getAddressTypeAddressLevelMap(AddressLevel addressLevel, ParentLocationMapping parentLocationMapping) {
@@ -345,15 +262,45 @@ public class ExportV2CSVFieldExtractor implements FieldExtractor<LongitudinalExp
         return addressTypeAddressLevelMap;
     }
 
-    private void addBlanks(List<Object> row, long noOfColumns) {
-        for (int i = 0; i < noOfColumns; i++) {
-            row.add(EMPTY_STRING);
-        }
-    }
-
     private String QuotedStringValue(String text) {
         if (StringUtils.isEmpty(text))
             return text;
         return "\"".concat(text).concat("\"");
     }
+
+    private static class ExportColumns {
+        private EntityTypeColumns<Individual> subject;
+        private final List<EntityTypeColumns<AbstractEncounter>> encounters = new ArrayList<>();
+        private final List<NestedOutputColumns<Individual>> groups = new ArrayList<>();
+        private final List<NestedOutputColumns<ProgramEnrolment>> programs = new ArrayList<>();
+    }
+
+    private static class NestedOutputColumns<T> {
+        private final EntityTypeColumns<T> entityType;
+        private final List<EntityTypeColumns<AbstractEncounter>> encounters;
+
+        private NestedOutputColumns(EntityTypeColumns<T> entityType, List<EntityTypeColumns<AbstractEncounter>> encounters) {
+            this.entityType = entityType;
+            this.encounters = encounters;
+        }
+    }
+
+    private static class EntityTypeColumns<T> {
+        private final String uuid;
+        private final List<Function<T, ?>> coreValueFunctions;
+        private final ExportV2ObservationColumns mainColumns;
+        private final ExportV2ObservationColumns secondaryColumns;
+        private final long maxEntityCount;
+        private final long totalNumberOfColumns;
+
+        private EntityTypeColumns(String uuid, List<Function<T, ?>> coreValueFunctions, ExportV2ObservationColumns mainColumns,
+                                  ExportV2ObservationColumns secondaryColumns, long maxEntityCount, long totalNumberOfColumns) {
+            this.uuid = uuid;
+            this.coreValueFunctions = coreValueFunctions;
+            this.mainColumns = mainColumns;
+            this.secondaryColumns = secondaryColumns;
+            this.maxEntityCount = maxEntityCount;
+            this.totalNumberOfColumns = totalNumberOfColumns;
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.application.FormElement;
+import org.avni.server.application.FormElementType;
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.ConceptAnswer;
+import org.avni.server.domain.ConceptDataType;
+import org.avni.server.domain.ObservationCollection;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Observation columns of a set of form elements in export order, resolved from the form elements once per export. Writing
+ * a row only looks up observation values, it does not go back to the form elements or concepts.
+ */
+class ExportV2ObservationColumns {
+    private static final String selectedAnswerFieldValue = "1";
+    private static final String unSelectedAnswerFieldValue = "0";
+
+    private final List<Column> columns = new ArrayList<>();
+    private final List<RepeatedQuestionGroup> repeatedQuestionGroups = new ArrayList<>();
+
+    ExportV2ObservationColumns(Map<String, FormElement> formElements, Map<FormElement, Integer> maxNumberOfQuestionGroupObservations, DateTimeZone dateTimeZone) {
+        //non-repeated observations (include question group observation with only max one set)
+        formElements.forEach((conceptUUID, formElement) -> {
+            if (formElement.isPartOfRepeatableQuestionGroup() || formElement.isQuestionGroupElement()) return;
+            String parentConceptUUID = formElement.getGroup() == null ? null : formElement.getGroup().getConcept().getUuid();
+            columns.add(new Column(conceptUUID, parentConceptUUID, formElement, dateTimeZone));
+        });
+
+        //repeated question group observations, in the same order as HeaderCreator
+        List<FormElement> observationsRepeatedMultipleTimes = formElements.values().stream()
+                .filter(FormElement::isPartOfRepeatableQuestionGroup)
+                .collect(Collectors.toList());
+        ExportFieldsManager.groupByQuestionGroup(observationsRepeatedMultipleTimes).forEach((group, groupFormElements) -> {
+            List<Column> groupColumns = groupFormElements.stream()
+                    .map(formElement -> new Column(formElement.getConcept().getUuid(), null, formElement, dateTimeZone))
+                    .collect(Collectors.toList());
+            repeatedQuestionGroups.add(new RepeatedQuestionGroup(group.getConcept().getUuid(), maxNumberOfQuestionGroupObservations.get(group), groupColumns));
+        });
+    }
+
+    void write(ObservationCollection observations, ExportV2RowSink sink) {
+        for (Column column : columns) {
+            Object val;
+            if (column.parentConceptUUID != null) {
+                Map<String, Object> nestedObservations = observations == null ? Collections.emptyMap() : (Map<String, Object>) observations.getOrDefault(column.parentConceptUUID, new HashMap<String, Object>());
+                val = nestedObservations.getOrDefault(column.conceptUUID, null);
+            } else {
+                val = observations == null ? null : observations.getOrDefault(column.conceptUUID, null);
+            }
+            column.write(val, sink);
+        }
+
+        for (RepeatedQuestionGroup repeatedQuestionGroup : repeatedQuestionGroups) {
+            List<Map<String, Object>> repeatableObservations = observations == null ? Collections.emptyList() :
+                    (List<Map<String, Object>>) observations.getOrDefault(repeatedQuestionGroup.conceptUUID, new ArrayList<>());
+            for (int i = 0; i < repeatedQuestionGroup.maxRepeats; i++) {
+                if (repeatableObservations.size() > i) {
+                    Map<String, Object> observationsItem = repeatableObservations.get(i);
+                    for (Column column : repeatedQuestionGroup.columns) {
+                        column.write(observationsItem.getOrDefault(column.conceptUUID, null), sink);
+                    }
+                } else {
+                    repeatedQuestionGroup.columns.forEach(column -> sink.add(ExportV2RowSink.EMPTY_STRING));
+                }
+            }
+        }
+    }
+
+    private enum ColumnType {
+        CodedMultiSelect, CodedSingleSelect, Date, Media, Other
+    }
+
+    private static class Column {
+        private final String conceptUUID;
+        private final String parentConceptUUID;
+        private final ColumnType columnType;
+        private final DateTimeZone dateTimeZone;
+        private final List<String> answerUUIDs = new ArrayList<>();
+        private final Map<String, String> answerNames = new HashMap<>();
+
+        private Column(String conceptUUID, String parentConceptUUID, FormElement formElement, DateTimeZone dateTimeZone) {
+            this.conceptUUID = conceptUUID;
+            this.parentConceptUUID = parentConceptUUID;
+            this.dateTimeZone = dateTimeZone;
+            Concept concept = formElement.getConcept();
+            String dataType = concept.getDataType();
+            if (dataType.equals(ConceptDataType.Coded.toString())) {
+                columnType = formElement.getType().equals(FormElementType.MultiSelect.toString()) ? ColumnType.CodedMultiSelect : ColumnType.CodedSingleSelect;
+                concept.getSortedAnswers().map(ConceptAnswer::getAnswerConcept).forEach(answerConcept -> {
+                    answerUUIDs.add(answerConcept.getUuid());
+                    answerNames.putIfAbsent(answerConcept.getUuid(), quote(answerConcept.getName()));
+                });
+            } else if (dataType.equals(ConceptDataType.DateTime.toString()) || dataType.equals(ConceptDataType.Date.toString())) {
+                columnType = ColumnType.Date;
+            } else if (ConceptDataType.isMedia(dataType)) {
+                columnType = ColumnType.Media;
+            } else {
+                columnType = ColumnType.Other;
+            }
+        }
+
+        private void write(Object val, ExportV2RowSink sink) {
+            switch (columnType) {
+                case CodedMultiSelect:
+                    List<Object> codedObs = getObservationValueList(val);
+                    answerUUIDs.forEach(answerUUID -> sink.add(codedObs.contains(answerUUID) ? selectedAnswerFieldValue : unSelectedAnswerFieldValue));
+                    break;
+                case CodedSingleSelect:
+                    sink.add(val == null ? "" : answerNames.getOrDefault(val, ""));
+                    break;
+                case Date:
+                    sink.add(val == null ? "" : new DateTime(String.valueOf(val)).withZone(dateTimeZone));
+                    break;
+                case Media:
+                    List<String> imageURIs = getObservationValueList(val).stream().map(t -> (String) t).collect(Collectors.toList());
+                    sink.add(quote(String.join(",", imageURIs)));
+                    break;
+                default:
+                    sink.add(quote(String.valueOf(Optional.ofNullable(val).orElse(""))));
+            }
+        }
+
+        private static List<Object> getObservationValueList(Object val) {
+            return val == null ?
+                    Collections.emptyList() :
+                    val instanceof List ? (List<Object>) val : Collections.singletonList(val);
+        }
+
+        private static String quote(String value) {
+            return "\"" + value + "\"";
+        }
+    }
+
+    private static class RepeatedQuestionGroup {
+        private final String conceptUUID;
+        private final Integer maxRepeats;
+        private final List<Column> columns;
+
+        private RepeatedQuestionGroup(String conceptUUID, Integer maxRepeats, List<Column> columns) {
+            this.conceptUUID = conceptUUID;
+            this.maxRepeats = maxRepeats;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.domain.CHSBaseEntity;
+import org.avni.server.domain.Individual;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Initialises the collections ExportV2Processor walks for a chunk of individuals using a few bulk queries, instead of
+ * them being lazily loaded one individual at a time. The individuals must be attached to the current persistence context.
+ */
+@Component
+public class ExportV2Prefetcher {
+    private final IndividualRepository individualRepository;
+    private final ProgramEnrolmentRepository programEnrolmentRepository;
+
+    public ExportV2Prefetcher(IndividualRepository individualRepository, ProgramEnrolmentRepository programEnrolmentRepository) {
+        this.individualRepository = individualRepository;
+        this.programEnrolmentRepository = programEnrolmentRepository;
+    }
+
+    public void prefetch(List<Individual> individuals, ExportOutput exportOutput) {
+        if (individuals.isEmpty()) return;
+        List<Long> individualIds = individuals.stream().map(CHSBaseEntity::getId).collect(Collectors.toList());
+
+        // the processor reads these three collections for every individual, irrespective of the export output
+        individualRepository.fetchEncounters(individualIds);
+        individualRepository.fetchProgramEnrolments(individualIds);
+        individualRepository.fetchMemberGroupSubjects(individualIds);
+
+        if (hasNestedEncounters(exportOutput.getPrograms())) {
+            programEnrolmentRepository.fetchProgramEncounters(individualIds);
+        }
+        if (hasNestedEncounters(exportOutput.getGroups())) {
+            individualRepository.fetchEncountersOfGroupSubjects(individualIds);
+        }
+    }
+
+    private static boolean hasNestedEncounters(List<ExportOutput.ExportNestedOutput> nestedOutputs) {
+        return Optional.ofNullable(nestedOutputs).orElse(List.of()).stream().anyMatch(nestedOutput -> !nestedOutput.getEncounters().isEmpty());
+    }
+}
@@ -0,0 +1,32 @@
+package org.avni.server.exporter.v2;
+
+import java.util.List;
+
+interface ExportV2RowSink {
+    String EMPTY_STRING = "";
+
+    void add(Object value);
+
+    default void addBlanks(long noOfColumns) {
+        for (long i = 0; i < noOfColumns; i++) {
+            add(EMPTY_STRING);
+        }
+    }
+
+    static ExportV2RowSink of(List<Object> values) {
+        return values::add;
+    }
+
+    static ExportV2RowSink delimited(StringBuilder line, String delimiter) {
+        return new ExportV2RowSink() {
+            private boolean first = true;
+
+            @Override
+            public void add(Object value) {
+                if (first) first = false;
+                else line.append(delimiter);
+                line.append(value == null ? EMPTY_STRING : value);
+            }
+        };
+    }
+}
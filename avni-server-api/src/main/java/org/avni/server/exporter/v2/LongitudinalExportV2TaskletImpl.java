@@ -1,6 +1,7 @@
 package org.avni.server.exporter.v2;
 
 import jakarta.persistence.EntityManager;
+import org.avni.server.domain.Individual;
 import org.avni.server.exporter.LongitudinalExportTasklet;
 import org.avni.server.service.ExportS3Service;
 import org.slf4j.Logger;
@@ -10,7 +11,6 @@ import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.file.FlatFileItemWriter;
-import org.springframework.batch.item.file.transform.DelimitedLineAggregator;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.core.io.FileSystemResource;
 
@@ -27,21 +27,22 @@ public class LongitudinalExportV2TaskletImpl implements LongitudinalExportTaskle
     private final EntityManager entityManager;
     private final ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
     private final ExportV2Processor exportV2Processor;
+    private final ExportV2Prefetcher exportV2Prefetcher;
     private final ExportS3Service exportS3Service;
     private final String jobUuid;
     private final Iterator iterator;
     private final Stream stream;
 
-    private int read;
     private FlatFileItemWriter<LongitudinalExportItemRow> writer;
 
 
     public LongitudinalExportV2TaskletImpl(int cacheClearSize, EntityManager entityManager, ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
-                                           ExportV2Processor exportV2Processor, ExportS3Service exportS3Service, String jobUuid, Stream stream) {
+                                           ExportV2Processor exportV2Processor, ExportV2Prefetcher exportV2Prefetcher, ExportS3Service exportS3Service, String jobUuid, Stream stream) {
         this.cacheClearSize = cacheClearSize;
         this.entityManager = entityManager;
         this.exportV2CSVFieldExtractor = exportV2CSVFieldExtractor;
         this.exportV2Processor = exportV2Processor;
+        this.exportV2Prefetcher = exportV2Prefetcher;
         this.exportS3Service = exportS3Service;
         this.jobUuid = jobUuid;
         this.stream = stream;
@@ -51,46 +52,51 @@ public class LongitudinalExportV2TaskletImpl implements LongitudinalExportTaskle
 
     @Override
     public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) throws Exception {
-        createFileWriter(jobUuid, chunkContext.getStepContext().getStepExecution().getExecutionContext());
-        List<LongitudinalExportItemRow> itemRows = new ArrayList<>();
+        export(exportS3Service.getLocalExportFile(jobUuid), true, chunkContext.getStepContext().getStepExecution().getExecutionContext());
+        return RepeatStatus.FINISHED;
+    }
+
+    void export(File outputFile, boolean withHeader, ExecutionContext executionContext) throws Exception {
+        createFileWriter(outputFile, withHeader, executionContext);
+        List<Individual> individuals = new ArrayList<>();
         while (true) {
             if (!iterator.hasNext()) {
                 logger.info("All records processed, writing last set to file");
-                writeToFile(itemRows);
+                processAndWriteToFile(individuals);
                 break;
             }
-            read++;
-            Object individual = iterator.next();
-            LongitudinalExportItemRow itemRow = exportV2Processor.process(individual);
-            itemRows.add(itemRow);
-
-            if (cacheClearSize == read) {
-                logger.info(String.format("Read %d records which is equal to cache clear size of %d. Clearing entity manager", read, cacheClearSize));
-                writeToFile(itemRows);
-                itemRows.clear();
+            individuals.add((Individual) iterator.next());
+
+            if (cacheClearSize == individuals.size()) {
+                logger.info(String.format("Read %d records which is equal to cache clear size of %d. Clearing entity manager", individuals.size(), cacheClearSize));
+                processAndWriteToFile(individuals);
+                individuals.clear();
                 entityManager.flush();
                 entityManager.clear();
-                read = 0;
             }
         }
 
         logger.info("Completed reading all records");
-        return RepeatStatus.FINISHED;
     }
 
-    private void createFileWriter(String uuid, ExecutionContext executionContext) {
+    private void createFileWriter(File outputFile, boolean withHeader, ExecutionContext executionContext) {
         writer = new FlatFileItemWriter<>();
-        File outputFile = exportS3Service.getLocalExportFile(uuid);
         writer.setResource(new FileSystemResource(outputFile));
-        DelimitedLineAggregator<LongitudinalExportItemRow> delimitedLineAggregator = new DelimitedLineAggregator<>();
-        delimitedLineAggregator.setDelimiter(",");
-        delimitedLineAggregator.setFieldExtractor(exportV2CSVFieldExtractor);
-        writer.setLineAggregator(delimitedLineAggregator);
-        writer.setHeaderCallback(exportV2CSVFieldExtractor);
+        writer.setLineAggregator(exportV2CSVFieldExtractor);
+        if (withHeader) writer.setHeaderCallback(exportV2CSVFieldExtractor);
         writer.open(executionContext);
         logger.info(String.format("Writing to file:%s", outputFile.getAbsolutePath()));
     }
 
+    private void processAndWriteToFile(List<Individual> individuals) throws Exception {
+        exportV2Prefetcher.prefetch(individuals, exportV2CSVFieldExtractor.getExportOutput());
+        List<LongitudinalExportItemRow> itemRows = new ArrayList<>(individuals.size());
+        for (Individual individual : individuals) {
+            itemRows.add(exportV2Processor.process(individual));
+        }
+        writeToFile(itemRows);
+    }
+
     private void writeToFile(List<LongitudinalExportItemRow> rows) throws Exception {
         if (rows.isEmpty()) return;
         writer.write(Chunk.of(rows.toArray(new LongitudinalExportItemRow[0])));
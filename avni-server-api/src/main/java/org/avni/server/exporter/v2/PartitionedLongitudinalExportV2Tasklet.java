@@ -0,0 +1,140 @@
+package org.avni.server.exporter.v2;
+
+import jakarta.persistence.EntityManager;
+import org.avni.server.exporter.LongitudinalExportTasklet;
+import org.avni.server.service.ExportS3Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Exports the subjects in partitions, each read in its own transaction on the executor and written to a part file. The
+ * part files are then appended, in partition order, below the header in the job's export file. A partition is a range of
+ * subject ids read in id order, so the merged file has its rows in the order of the single stream export.
+ * <p>
+ * The field extractor and processor are step scoped, so each worker registers the step execution for the time it exports
+ * its partition.
+ */
+public class PartitionedLongitudinalExportV2Tasklet implements LongitudinalExportTasklet {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedLongitudinalExportV2Tasklet.class);
+    private final int partitionCount;
+    private final int cacheClearSize;
+    private final EntityManager entityManager;
+    private final ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
+    private final ExportV2Processor exportV2Processor;
+    private final ExportV2Prefetcher exportV2Prefetcher;
+    private final ExportS3Service exportS3Service;
+    private final String jobUuid;
+    private final IntFunction<Stream> partitionStreamSupplier;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    public PartitionedLongitudinalExportV2Tasklet(int partitionCount, int cacheClearSize, EntityManager entityManager, ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
+                                                  ExportV2Processor exportV2Processor, ExportV2Prefetcher exportV2Prefetcher, ExportS3Service exportS3Service,
+                                                  String jobUuid, IntFunction<Stream> partitionStreamSupplier, TransactionTemplate transactionTemplate, Executor executor) {
+        this.partitionCount = partitionCount;
+        this.cacheClearSize = cacheClearSize;
+        this.entityManager = entityManager;
+        this.exportV2CSVFieldExtractor = exportV2CSVFieldExtractor;
+        this.exportV2Processor = exportV2Processor;
+        this.exportV2Prefetcher = exportV2Prefetcher;
+        this.exportS3Service = exportS3Service;
+        this.jobUuid = jobUuid;
+        this.partitionStreamSupplier = partitionStreamSupplier;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) throws Exception {
+        exportV2CSVFieldExtractor.compileColumns();
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        List<CompletableFuture<Void>> partitionExports = new ArrayList<>(partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            int thisPartition = partition;
+            partitionExports.add(CompletableFuture.runAsync(() -> exportPartition(thisPartition, stepExecution), executor));
+        }
+        try {
+            CompletableFuture.allOf(partitionExports.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        mergePartFiles();
+        return RepeatStatus.FINISHED;
+    }
+
+    private void exportPartition(int partition, StepExecution stepExecution) {
+        logger.info(String.format("Exporting partition %d of %d", partition + 1, partitionCount));
+        StepSynchronizationManager.register(stepExecution);
+        try {
+            exportPartitionInTransaction(partition);
+        } finally {
+            StepSynchronizationManager.close();
+        }
+        logger.info(String.format("Exported partition %d of %d", partition + 1, partitionCount));
+    }
+
+    private void exportPartitionInTransaction(int partition) {
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            LongitudinalExportV2TaskletImpl partitionTasklet = new LongitudinalExportV2TaskletImpl(cacheClearSize, entityManager, exportV2CSVFieldExtractor,
+                    exportV2Processor, exportV2Prefetcher, exportS3Service, jobUuid, partitionStreamSupplier.apply(partition));
+            try {
+                partitionTasklet.export(exportS3Service.getLocalExportPartFile(jobUuid, partition), false, new ExecutionContext());
+            } catch (Exception e) {
+                throw new RuntimeException(String.format("Error exporting partition %d", partition), e);
+            } finally {
+                partitionTasklet.clean();
+            }
+        });
+    }
+
+    private void mergePartFiles() throws IOException {
+        File outputFile = exportS3Service.getLocalExportFile(jobUuid);
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+            Writer headerWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            exportV2CSVFieldExtractor.writeHeader(headerWriter);
+            headerWriter.write(System.lineSeparator());
+            headerWriter.flush();
+            for (int partition = 0; partition < partitionCount; partition++) {
+                File partFile = exportS3Service.getLocalExportPartFile(jobUuid, partition);
+                if (partFile.exists()) Files.copy(partFile.toPath(), outputStream);
+            }
+        }
+        logger.info(String.format("Merged %d partitions into file:%s", partitionCount, outputFile.getAbsolutePath()));
+    }
+
+    /**
+     * Partition p has the subject ids from p * idsPerPartition to (p + 1) * idsPerPartition - 1, which covers the ids up
+     * to maxId.
+     */
+    public static long getIdsPerPartition(long maxId, int partitionCount) {
+        return maxId / partitionCount + 1;
+    }
+
+    @Override
+    public void clean() {
+        for (int partition = 0; partition < partitionCount; partition++) {
+            File partFile = exportS3Service.getLocalExportPartFile(jobUuid, partition);
+            if (partFile.exists() && !partFile.delete()) {
+                logger.error(String.format("Could not delete export part file:%s", partFile.getAbsolutePath()));
+            }
+        }
+    }
+}
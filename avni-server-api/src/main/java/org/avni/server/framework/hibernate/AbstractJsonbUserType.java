@@ -1,12 +1,12 @@
 package org.avni.server.framework.hibernate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.datatype.joda.JodaModule;
 import org.hibernate.HibernateException;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.usertype.UserType;
 
-import java.io.StringWriter;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -14,6 +14,7 @@ import java.sql.Types;
 
 public abstract class AbstractJsonbUserType<T> extends AbstractUserType<T> implements UserType<T> {
     public final static ObjectMapper mapper = new ObjectMapper().registerModule(new JodaModule());
+    private volatile ObjectReader reader;
 
     @Override
     public int getSqlType() {
@@ -27,12 +28,18 @@ public abstract class AbstractJsonbUserType<T> extends AbstractUserType<T> imple
             return null;
         }
         try {
-            return mapper.readValue(cellContent.getBytes("UTF-8"), returnedClass());
+            return reader().readValue(cellContent);
         } catch (final Exception ex) {
             throw new RuntimeException("Failed to convert String to Invoice: " + ex.getMessage(), ex);
         }
     }
 
+    //reader is immutable and thread safe, so the deserializer for the returned class is resolved only once
+    private ObjectReader reader() {
+        if (reader == null) reader = mapper.readerFor(returnedClass());
+        return reader;
+    }
+
     @Override
     public void nullSafeSet(final PreparedStatement ps, final Object value, final int idx,
                             final SharedSessionContractImplementor session) throws HibernateException, SQLException {
@@ -41,10 +48,7 @@ public abstract class AbstractJsonbUserType<T> extends AbstractUserType<T> imple
             return;
         }
         try {
-            final StringWriter w = new StringWriter();
-            mapper.writeValue(w, value);
-            w.flush();
-            ps.setObject(idx, w.toString(), Types.OTHER);
+            ps.setObject(idx, mapper.writeValueAsString(value), Types.OTHER);
         } catch (final Exception ex) {
             throw new RuntimeException("Failed to convert Invoice to String: " + ex.getMessage(), ex);
         }
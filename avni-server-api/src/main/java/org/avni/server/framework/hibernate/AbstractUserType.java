@@ -3,25 +3,12 @@ package org.avni.server.framework.hibernate;
 import org.hibernate.HibernateException;
 import org.hibernate.usertype.UserType;
 
-import java.io.*;
+import java.io.Serializable;
 
 abstract class AbstractUserType<T> implements UserType<T> {
     @Override
     public T deepCopy(final Object value) throws HibernateException {
-        try {
-            // use serialization to create a deep copy
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(bos);
-            oos.writeObject(value);
-            oos.flush();
-            oos.close();
-            bos.close();
-
-            ByteArrayInputStream bais = new ByteArrayInputStream(bos.toByteArray());
-            return (T) new ObjectInputStream(bais).readObject();
-        } catch (ClassNotFoundException | IOException ex) {
-            throw new HibernateException(ex);
-        }
+        return (T) JsonbValueCopier.copy(value);
     }
 
     @Override
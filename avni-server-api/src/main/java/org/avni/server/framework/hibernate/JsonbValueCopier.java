@@ -0,0 +1,102 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.application.KeyValue;
+import org.hibernate.HibernateException;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Deep copies the values held in json columns (observations, key values, settings etc.) by walking their structure.
+ * These values are trees of maps, lists and immutable leaves as produced by jackson, so leaves are shared and only the
+ * containers are copied, keeping their concrete class. Anything else is copied using java serialization like before.
+ */
+class JsonbValueCopier {
+    private static final Set<Class<?>> immutableClasses = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+            Double.class, BigDecimal.class, BigInteger.class, UUID.class,
+            org.joda.time.DateTime.class, org.joda.time.LocalDate.class, org.joda.time.LocalDateTime.class, org.joda.time.LocalTime.class,
+            java.time.Instant.class, java.time.LocalDate.class, java.time.LocalDateTime.class, java.time.OffsetDateTime.class,
+            java.time.ZonedDateTime.class));
+
+    private static final ClassValue<Constructor<?>> noArgConstructors = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (NoSuchMethodException | RuntimeException e) {
+                return null;
+            }
+        }
+    };
+
+    static Object copy(Object value) {
+        if (value == null || isImmutable(value)) return value;
+        if (value instanceof Map) return copyMap((Map<?, ?>) value);
+        if (value instanceof Collection) return copyCollection((Collection<?>) value);
+        if (value instanceof KeyValue) {
+            KeyValue keyValue = (KeyValue) value;
+            return new KeyValue(keyValue.getKey(), copy(keyValue.getValue()));
+        }
+        if (value instanceof String[]) return ((String[]) value).clone();
+        if (value instanceof Object[]) {
+            Object[] array = ((Object[]) value).clone();
+            for (int i = 0; i < array.length; i++) array[i] = copy(array[i]);
+            return array;
+        }
+        return serializedCopy(value);
+    }
+
+    static Object serializedCopy(Object value) {
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bos);
+            oos.writeObject(value);
+            oos.flush();
+            oos.close();
+            bos.close();
+
+            ByteArrayInputStream bais = new ByteArrayInputStream(bos.toByteArray());
+            return new ObjectInputStream(bais).readObject();
+        } catch (ClassNotFoundException | IOException ex) {
+            throw new HibernateException(ex);
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof Enum || immutableClasses.contains(value.getClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyMap(Map<?, ?> map) {
+        Map<Object, Object> copy = (Map<Object, Object>) newInstance(map.getClass());
+        if (copy == null) return serializedCopy(map);
+        for (Map.Entry<?, ?> entry : map.entrySet()) copy.put(entry.getKey(), copy(entry.getValue()));
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyCollection(Collection<?> collection) {
+        Collection<Object> copy = (Collection<Object>) newInstance(collection.getClass());
+        if (copy == null) return serializedCopy(collection);
+        for (Object element : collection) copy.add(copy(element));
+        return copy;
+    }
+
+    //TreeMap/TreeSet with a comparator would lose it when created this way, so those are left to serialization
+    private static Object newInstance(Class<?> type) {
+        if (SortedMap.class.isAssignableFrom(type) || SortedSet.class.isAssignableFrom(type)) return null;
+        Constructor<?> constructor = noArgConstructors.get(type);
+        if (constructor == null) return null;
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
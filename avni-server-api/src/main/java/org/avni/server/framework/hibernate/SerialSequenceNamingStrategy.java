@@ -0,0 +1,43 @@
+package org.avni.server.framework.hibernate;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.id.enhanced.StandardNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names the sequence of an entity the way postgres names the sequence of a serial id column, i.e. <table>_id_seq, so that
+ * sequence generated ids use the existing sequences (see V1_349__PooledIdSequences.sql).
+ */
+public class SerialSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+    private static final int MAX_TABLE_NAME_LENGTH_IN_SEQUENCE_NAME = 56;
+    private final StandardNamingStrategy standardNamingStrategy = new StandardNamingStrategy();
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName, Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String tableName = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        if (tableName == null) {
+            return standardNamingStrategy.determineSequenceName(catalogName, schemaName, configValues, serviceRegistry);
+        }
+        return new QualifiedSequenceName(catalogName, schemaName, Identifier.toIdentifier(getSequenceName(tableName)));
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName, Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        return standardNamingStrategy.determineTableName(catalogName, schemaName, configValues, serviceRegistry);
+    }
+
+    static String getSequenceName(String tableName) {
+        String unquotedTableName = tableName.replace("\"", "");
+        if (unquotedTableName.length() > MAX_TABLE_NAME_LENGTH_IN_SEQUENCE_NAME) {
+            unquotedTableName = unquotedTableName.substring(0, MAX_TABLE_NAME_LENGTH_IN_SEQUENCE_NAME);
+        }
+        return unquotedTableName + "_id_seq";
+    }
+}
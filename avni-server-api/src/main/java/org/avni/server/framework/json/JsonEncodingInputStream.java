@@ -0,0 +1,96 @@
+package org.avni.server.framework.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.owasp.encoder.Encode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a JSON document from the wrapped stream and gives it back with its string values html encoded, like
+ * {@link JsonEncoder}, but a few tokens at a time instead of parsing the whole document into a tree first. Field names
+ * are copied as they are.
+ */
+public class JsonEncodingInputStream extends InputStream {
+    private static final int TOKENS_PER_READ = 64;
+    private final JsonParser parser;
+    private final JsonGenerator generator;
+    private final Buffer buffer = new Buffer();
+    private int position;
+    private boolean finished;
+
+    public JsonEncodingInputStream(InputStream inputStream) throws IOException {
+        JsonFactory jsonFactory = ObjectMapperSingleton.getObjectMapper().getFactory();
+        this.parser = jsonFactory.createParser(inputStream);
+        this.generator = jsonFactory.createGenerator(buffer, JsonEncoding.UTF8);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) return -1;
+        return buffer.bytes()[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        if (!fill()) return -1;
+        int count = Math.min(length, buffer.size() - position);
+        System.arraycopy(buffer.bytes(), position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.size() - position;
+    }
+
+    public boolean isFinished() {
+        return finished && available() == 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        parser.close();
+        generator.close();
+    }
+
+    private boolean fill() throws IOException {
+        while (available() == 0) {
+            if (finished) return false;
+            buffer.reset();
+            position = 0;
+            copyTokens();
+        }
+        return true;
+    }
+
+    private void copyTokens() throws IOException {
+        for (int i = 0; i < TOKENS_PER_READ; i++) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                finished = true;
+                break;
+            }
+            if (token == JsonToken.VALUE_STRING)
+                generator.writeString(Encode.forHtml(parser.getText()));
+            else
+                generator.copyCurrentEvent(parser);
+        }
+        generator.flush();
+    }
+
+    private static class Buffer extends ByteArrayOutputStream {
+        private byte[] bytes() {
+            return buf;
+        }
+    }
+}
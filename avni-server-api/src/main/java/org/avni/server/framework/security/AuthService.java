@@ -2,17 +2,13 @@ package org.avni.server.framework.security;
 
 import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
-import org.avni.server.dao.AccountAdminRepository;
 import org.avni.server.dao.OrganisationRepository;
 import org.avni.server.dao.UserRepository;
-import org.avni.server.domain.AccountAdmin;
-import org.avni.server.domain.Organisation;
 import org.avni.server.domain.User;
 import org.avni.server.domain.UserContext;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
 import org.avni.server.service.IAMAuthService;
 import org.avni.server.service.IdpServiceFactory;
-import org.avni.server.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -28,18 +24,16 @@ public class AuthService {
     public final static SimpleGrantedAuthority USER_AUTHORITY = new SimpleGrantedAuthority(User.USER);
     public final static List<SimpleGrantedAuthority> ALL_AUTHORITIES = Collections.singletonList(USER_AUTHORITY);
     private final UserRepository userRepository;
-    private final OrganisationRepository organisationRepository;
-    private final AccountAdminRepository accountAdminRepository;
-    private final UserService userService;
     private final IdpServiceFactory idpServiceFactory;
+    private final AuthenticatedPrincipalCache authenticatedPrincipalCache;
+    private final OrganisationRepository organisationRepository;
 
     @Autowired
-    public AuthService(UserRepository userRepository, OrganisationRepository organisationRepository, AccountAdminRepository accountAdminRepository, IdpServiceFactory idpServiceFactory, UserService userService) {
+    public AuthService(UserRepository userRepository, IdpServiceFactory idpServiceFactory, AuthenticatedPrincipalCache authenticatedPrincipalCache, OrganisationRepository organisationRepository) {
         this.idpServiceFactory = idpServiceFactory;
         this.userRepository = userRepository;
+        this.authenticatedPrincipalCache = authenticatedPrincipalCache;
         this.organisationRepository = organisationRepository;
-        this.accountAdminRepository = accountAdminRepository;
-        this.userService = userService;
     }
 
     public UserContext authenticateByUserName(String username, String organisationUUID) {
@@ -84,15 +78,11 @@ public class AuthService {
         if (user == null) {
             return null;
         }
-        user.setAdmin(userService.isAdmin(user));
-        Organisation organisation = null;
-        if (organisationUUID != null) {
-            organisation = organisationRepository.findByUuid(organisationUUID);
-        } else if (user.getOrganisationId() != null) {
-            organisation = organisationRepository.findOne(user.getOrganisationId());
-        }
+        AuthenticatedPrincipal principal = authenticatedPrincipalCache.getPrincipal(user, organisationUUID, userRepository.getAuthenticatedPrincipalVersion(user.getId()));
+        user.setAdmin(principal.isAdmin());
         userContext.setUser(user);
-        userContext.setOrganisation(organisation);
+        //organisations are in the second level cache, so this does not go to the database on each request
+        userContext.setOrganisation(principal.getOrganisationId() == null ? null : organisationRepository.findOne(principal.getOrganisationId()));
         userContext.setOrganisationUUID(organisationUUID);
 
         List<SimpleGrantedAuthority> authorities = ALL_AUTHORITIES.stream()
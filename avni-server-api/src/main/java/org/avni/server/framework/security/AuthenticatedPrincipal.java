@@ -0,0 +1,30 @@
+package org.avni.server.framework.security;
+
+/**
+ * What AuthService works out about a user for an organisation, which is kept across requests by AuthenticatedPrincipalCache.
+ * Only ids and flags are kept, as the cached values are shared by the threads of all requests. The user and organisation
+ * entities are loaded by each request.
+ */
+public final class AuthenticatedPrincipal {
+    private final Long userId;
+    private final boolean admin;
+    private final Long organisationId;
+
+    public AuthenticatedPrincipal(Long userId, boolean admin, Long organisationId) {
+        this.userId = userId;
+        this.admin = admin;
+        this.organisationId = organisationId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public Long getOrganisationId() {
+        return organisationId;
+    }
+}
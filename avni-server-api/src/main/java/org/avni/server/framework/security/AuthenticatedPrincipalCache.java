@@ -0,0 +1,49 @@
+package org.avni.server.framework.security;
+
+import org.avni.server.dao.OrganisationRepository;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.User;
+import org.avni.server.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuthenticatedPrincipalCache {
+    public static final String AUTHENTICATED_PRINCIPALS = "authenticatedPrincipals";
+
+    private final OrganisationRepository organisationRepository;
+    private final UserService userService;
+
+    @Autowired
+    public AuthenticatedPrincipalCache(OrganisationRepository organisationRepository, UserService userService) {
+        this.organisationRepository = organisationRepository;
+        this.userService = userService;
+    }
+
+    /**
+     * The principals are cached per version of the user and the user's account admin rows, so that changes not made
+     * through entities (native queries, other servers) are picked up on the next request of the user.
+     *
+     * @param version as returned by UserRepository.getAuthenticatedPrincipalVersion for the user
+     */
+    @Cacheable(value = AUTHENTICATED_PRINCIPALS, key = "#user.uuid + '_' + #organisationUUID + '_' + #version")
+    public AuthenticatedPrincipal getPrincipal(User user, String organisationUUID, String version) {
+        Organisation organisation = null;
+        if (organisationUUID != null) {
+            organisation = organisationRepository.findByUuid(organisationUUID);
+        } else if (user.getOrganisationId() != null) {
+            organisation = organisationRepository.findOne(user.getOrganisationId());
+        }
+        return new AuthenticatedPrincipal(user.getId(), userService.isAdmin(user), organisation == null ? null : organisation.getId());
+    }
+
+    /**
+     * Users, account admins and organisations change rarely, so any change to them clears all the principals instead of
+     * working out which ones it affects.
+     */
+    @CacheEvict(value = AUTHENTICATED_PRINCIPALS, allEntries = true)
+    public void evictAll() {
+    }
+}
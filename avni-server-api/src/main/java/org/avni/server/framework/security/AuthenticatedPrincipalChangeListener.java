@@ -0,0 +1,39 @@
+package org.avni.server.framework.security;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entity listener on the entities that AuthenticatedPrincipal is made from. The principals are cleared when the change is
+ * flushed and again when the transaction completes, so that a request authenticated in between does not keep the old values.
+ * The cache is looked up on first use, as listeners are created with the entity manager factory, which the cache depends on.
+ */
+public class AuthenticatedPrincipalChangeListener {
+    private final ObjectProvider<AuthenticatedPrincipalCache> authenticatedPrincipalCache;
+
+    @Autowired
+    public AuthenticatedPrincipalChangeListener(ObjectProvider<AuthenticatedPrincipalCache> authenticatedPrincipalCache) {
+        this.authenticatedPrincipalCache = authenticatedPrincipalCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        AuthenticatedPrincipalCache authenticatedPrincipalCache = this.authenticatedPrincipalCache.getObject();
+        authenticatedPrincipalCache.evictAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    authenticatedPrincipalCache.evictAll();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.avni.server.framework.security;
+
+import org.avni.server.domain.UserContext;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's user context over to the worker thread. The jdbc interceptor uses this context to set
+ * the organisation db role on connections borrowed by the worker, so without it queries would run without row level security.
+ */
+public class UserContextTaskDecorator implements TaskDecorator {
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        UserContext userContext = UserContextHolder.getUserContext();
+        return () -> {
+            UserContext workerContext = UserContextHolder.getUserContext();
+            UserContextHolder.create(userContext);
+            try {
+                runnable.run();
+            } finally {
+                if (workerContext == null) UserContextHolder.clear();
+                else UserContextHolder.create(workerContext);
+            }
+        };
+    }
+}
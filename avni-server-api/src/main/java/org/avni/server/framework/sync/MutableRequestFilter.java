@@ -1,10 +1,9 @@
 package org.avni.server.framework.sync;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import org.avni.server.framework.json.JsonEncoder;
+import org.avni.server.framework.json.JsonEncodingInputStream;
 import org.owasp.encoder.Encode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +11,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import java.io.*;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -40,63 +39,59 @@ public class MutableRequestFilter implements Filter {
     }
 
     public static class XSSSafeRequest extends HttpServletRequestWrapper {
-        private String body;
         private final boolean doPayloadEncoding;
+        private ServletInputStream encodedInputStream;
 
-        public XSSSafeRequest(HttpServletRequest request, boolean doPayloadEncoding) throws IOException {
+        public XSSSafeRequest(HttpServletRequest request, boolean doPayloadEncoding) {
             super(request);
             this.doPayloadEncoding = doPayloadEncoding;
-            if (!doPayloadEncoding) return;
-
-            StringBuilder stringBuilder = new StringBuilder();
-            BufferedReader bufferedReader = null;
-            try {
-                InputStream inputStream = request.getInputStream();
-                if (inputStream != null) {
-                    bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
-                    char[] charBuffer = new char[128];
-                    int bytesRead = -1;
-                    while ((bytesRead = bufferedReader.read(charBuffer)) > 0) {
-                        stringBuilder.append(charBuffer, 0, bytesRead);
-                    }
-                } else {
-                    stringBuilder.append("");
-                }
-            } finally {
-                if (bufferedReader != null) {
-                    bufferedReader.close();
-                }
-            }
-            JsonNode jsonNode = JsonEncoder.encode(stringBuilder.toString());
-            // Finally store updated request body content in 'body' variable
-            this.body = jsonNode.toString();
         }
 
+        /**
+         * The body is encoded as it is read, so that it is never held in memory as a whole.
+         */
         @Override
         public ServletInputStream getInputStream() throws IOException {
             if (!doPayloadEncoding) return super.getInputStream();
-            
-            final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(body.getBytes());
-            ServletInputStream servletInputStream = new ServletInputStream() {
-                public int read() {
-                    return byteArrayInputStream.read();
+            if (encodedInputStream != null) return encodedInputStream;
+
+            final JsonEncodingInputStream jsonEncodingInputStream = new JsonEncodingInputStream(super.getInputStream());
+            encodedInputStream = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return jsonEncodingInputStream.read();
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) throws IOException {
+                    return jsonEncodingInputStream.read(bytes, offset, length);
+                }
+
+                @Override
+                public int available() {
+                    return jsonEncodingInputStream.available();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    jsonEncodingInputStream.close();
                 }
 
                 @Override
                 public boolean isFinished() {
-                    return false;
+                    return jsonEncodingInputStream.isFinished();
                 }
 
                 @Override
                 public boolean isReady() {
-                    return false;
+                    return true;
                 }
 
                 @Override
                 public void setReadListener(ReadListener listener) {
                 }
             };
-            return servletInputStream;
+            return encodedInputStream;
         }
 
         private boolean isNotProtected() {
@@ -1,15 +1,19 @@
 package org.avni.server.framework.sync;
 
 import org.avni.server.framework.hibernate.DummyInterceptor;
+import org.avni.server.framework.security.UserContextTaskDecorator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.handler.MappedInterceptor;
 
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Stream;
 
 @Configuration
@@ -106,6 +110,34 @@ public class SyncConfiguration implements WebMvcConfigurer {
         return new MappedInterceptor(metadataPathList, metadataResourceInterceptor);
     }
 
+    @Bean("syncChangeDetectionExecutor")
+    public ThreadPoolTaskExecutor syncChangeDetectionExecutor(@Value("${avni.sync.changeDetection.threads}") int threads,
+                                                              @Value("${avni.sync.changeDetection.queueCapacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sync-change-detection-");
+        executor.setTaskDecorator(new UserContextTaskDecorator());
+        //when saturated the request thread does the check itself rather than failing the sync
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean("identifierTopUpExecutor")
+    public ThreadPoolTaskExecutor identifierTopUpExecutor(@Value("${avni.identifier.topUp.threads}") int threads,
+                                                          @Value("${avni.identifier.topUp.queueCapacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("identifier-top-up-");
+        executor.setTaskDecorator(new UserContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(dummyInterceptor);
@@ -1,6 +1,6 @@
 package org.avni.server.importer.batch.csv;
 
-import org.apache.commons.io.IOUtils;
+import org.avni.server.framework.security.UserContextTaskDecorator;
 import org.avni.server.importer.batch.csv.writer.CsvFileItemWriter;
 import org.avni.server.importer.batch.model.Row;
 import org.avni.server.service.S3Service;
@@ -20,19 +20,22 @@ import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.batch.item.file.mapping.DefaultLineMapper;
 import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.batch.item.file.transform.FlatFileFormatException;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.avni.server.importer.batch.csv.writer.UserAndCatchmentWriter.METADATA_ROW_START_STRING;
 import static org.avni.server.service.ImportLocationsConstants.EXAMPLE;
@@ -41,35 +44,62 @@ import static org.avni.server.service.ImportLocationsConstants.EXAMPLE;
 //@EnableBatchProcessing
 @EnableScheduling
 public class BatchConfiguration {
+    private static final Set<String> SINGLE_ROW_CHUNK_TYPES = Set.of("locations", "usersAndCatchments");
     private final JobRepository jobRepository;
     private final PlatformTransactionManager platformTransactionManager;
     private final S3Service s3Service;
+    private final int chunkSize;
+    private final int partitions;
 
     @Autowired
     public BatchConfiguration(JobRepository jobRepository,
                               PlatformTransactionManager platformTransactionManager,
-                              @Qualifier("BatchS3Service")  S3Service s3Service) {
+                              @Qualifier("BatchS3Service")  S3Service s3Service,
+                              @Value("${avni.bulkUpload.chunkSize}") int chunkSize,
+                              @Value("${avni.bulkUpload.partitions}") int partitions) {
         this.jobRepository = jobRepository;
         this.platformTransactionManager = platformTransactionManager;
         this.s3Service = s3Service;
+        this.chunkSize = chunkSize;
+        this.partitions = partitions;
     }
 
     @Bean
     @StepScope
-    public FlatFileItemReader<Row> csvFileItemReader(@Value("#{jobParameters['s3Key']}") String s3Key) throws IOException {
-        byte[] bytes = IOUtils.toByteArray(s3Service.getObjectContent(s3Key));
-        String[] headers = this.getHeaders(new StringReader(new String(bytes)));
-        int numberOfLinesToSkip = this.getNumberOfLinesToSkip(new StringReader(new String(bytes)));
+    public PartitionedCsvRowReader csvFileItemReader(@Value("#{jobParameters['s3Key']}") String s3Key,
+                                                     @Value("#{jobParameters['type']}") String type,
+                                                     @Value("#{stepExecutionContext['partition']}") Integer partition,
+                                                     @Value("#{stepExecutionContext['partitionCount']}") Integer partitionCount) throws IOException {
+        S3ObjectResource resource = new S3ObjectResource(s3Service, s3Key);
+        String[] headers;
+        int numberOfLinesToSkip;
+        try (BufferedReader csvReader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            headers = this.getHeaders(csvReader.readLine());
+            numberOfLinesToSkip = this.getNumberOfLinesToSkip(csvReader.readLine());
+        }
         DefaultLineMapper<Row> lineMapper = new DefaultLineMapper<>();
         lineMapper.setLineTokenizer(new DelimitedLineTokenizer());
         lineMapper.setFieldSetMapper(fieldSet -> new Row(headers, fieldSet.getValues()));
 
-        return new FlatFileItemReaderBuilder<Row>()
+        FlatFileItemReader<Row> flatFileItemReader = new FlatFileItemReaderBuilder<Row>()
                 .name("csvFileItemReader")
-                .resource(new ByteArrayResource(bytes))
+                .resource(resource)
                 .linesToSkip(numberOfLinesToSkip)
                 .lineMapper(lineMapper)
                 .build();
+        return new PartitionedCsvRowReader(flatFileItemReader, CsvRowPartitioner.getPartitionKeyHeader(type), partition, partitionCount);
+    }
+
+    /**
+     * Rows are committed a chunk at a time. A failing chunk is rolled back and its rows are written again one by one, so
+     * that only the failing rows are skipped and reported. Users are created in the identity provider, which cannot be
+     * rolled back, and locations can be parents of the next rows, so these are written one row per chunk.
+     */
+    @Bean
+    @StepScope
+    public CompletionPolicy importCompletionPolicy(@Value("#{jobParameters['type']}") String type) {
+        String primaryType = type.split("---")[0];
+        return new SimpleCompletionPolicy(SINGLE_ROW_CHUNK_TYPES.contains(primaryType) ? 1 : chunkSize);
     }
 
     @Bean
@@ -83,11 +113,22 @@ public class BatchConfiguration {
     }
 
     @Bean
-    public Step importStep(FlatFileItemReader<Row> csvFileItemReader,
-                           CsvFileItemWriter csvFileItemWriter,
-                           ErrorFileWriterListener errorFileWriterListener) {
+    public Step importStep(Step importPartitionStep, CsvRowPartitioner csvRowPartitioner) {
         return new StepBuilder("importStep", jobRepository)
-                .<Row, Row>chunk(1, platformTransactionManager)
+                .partitioner("importPartitionStep", csvRowPartitioner)
+                .step(importPartitionStep)
+                .gridSize(partitions)
+                .taskExecutor(csvImportPartitionExecutor())
+                .build();
+    }
+
+    @Bean
+    public Step importPartitionStep(PartitionedCsvRowReader csvFileItemReader,
+                                    CompletionPolicy importCompletionPolicy,
+                                    CsvFileItemWriter csvFileItemWriter,
+                                    ErrorFileWriterListener errorFileWriterListener) {
+        return new StepBuilder("importPartitionStep", jobRepository)
+                .<Row, Row>chunk(importCompletionPolicy, platformTransactionManager)
                 .reader(csvFileItemReader)
                 .writer(csvFileItemWriter)
                 .faultTolerant()
@@ -101,6 +142,17 @@ public class BatchConfiguration {
                 .build();
     }
 
+    @Bean("csvImportPartitionExecutor")
+    public ThreadPoolTaskExecutor csvImportPartitionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(partitions);
+        executor.setMaxPoolSize(partitions);
+        executor.setThreadNamePrefix("csv-import-");
+        executor.setTaskDecorator(new UserContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
     @Bean
     public JobLauncher bgJobLauncher() {
         return new TaskExecutorJobLauncher() {{
@@ -114,11 +166,7 @@ public class BatchConfiguration {
         }};
     }
 
-    private String[] getHeaders(Reader reader) throws IOException {
-        BufferedReader csvReader = new BufferedReader(reader);
-        String headerLine = csvReader.readLine();
-        csvReader.close();
-
+    private String[] getHeaders(String headerLine) {
         final List<String> headers = new ArrayList<>();
         new DelimitedLineTokenizer() {{
             headers.addAll(doTokenize(headerLine));
@@ -127,21 +175,19 @@ public class BatchConfiguration {
         return headers.toArray(new String[]{});
     }
 
-    private int getNumberOfLinesToSkip(Reader reader) throws IOException {
+    private int getNumberOfLinesToSkip(String possibleDescriptorLine) {
         int linesToSkip = 1;
-        try(BufferedReader csvReader = new BufferedReader(reader)) {
-            csvReader.readLine(); //Retain always to move from Header line to descriptor line
-            String possibleDescriptorLine = csvReader.readLine();
-
-            final List<String> descriptors = new ArrayList<>();
-            new DelimitedLineTokenizer() {{
-                descriptors.addAll(doTokenize(possibleDescriptorLine));
-            }};
-
-            if (CollectionUtil.anyStartsWith(descriptors, EXAMPLE)
-                    || CollectionUtil.anyStartsWith(descriptors, METADATA_ROW_START_STRING)) {
-                linesToSkip++;
-            }
+        if (possibleDescriptorLine == null) {
+            return linesToSkip;
+        }
+        final List<String> descriptors = new ArrayList<>();
+        new DelimitedLineTokenizer() {{
+            descriptors.addAll(doTokenize(possibleDescriptorLine));
+        }};
+
+        if (CollectionUtil.anyStartsWith(descriptors, EXAMPLE)
+                || CollectionUtil.anyStartsWith(descriptors, METADATA_ROW_START_STRING)) {
+            linesToSkip++;
         }
         return linesToSkip;
     }
@@ -0,0 +1,55 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.importer.batch.csv.writer.header.SubjectHeaders;
+import org.avni.server.importer.batch.model.Row;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits a bulk upload into partitions that are imported in parallel. Only upload types whose rows do not depend on each
+ * other are split, rows are assigned by the hash of their id so that rows for the same entity stay in one partition and
+ * in file order. Other upload types get a single partition.
+ */
+@Component
+@StepScope
+public class CsvRowPartitioner implements Partitioner {
+    public static final String PARTITION = "partition";
+    public static final String PARTITION_COUNT = "partitionCount";
+    private static final Map<String, String> PARTITION_KEY_HEADERS = Map.of("Subject", SubjectHeaders.id);
+
+    @Value("#{jobParameters['type']}")
+    private String type;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        int partitionCount = getPartitionKeyHeader(type) == null ? 1 : Math.max(1, gridSize);
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            ExecutionContext executionContext = new ExecutionContext();
+            executionContext.putInt(PARTITION, partition);
+            executionContext.putInt(PARTITION_COUNT, partitionCount);
+            partitions.put(PARTITION + partition, executionContext);
+        }
+        return partitions;
+    }
+
+    public static String getPartitionKeyHeader(String type) {
+        return PARTITION_KEY_HEADERS.get(type.split("---")[0]);
+    }
+
+    /**
+     * Rows without an id create new entities, these are spread by their position in the file.
+     */
+    public static int getPartition(Row row, long rowNumber, String partitionKeyHeader, int partitionCount) {
+        String key = partitionKeyHeader == null ? null : row.get(partitionKeyHeader);
+        int hash = StringUtils.hasText(key) ? key.hashCode() : Long.hashCode(rowNumber);
+        return Math.floorMod(hash, partitionCount);
+    }
+}
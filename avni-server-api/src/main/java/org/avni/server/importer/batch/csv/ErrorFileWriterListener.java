@@ -21,6 +21,8 @@ public class ErrorFileWriterListener {
 
     private final BulkUploadS3Service bulkUploadS3Service;
     private static final Logger logger = LoggerFactory.getLogger(ErrorFileWriterListener.class);
+    //partitions of an upload are imported in parallel and append to the same error file
+    private static final Object ERROR_FILE_LOCK = new Object();
     private final BugsnagReporter bugsnagReporter;
     @Value("#{jobParameters['uuid']}")
     private String uuid;
@@ -38,12 +40,14 @@ public class ErrorFileWriterListener {
     public void appendToErrorFile(Row item, Throwable t) {
         try {
             bugsnagReporter.logAndReportToBugsnag(t);
-            FileWriter fileWriter = new FileWriter(bulkUploadS3Service.getLocalErrorFile(uuid), true);
-            fileWriter.append(item.toString());
-            fileWriter.append(",\"");
-            fileWriter.append(t.getMessage());
-            fileWriter.append("\"\n");
-            fileWriter.close();
+            synchronized (ERROR_FILE_LOCK) {
+                FileWriter fileWriter = new FileWriter(bulkUploadS3Service.getLocalErrorFile(uuid), true);
+                fileWriter.append(item.toString());
+                fileWriter.append(",\"");
+                fileWriter.append(t.getMessage());
+                fileWriter.append("\"\n");
+                fileWriter.close();
+            }
         } catch (IOException e) {
             logger.error("Error recording error", e);
             throw new RuntimeException(format("Error recording error: '%s'", e.getMessage()));
@@ -0,0 +1,56 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.importer.batch.model.Row;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileItemReader;
+
+/**
+ * Reads the rows of one partition of a bulk upload. Every partition streams the whole file and skips the rows of the
+ * other partitions, so that the read count of a partition is the number of rows it imports.
+ */
+public class PartitionedCsvRowReader implements ItemStreamReader<Row> {
+    private static final String ROW_NUMBER = "partitionedCsvRowReader.rowNumber";
+    private final FlatFileItemReader<Row> delegate;
+    private final String partitionKeyHeader;
+    private final int partition;
+    private final int partitionCount;
+    private long rowNumber;
+
+    public PartitionedCsvRowReader(FlatFileItemReader<Row> delegate, String partitionKeyHeader, int partition, int partitionCount) {
+        this.delegate = delegate;
+        this.partitionKeyHeader = partitionKeyHeader;
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+    }
+
+    @Override
+    public Row read() throws Exception {
+        Row row;
+        while ((row = delegate.read()) != null) {
+            long currentRowNumber = rowNumber++;
+            if (partitionCount == 1 || CsvRowPartitioner.getPartition(row, currentRowNumber, partitionKeyHeader, partitionCount) == partition) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        delegate.open(executionContext);
+        rowNumber = executionContext.getLong(ROW_NUMBER, 0);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        delegate.update(executionContext);
+        executionContext.putLong(ROW_NUMBER, rowNumber);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        delegate.close();
+    }
+}
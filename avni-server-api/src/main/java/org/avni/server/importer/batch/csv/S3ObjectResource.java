@@ -0,0 +1,35 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.service.S3Service;
+import org.springframework.core.io.AbstractResource;
+
+import java.io.InputStream;
+
+/**
+ * An S3 object that is streamed every time it is opened, so that the file is never held in memory as a whole.
+ */
+public class S3ObjectResource extends AbstractResource {
+    private final S3Service s3Service;
+    private final String s3Key;
+
+    public S3ObjectResource(S3Service s3Service, String s3Key) {
+        this.s3Service = s3Service;
+        this.s3Key = s3Key;
+    }
+
+    @Override
+    public boolean exists() {
+        //a missing object fails when it is opened, checking here would mean an extra request to S3
+        return true;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return s3Service.getObjectContent(s3Key);
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("S3 object [%s]", s3Key);
+    }
+}
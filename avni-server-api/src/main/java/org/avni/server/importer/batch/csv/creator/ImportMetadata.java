@@ -0,0 +1,177 @@
+package org.avni.server.importer.batch.csv.creator;
+
+import org.avni.server.application.Form;
+import org.avni.server.application.FormElement;
+import org.avni.server.application.FormElementType;
+import org.avni.server.application.FormMapping;
+import org.avni.server.application.FormType;
+import org.avni.server.dao.*;
+import org.avni.server.dao.application.FormElementRepository;
+import org.avni.server.dao.application.FormMappingRepository;
+import org.avni.server.dao.application.FormRepository;
+import org.avni.server.domain.*;
+import org.avni.server.importer.batch.csv.writer.header.Headers;
+import org.avni.server.service.SubjectTypeService;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Metadata that the rows of a bulk upload are resolved against, looked up once per step instead of once per row.
+ * <p>
+ * Only ids are kept, because every chunk is written in its own transaction and entities from an earlier chunk would be
+ * detached. Entities are loaded again by id, which the persistence context serves without a query after the first row of
+ * a chunk. A step is read by one thread, so the lookups are not synchronised.
+ */
+@Component
+@StepScope
+public class ImportMetadata {
+    private final ConceptRepository conceptRepository;
+    private final FormRepository formRepository;
+    private final FormElementRepository formElementRepository;
+    private final AddressLevelTypeRepository addressLevelTypeRepository;
+    private final GenderRepository genderRepository;
+    private final OperationalSubjectTypeRepository operationalSubjectTypeRepository;
+    private final SubjectTypeRepository subjectTypeRepository;
+    private final FormMappingRepository formMappingRepository;
+    private final SubjectTypeService subjectTypeService;
+
+    private Set<String> locationTypeNames;
+    private Map<String, Long> genderIds;
+    private final Map<List<List<String>>, List<Long>> conceptIdsOfHeaders = new HashMap<>();
+    //concept id to form element id, a null form element id is a decision concept which has no form element
+    private final Map<FormType, Map<Long, Long>> formElementIdsOfConcepts = new HashMap<>();
+    private final Map<Long, List<Long>> childFormElementIds = new HashMap<>();
+    private final Map<String, Long> subjectTypeIds = new HashMap<>();
+    private final Map<Long, Long> registrationFormMappingIds = new HashMap<>();
+    private final Map<Long, List<Long>> registrableLocationTypeIds = new HashMap<>();
+
+    @Autowired
+    public ImportMetadata(ConceptRepository conceptRepository,
+                          FormRepository formRepository,
+                          FormElementRepository formElementRepository,
+                          AddressLevelTypeRepository addressLevelTypeRepository,
+                          GenderRepository genderRepository,
+                          OperationalSubjectTypeRepository operationalSubjectTypeRepository,
+                          SubjectTypeRepository subjectTypeRepository,
+                          FormMappingRepository formMappingRepository,
+                          SubjectTypeService subjectTypeService) {
+        this.conceptRepository = conceptRepository;
+        this.formRepository = formRepository;
+        this.formElementRepository = formElementRepository;
+        this.addressLevelTypeRepository = addressLevelTypeRepository;
+        this.genderRepository = genderRepository;
+        this.operationalSubjectTypeRepository = operationalSubjectTypeRepository;
+        this.subjectTypeRepository = subjectTypeRepository;
+        this.formMappingRepository = formMappingRepository;
+        this.subjectTypeService = subjectTypeService;
+    }
+
+    public Set<Concept> getConceptHeaders(Headers fixedHeaders, String[] fileHeaders) {
+        List<List<String>> key = Arrays.asList(Arrays.asList(fixedHeaders.getAllHeaders()), Arrays.asList(fileHeaders));
+        List<Long> conceptIds = conceptIdsOfHeaders.get(key);
+        if (conceptIds == null) {
+            Set<String> nonConceptHeaders = Stream.concat(getLocationTypeNames().stream(), Stream.of(fixedHeaders.getAllHeaders()))
+                    .collect(Collectors.toSet());
+            conceptIds = Arrays.stream(fileHeaders)
+                    .filter(header -> !nonConceptHeaders.contains(header))
+                    .distinct()
+                    .map(this::findConcept)
+                    .filter(Objects::nonNull)
+                    .map(Concept::getId)
+                    .distinct()
+                    .collect(Collectors.toList());
+            conceptIdsOfHeaders.put(key, conceptIds);
+        }
+        return conceptIds.stream().map(conceptRepository::findEntity).collect(Collectors.toSet());
+    }
+
+    public FormElement getFormElementForObservationConcept(Concept concept, FormType formType) {
+        Map<Long, Long> formElementIds = formElementIdsOfConcepts.computeIfAbsent(formType, this::loadFormElementIdsOfConcepts);
+        if (formElementIds.isEmpty())
+            throw new RuntimeException(String.format("No forms of type %s found", formType));
+        if (!formElementIds.containsKey(concept.getId()))
+            throw new RuntimeException("No form element linked to concept found");
+
+        Long formElementId = formElementIds.get(concept.getId());
+        return formElementId == null ? createDecisionFormElement(concept) : formElementRepository.findEntity(formElementId);
+    }
+
+    public List<FormElement> getChildFormElements(FormElement questionGroupFormElement) {
+        return childFormElementIds.computeIfAbsent(questionGroupFormElement.getId(),
+                        groupId -> formElementRepository.findAllByGroupId(groupId).stream().map(FormElement::getId).collect(Collectors.toList()))
+                .stream()
+                .map(formElementRepository::findEntity)
+                .collect(Collectors.toList());
+    }
+
+    public Gender findGender(String name) {
+        if (genderIds == null) {
+            genderIds = new HashMap<>();
+            genderRepository.findAll().stream()
+                    .sorted(Comparator.comparing(Gender::isVoided))
+                    .forEach(gender -> genderIds.putIfAbsent(gender.getName().toLowerCase(), gender.getId()));
+        }
+        return name == null ? null : genderRepository.findEntity(genderIds.get(name.toLowerCase()));
+    }
+
+    public SubjectType findSubjectType(String operationalSubjectTypeName) {
+        if (!subjectTypeIds.containsKey(operationalSubjectTypeName)) {
+            OperationalSubjectType operationalSubjectType = operationalSubjectTypeRepository.findByNameIgnoreCase(operationalSubjectTypeName);
+            subjectTypeIds.put(operationalSubjectTypeName, operationalSubjectType == null ? null : operationalSubjectType.getSubjectType().getId());
+        }
+        return subjectTypeRepository.findEntity(subjectTypeIds.get(operationalSubjectTypeName));
+    }
+
+    public FormMapping getRegistrationFormMapping(SubjectType subjectType) {
+        if (!registrationFormMappingIds.containsKey(subjectType.getId())) {
+            FormMapping formMapping = formMappingRepository.getRegistrationFormMapping(subjectType);
+            registrationFormMappingIds.put(subjectType.getId(), formMapping == null ? null : formMapping.getId());
+        }
+        return formMappingRepository.findEntity(registrationFormMappingIds.get(subjectType.getId()));
+    }
+
+    public AddressLevelTypes getRegistrableLocationTypes(SubjectType subjectType) {
+        List<Long> locationTypeIds = registrableLocationTypeIds.computeIfAbsent(subjectType.getId(),
+                subjectTypeId -> subjectTypeService.getRegistrableLocationTypes(subjectType).stream().map(AddressLevelType::getId).collect(Collectors.toList()));
+        return new AddressLevelTypes(locationTypeIds.stream().map(addressLevelTypeRepository::findEntity).collect(Collectors.toList()));
+    }
+
+    private Set<String> getLocationTypeNames() {
+        if (locationTypeNames == null) {
+            locationTypeNames = addressLevelTypeRepository.findAll().stream().map(AddressLevelType::getName).collect(Collectors.toSet());
+        }
+        return locationTypeNames;
+    }
+
+    private Concept findConcept(String name) {
+        Concept concept = conceptRepository.findByName(name);
+        if (concept == null && name.contains("|")) {
+            String[] parentChildNameArray = name.split("\\|");
+            concept = conceptRepository.findByName(parentChildNameArray[0]);
+        }
+        return concept;
+    }
+
+    private Map<Long, Long> loadFormElementIdsOfConcepts(FormType formType) {
+        Map<Long, Long> formElementIds = new HashMap<>();
+        for (Form form : formRepository.findByFormTypeAndIsVoidedFalse(formType)) {
+            form.getAllFormElements().forEach(formElement -> formElementIds.putIfAbsent(formElement.getConcept().getId(), formElement.getId()));
+            form.getDecisionConcepts().forEach(decisionConcept -> {
+                if (!formElementIds.containsKey(decisionConcept.getId())) formElementIds.put(decisionConcept.getId(), null);
+            });
+        }
+        return formElementIds;
+    }
+
+    private static FormElement createDecisionFormElement(Concept concept) {
+        FormElement formElement = new FormElement();
+        formElement.setType(concept.getDataType().equals(ConceptDataType.Coded.name()) ? FormElementType.MultiSelect.name() : FormElementType.SingleSelect.name());
+        formElement.setConcept(concept);
+        return formElement;
+    }
+}
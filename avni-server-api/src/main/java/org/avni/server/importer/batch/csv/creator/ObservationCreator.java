@@ -1,14 +1,8 @@
 package org.avni.server.importer.batch.csv.creator;
 
-import org.avni.server.application.Form;
 import org.avni.server.application.FormElement;
 import org.avni.server.application.FormElementType;
 import org.avni.server.application.FormType;
-import org.avni.server.dao.AddressLevelTypeRepository;
-import org.avni.server.dao.ConceptRepository;
-import org.avni.server.dao.application.FormElementRepository;
-import org.avni.server.dao.application.FormRepository;
-import org.avni.server.domain.AddressLevelType;
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.ConceptDataType;
 import org.avni.server.domain.ObservationCollection;
@@ -43,57 +37,27 @@ import static java.lang.String.format;
 @Component
 public class ObservationCreator {
     private static Logger logger = LoggerFactory.getLogger(ObservationCreator.class);
-    private final AddressLevelTypeRepository addressLevelTypeRepository;
-    private final ConceptRepository conceptRepository;
-    private final FormRepository formRepository;
     private final ObservationService observationService;
     private final S3Service s3Service;
     private final IndividualService individualService;
     private final LocationService locationService;
-    private final FormElementRepository formElementRepository;
+    private final ImportMetadata importMetadata;
 
     @Autowired
-    public ObservationCreator(AddressLevelTypeRepository addressLevelTypeRepository,
-                              ConceptRepository conceptRepository,
-                              FormRepository formRepository,
-                              ObservationService observationService,
+    public ObservationCreator(ObservationService observationService,
                               S3Service s3Service,
                               IndividualService individualService,
                               LocationService locationService,
-                              FormElementRepository formElementRepository) {
-        this.addressLevelTypeRepository = addressLevelTypeRepository;
-        this.conceptRepository = conceptRepository;
-        this.formRepository = formRepository;
+                              ImportMetadata importMetadata) {
         this.observationService = observationService;
         this.s3Service = s3Service;
         this.individualService = individualService;
         this.locationService = locationService;
-        this.formElementRepository = formElementRepository;
+        this.importMetadata = importMetadata;
     }
 
     public Set<Concept> getConceptHeaders(Headers fixedHeaders, String[] fileHeaders) {
-        List<AddressLevelType> locationTypes = addressLevelTypeRepository.findAll();
-        locationTypes.sort(Comparator.comparingDouble(AddressLevelType::getLevel).reversed());
-
-        Set<String> nonConceptHeaders = Stream.concat(
-                locationTypes.stream().map(AddressLevelType::getName),
-                Stream.of(fixedHeaders.getAllHeaders())).collect(Collectors.toSet());
-
-        return getConceptHeaders(fileHeaders, nonConceptHeaders)
-                .stream()
-                .map(name -> this.findConcept(name, false))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-    }
-
-    private Concept findConcept(String name, boolean isChildQuestionGroup) {
-        Concept concept = conceptRepository.findByName(name);
-        if (concept == null && name.contains("|")) {
-            String[] parentChildNameArray = name.split("\\|");
-            String questionGroupConceptName = isChildQuestionGroup ? parentChildNameArray[1] : parentChildNameArray[0];
-            concept = conceptRepository.findByName(questionGroupConceptName);
-        }
-        return concept;
+        return importMetadata.getConceptHeaders(fixedHeaders, fileHeaders);
     }
 
     public ObservationCollection getObservations(Row row,
@@ -109,7 +73,7 @@ public class ObservationCreator {
     private boolean isNonEmptyQuestionGroup(FormElement formElement, Row row) {
         Concept concept = formElement.getConcept();
         if (ConceptDataType.isQuestionGroup(concept.getDataType())) {
-            List<FormElement> allChildQuestions = formElementRepository.findAllByGroupId(formElement.getId());
+            List<FormElement> allChildQuestions = importMetadata.getChildFormElements(formElement);
             return allChildQuestions.stream().anyMatch(fe -> {
                 String parentChildName = concept.getName() + "|" + fe.getConcept().getName();
                 String headerName = formElement.isRepeatable() ? String.format("%s|1", parentChildName) : parentChildName;
@@ -154,7 +118,7 @@ public class ObservationCreator {
 
     // For the repeatable question group columns should be "Question group concept"|"Child concept"|"order(1,2,3...)"
     private Object constructChildObservations(Row row, Headers headers, List<String> errorMsgs, FormElement parentFormElement, FormType formType, ObservationCollection oldObservations) {
-        List<FormElement> allChildQuestions = formElementRepository.findAllByGroupId(parentFormElement.getId());
+        List<FormElement> allChildQuestions = importMetadata.getChildFormElements(parentFormElement);
         if (parentFormElement.isRepeatable()) {
             Pattern repeatableQuestionGroupPattern = Pattern.compile(String.format("%s\\|.*\\|\\d", parentFormElement.getConcept().getName()));
             List<String> repeatableQuestionGroupHeaders = Stream.of(row.getHeaders())
@@ -196,30 +160,8 @@ public class ObservationCreator {
         return observationService.createObservations(observationRequests);
     }
 
-    private List<FormElement> createDecisionFormElement(Set<Concept> concepts) {
-        return concepts.stream().map(dc -> {
-            FormElement formElement = new FormElement();
-            formElement.setType(dc.getDataType().equals(ConceptDataType.Coded.name()) ? FormElementType.MultiSelect.name() : FormElementType.SingleSelect.name());
-            formElement.setConcept(dc);
-            return formElement;
-        }).collect(Collectors.toList());
-    }
-
     private FormElement getFormElementForObservationConcept(Concept concept, FormType formType) {
-        List<Form> applicableForms = formRepository.findByFormTypeAndIsVoidedFalse(formType);
-        if (applicableForms.isEmpty())
-            throw new RuntimeException(String.format("No forms of type %s found", formType));
-
-        return applicableForms.stream()
-                .map(f -> {
-                    List<FormElement> formElements = f.getAllFormElements();
-                    formElements.addAll(createDecisionFormElement(f.getDecisionConcepts()));
-                    return formElements;
-                })
-                .flatMap(List::stream)
-                .filter(fel -> fel.getConcept().equals(concept))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No form element linked to concept found"));
+        return importMetadata.getFormElementForObservationConcept(concept, formType);
     }
 
     private Object getObservationValue(FormElement formElement, String answerValue, FormType formType, List<String> errorMsgs, Row row, Headers headers, ObservationCollection oldObservations) throws Exception {
@@ -300,11 +242,4 @@ public class ObservationCreator {
         }
         return dt.format(outputFmt);
     }
-
-    private Set<String> getConceptHeaders(String[] allHeaders, Set<String> nonConceptHeaders) {
-        return Arrays
-                .stream(allHeaders)
-                .filter(header -> !nonConceptHeaders.contains(header))
-                .collect(Collectors.toSet());
-    }
 }
@@ -1,7 +1,5 @@
 package org.avni.server.importer.batch.csv.creator;
 
-import org.avni.server.dao.OperationalSubjectTypeRepository;
-import org.avni.server.domain.OperationalSubjectType;
 import org.avni.server.domain.SubjectType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -9,19 +7,19 @@ import org.springframework.stereotype.Component;
 @Component
 public class SubjectTypeCreator {
 
-    private OperationalSubjectTypeRepository operationalSubjectTypeRepository;
+    private ImportMetadata importMetadata;
 
     @Autowired
-    public SubjectTypeCreator(OperationalSubjectTypeRepository operationalSubjectTypeRepository) {
-        this.operationalSubjectTypeRepository = operationalSubjectTypeRepository;
+    public SubjectTypeCreator(ImportMetadata importMetadata) {
+        this.importMetadata = importMetadata;
     }
 
     public SubjectType getSubjectType(String subjectTypeValue, String header) throws Exception {
-        OperationalSubjectType operationalSubjectType = operationalSubjectTypeRepository.findByNameIgnoreCase(subjectTypeValue);
-        if (operationalSubjectType == null) {
+        SubjectType subjectType = importMetadata.findSubjectType(subjectTypeValue);
+        if (subjectType == null) {
             throw new Exception(String.format("'%s' '%s' not found", header, subjectTypeValue));
         }
-        return operationalSubjectType.getSubjectType();
+        return subjectType;
     }
 
 }
@@ -3,9 +3,7 @@ package org.avni.server.importer.batch.csv.writer;
 import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
 import org.avni.server.application.Subject;
-import org.avni.server.dao.GenderRepository;
 import org.avni.server.dao.IndividualRepository;
-import org.avni.server.dao.application.FormMappingRepository;
 import org.avni.server.domain.*;
 import org.avni.server.importer.batch.csv.contract.UploadRuleServerResponseContract;
 import org.avni.server.importer.batch.csv.creator.*;
@@ -28,9 +26,7 @@ import java.util.List;
 @Component
 public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Serializable {
     private final IndividualRepository individualRepository;
-    private final GenderRepository genderRepository;
     private final SubjectTypeCreator subjectTypeCreator;
-    private final FormMappingRepository formMappingRepository;
     private final ObservationService observationService;
     private final RuleServerInvoker ruleServerInvoker;
     private final VisitCreator visitCreator;
@@ -41,15 +37,13 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
     private final EntityApprovalStatusWriter entityApprovalStatusWriter;
     private final AddressLevelCreator addressLevelCreator;
     private final SubjectMigrationService subjectMigrationService;
-    private final SubjectTypeService subjectTypeService;
+    private final ImportMetadata importMetadata;
 
     private static final Logger logger = LoggerFactory.getLogger(SubjectWriter.class);
 
     @Autowired
     public SubjectWriter(IndividualRepository individualRepository,
-                         GenderRepository genderRepository,
                          SubjectTypeCreator subjectTypeCreator,
-                         FormMappingRepository formMappingRepository,
                          ObservationService observationService,
                          RuleServerInvoker ruleServerInvoker,
                          VisitCreator visitCreator,
@@ -57,12 +51,10 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
                          ObservationCreator observationCreator, IndividualService individualService, EntityApprovalStatusWriter entityApprovalStatusWriter,
                          S3Service s3Service,
                          OrganisationConfigService organisationConfigService,
-                         AddressLevelCreator addressLevelCreator, SubjectMigrationService subjectMigrationService, SubjectTypeService subjectTypeService) {
+                         AddressLevelCreator addressLevelCreator, SubjectMigrationService subjectMigrationService, ImportMetadata importMetadata) {
         super(organisationConfigService);
         this.individualRepository = individualRepository;
-        this.genderRepository = genderRepository;
         this.subjectTypeCreator = subjectTypeCreator;
-        this.formMappingRepository = formMappingRepository;
         this.observationService = observationService;
         this.ruleServerInvoker = ruleServerInvoker;
         this.visitCreator = visitCreator;
@@ -72,7 +64,7 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
         this.entityApprovalStatusWriter = entityApprovalStatusWriter;
         this.addressLevelCreator = addressLevelCreator;
         this.subjectMigrationService = subjectMigrationService;
-        this.subjectTypeService = subjectTypeService;
+        this.importMetadata = importMetadata;
         this.s3Service = s3Service;
     }
 
@@ -102,11 +94,11 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
             LocationCreator locationCreator = new LocationCreator();
             individual.setRegistrationLocation(locationCreator.getGeoLocation(row, SubjectHeaders.registrationLocation, allErrorMsgs));
 
-            AddressLevelTypes registrationLocationTypes = subjectTypeService.getRegistrableLocationTypes(subjectType);
+            AddressLevelTypes registrationLocationTypes = importMetadata.getRegistrableLocationTypes(subjectType);
             individual.setAddressLevel(addressLevelCreator.findAddressLevel(row, registrationLocationTypes));
 
             if (individual.getSubjectType().getType().equals(Subject.Person)) setGender(individual, row);
-            FormMapping formMapping = formMappingRepository.getRegistrationFormMapping(subjectType);
+            FormMapping formMapping = importMetadata.getRegistrationFormMapping(subjectType);
             individual.setVoided(false);
             individual.assignUUIDIfRequired();
             if (formMapping == null) {
@@ -185,7 +177,7 @@ public class SubjectWriter extends EntityWriter implements ItemWriter<Row>, Seri
     private void setGender(Individual individual, Row row) throws Exception {
         try {
             String genderName = row.get(SubjectHeaders.gender);
-            Gender gender = genderRepository.findByNameIgnoreCase(genderName);
+            Gender gender = importMetadata.findGender(genderName);
             if (gender == null) {
                 throw new Exception(String.format("Invalid '%s' - '%s'", SubjectHeaders.gender, genderName));
             }
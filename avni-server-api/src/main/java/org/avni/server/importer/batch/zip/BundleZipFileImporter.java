@@ -76,6 +76,7 @@ public class BundleZipFileImporter implements ItemWriter<BundleFile> {
     private final CardService cardService;
     private final DashboardService dashboardService;
     private final S3Service s3Service;
+    private final ExtensionService extensionService;
     private final DocumentationService documentationService;
     private final TaskTypeService taskTypeService;
     private final TaskStatusService taskStatusService;
@@ -168,7 +169,8 @@ public class BundleZipFileImporter implements ItemWriter<BundleFile> {
                                  MessagingService messagingService,
                                  RuleDependencyService ruleDependencyService,
                                  TranslationService translationService,
-                                 RuleService ruleService, GroupDashboardService groupDashboardService) {
+                                 RuleService ruleService, GroupDashboardService groupDashboardService,
+                                 ExtensionService extensionService) {
         this.authService = authService;
         this.conceptService = conceptService;
         this.formService = formService;
@@ -202,6 +204,7 @@ public class BundleZipFileImporter implements ItemWriter<BundleFile> {
         this.translationService = translationService;
         this.ruleService = ruleService;
         this.groupDashboardService = groupDashboardService;
+        this.extensionService = extensionService;
         objectMapper = ObjectMapperSingleton.getObjectMapper();
     }
 
@@ -226,6 +229,7 @@ public class BundleZipFileImporter implements ItemWriter<BundleFile> {
         for (String fileName : extensions) {
             deployFile(fileName, bundleZip.getFile(fileName));
         }
+        if (!extensions.isEmpty()) extensionService.refreshManifest();
     }
 
     private String uploadIcon(String iconFileName, byte[] iconFileData) throws IOException {
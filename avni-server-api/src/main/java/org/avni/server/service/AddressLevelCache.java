@@ -7,6 +7,7 @@ import org.avni.server.dao.LocationRepository;
 import org.avni.server.dao.RoleSwitchableRepository;
 import org.avni.server.domain.Catchment;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
@@ -46,4 +47,12 @@ public class AddressLevelCache extends RoleSwitchableRepository {
             setRoleBackToUser();
         }
     }
+
+    /**
+     * Clears the addresses of all catchments, as a location moved to another parent changes the addresses of every
+     * catchment containing its old or new ancestors.
+     */
+    @CacheEvict(value = {ADDRESSES_PER_CATCHMENT, ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS}, allEntries = true)
+    public void evictAll() {
+    }
 }
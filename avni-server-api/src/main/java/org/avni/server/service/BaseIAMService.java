@@ -11,20 +11,34 @@ import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.Verification;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import org.avni.server.dao.UserRepository;
 import org.avni.server.domain.User;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.util.StringUtils;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.TimeUnit;
 
 public abstract class BaseIAMService implements IAMAuthService {
+    private static final int TOKEN_LEEWAY_SECONDS = 240;
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10000;
     private final Logger logger = LoggerFactory.getLogger(BaseIAMService.class);
     private final UserRepository userRepository;
+    //keyed by the hash of the token, entries are also checked against the token's expiry when read
+    private final Cache<String, DecodedJWT> verifiedTokens = CacheBuilder.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+    private volatile JwksKeyStore jwksKeyStore;
 
     protected BaseIAMService(UserRepository userRepository) {
         this.userRepository = userRepository;
@@ -51,11 +65,17 @@ public abstract class BaseIAMService implements IAMAuthService {
     }
 
     protected DecodedJWT verifyAndDecodeToken(String token) throws SigningKeyNotFoundException {
+        String tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+        DecodedJWT verifiedJwt = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedJwt != null) {
+            if (isWithinExpiry(verifiedJwt)) return verifiedJwt;
+            verifiedTokens.invalidate(tokenHash);
+        }
+
         Jwk jwk;
         try {
             DecodedJWT unverifiedJwt = JWT.decode(token);
-            JwkProvider provider = new GuavaCachedJwkProvider(new UrlJwkProvider(new URL(getJwkProviderUrl())));
-            jwk = provider.get(unverifiedJwt.getKeyId());
+            jwk = getJwksKeyStore().get(unverifiedJwt.getKeyId());
         } catch (MalformedURLException e) {
             logger.error("Check the settings for public key " + getIssuer(), e);
             throw new RuntimeException(e);
@@ -76,11 +96,13 @@ public abstract class BaseIAMService implements IAMAuthService {
             Verification verification = JWT.require(algorithm)
                     .withIssuer(getIssuer())
                     .withAudience(getAudience())
-                    .acceptLeeway(240);
+                    .acceptLeeway(TOKEN_LEEWAY_SECONDS);
             addClaim(verification);
             JWTVerifier verifier = verification.build();
             logger.trace(String.format("Verifying token for issuer: %s, token_use: id and audience: %s", this.getIssuer(), getAudience()));
-            return verifier.verify(token);
+            DecodedJWT jwt = verifier.verify(token);
+            if (jwt.getExpiresAt() != null) verifiedTokens.put(tokenHash, jwt);
+            return jwt;
 
         } catch (InvalidPublicKeyException e) {
             logger.error("Check the settings for public key " + getIssuer(), e);
@@ -97,6 +119,39 @@ public abstract class BaseIAMService implements IAMAuthService {
         }
     }
 
+    /**
+     * Reloads the signing keys in the background, so that rotated keys are usually known before the first token signed
+     * with them arrives. On failure the keys loaded earlier are kept.
+     */
+    @Scheduled(fixedDelayString = "${avni.jwks.refreshMillis}", initialDelayString = "${avni.jwks.refreshMillis}")
+    public void refreshSigningKeys() {
+        JwksKeyStore keyStore = jwksKeyStore;
+        if (keyStore == null) return;
+        try {
+            keyStore.refresh();
+        } catch (JwkException e) {
+            logger.error("Could not refresh public keys for " + getIssuer(), e);
+        }
+    }
+
+    protected JwksKeyStore.JwksSource getJwksSource() throws MalformedURLException {
+        UrlJwkProvider urlJwkProvider = new UrlJwkProvider(new URL(getJwkProviderUrl()));
+        return urlJwkProvider::getAll;
+    }
+
+    private JwksKeyStore getJwksKeyStore() throws MalformedURLException {
+        if (jwksKeyStore == null) {
+            synchronized (this) {
+                if (jwksKeyStore == null) jwksKeyStore = new JwksKeyStore(getJwksSource());
+            }
+        }
+        return jwksKeyStore;
+    }
+
+    private static boolean isWithinExpiry(DecodedJWT jwt) {
+        return jwt.getExpiresAt().getTime() + TimeUnit.SECONDS.toMillis(TOKEN_LEEWAY_SECONDS) > System.currentTimeMillis();
+    }
+
     protected abstract String getUserUuidField();
 
     protected abstract String getUsernameField();
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.zip.ZipOutputStream;
 
 @Component
@@ -18,9 +19,18 @@ public class BundleService {
     }
 
     public ByteArrayOutputStream createBundle(Organisation organisation, boolean includeLocations) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        createBundle(organisation, includeLocations, baos);
+        return baos;
+    }
+
+    /**
+     * Writes the bundle straight to the outputStream, entry by entry, so that the bundle of a large organisation is not
+     * held in memory.
+     */
+    public void createBundle(Organisation organisation, boolean includeLocations, OutputStream outputStream) throws IOException {
         Long orgId = organisation.getId();
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
         //ZipOutputStream will be automatically closed because we are using try-with-resources.
         /**
          * IMPORTANT: The un-tampered bundle is processed in the order of files inserted while generating the bundle,
@@ -29,7 +39,7 @@ public class BundleService {
          * Always ensure that bundle is created with content in the same sequence that you want it to be processed during upload.
          * DISCLAIMER: If the bundle is tampered, for example to remove any forms or concepts, then the sequence of processing of bundle files is unknown
          */
-        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+        try (ZipOutputStream zos = new ZipOutputStream(outputStream)) {
             organisationService.addAddressLevelTypesJson(orgId, zos);
             if (includeLocations) {
                 organisationService.addAddressLevelsJson(orgId, zos);
@@ -68,6 +78,5 @@ public class BundleService {
             organisationService.addOldRuleDependency(orgId, zos);
             organisationService.addOldRules(orgId, zos);
         }
-        return baos;
     }
 }
@@ -31,6 +31,10 @@ public class ExportS3Service {
         return new File(exportDir, format("%s%s", uuid, FILE_NAME_EXTENSION));
     }
 
+    public File getLocalExportPartFile(String uuid, int partition) {
+        return new File(getLocalExportFile(uuid).getParentFile(), format("%s.part-%d%s", uuid, partition, FILE_NAME_EXTENSION));
+    }
+
     public ObjectInfo uploadFile(File tempSourceFile, String uuid) throws IOException {
         logger.info(String.format("Uploading %s file to S3", tempSourceFile.getAbsolutePath()));
         return s3Service.uploadFile(tempSourceFile, format("%s%s", uuid, FILE_NAME_EXTENSION), "exports");
@@ -0,0 +1,77 @@
+package org.avni.server.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Contents of the served extension files, keyed by the S3 key and the ETag of the file in the extension_file manifest.
+ * An uploaded file gets a new ETag, so its earlier content is never served again and is evicted as the cache fills up.
+ * Bounded by the total bytes held, and files larger than maxFileBytes are not cached.
+ */
+@Component
+public class ExtensionContentCache {
+    private final Cache<String, byte[]> contents;
+    private final long maxFileBytes;
+
+    @Autowired
+    public ExtensionContentCache(@Value("${avni.cache.extensionContent.maxBytes}") long maxBytes,
+                                 @Value("${avni.cache.extensionContent.maxFileBytes}") long maxFileBytes) {
+        this.maxFileBytes = maxFileBytes;
+        this.contents = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, byte[] content) -> content.length)
+                .recordStats()
+                .build();
+    }
+
+    public interface ContentLoader {
+        InputStream load() throws IOException;
+    }
+
+    public boolean isCacheable(long size) {
+        return size <= maxFileBytes;
+    }
+
+    public byte[] getContent(String s3Key, String eTag, ContentLoader contentLoader) throws IOException {
+        try {
+            return contents.get(key(s3Key, eTag), () -> {
+                try (InputStream inputStream = contentLoader.load()) {
+                    return inputStream.readAllBytes();
+                }
+            });
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public CacheStats getStats() {
+        return contents.stats();
+    }
+
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = getStats();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("entries", contents.size());
+        statistics.put("hitCount", stats.hitCount());
+        statistics.put("missCount", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("evictionCount", stats.evictionCount());
+        statistics.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000);
+        return statistics;
+    }
+
+    private static String key(String s3Key, String eTag) {
+        return s3Key + "@" + eTag;
+    }
+}
@@ -1,21 +1,127 @@
 package org.avni.server.service;
 
+import org.avni.server.dao.ExtensionFileRepository;
+import org.avni.server.domain.ExtensionFile;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.OrganisationConfig;
+import org.avni.server.domain.S3ExtensionFile;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.util.S3File;
+import org.avni.server.util.S3FileType;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Extension files are stored in S3, and listed from the extension_file manifest of the organisation instead of the
+ * bucket. The manifest is refreshed from S3 whenever the extension files are uploaded or deleted. Refreshes of an
+ * organisation's manifest are run one at a time, as each replaces all of its rows. A missing manifest is built in a
+ * transaction of its own, as it is found missing on the read only transactions of sync change detection.
+ */
 @Service
 public class ExtensionService implements NonScopeAwareService {
-
     private final S3Service s3Service;
+    private final ExtensionFileRepository extensionFileRepository;
+    private final OrganisationConfigService organisationConfigService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate manifestTransactionTemplate;
 
     @Autowired
-    public ExtensionService(S3Service s3Service) {
+    public ExtensionService(S3Service s3Service, ExtensionFileRepository extensionFileRepository, OrganisationConfigService organisationConfigService, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager platformTransactionManager) {
         this.s3Service = s3Service;
+        this.extensionFileRepository = extensionFileRepository;
+        this.organisationConfigService = organisationConfigService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.manifestTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.manifestTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
+    @Transactional
     public boolean isNonScopeEntityChanged(DateTime lastModifiedDateTime) {
-        return s3Service.listExtensionFiles(java.util.Optional.ofNullable(lastModifiedDateTime)).size() > 0;
+        createManifestIfMissing();
+        return extensionFileRepository.existsByFileModifiedDateTimeGreaterThan(modifiedAfter(Optional.ofNullable(lastModifiedDateTime)));
+    }
+
+    @Transactional
+    public List<S3ExtensionFile> listExtensionFiles(Optional<DateTime> modifiedSince) {
+        createManifestIfMissing();
+        Organisation organisation = UserContextHolder.getOrganisation();
+        return extensionFileRepository.findAllByFileModifiedDateTimeGreaterThanOrderByS3Key(modifiedAfter(modifiedSince)).stream()
+                .map(extensionFile -> new S3ExtensionFile(
+                        S3File.organisationFileFromFullPath(organisation, extensionFile.getS3Key(), S3FileType.Extensions),
+                        extensionFile.getFileModifiedDateTime(), extensionFile.getSize(), extensionFile.getETag()))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public ExtensionFile getExtensionFile(String s3Key) {
+        return extensionFileRepository.findFirstByS3Key(s3Key);
+    }
+
+    @Transactional
+    public void refreshManifest() {
+        Long organisationId = UserContextHolder.getOrganisation().getId();
+        lockManifest(organisationId);
+        buildManifest(organisationId);
+    }
+
+    /**
+     * Organisations that had extensions before the manifest was introduced get theirs from S3 on the first sync. An
+     * organisation without extension settings has not uploaded any extensions, so its empty manifest is complete.
+     */
+    private void createManifestIfMissing() {
+        Long organisationId = UserContextHolder.getOrganisation().getId();
+        if (extensionFileRepository.isManifestBuilt(organisationId) || !hasExtensionSettings()) return;
+        manifestTransactionTemplate.executeWithoutResult(transactionStatus -> {
+            lockManifest(organisationId);
+            if (!extensionFileRepository.isManifestBuilt(organisationId)) {
+                buildManifest(organisationId);
+            }
+        });
+    }
+
+    private void buildManifest(Long organisationId) {
+        extensionFileRepository.deleteAllOfOrganisation(organisationId);
+        List<ExtensionFile> extensionFiles = s3Service.listExtensionFiles(Optional.empty()).stream()
+                .map(ExtensionService::toExtensionFile)
+                .collect(Collectors.toList());
+        extensionFileRepository.saveAll(extensionFiles);
+        extensionFileRepository.markManifestBuilt(organisationId);
+    }
+
+    private void lockManifest(Long organisationId) {
+        jdbcTemplate.query("select pg_advisory_xact_lock(hashtext('extension_manifest'), ?)", (ResultSetExtractor<Void>) resultSet -> null, Math.toIntExact(organisationId));
+    }
+
+    private boolean hasExtensionSettings() {
+        OrganisationConfig organisationConfig = organisationConfigService.getOrganisationConfig(UserContextHolder.getOrganisation());
+        return organisationConfig != null && organisationConfig.getSettingsObject().hasExtensions();
+    }
+
+    private static Date modifiedAfter(Optional<DateTime> modifiedSince) {
+        return modifiedSince.orElse(new DateTime(0)).toDate();
+    }
+
+    private static ExtensionFile toExtensionFile(S3ExtensionFile s3ExtensionFile) {
+        ExtensionFile extensionFile = new ExtensionFile();
+        extensionFile.assignUUID();
+        extensionFile.setS3Key(s3ExtensionFile.getS3File().getPath());
+        extensionFile.setSize(s3ExtensionFile.getSize());
+        extensionFile.setETag(s3ExtensionFile.getETag());
+        extensionFile.setFileModifiedDateTime(s3ExtensionFile.getLastModifiedDateTime());
+        return extensionFile;
     }
 }
@@ -15,6 +15,8 @@ import org.avni.server.identifier.IdentifierGenerator;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -29,11 +31,17 @@ public class IdentifierAssignmentService implements DeviceAwareService {
 
     private ApplicationContext context;
 
+    private IdentifierTopUpService identifierTopUpService;
+
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
-    public IdentifierAssignmentService(IdentifierSourceRepository identifierSourceRepository, IdentifierAssignmentRepository identifierAssignmentRepository, ApplicationContext context) {
+    public IdentifierAssignmentService(IdentifierSourceRepository identifierSourceRepository, IdentifierAssignmentRepository identifierAssignmentRepository, ApplicationContext context, IdentifierTopUpService identifierTopUpService, JdbcTemplate jdbcTemplate) {
         this.identifierSourceRepository = identifierSourceRepository;
         this.identifierAssignmentRepository = identifierAssignmentRepository;
         this.context = context;
+        this.identifierTopUpService = identifierTopUpService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
 
@@ -47,6 +55,7 @@ public class IdentifierAssignmentService implements DeviceAwareService {
 
     @Transactional
     public void generateIdentifiersIfNecessary(User user, IdentifierSource identifierSource, String deviceId) {
+        lockIdentifierGeneration(user);
         if (shouldGenerateIdentifiers(user, identifierSource, deviceId)) {
             IdentifierGenerator identifierGenerator = context.getBean(identifierSource.getType().name(), IdentifierGenerator.class);
             identifierGenerator.generateIdentifiers(identifierSource, user, deviceId);
@@ -55,6 +64,7 @@ public class IdentifierAssignmentService implements DeviceAwareService {
 
     @Transactional
     public List<IdentifierAssignment> generateIdentifiersForAForm(Form form, User user) {
+        lockIdentifierGeneration(user);
         return form.getApplicableFormElements().stream()
                 .filter(formElement -> formElement.getKeyValues().containsKey(KeyType.IdSourceUUID))
                 .map(formElement -> {
@@ -65,14 +75,36 @@ public class IdentifierAssignmentService implements DeviceAwareService {
                 }).collect(Collectors.toList());
     }
 
+    /**
+     * The user pool based generators pick the next identifiers of a user from the identifiers the user has taken so far, so
+     * the identifiers of a user must not be generated in parallel, by the background top up, a request or another server.
+     * Held till the end of the transaction.
+     */
+    private void lockIdentifierGeneration(User user) {
+        jdbcTemplate.query("select pg_advisory_xact_lock(hashtext('identifier_generation'), ?)", (ResultSetExtractor<Void>) resultSet -> null, Math.toIntExact(user.getId()));
+    }
+
     private boolean shouldGenerateIdentifiers(User user, IdentifierSource identifierSource, String deviceId) {
         Integer spareIdentifierAssignments = identifierAssignmentRepository.countIdentifierAssignmentByIdentifierSourceEqualsAndAssignedToEqualsAndIndividualIsNullAndProgramEnrolmentIsNullAndUsedIsFalseAndDeviceIdEquals(identifierSource, user, deviceId);
         return spareIdentifierAssignments < identifierSource.getMinimumBalance();
     }
 
+    private boolean isBelowMinimumBalance(User user, String deviceId) {
+        return identifierSourceRepository.getAllAuthorisedIdentifierSources(user.getCatchment()).stream()
+                .anyMatch(identifierSource -> shouldGenerateIdentifiers(user, identifierSource, deviceId));
+    }
+
+    /**
+     * Does not generate identifiers. When the device is short of identifiers a top up is started in the background, and
+     * sync is reported as required so that the device fetches the identifiers, which waits for the top up to finish.
+     */
     @Override
     public boolean isSyncRequiredForDevice(DateTime lastModifiedDateTime, String deviceId) {
         User user = UserContextHolder.getUserContext().getUser();
-        this.generateIdentifiersIfNecessary(user, deviceId);
-        return identifierAssignmentRepository.existsByAssignedToAndLastModifiedDateTimeGreaterThanAndIsVoidedFalseAndIndividualIsNullAndProgramEnrolmentIsNullAndDeviceIdEquals(user, CHSEntity.toDate(lastModifiedDateTime), deviceId);    }
+        if (isBelowMinimumBalance(user, deviceId)) {
+            identifierTopUpService.requestTopUp(user, deviceId);
+            return true;
+        }
+        return identifierAssignmentRepository.existsByAssignedToAndLastModifiedDateTimeGreaterThanAndIsVoidedFalseAndIndividualIsNullAndProgramEnrolmentIsNullAndDeviceIdEquals(user, CHSEntity.toDate(lastModifiedDateTime), deviceId);
+    }
 }
@@ -0,0 +1,159 @@
+package org.avni.server.service;
+
+import org.avni.server.domain.User;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.UserContextHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Tops up the spare identifiers of a user's devices in the background, so that sync status checks do not have to insert
+ * identifier assignments. There is at most one top up in flight per user, which also tops up the other devices of the user
+ * requested while it runs, as the identifiers of a user are generated one batch at a time. Across servers the generation
+ * is serialised by IdentifierAssignmentService. Top ups that fail are kept and tried again by the scheduled sweep.
+ */
+@Component
+public class IdentifierTopUpService {
+    private static final Logger logger = LoggerFactory.getLogger(IdentifierTopUpService.class);
+    private final IdentifierAssignmentService identifierAssignmentService;
+    private final AuthService authService;
+    private final Executor identifierTopUpExecutor;
+    private final long awaitMillis;
+    private final Map<Long, UserTopUp> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, TopUpRequest> failed = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdentifierTopUpService(@Lazy IdentifierAssignmentService identifierAssignmentService, AuthService authService,
+                                  @Qualifier("identifierTopUpExecutor") Executor identifierTopUpExecutor,
+                                  @Value("${avni.identifier.topUp.awaitMillis}") long awaitMillis) {
+        this.identifierAssignmentService = identifierAssignmentService;
+        this.authService = authService;
+        this.identifierTopUpExecutor = identifierTopUpExecutor;
+        this.awaitMillis = awaitMillis;
+    }
+
+    public void requestTopUp(User user, String deviceId) {
+        UserContext userContext = UserContextHolder.getUserContext();
+        String organisationUUID = userContext == null ? null : userContext.getOrganisationUUID();
+        submit(new TopUpRequest(user, deviceId, organisationUUID));
+    }
+
+    /**
+     * Waits up to awaitMillis for the top up in flight for the user, if any, so that the caller sees the identifiers it
+     * committed. A caller that stops waiting and generates identifiers itself is held back by the lock taken for the
+     * generation until the top up commits.
+     */
+    public void awaitTopUp(User user) {
+        UserTopUp topUp = inFlight.get(user.getId());
+        if (topUp == null) return;
+        try {
+            topUp.done.get(awaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn(String.format("Identifier top up for user id: %d did not finish in %d ms", user.getId(), awaitMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            //a top up never completes exceptionally, failures are kept for the sweep
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${avni.identifier.topUp.sweepMillis}", initialDelayString = "${avni.identifier.topUp.sweepMillis}")
+    public void retryFailedTopUps() {
+        List<TopUpRequest> requests = new ArrayList<>(failed.values());
+        for (TopUpRequest request : requests) {
+            failed.remove(request.key(), request);
+            try {
+                //the worker gets its organisation from the context of the thread that submits it
+                authService.authenticateByUserId(request.user.getId(), request.organisationUUID);
+                submit(request);
+            } catch (RuntimeException e) {
+                logger.error(String.format("Could not retry identifier top up for user id: %d", request.user.getId()), e);
+            } finally {
+                UserContextHolder.clear();
+            }
+        }
+    }
+
+    private void submit(TopUpRequest request) {
+        Long userId = request.user.getId();
+        UserTopUp[] started = new UserTopUp[1];
+        inFlight.compute(userId, (id, topUp) -> {
+            if (topUp == null) {
+                topUp = new UserTopUp();
+                started[0] = topUp;
+            }
+            topUp.pending.put(request.deviceId, request);
+            return topUp;
+        });
+        if (started[0] == null) return;
+        UserTopUp topUp = started[0];
+        try {
+            identifierTopUpExecutor.execute(() -> topUp(userId, topUp));
+        } catch (RuntimeException e) {
+            inFlight.remove(userId, topUp);
+            topUp.pending.values().forEach(pendingRequest -> failed.put(pendingRequest.key(), pendingRequest));
+            topUp.done.complete(null);
+            logger.warn(String.format("Identifier top up for user id: %d could not be queued, will be retried", userId));
+        }
+    }
+
+    private void topUp(Long userId, UserTopUp topUp) {
+        TopUpRequest request;
+        while ((request = nextRequest(userId)) != null) {
+            try {
+                identifierAssignmentService.generateIdentifiersIfNecessary(request.user, request.deviceId);
+            } catch (RuntimeException e) {
+                failed.put(request.key(), request);
+                logger.error(String.format("Identifier top up failed for user id: %d, will be retried", userId), e);
+            }
+        }
+        topUp.done.complete(null);
+    }
+
+    /**
+     * Takes the next device to top up, or removes the top up from the ones in flight when there are none left. Both happen
+     * under the map's lock for the user, the same one under which requests are added.
+     */
+    private TopUpRequest nextRequest(Long userId) {
+        TopUpRequest[] next = new TopUpRequest[1];
+        inFlight.computeIfPresent(userId, (id, current) -> {
+            Iterator<TopUpRequest> pending = current.pending.values().iterator();
+            if (!pending.hasNext()) return null;
+            next[0] = pending.next();
+            pending.remove();
+            return current;
+        });
+        return next[0];
+    }
+
+    private static class UserTopUp {
+        private final Map<String, TopUpRequest> pending = new LinkedHashMap<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+    }
+
+    private static class TopUpRequest {
+        private final User user;
+        private final String deviceId;
+        private final String organisationUUID;
+
+        private TopUpRequest(User user, String deviceId, String organisationUUID) {
+            this.user = user;
+            this.deviceId = deviceId;
+            this.organisationUUID = organisationUUID;
+        }
+
+        private String key() {
+            return user.getId() + "_" + deviceId;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.avni.server.service;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
+import com.auth0.jwk.SigningKeyNotFoundException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Signing keys of an identity provider, kept for the life of the process. The keys are reloaded by refresh, and also when
+ * a token is signed with a key that is not known yet (key rotation), though not more than once a minute.
+ */
+public class JwksKeyStore {
+    private static final long MIN_REFRESH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private final JwksSource jwksSource;
+    private final LongSupplier clock;
+    private volatile Map<String, Jwk> keys = Collections.emptyMap();
+    private boolean loaded;
+    private long lastRefreshMillis;
+
+    public JwksKeyStore(JwksSource jwksSource) {
+        this(jwksSource, System::currentTimeMillis);
+    }
+
+    JwksKeyStore(JwksSource jwksSource, LongSupplier clock) {
+        this.jwksSource = jwksSource;
+        this.clock = clock;
+    }
+
+    public Jwk get(String keyId) throws JwkException {
+        Jwk jwk = keys.get(keyId);
+        if (jwk == null) {
+            refreshIfDue();
+            jwk = keys.get(keyId);
+        }
+        if (jwk == null) {
+            throw new SigningKeyNotFoundException(String.format("No key found for kid %s", keyId), null);
+        }
+        return jwk;
+    }
+
+    public synchronized void refresh() throws JwkException {
+        Map<String, Jwk> refreshedKeys = new HashMap<>();
+        for (Jwk jwk : jwksSource.getAll()) {
+            refreshedKeys.put(jwk.getId(), jwk);
+        }
+        keys = Collections.unmodifiableMap(refreshedKeys);
+        loaded = true;
+        lastRefreshMillis = clock.getAsLong();
+    }
+
+    private synchronized void refreshIfDue() throws JwkException {
+        if (loaded && clock.getAsLong() - lastRefreshMillis < MIN_REFRESH_INTERVAL_MILLIS) return;
+        refresh();
+    }
+
+    public interface JwksSource {
+        List<Jwk> getAll() throws JwkException;
+    }
+}
@@ -42,15 +42,17 @@ public class LocationService implements ScopeAwareService<AddressLevel> {
     private final LocationRepository locationRepository;
     private final LocationMappingRepository locationMappingRepository;
     private final ResetSyncService resetSyncService;
+    private final AddressLevelCache addressLevelCache;
     private final Logger logger;
 
     @Autowired
-    public LocationService(LocationRepository locationRepository, AddressLevelTypeRepository addressLevelTypeRepository, OrganisationRepository organisationRepository, LocationMappingRepository locationMappingRepository, ResetSyncService resetSyncService) {
+    public LocationService(LocationRepository locationRepository, AddressLevelTypeRepository addressLevelTypeRepository, OrganisationRepository organisationRepository, LocationMappingRepository locationMappingRepository, ResetSyncService resetSyncService, AddressLevelCache addressLevelCache) {
         this.locationRepository = locationRepository;
         this.addressLevelTypeRepository = addressLevelTypeRepository;
         this.organisationRepository = organisationRepository;
         this.locationMappingRepository = locationMappingRepository;
         this.resetSyncService = resetSyncService;
+        this.addressLevelCache = addressLevelCache;
         this.logger = LoggerFactory.getLogger(this.getClass());
     }
 
@@ -110,7 +112,8 @@ public class LocationService implements ScopeAwareService<AddressLevel> {
                     contract.toString());
 
         try {
-            locationRepository.save(location);
+            //Flushed, as the insert of a new location otherwise only runs at commit, outside this try
+            locationRepository.saveAndFlush(location);
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
             throw new BuilderException(String.format("Unable to create Location{name='%s',level='%s',orgUUID='%s',..}: '%s'", contract.getName(), contract.getLevel(), contract.getOrganisationUUID(), e.getMessage()), contract.toString());
@@ -179,11 +182,13 @@ public class LocationService implements ScopeAwareService<AddressLevel> {
 
     public void updateParent(AddressLevel location, AddressLevel newParent) {
         Long oldParentId = location.getParentId();
+        String oldLineage = location.getLineage();
         location.setLineage(updateLineage(location, newParent.getLineage()));
         location.setParent(newParent);
         locationRepository.save(location);
-        updateDescendantLocationLineage(locationRepository.findAllByParent(location), location.getLineage());
+        locationRepository.updateDescendantLineage(oldLineage, location.getLineage());
         updateLocationMapping(location, newParent);
+        addressLevelCache.evictAll();
         resetSyncService.recordLocationParentChange(location, oldParentId);
     }
 
@@ -203,16 +208,6 @@ public class LocationService implements ScopeAwareService<AddressLevel> {
         return parentLineage + "." + location.getId();
     }
 
-    private void updateDescendantLocationLineage(List<AddressLevel> children, String parentLineage) {
-        if (!children.isEmpty()) {
-            children.forEach(child -> {
-                child.setLineage(updateLineage(child, parentLineage));
-                locationRepository.save(child);
-                updateDescendantLocationLineage(locationRepository.findAllByParent(child), child.getLineage());
-            });
-        }
-    }
-
     private boolean titleIsValid(AddressLevel location, String title, AddressLevelType type) {
         return (location.isTopLevel() && locationRepository.findByTitleIgnoreCaseAndTypeAndParentIsNull(title, type) == null)
                 || (!location.isTopLevel() && !location.getParent().containsSubLocation(title, type));
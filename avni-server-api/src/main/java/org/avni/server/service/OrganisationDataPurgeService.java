@@ -0,0 +1,213 @@
+package org.avni.server.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.avni.server.common.dbSchema.TableNames;
+import org.avni.server.domain.Organisation;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Deletes the data of an organisation table by table, children before parents, with set based deletes of at most
+ * batchSize rows. Every batch is committed in its own transaction, so a purge does not hold locks on the shared tables
+ * for its whole duration. A purge that is interrupted is resumed by running it again, as the tables it had completed
+ * have no rows left for the organisation.
+ */
+@Service
+public class OrganisationDataPurgeService {
+    private static final Logger logger = LoggerFactory.getLogger(OrganisationDataPurgeService.class);
+
+    static final List<PurgeStep> TRANSACTIONAL_DATA = Arrays.asList(
+            PurgeStep.table("individual_relative"),
+            PurgeStep.table("message_request_queue"),
+            PurgeStep.table("manual_message"),
+            PurgeStep.table("message_receiver"),
+            PurgeStep.table("export_job_parameters"),
+            PurgeStep.table("rule_failure_log"),
+            PurgeStep.table("news"),
+            PurgeStep.table("comment"),
+            PurgeStep.table("comment_thread"),
+            PurgeStep.table("entity_approval_status"),
+            PurgeStep.table("rule_failure_telemetry"),
+            PurgeStep.table("identifier_assignment"),
+            PurgeStep.table("sync_telemetry"),
+            PurgeStep.table("video_telemetric"),
+            PurgeStep.table("group_subject"),
+            PurgeStep.table("individual_relationship"),
+            PurgeStep.table("checklist_item"),
+            PurgeStep.table("checklist"),
+            PurgeStep.table(TableNames.ProgramEncounter),
+            PurgeStep.table(TableNames.ProgramEnrolment),
+            PurgeStep.table(TableNames.Encounter),
+            PurgeStep.table("subject_migration"),
+            PurgeStep.table("user_subject_assignment"),
+            PurgeStep.table(TableNames.SubjectProgramEligibility),
+            PurgeStep.table("task_unassignment"),
+            PurgeStep.table("task"),
+            PurgeStep.table("user_subject"),
+            PurgeStep.table(TableNames.Subject),
+            PurgeStep.table("reset_sync")
+    );
+
+    static final List<PurgeStep> METADATA = Arrays.asList(
+            PurgeStep.statement("decision_concept of concepts", "delete from decision_concept dc using concept c where dc.concept_id = c.id and c.organisation_id = ? and c.organisation_id > 1"),
+            PurgeStep.statement("decision_concept of forms", "delete from decision_concept dc using form f where dc.form_id = f.id and f.organisation_id = ? and f.organisation_id > 1"),
+            PurgeStep.table("non_applicable_form_element"),
+            PurgeStep.table("group_privilege"),
+            PurgeStep.table("group_role"),
+            PurgeStep.table("checklist_item_detail"),
+            PurgeStep.table("checklist_detail"),
+            PurgeStep.table("individual_relation_gender_mapping"),
+            PurgeStep.table("individual_relationship_type"),
+            PurgeStep.table("individual_relation"),
+            PurgeStep.table("form_element"),
+            PurgeStep.table("form_element_group"),
+            PurgeStep.table("form_mapping"),
+            PurgeStep.table("form"),
+            PurgeStep.table("operational_encounter_type"),
+            PurgeStep.table("encounter_type"),
+            PurgeStep.table("operational_program"),
+            PurgeStep.table("program"),
+            PurgeStep.table("operational_subject_type"),
+            PurgeStep.table("subject_type"),
+            PurgeStep.table("translation"),
+            PurgeStep.table("video"),
+            PurgeStep.table("dashboard_section_card_mapping"),
+            PurgeStep.table("report_card"),
+            PurgeStep.table("dashboard_section"),
+            PurgeStep.table("group_dashboard"),
+            PurgeStep.table("dashboard_filter"),
+            PurgeStep.table("dashboard"),
+            PurgeStep.table("answer_concept_migration"),
+            PurgeStep.table("concept_answer"),
+            PurgeStep.table("concept"),
+            PurgeStep.table("documentation_item"),
+            PurgeStep.table("documentation"),
+            PurgeStep.table("menu_item"),
+            PurgeStep.table("rule"),
+            PurgeStep.table("rule_dependency"),
+            PurgeStep.table("task_status"),
+            PurgeStep.table("task_type"),
+            PurgeStep.table("user_subject_assignment"),
+            PurgeStep.table("message_rule"),
+            PurgeStep.table("custom_query")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate batchTransactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public OrganisationDataPurgeService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory, PlatformTransactionManager platformTransactionManager,
+                                        @Value("${avni.purge.batchSize}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    public void purgeTransactionalData(Organisation organisation) {
+        purge(organisation, "transactional data", TRANSACTIONAL_DATA);
+    }
+
+    public void purgeMetadata(Organisation organisation) {
+        purge(organisation, "metadata", METADATA);
+    }
+
+    private void purge(Organisation organisation, String dataName, List<PurgeStep> steps) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < steps.size(); i++) {
+            PurgeStep step = steps.get(i);
+            String stepProgress = format("Purging %s of organisation %d, step %d of %d (%s)", dataName, organisation.getId(), i + 1, steps.size(), step.getName());
+            if (step.isStatement()) {
+                int deleted = inBatchTransaction(step.getDeleteSql(), organisation.getId());
+                logger.info(format("%s: deleted %d rows", stepProgress, deleted));
+            } else {
+                purgeTable(organisation, step, stepProgress);
+            }
+        }
+        //The deletes are not run through hibernate, so the entities and queries it has cached are not invalidated by them
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        logger.info(format("Purged %s of organisation %d in %d ms", dataName, organisation.getId(), System.currentTimeMillis() - start));
+    }
+
+    private void purgeTable(Organisation organisation, PurgeStep step, String stepProgress) {
+        Long rows = jdbcTemplate.queryForObject(step.getCountSql(), Long.class, organisation.getId());
+        if (rows == null || rows == 0) {
+            logger.debug(format("%s: no rows", stepProgress));
+            return;
+        }
+        long deleted = 0;
+        int deletedInBatch;
+        do {
+            deletedInBatch = inBatchTransaction(step.getDeleteSql(), organisation.getId(), batchSize);
+            deleted += deletedInBatch;
+            logger.info(format("%s: deleted %d of %d rows", stepProgress, deleted, rows));
+        } while (deletedInBatch == batchSize);
+    }
+
+    private int inBatchTransaction(String sql, Object... args) {
+        Integer deleted = batchTransactionTemplate.execute(status -> jdbcTemplate.update(sql, args));
+        return deleted == null ? 0 : deleted;
+    }
+
+    static class PurgeStep {
+        private final String name;
+        private final String countSql;
+        private final String deleteSql;
+
+        private PurgeStep(String name, String countSql, String deleteSql) {
+            this.name = name;
+            this.countSql = countSql;
+            this.deleteSql = deleteSql;
+        }
+
+        /**
+         * Rows of the organisation in a table with an organisation_id, deleted batchSize rows at a time. The
+         * organisation_id > 1 check keeps the rows of the default organisation out of any purge.
+         */
+        static PurgeStep table(String table) {
+            return new PurgeStep(table,
+                    format("select count(*) from %s where organisation_id = ? and organisation_id > 1", table),
+                    format("delete from %s where id in (select id from %s where organisation_id = ? and organisation_id > 1 limit ?)", table, table));
+        }
+
+        /**
+         * Rows of a small table without an organisation_id, found through the tables it refers to and deleted by one
+         * statement.
+         */
+        static PurgeStep statement(String name, String deleteSql) {
+            return new PurgeStep(name, null, deleteSql);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getCountSql() {
+            return countSql;
+        }
+
+        String getDeleteSql() {
+            return deleteSql;
+        }
+
+        boolean isStatement() {
+            return countSql == null;
+        }
+    }
+}
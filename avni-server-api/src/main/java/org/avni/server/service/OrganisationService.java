@@ -1,7 +1,13 @@
 package org.avni.server.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.PrettyPrinter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import org.apache.commons.io.IOUtils;
 import org.avni.messaging.contract.MessageRuleContract;
 import org.avni.messaging.repository.ManualMessageRepository;
@@ -26,6 +32,7 @@ import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.importer.batch.model.BundleFolder;
 import org.avni.server.mapper.dashboard.DashboardMapper;
 import org.avni.server.mapper.dashboard.ReportCardMapper;
+import org.avni.server.service.accessControl.GroupPrivilegesCache;
 import org.avni.server.service.application.MenuItemService;
 import org.avni.server.util.ObjectMapperSingleton;
 import org.avni.server.util.S;
@@ -44,6 +51,7 @@ import org.avni.server.web.request.webapp.documentation.DocumentationContract;
 import org.avni.server.web.request.webapp.task.TaskStatusContract;
 import org.avni.server.web.request.webapp.task.TaskTypeContract;
 import org.avni.server.web.response.reports.ReportCardBundleContract;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -65,6 +73,15 @@ import java.util.zip.ZipOutputStream;
 
 @Service
 public class OrganisationService {
+    private static final int LOCATION_EXPORT_PAGE_SIZE = 1000;
+    /**
+     * A page of the locations of the organisation ordered by their depth in the hierarchy and id, after the location at
+     * depth and id. Locations without a lineage come first, at depth 0.
+     */
+    private static final String LOCATION_PAGE_IN_HIERARCHY_ORDER_SQL = "select * from address_level al where al.organisation_id = :organisationId " +
+            "and (coalesce(nlevel(al.lineage), 0), al.id) > (:depth, :id) " +
+            "order by coalesce(nlevel(al.lineage), 0), al.id limit :pageSize";
+
     private final FormRepository formRepository;
     private final AddressLevelTypeRepository addressLevelTypeRepository;
     private final LocationRepository locationRepository;
@@ -112,6 +129,7 @@ public class OrganisationService {
     private final Msg91ConfigRepository msg91ConfigRepository;
     private final S3Service s3Service;
     private final UserService userService;
+    private final GroupPrivilegesCache groupPrivilegesCache;
 
     //Tx repositories
     private final RuleFailureTelemetryRepository ruleFailureTelemetryRepository;
@@ -168,6 +186,8 @@ public class OrganisationService {
     private final JdbcTemplate jdbcTemplate;
     private final DashboardMapper dashboardMapper;
     private final GroupDashboardService groupDashboardService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final OrganisationDataPurgeService organisationDataPurgeService;
 
     @Autowired
     public OrganisationService(FormRepository formRepository,
@@ -213,7 +233,7 @@ public class OrganisationService {
                                DashboardFilterRepository dashboardFilterRepository, DashboardSectionRepository dashboardSectionRepository,
                                GroupDashboardRepository groupDashboardRepository,
                                Msg91ConfigRepository msg91ConfigRepository,
-                               S3Service s3Service, UserService userService, RuleFailureTelemetryRepository ruleFailureTelemetryRepository,
+                               S3Service s3Service, UserService userService, GroupPrivilegesCache groupPrivilegesCache, RuleFailureTelemetryRepository ruleFailureTelemetryRepository,
                                IdentifierAssignmentRepository identifierAssignmentRepository,
                                SyncTelemetryRepository syncTelemetryRepository,
                                VideoTelemetricRepository videoTelemetricRepository,
@@ -264,7 +284,9 @@ public class OrganisationService {
                                JdbcTemplate jdbcTemplate,
                                ReportCardMapper reportCardMapper,
                                DashboardMapper dashboardMapper,
-                               GroupDashboardService groupDashboardService) {
+                               GroupDashboardService groupDashboardService,
+                               EntityManagerFactory entityManagerFactory,
+                               OrganisationDataPurgeService organisationDataPurgeService) {
         this.formRepository = formRepository;
         this.addressLevelTypeRepository = addressLevelTypeRepository;
         this.locationRepository = locationRepository;
@@ -310,6 +332,7 @@ public class OrganisationService {
         this.msg91ConfigRepository = msg91ConfigRepository;
         this.s3Service = s3Service;
         this.userService = userService;
+        this.groupPrivilegesCache = groupPrivilegesCache;
         this.ruleFailureTelemetryRepository = ruleFailureTelemetryRepository;
         this.identifierAssignmentRepository = identifierAssignmentRepository;
         this.syncTelemetryRepository = syncTelemetryRepository;
@@ -364,97 +387,8 @@ public class OrganisationService {
         this.dashboardService = dashboardService;
         logger = LoggerFactory.getLogger(this.getClass());
         this.groupDashboardService = groupDashboardService;
-    }
-
-    private CrudRepository[] getTxCrudRepositories() {
-        CrudRepository[] txCrudRepositories = {
-                exportJobParametersRepository,
-                manualMessageRepository,
-                messageReceiverRepository,
-                messageRequestQueueRepository,
-                ruleFailureLogRepository,
-        };
-        return txCrudRepositories;
-    }
-
-    private JpaRepository[] getTxJpaRepositories() {
-        JpaRepository[] transactionalRepositories = {
-                newsRepository,
-                commentRepository,
-                commentThreadRepository,
-                entityApprovalStatusRepository,
-                ruleFailureTelemetryRepository,
-                identifierAssignmentRepository,
-                syncTelemetryRepository,
-                videoTelemetricRepository,
-                groupSubjectRepository,
-                individualRelationshipRepository,
-                checklistItemRepository,
-                checklistRepository,
-                programEncounterRepository,
-                programEnrolmentRepository,
-                encounterRepository,
-                subjectMigrationRepository,
-                userSubjectAssignmentRepository,
-                subjectProgramEligibilityRepository,
-                taskUnAssignmentRepository,
-                taskRepository,
-                userSubjectRepository,
-                individualRepository,
-                resetSyncRepository,
-        };
-        return transactionalRepositories;
-    }
-
-    private CrudRepository[] getMetadataCrudRepositories() {
-        CrudRepository[] metadataCrudRepositories = {
-                messageRuleRepository,
-                customQueryRepository,
-        };
-        return metadataCrudRepositories;
-    }
-
-    private JpaRepository[] getMetadataJpaRepositories() {
-        JpaRepository[] metadataRepositories = {
-                groupPrivilegeRepository,
-                groupRoleRepository,
-                checklistItemDetailRepository,
-                checklistDetailRepository,
-                individualRelationGenderMappingRepository,
-                individualRelationshipTypeRepository,
-                individualRelationRepository,
-                formElementRepository,
-                formElementGroupRepository,
-                formMappingRepository,
-                formRepository,
-                conceptAnswerRepository,
-                conceptRepository,
-                operationalEncounterTypeRepository,
-                encounterTypeRepository,
-                operationalProgramRepository,
-                programRepository,
-                operationalSubjectTypeRepository,
-                subjectTypeRepository,
-                translationRepository,
-                videoRepository,
-                dashboardSectionCardMappingRepository,
-                cardRepository,
-                dashboardSectionRepository,
-                groupDashboardRepository,
-                dashboardFilterRepository,
-                dashboardRepository,
-                answerConceptMigrationRepository,
-                documentationItemRepository,
-                documentationRepository,
-                menuItemRepository,
-                ruleRepository,
-                ruleDependencyRepository,
-                taskTypeRepository,
-                taskStatusRepository,
-                translationRepository,
-                userSubjectAssignmentRepository,
-        };
-        return metadataRepositories;
+        this.entityManagerFactory = entityManagerFactory;
+        this.organisationDataPurgeService = organisationDataPurgeService;
     }
 
     private CrudRepository[] getAdminConfigCrudRepositories() {
@@ -637,54 +571,67 @@ public class OrganisationService {
     }
 
     public void addAddressLevelsJson(Long orgId, ZipOutputStream zos) throws IOException {
-        List<LocationContract> contracts = new ArrayList<>();
-        List<AddressLevel> allAddressLevels = locationRepository.findAllByOrganisationId(orgId);
-        List<AddressLevel> rootNodes = allAddressLevels.stream()
-                .filter(addressLevel -> addressLevel.getParent() == null)
-                .collect(Collectors.toList());
-        for (AddressLevel node : rootNodes) {
-            addAddressLevel(node, allAddressLevels, contracts);
-        }
-        addFileToZip(zos, "locations.json", contracts);
+        addAddressLevelsJson(orgId, zos, LOCATION_EXPORT_PAGE_SIZE);
     }
 
-    private void addAddressLevel(AddressLevel theNode, List<AddressLevel> allAddressLevels, List<LocationContract> contracts) {
-        List<AddressLevel> childNodes = allAddressLevels.stream()
-                .filter(addressLevelType -> {
-                    AddressLevel parent = addressLevelType.getParent();
-                    return parent != null && parent.getId().equals(theNode.getId());
-                })
-                .collect(Collectors.toList());
-        contracts.add(LocationContract.fromAddressLevel(theNode));
-        for (AddressLevel child : childNodes) {
-            addAddressLevel(child, allAddressLevels, contracts);
+    /**
+     * Locations are written a page at a time in the order of their depth in the hierarchy, so that a parent is always
+     * imported before its children. They are read through an entity manager of their own, with read only entities, which
+     * is cleared after each page. The memory used does not grow with the number of locations, and the entities of the
+     * request's own persistence context are left alone.
+     */
+    void addAddressLevelsJson(Long orgId, ZipOutputStream zos, int pageSize) throws IOException {
+        EntityManager locationEntityManager = entityManagerFactory.createEntityManager();
+        try {
+            locationEntityManager.unwrap(Session.class).setDefaultReadOnly(true);
+            addJsonArrayToZip(zos, "locations.json", sequenceWriter -> {
+                int depth = 0;
+                long id = 0;
+                List<AddressLevel> addressLevels;
+                do {
+                    addressLevels = locationEntityManager.createNativeQuery(LOCATION_PAGE_IN_HIERARCHY_ORDER_SQL, AddressLevel.class)
+                            .setParameter("organisationId", orgId)
+                            .setParameter("depth", depth)
+                            .setParameter("id", id)
+                            .setParameter("pageSize", pageSize)
+                            .getResultList();
+                    for (AddressLevel addressLevel : addressLevels) {
+                        sequenceWriter.write(LocationContract.fromAddressLevel(addressLevel));
+                    }
+                    if (!addressLevels.isEmpty()) {
+                        AddressLevel last = addressLevels.get(addressLevels.size() - 1);
+                        depth = last.getLineage() == null ? 0 : StringUtils.countOccurrencesOf(last.getLineage(), ".") + 1;
+                        id = last.getId();
+                    }
+                    locationEntityManager.clear();
+                } while (addressLevels.size() == pageSize);
+            });
+        } finally {
+            locationEntityManager.close();
         }
     }
 
     public void addAddressLevelTypesJson(Long orgId, ZipOutputStream zos) throws IOException {
-
-        List<AddressLevelTypeContract> contracts = new ArrayList<>();
-        List<AddressLevelType> allAddressLevelTypes = addressLevelTypeRepository.findAllByOrganisationId(orgId);
-        List<AddressLevelType> rootNodes = allAddressLevelTypes.stream()
-                .filter(addressLevelType -> addressLevelType.getParent() == null)
-                .collect(Collectors.toList());
-        for (AddressLevelType node : rootNodes) {
-            addAddressLevelType(node, allAddressLevelTypes, contracts);
-        }
-        addFileToZip(zos, "addressLevelTypes.json", contracts);
-    }
-
-    private void addAddressLevelType(AddressLevelType theNode, List<AddressLevelType> allAddressLevelTypes, List<AddressLevelTypeContract> contracts) {
-        List<AddressLevelType> childNodes = allAddressLevelTypes.stream()
-                .filter(addressLevelType -> {
-                    AddressLevelType parent = addressLevelType.getParent();
-                    return parent != null && parent.getId().equals(theNode.getId());
-                })
-                .collect(Collectors.toList());
-        contracts.add(AddressLevelTypeContract.fromAddressLevelType(theNode));
-        for (AddressLevelType child : childNodes) {
-            addAddressLevelType(child, allAddressLevelTypes, contracts);
+        List<AddressLevelType> rootNodes = new ArrayList<>();
+        Map<Long, List<AddressLevelType>> childNodesByParentId = new HashMap<>();
+        for (AddressLevelType addressLevelType : addressLevelTypeRepository.findAllByOrganisationId(orgId)) {
+            AddressLevelType parent = addressLevelType.getParent();
+            if (parent == null) {
+                rootNodes.add(addressLevelType);
+            } else {
+                childNodesByParentId.computeIfAbsent(parent.getId(), parentId -> new ArrayList<>()).add(addressLevelType);
+            }
         }
+        addJsonArrayToZip(zos, "addressLevelTypes.json", sequenceWriter -> {
+            Deque<AddressLevelType> pending = new ArrayDeque<>();
+            for (int i = rootNodes.size() - 1; i >= 0; i--) pending.push(rootNodes.get(i));
+            while (!pending.isEmpty()) {
+                AddressLevelType node = pending.pop();
+                sequenceWriter.write(AddressLevelTypeContract.fromAddressLevelType(node));
+                List<AddressLevelType> childNodes = childNodesByParentId.getOrDefault(node.getId(), Collections.emptyList());
+                for (int i = childNodes.size() - 1; i >= 0; i--) pending.push(childNodes.get(i));
+            }
+        });
     }
 
     public void addConceptsJson(Long orgId, ZipOutputStream zos) throws IOException {
@@ -819,13 +766,35 @@ public class OrganisationService {
         ZipEntry entry = new ZipEntry(fileName);
         zos.putNextEntry(entry);
         if (fileContent != null) {
-            PrettyPrinter prettyPrinter = new DefaultPrettyPrinter();
-            byte[] bytes = ObjectMapperSingleton.getObjectMapper().writer(prettyPrinter).writeValueAsBytes(fileContent);
-            zos.write(bytes);
+            bundleJsonWriter().writeValue(zos, fileContent);
+        }
+        zos.closeEntry();
+    }
+
+    private interface JsonArrayContent {
+        void writeTo(SequenceWriter sequenceWriter) throws IOException;
+    }
+
+    private void addJsonArrayToZip(ZipOutputStream zos, String fileName, JsonArrayContent content) throws IOException {
+        ZipEntry entry = new ZipEntry(fileName);
+        zos.putNextEntry(entry);
+        try (SequenceWriter sequenceWriter = bundleJsonWriter().writeValuesAsArray(zos)) {
+            content.writeTo(sequenceWriter);
         }
         zos.closeEntry();
     }
 
+    /**
+     * Serialises straight into the entry of the zip, which must stay open for the entries that follow. Values are not
+     * flushed one by one, as that would flush the response for every location.
+     */
+    private static ObjectWriter bundleJsonWriter() {
+        PrettyPrinter prettyPrinter = new DefaultPrettyPrinter();
+        return ObjectMapperSingleton.getObjectMapper().writer(prettyPrinter)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
     private void addIconToZip(ZipOutputStream zos, String fileName, byte[] bytes) throws IOException {
         ZipEntry entry = new ZipEntry(fileName);
         zos.putNextEntry(entry);
@@ -842,32 +811,14 @@ public class OrganisationService {
     }
 
     public void deleteTransactionalData(Organisation organisation) {
-        deleteNonRepositoryTransactionalData(organisation);
-        Arrays.asList(getTxCrudRepositories()).forEach(this::deleteAll);
-        Arrays.asList(getTxJpaRepositories()).forEach(this::deleteAll);
+        organisationDataPurgeService.purgeTransactionalData(organisation);
     }
 
     public void deleteMetadata(Organisation organisation) {
-        deleteNonRepositoryMetadata(organisation);
-        Arrays.asList(getMetadataJpaRepositories()).forEach(this::deleteAll);
-        Arrays.asList(getMetadataCrudRepositories()).forEach(this::deleteAll);
+        organisationDataPurgeService.purgeMetadata(organisation);
         userRepository.findAllByOrganisationId(organisation.getId()).stream().forEach(user -> user.setSyncSettings(new JsonObject()));
     }
 
-    public void deleteNonRepositoryTransactionalData(Organisation organisation) {
-        String individualRelativeDeletionQuery = "delete from individual_relative where organisation_id = %d and organisation_id > 1";
-        jdbcTemplate.execute(String.format(individualRelativeDeletionQuery, organisation.getId()));
-    }
-
-    public void deleteNonRepositoryMetadata(Organisation organisation) {
-        String decisionConceptsDeletionQuery = "delete from decision_concept dc using concept c where dc.concept_id = c.id and c.organisation_id = %d and c.organisation_id > 1";
-        String decisionConceptsFromFormsDeletionQuery = "delete from decision_concept dc using form f where dc.form_id = f.id and f.organisation_id = %d and f.organisation_id > 1";
-        String nonApplicableFormElementDeletionQuery = "delete from non_applicable_form_element where organisation_id = %d and organisation_id > 1";
-        jdbcTemplate.execute(String.format(decisionConceptsDeletionQuery, organisation.getId()));
-        jdbcTemplate.execute(String.format(decisionConceptsFromFormsDeletionQuery, organisation.getId()));
-        jdbcTemplate.execute(String.format(nonApplicableFormElementDeletionQuery, organisation.getId()));
-    }
-
     public void deleteAdminConfigData(Organisation organisation) {
         removeCatchmentAssignmentAndDeleteNonAdminUsers(organisation);
         deleteNonDefaultGroupsAndTheirMappings();
@@ -883,6 +834,8 @@ public class OrganisationService {
         if(nonDefaultGroups != null && !nonDefaultGroups.isEmpty()) {
             userGroupRepository.deleteAllByGroupIn(nonDefaultGroups);
             groupRepository.deleteAll(nonDefaultGroups);
+            //The user groups are deleted by a query, which does not go through the entity listeners that clear the cache
+            groupPrivilegesCache.evictAll();
         }
     }
 
@@ -1,6 +1,5 @@
 package org.avni.server.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import org.avni.messaging.domain.EntityType;
 import org.avni.server.application.Form;
@@ -10,7 +9,6 @@ import org.avni.server.dao.application.FormRepository;
 import org.avni.server.dao.individualRelationship.RuleFailureLogRepository;
 import org.avni.server.domain.*;
 import org.avni.server.framework.security.UserContextHolder;
-import org.avni.server.util.ObjectMapperSingleton;
 import org.avni.server.web.external.RuleServiceClient;
 import org.avni.server.web.request.EntityTypeContract;
 import org.avni.server.web.request.RuleRequest;
@@ -32,9 +30,13 @@ import org.springframework.util.StringUtils;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -234,6 +236,35 @@ public class RuleService implements NonScopeAwareService {
         return (ScheduleRuleResponseEntity) getBaseRuleResponseEntity(entityType, scheduleRule, rulesMessage, responseType, contract, entity.getUuid());
     }
 
+    /**
+     * Evaluates several schedule rules against one entity. The entity contract is built once and the rule calls are made
+     * concurrently, the responses are returned in the order of the rules.
+     */
+    public List<ScheduleRuleResponseEntity> executeScheduleRules(String entityType, Long entityId, List<String> scheduleRules) throws RuleExecutionException {
+        if (scheduleRules.isEmpty()) return new ArrayList<>();
+        CHSEntity entity = entityRetrieverService.getEntity(entityType, entityId);
+        RuleServerEntityContract contract = ruleServiceEntityContractBuilder.toContract(entityType, entity);
+        if (scheduleRules.size() == 1) {
+            return Collections.singletonList((ScheduleRuleResponseEntity) getBaseRuleResponseEntity(entityType, scheduleRules.get(0), RULES_MESSAGE_SCHEDULE, ScheduleRuleResponseEntity.class, contract, entity.getUuid()));
+        }
+
+        List<CompletableFuture<ScheduleRuleResponseEntity>> pendingResponses = scheduleRules.stream()
+                .map(scheduleRule -> restClient.postAsync(API_MESSAGING_RULE, new MessageRequestEntity(contract, scheduleRule, entityType), ScheduleRuleResponseEntity.class))
+                .collect(Collectors.toList());
+        List<ScheduleRuleResponseEntity> responses = new ArrayList<>(scheduleRules.size());
+        for (CompletableFuture<ScheduleRuleResponseEntity> pendingResponse : pendingResponses) {
+            RuleFailureLog ruleFailureLog = generateRuleFailureLog(entityType, RULES_MESSAGE_SCHEDULE, entity.getUuid());
+            responses.add(getRuleResponse(() -> {
+                try {
+                    return pendingResponse.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }, ruleFailureLog));
+        }
+        return responses;
+    }
+
     public MessageRuleResponseEntity executeMessageRule(String entityType, Long entityId, String messageRule) throws RuleExecutionException {
         String rulesMessage = RULES_MESSAGE_EXECUTE;
         Class<MessageRuleResponseEntity> responseType = MessageRuleResponseEntity.class;
@@ -265,11 +296,15 @@ public class RuleService implements NonScopeAwareService {
     private BaseRuleResponseEntity getBaseRuleResponseEntity(String entityType, String rule, String rulesMessage, Class<? extends BaseRuleResponseEntity> responseType, RuleServerEntityContract contract,
                                                              String entityUuid) throws RuleExecutionException {
         MessageRequestEntity ruleRequest = new MessageRequestEntity(contract, rule, entityType);
+        RuleFailureLog ruleFailureLog = generateRuleFailureLog(entityType, rulesMessage, entityUuid);
+        return createHttpHeaderAndSendRequest(API_MESSAGING_RULE, ruleRequest, ruleFailureLog, responseType);
+    }
+
+    private RuleFailureLog generateRuleFailureLog(String entityType, String rulesMessage, String entityUuid) {
         BaseRuleRequest baseRuleRequest = new BaseRuleRequest();
         baseRuleRequest.setRuleType(entityType);
         baseRuleRequest.setFormUuid(entityUuid);
-        RuleFailureLog ruleFailureLog = ruleValidationService.generateRuleFailureLog(baseRuleRequest, SOURCE_WEB, rulesMessage, String.valueOf(entityUuid));
-        return createHttpHeaderAndSendRequest(API_MESSAGING_RULE, ruleRequest, ruleFailureLog, responseType);
+        return ruleValidationService.generateRuleFailureLog(baseRuleRequest, SOURCE_WEB, rulesMessage, String.valueOf(entityUuid));
     }
 
     public RuleResponseEntity executeServerSideRules(RequestEntityWrapper requestEntityWrapper) throws RuleExecutionException {
@@ -362,9 +397,12 @@ public class RuleService implements NonScopeAwareService {
     }
 
     private <R extends BaseRuleResponseEntity> R createHttpHeaderAndSendRequest(String url, Object contractObject, RuleFailureLog ruleFailureLog, Class<R> responseType) throws RuleExecutionException {
+        return getRuleResponse(() -> (R) restClient.post(url, contractObject, responseType), ruleFailureLog);
+    }
+
+    private <R extends BaseRuleResponseEntity> R getRuleResponse(Callable<R> ruleCall, RuleFailureLog ruleFailureLog) throws RuleExecutionException {
         try {
-            ObjectMapper mapper = ObjectMapperSingleton.getObjectMapper();
-            R ruleResponseEntity = (R) restClient.post(url, contractObject, responseType);
+            R ruleResponseEntity = ruleCall.call();
             if (ruleResponseEntity.getStatus().equals("failure")) {
                 RuleError ruleError = ruleResponseEntity.getError();
                 saveRuleError(ruleFailureLog, ruleError.getMessage(), ruleError.getStack());
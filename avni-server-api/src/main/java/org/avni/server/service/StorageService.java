@@ -166,7 +166,7 @@ public abstract class StorageService implements S3Service {
 
             summaries.forEach(s -> {
                 if (latestDate.isBefore(s.getLastModified().getTime())) {
-                    keys.add(new S3ExtensionFile(S3File.organisationFileFromFullPath(UserContextHolder.getOrganisation(), s.getKey(), S3FileType.Extensions), new DateTime(s.getLastModified())));
+                    keys.add(new S3ExtensionFile(S3File.organisationFileFromFullPath(UserContextHolder.getOrganisation(), s.getKey(), S3FileType.Extensions), new DateTime(s.getLastModified()), s.getSize(), s.getETag()));
                 }
             });
             objects = s3Client.listNextBatchOfObjects(objects);
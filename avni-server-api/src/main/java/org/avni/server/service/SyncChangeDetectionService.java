@@ -0,0 +1,91 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.sync.SyncChangeDetectionRepository;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.web.request.EntitySyncStatusContract;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Works out which of the client's entity sync statuses have changes on the server. Plain metadata tables are answered together
+ * in a single query, the remaining checks (scope aware ones and non scope aware ones with their own logic) are run
+ * concurrently on a bounded executor which carries over the user context of the request. When called within a transaction
+ * the checks stay on the calling thread, as worker threads would not see the transaction's uncommitted changes. Otherwise each
+ * check runs in a read only transaction of its own, so that the lazy associations of the entities it loads can be navigated
+ * on the worker thread.
+ */
+@Service
+public class SyncChangeDetectionService {
+    private final SyncChangeDetectionRepository syncChangeDetectionRepository;
+    private final Executor executor;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired
+    public SyncChangeDetectionService(SyncChangeDetectionRepository syncChangeDetectionRepository, @Qualifier("syncChangeDetectionExecutor") Executor executor,
+                                      PlatformTransactionManager platformTransactionManager) {
+        this.syncChangeDetectionRepository = syncChangeDetectionRepository;
+        this.executor = executor;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public Set<EntitySyncStatusContract> getChangedEntities(List<EntitySyncStatusContract> entitySyncStatusContracts,
+                                                            Map<SyncEntityName, NonScopeAwareService> nonScopeAwareServices,
+                                                            Map<SyncEntityName, ScopeAwareService> scopeAwareServices) {
+        Map<SyncEntityName, DateTime> batchedLoadedSince = new EnumMap<>(SyncEntityName.class);
+        Map<SyncEntityName, EntitySyncStatusContract> batchedContracts = new EnumMap<>(SyncEntityName.class);
+        Map<EntitySyncStatusContract, CompletableFuture<Boolean>> asyncChecks = new IdentityHashMap<>();
+
+        for (EntitySyncStatusContract contract : entitySyncStatusContracts) {
+            if (!SyncEntityName.existsAsEnum(contract.getEntityName())) continue;
+
+            SyncEntityName syncEntityName = SyncEntityName.valueOf(contract.getEntityName());
+            DateTime loadedSince = contract.getLoadedSince();
+            NonScopeAwareService nonScopeAwareService = nonScopeAwareServices.get(syncEntityName);
+            ScopeAwareService scopeAwareService = scopeAwareServices.get(syncEntityName);
+
+            if (nonScopeAwareService != null && SyncChangeDetectionRepository.supports(syncEntityName) && !batchedContracts.containsKey(syncEntityName)) {
+                batchedLoadedSince.put(syncEntityName, loadedSince);
+                batchedContracts.put(syncEntityName, contract);
+            } else if (nonScopeAwareService != null) {
+                asyncChecks.put(contract, runAsync(() -> nonScopeAwareService.isNonScopeEntityChanged(loadedSince)));
+            } else if (scopeAwareService != null) {
+                asyncChecks.put(contract, runAsync(() -> scopeAwareService.isScopeEntityChanged(loadedSince, contract.getEntityTypeUuid())));
+            }
+        }
+
+        Set<EntitySyncStatusContract> changedEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+        syncChangeDetectionRepository.getChangedEntities(batchedLoadedSince)
+                .forEach(syncEntityName -> changedEntities.add(batchedContracts.get(syncEntityName)));
+        asyncChecks.forEach((contract, changed) -> {
+            if (join(changed)) changedEntities.add(contract);
+        });
+        return changedEntities;
+    }
+
+    private CompletableFuture<Boolean> runAsync(Supplier<Boolean> check) {
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            return CompletableFuture.completedFuture(check.get());
+        return CompletableFuture.supplyAsync(() -> readOnlyTransactionTemplate.execute(status -> check.get()), executor);
+    }
+
+    private static boolean join(CompletableFuture<Boolean> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+}
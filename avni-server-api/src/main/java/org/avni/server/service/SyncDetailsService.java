@@ -1,19 +1,14 @@
 package org.avni.server.service;
 
 import jakarta.transaction.Transactional;
-import org.avni.server.application.FormMapping;
 import org.avni.server.application.Subject;
-import org.avni.server.dao.ChecklistDetailRepository;
-import org.avni.server.dao.EncounterTypeRepository;
-import org.avni.server.dao.OperationalSubjectTypeRepository;
-import org.avni.server.dao.application.FormMappingRepository;
 import org.avni.server.dao.sync.SyncEntityName;
-import org.avni.server.domain.ChecklistDetail;
-import org.avni.server.domain.OperationalSubjectType;
-import org.avni.server.domain.SubjectType;
+import org.avni.server.dao.sync.SyncMetadataVersionRepository;
 import org.avni.server.domain.SyncableItem;
 import org.avni.server.domain.accessControl.GroupPrivileges;
 import org.avni.server.domain.accessControl.PrivilegeType;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.service.SyncableMetadata.SubjectTypeMetadata;
 import org.avni.server.service.accessControl.GroupPrivilegeService;
 import org.springframework.stereotype.Service;
 
@@ -23,40 +18,33 @@ import java.util.stream.Collectors;
 @Service
 @Transactional
 public class SyncDetailsService {
-    private final OperationalSubjectTypeRepository subjectTypeRepository;
-    private final FormMappingRepository formMappingRepository;
-    private final ChecklistDetailRepository checklistDetailRepository;
+    private final SyncMetadataVersionRepository syncMetadataVersionRepository;
+    private final SyncableMetadataCache syncableMetadataCache;
     private final OrganisationConfigService organisationConfigService;
     private final GroupPrivilegeService groupPrivilegeService;
 
-
-    public SyncDetailsService(OperationalSubjectTypeRepository subjectTypeRepository1, EncounterTypeRepository encounterTypeRepository, FormMappingRepository formMappingRepository, ChecklistDetailRepository checklistDetailRepository, OrganisationConfigService organisationConfigService, GroupPrivilegeService groupPrivilegeService) {
-        this.subjectTypeRepository = subjectTypeRepository1;
-        this.formMappingRepository = formMappingRepository;
-        this.checklistDetailRepository = checklistDetailRepository;
+    public SyncDetailsService(SyncMetadataVersionRepository syncMetadataVersionRepository, SyncableMetadataCache syncableMetadataCache, OrganisationConfigService organisationConfigService, GroupPrivilegeService groupPrivilegeService) {
+        this.syncMetadataVersionRepository = syncMetadataVersionRepository;
+        this.syncableMetadataCache = syncableMetadataCache;
         this.organisationConfigService = organisationConfigService;
         this.groupPrivilegeService = groupPrivilegeService;
     }
 
     @Transactional
     public Set<SyncableItem> getAllSyncableItems(boolean scopeAwareEAS, boolean includeUserSubjectType) {
-        List<SubjectType> subjectTypes = subjectTypeRepository.findAll()
+        SyncableMetadata syncableMetadata = syncableMetadataCache.getSyncableMetadata(UserContextHolder.getUserContext().getOrganisationId(),
+                syncMetadataVersionRepository.getSyncMetadataVersion());
+        List<SubjectTypeMetadata> subjectTypes = syncableMetadata.getSubjectTypes()
                 .stream()
-                .filter(st -> !st.getSubjectType().getType().equals(Subject.User) || includeUserSubjectType)
-                .map(OperationalSubjectType::getSubjectType)
+                .filter(st -> !st.getType().equals(Subject.User) || includeUserSubjectType)
                 .collect(Collectors.toList());
-
-        List<FormMapping> generalEncounters = formMappingRepository.getAllGeneralEncounterFormMappings();
-        List<FormMapping> programEncounters = formMappingRepository.getAllProgramEncounterFormMappings();
-        List<FormMapping> programEnrolments = formMappingRepository.getAllProgramEnrolmentFormMappings();
-        List<FormMapping> allRegistrationFormMappings = formMappingRepository.getAllRegistrationFormMappings();
-        List<ChecklistDetail> checklistDetails = checklistDetailRepository.findAll();
         GroupPrivileges groupPrivileges = groupPrivilegeService.getGroupPrivileges();
+        boolean commentEnabled = organisationConfigService.isCommentEnabled();
 
         HashSet<SyncableItem> syncableItems = new HashSet<>();
 
         subjectTypes.forEach(subjectType -> {
-            if (!groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType, null, null, null)) {
+            if (!groupPrivileges.hasPrivilegeByIds(PrivilegeType.ViewSubject, subjectType.getId(), null, null, null)) {
                 return;
             }
             addToSyncableItems(syncableItems, SyncEntityName.Individual, subjectType.getUuid());
@@ -68,34 +56,33 @@ public class SyncDetailsService {
             if (subjectType.isGroup()) {
                 addToSyncableItems(syncableItems, SyncEntityName.GroupSubject, subjectType.getUuid());
             }
-            if (organisationConfigService.isCommentEnabled()) {
+            if (commentEnabled) {
                 addToSyncableItems(syncableItems, SyncEntityName.Comment, subjectType.getUuid());
                 addToSyncableItems(syncableItems, SyncEntityName.CommentThread, subjectType.getUuid());
             }
 
-            Optional<FormMapping> subjectTypeFormMapping = allRegistrationFormMappings.stream().filter((formMapping -> Objects.equals(formMapping.getSubjectType().getId(), subjectType.getId()))).findFirst();
-            if (scopeAwareEAS && subjectTypeFormMapping.isPresent() && subjectTypeFormMapping.get().isEnableApproval())
+            if (scopeAwareEAS && subjectType.isRegistrationApprovalEnabled())
                 addToSyncableItems(syncableItems, SyncEntityName.SubjectEntityApprovalStatus, subjectType.getUuid());
 
         });
-        generalEncounters.forEach(formMapping -> {
-            if (!groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, formMapping.getSubjectType(), null, formMapping.getEncounterType(), null)) {
+        syncableMetadata.getGeneralEncounters().forEach(formMapping -> {
+            if (!groupPrivileges.hasPrivilegeByIds(PrivilegeType.ViewVisit, formMapping.getSubjectTypeId(), null, formMapping.getEncounterTypeId(), null)) {
                 return;
             }
             addToSyncableItems(syncableItems, SyncEntityName.Encounter, formMapping.getEncounterTypeUuid());
             if (scopeAwareEAS && formMapping.isEnableApproval())
                 addToSyncableItems(syncableItems, SyncEntityName.EncounterEntityApprovalStatus, formMapping.getEncounterTypeUuid());
         });
-        programEncounters.forEach(formMapping -> {
-            if (!groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, formMapping.getSubjectType(), formMapping.getProgram(), formMapping.getEncounterType(), null)) {
+        syncableMetadata.getProgramEncounters().forEach(formMapping -> {
+            if (!groupPrivileges.hasPrivilegeByIds(PrivilegeType.ViewVisit, formMapping.getSubjectTypeId(), formMapping.getProgramId(), formMapping.getEncounterTypeId(), null)) {
                 return;
             }
             addToSyncableItems(syncableItems, SyncEntityName.ProgramEncounter, formMapping.getEncounterTypeUuid());
             if (scopeAwareEAS && formMapping.isEnableApproval())
                 addToSyncableItems(syncableItems, SyncEntityName.ProgramEncounterEntityApprovalStatus, formMapping.getEncounterTypeUuid());
         });
-        programEnrolments.forEach(formMapping -> {
-            if (!groupPrivileges.hasPrivilege(PrivilegeType.ViewEnrolmentDetails, formMapping.getSubjectType(), formMapping.getProgram(), formMapping.getEncounterType(), null)) {
+        syncableMetadata.getProgramEnrolments().forEach(formMapping -> {
+            if (!groupPrivileges.hasPrivilegeByIds(PrivilegeType.ViewEnrolmentDetails, formMapping.getSubjectTypeId(), formMapping.getProgramId(), formMapping.getEncounterTypeId(), null)) {
                 return;
             }
             addToSyncableItems(syncableItems, SyncEntityName.ProgramEnrolment, formMapping.getProgramUuid());
@@ -103,8 +90,8 @@ public class SyncDetailsService {
                 addToSyncableItems(syncableItems, SyncEntityName.ProgramEnrolmentEntityApprovalStatus, formMapping.getProgramUuid());
         });
 
-        checklistDetails.forEach(checklistDetail -> {
-            if (subjectTypes.stream().anyMatch(subjectType -> groupPrivileges.hasPrivilege(PrivilegeType.ViewChecklist, subjectType, null, null, checklistDetail))) {
+        syncableMetadata.getChecklistDetails().forEach(checklistDetail -> {
+            if (subjectTypes.stream().anyMatch(subjectType -> groupPrivileges.hasPrivilegeByIds(PrivilegeType.ViewChecklist, subjectType.getId(), null, null, checklistDetail.getId()))) {
                 addToSyncableItems(syncableItems, SyncEntityName.Checklist, checklistDetail.getUuid());
                 addToSyncableItems(syncableItems, SyncEntityName.ChecklistItem, checklistDetail.getUuid());
             }
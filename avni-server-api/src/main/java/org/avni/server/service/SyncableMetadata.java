@@ -0,0 +1,160 @@
+package org.avni.server.service;
+
+import org.avni.server.application.FormMapping;
+import org.avni.server.application.Subject;
+import org.avni.server.domain.ChecklistDetail;
+import org.avni.server.domain.SubjectType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The metadata of an organisation that SyncDetailsService works out the syncable items from, as ids and uuids. It is the
+ * same for all users of the organisation and does not refer to any entity, so it can be kept across requests.
+ */
+public class SyncableMetadata {
+    private final List<SubjectTypeMetadata> subjectTypes;
+    private final List<FormMappingMetadata> generalEncounters;
+    private final List<FormMappingMetadata> programEncounters;
+    private final List<FormMappingMetadata> programEnrolments;
+    private final List<ChecklistDetailMetadata> checklistDetails;
+
+    public SyncableMetadata(List<SubjectType> subjectTypes, List<FormMapping> registrationFormMappings, List<FormMapping> generalEncounters,
+                            List<FormMapping> programEncounters, List<FormMapping> programEnrolments, List<ChecklistDetail> checklistDetails) {
+        this.subjectTypes = Collections.unmodifiableList(subjectTypes.stream().map(subjectType -> new SubjectTypeMetadata(subjectType,
+                registrationFormMappings.stream().filter(formMapping -> Objects.equals(formMapping.getSubjectType().getId(), subjectType.getId())).findFirst()
+                        .map(FormMapping::isEnableApproval).orElse(false))).collect(Collectors.toList()));
+        this.generalEncounters = toFormMappingMetadata(generalEncounters);
+        this.programEncounters = toFormMappingMetadata(programEncounters);
+        this.programEnrolments = toFormMappingMetadata(programEnrolments);
+        this.checklistDetails = Collections.unmodifiableList(checklistDetails.stream().map(ChecklistDetailMetadata::new).collect(Collectors.toList()));
+    }
+
+    private static List<FormMappingMetadata> toFormMappingMetadata(List<FormMapping> formMappings) {
+        return Collections.unmodifiableList(formMappings.stream().map(FormMappingMetadata::new).collect(Collectors.toList()));
+    }
+
+    public List<SubjectTypeMetadata> getSubjectTypes() {
+        return subjectTypes;
+    }
+
+    public List<FormMappingMetadata> getGeneralEncounters() {
+        return generalEncounters;
+    }
+
+    public List<FormMappingMetadata> getProgramEncounters() {
+        return programEncounters;
+    }
+
+    public List<FormMappingMetadata> getProgramEnrolments() {
+        return programEnrolments;
+    }
+
+    public List<ChecklistDetailMetadata> getChecklistDetails() {
+        return checklistDetails;
+    }
+
+    public static class SubjectTypeMetadata {
+        private final Long id;
+        private final String uuid;
+        private final Subject type;
+        private final boolean person;
+        private final boolean group;
+        private final boolean registrationApprovalEnabled;
+
+        private SubjectTypeMetadata(SubjectType subjectType, boolean registrationApprovalEnabled) {
+            this.id = subjectType.getId();
+            this.uuid = subjectType.getUuid();
+            this.type = subjectType.getType();
+            this.person = subjectType.isPerson();
+            this.group = subjectType.isGroup();
+            this.registrationApprovalEnabled = registrationApprovalEnabled;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public Subject getType() {
+            return type;
+        }
+
+        public boolean isPerson() {
+            return person;
+        }
+
+        public boolean isGroup() {
+            return group;
+        }
+
+        public boolean isRegistrationApprovalEnabled() {
+            return registrationApprovalEnabled;
+        }
+    }
+
+    public static class FormMappingMetadata {
+        private final Long subjectTypeId;
+        private final Long programId;
+        private final Long encounterTypeId;
+        private final String programUuid;
+        private final String encounterTypeUuid;
+        private final boolean enableApproval;
+
+        private FormMappingMetadata(FormMapping formMapping) {
+            this.subjectTypeId = formMapping.getSubjectType() == null ? null : formMapping.getSubjectType().getId();
+            this.programId = formMapping.getProgram() == null ? null : formMapping.getProgram().getId();
+            this.encounterTypeId = formMapping.getEncounterType() == null ? null : formMapping.getEncounterType().getId();
+            this.programUuid = formMapping.getProgramUuid();
+            this.encounterTypeUuid = formMapping.getEncounterTypeUuid();
+            this.enableApproval = formMapping.isEnableApproval();
+        }
+
+        public Long getSubjectTypeId() {
+            return subjectTypeId;
+        }
+
+        public Long getProgramId() {
+            return programId;
+        }
+
+        public Long getEncounterTypeId() {
+            return encounterTypeId;
+        }
+
+        public String getProgramUuid() {
+            return programUuid;
+        }
+
+        public String getEncounterTypeUuid() {
+            return encounterTypeUuid;
+        }
+
+        public boolean isEnableApproval() {
+            return enableApproval;
+        }
+    }
+
+    public static class ChecklistDetailMetadata {
+        private final Long id;
+        private final String uuid;
+
+        private ChecklistDetailMetadata(ChecklistDetail checklistDetail) {
+            this.id = checklistDetail.getId();
+            this.uuid = checklistDetail.getUuid();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.avni.server.service;
+
+import jakarta.transaction.Transactional;
+import org.avni.server.dao.ChecklistDetailRepository;
+import org.avni.server.dao.OperationalSubjectTypeRepository;
+import org.avni.server.dao.application.FormMappingRepository;
+import org.avni.server.domain.OperationalSubjectType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+@Component
+public class SyncableMetadataCache {
+    public static final String SYNCABLE_METADATA_PER_ORGANISATION = "syncableMetadataPerOrganisation";
+
+    private final OperationalSubjectTypeRepository subjectTypeRepository;
+    private final FormMappingRepository formMappingRepository;
+    private final ChecklistDetailRepository checklistDetailRepository;
+
+    @Autowired
+    public SyncableMetadataCache(OperationalSubjectTypeRepository subjectTypeRepository, FormMappingRepository formMappingRepository, ChecklistDetailRepository checklistDetailRepository) {
+        this.subjectTypeRepository = subjectTypeRepository;
+        this.formMappingRepository = formMappingRepository;
+        this.checklistDetailRepository = checklistDetailRepository;
+    }
+
+    /**
+     * @param metadataVersion from SyncMetadataVersionRepository, only used as part of the key, so that a change to the
+     *                        metadata is picked up by the next request on every server
+     */
+    @Cacheable(value = SYNCABLE_METADATA_PER_ORGANISATION, key = "#organisationId + '_' + #metadataVersion")
+    @Transactional
+    public SyncableMetadata getSyncableMetadata(Long organisationId, String metadataVersion) {
+        return new SyncableMetadata(
+                subjectTypeRepository.findAll().stream().map(OperationalSubjectType::getSubjectType).collect(Collectors.toList()),
+                formMappingRepository.getAllRegistrationFormMappings(),
+                formMappingRepository.getAllGeneralEncounterFormMappings(),
+                formMappingRepository.getAllProgramEncounterFormMappings(),
+                formMappingRepository.getAllProgramEnrolmentFormMappings(),
+                checklistDetailRepository.findAll());
+    }
+}
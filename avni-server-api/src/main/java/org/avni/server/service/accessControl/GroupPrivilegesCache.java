@@ -0,0 +1,46 @@
+package org.avni.server.service.accessControl;
+
+import org.avni.server.dao.GroupPrivilegeRepository;
+import org.avni.server.dao.UserGroupRepository;
+import org.avni.server.domain.User;
+import org.avni.server.domain.accessControl.GroupPrivileges;
+import org.avni.server.domain.accessControl.PrivilegeIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GroupPrivilegesCache {
+    public static final String GROUP_PRIVILEGES_PER_USER = "groupPrivilegesPerUser";
+
+    private final GroupPrivilegeRepository groupPrivilegeRepository;
+    private final UserGroupRepository userGroupRepository;
+
+    @Autowired
+    public GroupPrivilegesCache(GroupPrivilegeRepository groupPrivilegeRepository, UserGroupRepository userGroupRepository) {
+        this.groupPrivilegeRepository = groupPrivilegeRepository;
+        this.userGroupRepository = userGroupRepository;
+    }
+
+    /**
+     * The privileges are cached per version of the user's groups and group privileges, so that changes not made through
+     * entities (bulk and native deletes, other servers) are picked up on the next request of the user.
+     *
+     * @param version as returned by GroupPrivilegeRepository.getGroupPrivilegesVersion for the user
+     */
+    @Cacheable(value = GROUP_PRIVILEGES_PER_USER, key = "#user.id + '_' + #version")
+    public GroupPrivileges getGroupPrivileges(User user, String version) {
+        if (!userGroupRepository.findByUserAndGroupHasAllPrivilegesTrueAndIsVoidedFalse(user).isEmpty()) {
+            return new GroupPrivileges();
+        }
+        return new GroupPrivileges(PrivilegeIndex.compile(groupPrivilegeRepository.getAllAllowedPrivilegesForUser(user.getId())));
+    }
+
+    /**
+     * Clears the privileges of all users, as a change to a group or its privileges affects every member of the group.
+     */
+    @CacheEvict(value = GROUP_PRIVILEGES_PER_USER, allEntries = true)
+    public void evictAll() {
+    }
+}
@@ -0,0 +1,39 @@
+package org.avni.server.service.accessControl;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entity listener on groups, group privileges and user groups. The cached privileges are cleared when the change is flushed
+ * and again when the transaction completes. The cache is looked up on first use, as listeners are created with the entity
+ * manager factory, which the cache depends on.
+ */
+public class GroupPrivilegesChangeListener {
+    private final ObjectProvider<GroupPrivilegesCache> groupPrivilegesCache;
+
+    @Autowired
+    public GroupPrivilegesChangeListener(ObjectProvider<GroupPrivilegesCache> groupPrivilegesCache) {
+        this.groupPrivilegesCache = groupPrivilegesCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        GroupPrivilegesCache groupPrivilegesCache = this.groupPrivilegesCache.getObject();
+        groupPrivilegesCache.evictAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    groupPrivilegesCache.evictAll();
+                }
+            });
+        }
+    }
+}
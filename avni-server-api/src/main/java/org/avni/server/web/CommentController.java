@@ -4,6 +4,7 @@ import jakarta.transaction.Transactional;
 import org.avni.server.dao.CommentRepository;
 import org.avni.server.dao.CommentThreadRepository;
 import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.KeysetPageRequest;
 import org.avni.server.dao.SubjectTypeRepository;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.Comment;
@@ -125,12 +126,13 @@ public class CommentController extends AbstractController<Comment> implements Re
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "subjectTypeUuid") String subjectTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) {
         SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUuid);
         if (subjectType == null) {
             return wrap(new SliceImpl<>(Collections.emptyList()));
         }
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(commentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, subjectType, SyncEntityName.Comment));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(commentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), KeysetPageRequest.of(pageable, continuationToken), subjectType, SyncEntityName.Comment));
     }
 
     @GetMapping(value = {"/comment"})
@@ -3,6 +3,7 @@ package org.avni.server.web;
 import jakarta.transaction.Transactional;
 import org.avni.server.dao.CommentThreadRepository;
 import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.KeysetPageRequest;
 import org.avni.server.dao.SubjectTypeRepository;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.CommentThread;
@@ -63,12 +64,13 @@ public class CommentThreadController extends AbstractController<CommentThread> i
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "subjectTypeUuid") String subjectTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) {
         SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUuid);
         if (subjectType == null) {
             return wrap(new SliceImpl<>(Collections.emptyList()));
         }
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(commentThreadRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, subjectType, SyncEntityName.CommentThread));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(commentThreadRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), KeysetPageRequest.of(pageable, continuationToken), subjectType, SyncEntityName.CommentThread));
     }
 
     @GetMapping(value = {"/commentThread"})
@@ -1,11 +1,14 @@
 package org.avni.server.web;
 
 import org.avni.server.dao.ImplementationRepository;
+import org.avni.server.domain.ExtensionFile;
 import org.avni.server.domain.S3ExtensionFile;
 import org.avni.server.domain.Organisation;
 import org.avni.server.domain.OrganisationConfig;
 import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.service.ExtensionContentCache;
+import org.avni.server.service.ExtensionService;
 import org.avni.server.service.OrganisationConfigService;
 import org.avni.server.service.S3Service;
 import org.avni.server.service.accessControl.AccessControlService;
@@ -16,16 +19,19 @@ import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.HandlerMapping;
 
@@ -38,6 +44,7 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -51,11 +58,16 @@ public class ExtensionController implements RestControllerResourceProcessor<S3Ex
     private final ImplementationRepository implementationRepository;
     private final AccessControlService accessControlService;
     private final ErrorBodyBuilder errorBodyBuilder;
+    private final ExtensionService extensionService;
+    private final ExtensionContentCache extensionContentCache;
 
     @Autowired
     public ExtensionController(S3Service s3Service, OrganisationConfigService organisationConfigService,
-                               ImplementationRepository implementationRepository, AccessControlService accessControlService, ErrorBodyBuilder errorBodyBuilder) {
+                               ImplementationRepository implementationRepository, AccessControlService accessControlService, ErrorBodyBuilder errorBodyBuilder,
+                               ExtensionService extensionService, ExtensionContentCache extensionContentCache) {
         this.s3Service = s3Service;
+        this.extensionService = extensionService;
+        this.extensionContentCache = extensionContentCache;
         this.organisationConfigService = organisationConfigService;
         this.implementationRepository = implementationRepository;
         this.accessControlService = accessControlService;
@@ -73,6 +85,7 @@ public class ExtensionController implements RestControllerResourceProcessor<S3Ex
             Path tempPath = Files.createTempDirectory(UUID.randomUUID().toString()).toFile().toPath();
             AvniFiles.extractFileToPath(file, tempPath);
             s3Service.uploadExtensionFiles(tempPath.toFile(), OrganisationConfig.Extension.EXTENSION_DIR);
+            extensionService.refreshManifest();
             return ResponseEntity.ok().build();
         } catch (IOException e) {
             logger.error(format("Error while uploading the files %s", e.getMessage()));
@@ -85,11 +98,21 @@ public class ExtensionController implements RestControllerResourceProcessor<S3Ex
 
     @GetMapping(value = "/extensions")
     public CollectionModel<EntityModel<S3ExtensionFile>> listExtensionFiles(@RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<DateTime> lastModifiedDateTime) {
-        return wrap(new PageImpl<>(s3Service.listExtensionFiles(lastModifiedDateTime)));
+        return wrap(new PageImpl<>(extensionService.listExtensionFiles(lastModifiedDateTime)));
     }
 
+    @GetMapping(value = "/extension/contentCache/statistics")
+    public Map<String, Object> getContentCacheStatistics() {
+        accessControlService.assertIsSuperAdmin();
+        return extensionContentCache.getStatistics();
+    }
+
+    /**
+     * Files in the extension_file manifest are served with their ETag and modified time as validators, and from the
+     * content cache. A file missing from the manifest is streamed from S3 as before.
+     */
     @RequestMapping(value = "/extension/{basePath}/**", method = RequestMethod.GET)
-    public ResponseEntity<?> serveExtensionFile(@CookieValue(name = "IMPLEMENTATION-NAME", required = false) String implementationName, @PathVariable String basePath, HttpServletRequest request) {
+    public ResponseEntity<?> serveExtensionFile(@CookieValue(name = "IMPLEMENTATION-NAME", required = false) String implementationName, @PathVariable String basePath, HttpServletRequest request, WebRequest webRequest) {
         Organisation organisation = UserContextHolder.getOrganisation();
         if (organisation == null) {
             organisation = implementationRepository.findByName(implementationName);
@@ -102,9 +125,26 @@ public class ExtensionController implements RestControllerResourceProcessor<S3Ex
         String arguments = new AntPathMatcher().extractPathWithinPattern(bestMatchingPattern, path);
         String filePath = null != arguments && !arguments.isEmpty() ? basePath + "/" + arguments : basePath;
         logger.info(format("Getting the content of extension file %s", filePath));
+        String fileName = format("%s/%s", OrganisationConfig.Extension.EXTENSION_DIR, filePath);
+        Organisation fileOrganisation = organisation;
         try {
-            InputStream contentStream = s3Service.getExtensionContent(format("%s/%s", OrganisationConfig.Extension.EXTENSION_DIR, filePath), organisation);
-            return ResponseEntity.ok().body(new InputStreamResource(contentStream));
+            ExtensionFile extensionFile = extensionService.getExtensionFile(format("%s/%s", organisation.getMediaDirectory(), fileName));
+            if (extensionFile == null) {
+                InputStream contentStream = s3Service.getExtensionContent(fileName, organisation);
+                return ResponseEntity.ok().body(new InputStreamResource(contentStream));
+            }
+            String contentVersion = extensionFile.getETag() == null ? String.valueOf(extensionFile.getFileModifiedDateTime().getMillis()) : extensionFile.getETag();
+            String eTag = format("\"%s\"", contentVersion);
+            long lastModified = extensionFile.getFileModifiedDateTime().getMillis();
+            if (webRequest.checkNotModified(eTag, lastModified)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).lastModified(lastModified).cacheControl(CacheControl.noCache()).build();
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).lastModified(lastModified).cacheControl(CacheControl.noCache());
+            if (!extensionContentCache.isCacheable(extensionFile.getSize())) {
+                return response.body(new InputStreamResource(s3Service.getExtensionContent(fileName, organisation)));
+            }
+            byte[] content = extensionContentCache.getContent(extensionFile.getS3Key(), contentVersion, () -> s3Service.getExtensionContent(fileName, fileOrganisation));
+            return response.body(new ByteArrayResource(content));
         } catch (AccessDeniedException e) {
             logger.error(e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorBodyBuilder.getErrorMessageBody(e));
@@ -4,6 +4,7 @@ import jakarta.transaction.Transactional;
 import org.avni.server.dao.GroupRoleRepository;
 import org.avni.server.dao.GroupSubjectRepository;
 import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.KeysetPageRequest;
 import org.avni.server.dao.SubjectTypeRepository;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.*;
@@ -72,12 +73,13 @@ public class GroupSubjectController extends AbstractController<GroupSubject> imp
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "subjectTypeUuid", required = false) String groupSubjectTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) {
         if (groupSubjectTypeUuid == null || groupSubjectTypeUuid.isEmpty())
             return wrap(new SliceImpl<>(Collections.emptyList()));
         SubjectType subjectType = subjectTypeRepository.findByUuid(groupSubjectTypeUuid);
         if(subjectType == null) return wrap(new SliceImpl<>(Collections.emptyList()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(groupSubjectRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, subjectType, SyncEntityName.GroupSubject));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(groupSubjectRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), KeysetPageRequest.of(pageable, continuationToken), subjectType, SyncEntityName.GroupSubject));
     }
 
     @RequestMapping(value = "/groupSubject", method = RequestMethod.GET)
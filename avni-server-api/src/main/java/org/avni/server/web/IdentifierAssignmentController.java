@@ -8,6 +8,7 @@ import org.avni.server.domain.CHSEntity;
 import org.avni.server.domain.IdentifierAssignment;
 import org.avni.server.domain.User;
 import org.avni.server.service.IdentifierAssignmentService;
+import org.avni.server.service.IdentifierTopUpService;
 import org.avni.server.service.UserService;
 import org.avni.server.web.request.IdentifierAssignmentRequest;
 import org.avni.server.web.response.slice.SlicedResources;
@@ -31,20 +32,23 @@ public class IdentifierAssignmentController extends AbstractController<Identifie
     private final IdentifierAssignmentRepository identifierAssignmentRepository;
     private final UserService userService;
     private final IdentifierAssignmentService identifierAssignmentService;
+    private final IdentifierTopUpService identifierTopUpService;
     private final IndividualRepository individualRepository;
     private final ProgramEnrolmentRepository programEnrolmentRepository;
 
     @Autowired
-    public IdentifierAssignmentController(IdentifierAssignmentRepository identifierAssignmentRepository, UserService userService, IdentifierAssignmentService identifierAssignmentService, IndividualRepository individualRepository, ProgramEnrolmentRepository programEnrolmentRepository) {
+    public IdentifierAssignmentController(IdentifierAssignmentRepository identifierAssignmentRepository, UserService userService, IdentifierAssignmentService identifierAssignmentService, IdentifierTopUpService identifierTopUpService, IndividualRepository individualRepository, ProgramEnrolmentRepository programEnrolmentRepository) {
         this.identifierAssignmentRepository = identifierAssignmentRepository;
         this.userService = userService;
         this.identifierAssignmentService = identifierAssignmentService;
+        this.identifierTopUpService = identifierTopUpService;
         this.individualRepository = individualRepository;
         this.programEnrolmentRepository = programEnrolmentRepository;
     }
 
     /**
-     * This method generates identifiers on the fly if there are missing identifiers.
+     * This method generates identifiers on the fly if there are missing identifiers, after waiting for any top up that
+     * the sync status check started in the background.
      * Due to this, we do not pass the <code>now</code> parameter that is generated in
      * <code>TransactionalResourceInterceptor</code>.
      *
@@ -62,6 +66,7 @@ public class IdentifierAssignmentController extends AbstractController<Identifie
             @RequestParam(value = "deviceId", required = false) String deviceId,
             Pageable pageable) {
         User currentUser = userService.getCurrentUser();
+        identifierTopUpService.awaitTopUp(currentUser);
         identifierAssignmentService.generateIdentifiersIfNecessary(currentUser, deviceId);
 
         return wrap(identifierAssignmentRepository.findByAssignedToAndLastModifiedDateTimeGreaterThanAndIsVoidedFalseAndIndividualIsNullAndProgramEnrolmentIsNullAndDeviceIdEqualsOrderByAssignmentOrderAsc(currentUser, CHSEntity.toDate(lastModifiedDateTime), deviceId, pageable));
@@ -75,6 +80,7 @@ public class IdentifierAssignmentController extends AbstractController<Identifie
             @RequestParam(value = "deviceId", required = false) String deviceId,
             Pageable pageable) {
         User currentUser = userService.getCurrentUser();
+        identifierTopUpService.awaitTopUp(currentUser);
         identifierAssignmentService.generateIdentifiersIfNecessary(currentUser, deviceId);
 
         return wrap(identifierAssignmentRepository.findSliceByAssignedToAndLastModifiedDateTimeGreaterThanAndIsVoidedFalseAndIndividualIsNullAndProgramEnrolmentIsNullAndDeviceIdEqualsOrderByAssignmentOrderAsc(currentUser, CHSEntity.toDate(lastModifiedDateTime), deviceId, pageable));
@@ -1,5 +1,6 @@
 package org.avni.server.web;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.Organisation;
@@ -7,12 +8,12 @@ import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.domain.organisation.OrganisationCategory;
 import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.service.BundleService;
+import org.avni.server.service.ExtensionService;
 import org.avni.server.service.OrganisationConfigService;
 import org.avni.server.service.OrganisationService;
 import org.avni.server.service.UserService;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.data.repository.query.Param;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -23,8 +24,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.ByteArrayOutputStream;
-
 @RestController
 public class ImplementationController implements RestControllerResourceProcessor<Concept> {
     private final OrganisationService organisationService;
@@ -32,29 +31,25 @@ public class ImplementationController implements RestControllerResourceProcessor
     private final AccessControlService accessControlService;
     private final UserService userService;
     private final BundleService bundleService;
+    private final ExtensionService extensionService;
 
     @Autowired
-    public ImplementationController(OrganisationService organisationService, OrganisationConfigService organisationConfigService, AccessControlService accessControlService, UserService userService, BundleService bundleService) {
+    public ImplementationController(OrganisationService organisationService, OrganisationConfigService organisationConfigService, AccessControlService accessControlService, UserService userService, BundleService bundleService, ExtensionService extensionService) {
         this.organisationService = organisationService;
         this.organisationConfigService = organisationConfigService;
         this.accessControlService = accessControlService;
         this.userService = userService;
         this.bundleService = bundleService;
+        this.extensionService = extensionService;
     }
 
     @RequestMapping(value = "/implementation/export/{includeLocations}", method = RequestMethod.GET)
-    public ResponseEntity<ByteArrayResource> export(@PathVariable boolean includeLocations) throws Exception {
+    public void export(@PathVariable boolean includeLocations, HttpServletResponse response) throws Exception {
         accessControlService.checkPrivilege(PrivilegeType.DownloadBundle);
         Organisation organisation = UserContextHolder.getUserContext().getOrganisation();
-        ByteArrayOutputStream baos = bundleService.createBundle(organisation, includeLocations);
-        byte[] baosByteArray = baos.toByteArray();
-
-        return ResponseEntity.ok()
-                .headers(getHttpHeaders())
-                .contentLength(baosByteArray.length)
-                .contentType(MediaType.parseMediaType("application/octet-stream"))
-                .body(new ByteArrayResource(baosByteArray));
-
+        getHttpHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        bundleService.createBundle(organisation, includeLocations, response.getOutputStream());
     }
 
     @RequestMapping(value = "/implementation/delete", method = RequestMethod.DELETE)
@@ -111,6 +106,7 @@ public class ImplementationController implements RestControllerResourceProcessor
             accessControlService.checkPrivilege(PrivilegeType.EditOrganisationConfiguration);
         }
         organisationService.deleteMediaContent(deleteMetadata);
+        if (deleteMetadata) extensionService.refreshManifest();
     }
 
     private void checkPrivilegeAndDeleteMetadata(boolean deleteMetadata, Organisation organisation) {
@@ -1,5 +1,7 @@
 package org.avni.server.web;
 
+import org.avni.server.dao.KeysetPageRequest;
+import org.avni.server.domain.CHSEntity;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -27,6 +29,10 @@ public interface RestControllerResourceProcessor<T> {
         SlicedResources.SliceMetadata sliceMetadata = new SlicedResources.SliceMetadata(slice.getSize(), slice.getNumber(), slice.hasNext());
         List<EntityModel<T>> resources = new ArrayList<>();
         for (T it : slice) resources.add(this.process(EntityModel.of(it)));
+        if (slice.getPageable() instanceof KeysetPageRequest && slice.hasContent() && slice.getContent().get(slice.getNumberOfElements() - 1) instanceof CHSEntity) {
+            CHSEntity last = (CHSEntity) slice.getContent().get(slice.getNumberOfElements() - 1);
+            sliceMetadata.setContinuationToken(KeysetPageRequest.continuationTokenAfter(last));
+        }
         return new SlicedResources<>(resources, sliceMetadata);
     }
 
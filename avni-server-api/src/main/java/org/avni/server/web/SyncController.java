@@ -96,6 +96,7 @@ public class SyncController {
     private final ExtensionService extensionService;
     private final SubjectMigrationService subjectMigrationService;
     private final SyncDetailsService syncDetailService;
+    private final SyncChangeDetectionService syncChangeDetectionService;
     private final Logger logger;
     private final DocumentationService documentationService;
     private final DocumentationItemService documentationItemService;
@@ -140,7 +141,8 @@ public class SyncController {
                           DocumentationService documentationService, DocumentationItemService documentationItemService,
                           TaskService taskService, TaskTypeService taskTypeService, TaskStatusService taskStatusService,
                           TaskUnAssigmentService taskUnAssigmentService, SubjectProgramEligibilityService subjectProgramEligibilityService, MenuItemService menuItemService, UserSubjectAssignmentService userSubjectAssignmentService,
-                          ScopedEntityApprovalStatusService scopedEntityApprovalStatusService, DashboardFilterService dashboardFilterService) {
+                          ScopedEntityApprovalStatusService scopedEntityApprovalStatusService, DashboardFilterService dashboardFilterService,
+                          SyncChangeDetectionService syncChangeDetectionService) {
         this.environment = environment;
         this.individualService = individualService;
         this.encounterService = encounterService;
@@ -207,6 +209,7 @@ public class SyncController {
         this.userSubjectAssignmentService = userSubjectAssignmentService;
         this.scopedEntityApprovalStatusService = scopedEntityApprovalStatusService;
         this.dashboardFilterService = dashboardFilterService;
+        this.syncChangeDetectionService = syncChangeDetectionService;
         this.logger = LoggerFactory.getLogger(this.getClass());
     }
 
@@ -357,8 +360,18 @@ public class SyncController {
         });
         removeDisabledEntities(clientSyncStatuses, serverSyncableItems);
 
+        Map<SyncEntityName, NonScopeAwareService> nonScopeAwareServices = new HashMap<>(nonScopeAwareServiceMap);
+        if (scopeAwareEAS) nonScopeAwareServices.remove(EntityApprovalStatus);
+        List<EntitySyncStatusContract> deviceAwareStatuses = clientSyncStatuses.stream().filter(this::isDeviceAware).collect(Collectors.toList());
+        Set<EntitySyncStatusContract> changedEntities = syncChangeDetectionService.getChangedEntities(
+                clientSyncStatuses.stream().filter(clientSyncStatus -> !isDeviceAware(clientSyncStatus)).collect(Collectors.toList()),
+                nonScopeAwareServices, scopeAwareServiceMap);
+        deviceAwareStatuses.stream()
+                .filter(entitySyncStatusContract -> isDeviceSyncRequired(entitySyncStatusContract, deviceId))
+                .forEach(changedEntities::add);
+
         return clientSyncStatuses.stream()
-                .filter((entitySyncStatusContract) -> filterChangedEntities(entitySyncStatusContract, scopeAwareEAS, deviceId))
+                .filter(changedEntities::contains)
                 .collect(Collectors.toList());
     }
 
@@ -398,33 +411,14 @@ public class SyncController {
                 allSyncableItems.stream().noneMatch(entitySyncStatusContract::matchesEntity));
     }
 
-    private boolean filterChangedEntities(EntitySyncStatusContract entitySyncStatusContract, boolean scopeAwareEAS, String deviceId) {
+    private boolean isDeviceAware(EntitySyncStatusContract entitySyncStatusContract) {
         String entityName = entitySyncStatusContract.getEntityName();
-        DateTime loadedSince = entitySyncStatusContract.getLoadedSince();
-        if (scopeAwareEAS) nonScopeAwareServiceMap.remove(EntityApprovalStatus);
-
-        if (!SyncEntityName.existsAsEnum(entityName)) {
-            return false;
-        }
-
-        SyncEntityName syncEntityName = valueOf(entityName);
-        ScopeAwareService scopeAwareService = this.scopeAwareServiceMap.get(syncEntityName);
-        NonScopeAwareService nonScopeAwareService = this.nonScopeAwareServiceMap.get(syncEntityName);
-        DeviceAwareService deviceAwareService = this.deviceAwareServiceMap.get(syncEntityName);
-
-        if (deviceAwareService != null) {
-            return deviceAwareService.isSyncRequiredForDevice(loadedSince, deviceId);
-        }
-
-        if (nonScopeAwareService != null) {
-            return nonScopeAwareService.isNonScopeEntityChanged(loadedSince);
-        }
-
-        if (scopeAwareService != null) {
-            return scopeAwareService.isScopeEntityChanged(loadedSince, entitySyncStatusContract.getEntityTypeUuid());
-        }
+        return SyncEntityName.existsAsEnum(entityName) && deviceAwareServiceMap.containsKey(valueOf(entityName));
+    }
 
-        return false;
+    private boolean isDeviceSyncRequired(EntitySyncStatusContract entitySyncStatusContract, String deviceId) {
+        DeviceAwareService deviceAwareService = deviceAwareServiceMap.get(valueOf(entitySyncStatusContract.getEntityName()));
+        return deviceAwareService.isSyncRequiredForDevice(entitySyncStatusContract.getLoadedSince(), deviceId);
     }
 
     /**
@@ -6,6 +6,7 @@ import org.avni.server.framework.security.UserContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -15,21 +16,38 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
 public class RuleServiceClient {
     private final RestTemplate restTemplate;
+    private final Executor executor;
     @Value("${node.server.url}")
     private String NODE_SERVER_HOST;
     private final Logger logger = LoggerFactory.getLogger(RuleServiceClient.class);
 
     @Autowired
-    public RuleServiceClient(RestTemplate restTemplate) {
+    public RuleServiceClient(@Qualifier("ruleServerRestTemplate") RestTemplate restTemplate, @Qualifier("ruleServiceExecutor") Executor executor) {
         this.restTemplate = restTemplate;
+        this.executor = executor;
     }
 
     public Object post(String api, Object jsonObj, Class responseType) throws HttpClientErrorException {
-        String uri = NODE_SERVER_HOST.concat(api);
+        return send(api, new HttpEntity<>(jsonObj, constructHeaders()), responseType);
+    }
+
+    /**
+     * Sends the request on the rule service executor so that several rule calls can be in flight together. The headers
+     * are taken from the calling thread's user context.
+     */
+    public <T> CompletableFuture<T> postAsync(String api, Object jsonObj, Class<T> responseType) {
         HttpEntity<Object> entityCredentials = new HttpEntity<>(jsonObj, constructHeaders());
+        return CompletableFuture.supplyAsync(() -> (T) send(api, entityCredentials, responseType), executor);
+    }
+
+    private Object send(String api, HttpEntity<Object> entityCredentials, Class responseType) throws HttpClientErrorException {
+        String uri = NODE_SERVER_HOST.concat(api);
         try {
             return restTemplate.postForObject(uri, entityCredentials, responseType);
         } catch (HttpClientErrorException e) {
@@ -1,6 +1,7 @@
 package org.avni.server.web.response.slice;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.core.ResolvableType;
 import org.springframework.hateoas.CollectionModel;
@@ -161,6 +162,10 @@ public class SlicedResources<T> extends CollectionModel<T> {
         @JsonProperty //
         private boolean hasNext;
 
+        @JsonProperty //
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String continuationToken;
+
         protected SliceMetadata() {}
 
         public SliceMetadata(long size, long number) {
@@ -208,6 +213,19 @@ public class SlicedResources<T> extends CollectionModel<T> {
             return hasNext;
         }
 
+        /**
+         * Returns the token to be sent for the next slice, present only when the client asked for continuation tokens.
+         *
+         * @return the token or {@literal null}.
+         */
+        public String getContinuationToken() {
+            return continuationToken;
+        }
+
+        public void setContinuationToken(String continuationToken) {
+            this.continuationToken = continuationToken;
+        }
+
 
         /*
          * (non-Javadoc)
@@ -215,7 +233,7 @@ public class SlicedResources<T> extends CollectionModel<T> {
          */
         @Override
         public String toString() {
-            return String.format("Metadata: { number: %d, size %d, hasNext %s }", number, size, hasNext);
+            return String.format("Metadata: { number: %d, size %d, hasNext %s, continuationToken %s }", number, size, hasNext, continuationToken);
         }
 
         /*
@@ -238,7 +256,8 @@ public class SlicedResources<T> extends CollectionModel<T> {
             return super.equals(that) //
                     && Objects.equals(this.number, that.number) //
                     && Objects.equals(this.size, that.size)
-                    && Objects.equals(this.hasNext, that.hasNext);
+                    && Objects.equals(this.hasNext, that.hasNext)
+                    && Objects.equals(this.continuationToken, that.continuationToken);
         }
 
         /*
@@ -1,15 +1,25 @@
 package org.avni.server.web.util;
 
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.avni.server.framework.security.UserContextTaskDecorator;
 import org.avni.server.util.ObjectMapperSingleton;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Component
 @ConfigurationProperties(prefix = "avni")
@@ -25,13 +35,47 @@ public class Configuration {
     }
 
     @Bean
+    @Primary
     public RestTemplate restTemplate() {
         RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setMessageConverters(jsonMessageConverters());
+        return restTemplate;
+    }
+
+    @Bean("ruleServerRestTemplate")
+    public RestTemplate ruleServerRestTemplate(@Value("${node.server.maxConnections}") int maxConnections) {
+        //rule server calls are made concurrently to a single host, so the pool is sized per route as well
+        HttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build();
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build()));
+        restTemplate.setMessageConverters(jsonMessageConverters());
+        return restTemplate;
+    }
+
+    private static List<HttpMessageConverter<?>> jsonMessageConverters() {
         List<HttpMessageConverter<?>> messageConverters = new ArrayList<>();
         MappingJackson2HttpMessageConverter jsonMessageConverter = new MappingJackson2HttpMessageConverter();
         jsonMessageConverter.setObjectMapper(ObjectMapperSingleton.getObjectMapper());
         messageConverters.add(jsonMessageConverter);
-        restTemplate.setMessageConverters(messageConverters);
-        return restTemplate;
+        return messageConverters;
+    }
+
+    @Bean("ruleServiceExecutor")
+    public ThreadPoolTaskExecutor ruleServiceExecutor(@Value("${node.server.threads}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("rule-service-");
+        executor.setTaskDecorator(new UserContextTaskDecorator());
+        //when saturated the calling thread makes the rule call itself
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
     }
 }
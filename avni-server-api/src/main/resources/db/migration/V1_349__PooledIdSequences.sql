@@ -0,0 +1,33 @@
+-- Ids of entities extending CHSBaseEntity are allocated by hibernate in blocks of 50 (pooled-lo) from the serial sequence
+-- of their table, so that inserts can be batched. The sequences of tables with the CHSBaseEntity columns are named
+-- <table>_id_seq, as SerialSequenceNamingStrategy expects, and incremented by 50. Inserts that take the column default
+-- still get ids of their own, outside of the blocks handed out by hibernate.
+DO
+$$
+    DECLARE
+        serial RECORD;
+        expected_sequence_name TEXT;
+    BEGIN
+        FOR serial IN
+            SELECT t.relname AS table_name, s.relname AS sequence_name
+            FROM pg_class s
+                     JOIN pg_namespace n ON n.oid = s.relnamespace
+                     JOIN pg_depend d ON d.objid = s.oid AND d.classid = 'pg_class'::regclass AND d.deptype IN ('a', 'i')
+                     JOIN pg_class t ON t.oid = d.refobjid AND t.relkind = 'r'
+                     JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = d.refobjsubid
+            WHERE s.relkind = 'S'
+              AND n.nspname = 'public'
+              AND a.attname = 'id'
+              AND EXISTS(SELECT 1 FROM pg_attribute c WHERE c.attrelid = t.oid AND c.attname = 'uuid' AND NOT c.attisdropped)
+              AND EXISTS(SELECT 1 FROM pg_attribute c WHERE c.attrelid = t.oid AND c.attname = 'is_voided' AND NOT c.attisdropped)
+            LOOP
+                -- postgres truncates the table name part of long sequence names in the same way
+                expected_sequence_name := left(serial.table_name, 56) || '_id_seq';
+                IF serial.sequence_name <> expected_sequence_name AND to_regclass(format('public.%I', expected_sequence_name)) IS NULL THEN
+                    EXECUTE format('ALTER SEQUENCE public.%I RENAME TO %I', serial.sequence_name, expected_sequence_name);
+                    serial.sequence_name := expected_sequence_name;
+                END IF;
+                EXECUTE format('ALTER SEQUENCE public.%I INCREMENT BY 50', serial.sequence_name);
+            END LOOP;
+    END
+$$;
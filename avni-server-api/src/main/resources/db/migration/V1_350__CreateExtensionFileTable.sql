@@ -0,0 +1,29 @@
+-- Manifest of the extension files of an organisation in S3, so that sync can check for changed extensions without
+-- listing the bucket
+create table extension_file
+(
+    id                      serial primary key,
+    organisation_id         int                         not null,
+    uuid                    varchar(255)                not null,
+    is_voided               boolean                     NOT NULL DEFAULT FALSE,
+    created_date_time       timestamp(3) with time zone not null,
+    last_modified_date_time timestamp(3) with time zone not null,
+    created_by_id           int                         not null,
+    last_modified_by_id     int                         not null,
+    version                 int                         not null default 1,
+    s3_key                  text                        not null,
+    size                    bigint                      not null,
+    e_tag                   varchar(255),
+    file_modified_date_time timestamp(3) with time zone not null,
+    foreign key (organisation_id) references organisation (id),
+    foreign key (created_by_id) references users (id),
+    foreign key (last_modified_by_id) references users (id),
+    unique (uuid)
+);
+
+create index if not exists extension_file_organisation_id_file_modified_date_time_idx on extension_file (organisation_id, file_modified_date_time);
+alter sequence extension_file_id_seq increment by 50;
+
+grant all on table extension_file to public;
+grant all on sequence extension_file_id_seq to public;
+select enable_rls_on_tx_table('extension_file');
@@ -0,0 +1,2 @@
+-- Subtree lookups and moves on lineage (<@, @>) use this instead of scanning the locations of the organisation
+create index if not exists address_level_lineage_gist_idx on address_level using gist (lineage);
@@ -0,0 +1,28 @@
+-- Manifests refreshed concurrently could list a file twice. Keep the latest row of each file and let the database refuse
+-- another one.
+delete from extension_file ef
+    using extension_file newer
+where newer.organisation_id = ef.organisation_id
+  and newer.s3_key = ef.s3_key
+  and newer.id > ef.id;
+
+alter table extension_file
+    add constraint extension_file_organisation_id_s3_key_key unique (organisation_id, s3_key);
+
+-- Organisations whose manifest has been built from S3, including those without any extension files, so that an empty
+-- manifest is not taken for a missing one
+create table extension_manifest
+(
+    id                    serial primary key,
+    organisation_id       int                         not null unique,
+    built_date_time       timestamp(3) with time zone not null,
+    foreign key (organisation_id) references organisation (id)
+);
+
+insert into extension_manifest (organisation_id, built_date_time)
+select distinct organisation_id, now()
+from extension_file;
+
+grant all on table extension_manifest to public;
+grant all on sequence extension_manifest_id_seq to public;
+select enable_rls_on_tx_table('extension_manifest');
@@ -13,8 +13,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 public class MessageRequestServiceTest {
@@ -22,7 +29,7 @@ public class MessageRequestServiceTest {
     private MessageRequestQueueRepository messageRequestRepository;
 
     @Captor
-    ArgumentCaptor<MessageRequest> messageRequest;
+    ArgumentCaptor<List<MessageRequest>> messageRequests;
 
     private MessageRequestService messageRequestService;
     private MessageReceiverService messageReceiverService;
@@ -40,14 +47,51 @@ public class MessageRequestServiceTest {
         DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
         DateTime scheduledDateTime = formatter.parseDateTime("2013-02-04 10:35:24");
 
-        messageRequestService.createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, 1L, scheduledDateTime);
+        when(messageRequestRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        messageRequestService.createOrUpdateAutomatedMessageRequests(1L,
+                Collections.singletonList(new MessageRequest(messageRule, messageReceiver, 1L, scheduledDateTime)));
 
-        verify(messageRequestRepository).save(messageRequest.capture());
-        MessageRequest messageRequest = this.messageRequest.getValue();
+        verify(messageRequestRepository).saveAll(messageRequests.capture());
+        assertThat(messageRequests.getValue()).hasSize(1);
+        MessageRequest messageRequest = messageRequests.getValue().get(0);
         assertThat(messageRequest.getMessageRule()).isEqualTo(messageRule);
         assertThat(messageRequest.getMessageReceiver()).isEqualTo(messageReceiver);
         assertThat(messageRequest.getScheduledDateTime()).isEqualTo(scheduledDateTime);
         assertThat(messageRequest.getEntityId()).isEqualTo(1L);
         assertThat(messageRequest.getUuid()).isNotNull();
     }
+
+    @Test
+    public void shouldLookUpExistingRequestsOnceAndSaveTheChangesTogether() {
+        MessageRule newRule = messageRule(1L);
+        MessageRule reschedulableRule = messageRule(2L);
+        MessageRule deliveredRule = messageRule(3L);
+        MessageReceiver messageReceiver = new MessageReceiver();
+        DateTime scheduledDateTime = DateTime.now().plusDays(1);
+        MessageRequest existingRequest = new MessageRequest(reschedulableRule, messageReceiver, 1L, DateTime.now());
+        MessageRequest deliveredRequest = new MessageRequest(deliveredRule, messageReceiver, 1L, DateTime.now());
+        deliveredRequest.markComplete();
+        List<MessageRule> messageRules = Arrays.asList(newRule, reschedulableRule, deliveredRule);
+        when(messageRequestRepository.findAllByEntityIdAndMessageRuleIn(1L, messageRules)).thenReturn(Arrays.asList(existingRequest, deliveredRequest));
+        when(messageRequestRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        messageRequestService.createOrUpdateAutomatedMessageRequests(1L, messageRules.stream()
+                .map(messageRule -> new MessageRequest(messageRule, messageReceiver, 1L, scheduledDateTime))
+                .collect(Collectors.toList()));
+
+        verify(messageRequestRepository).saveAll(messageRequests.capture());
+        List<MessageRequest> savedRequests = messageRequests.getValue();
+        assertThat(savedRequests).hasSize(2);
+        assertThat(savedRequests.get(0).getMessageRule()).isEqualTo(newRule);
+        assertThat(savedRequests.get(0).getUuid()).isNotNull();
+        assertThat(savedRequests.get(1)).isSameAs(existingRequest);
+        assertThat(savedRequests).allMatch(messageRequest -> messageRequest.getScheduledDateTime().equals(scheduledDateTime));
+    }
+
+    private static MessageRule messageRule(Long id) {
+        MessageRule messageRule = new MessageRule();
+        messageRule.setId(id);
+        return messageRule;
+    }
 }
@@ -0,0 +1,33 @@
+package org.avni.messaging.service;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageSendRateLimiterTest {
+    private final AtomicLong nanoClock = new AtomicLong();
+    private final MessageSendRateLimiter rateLimiter = new MessageSendRateLimiter(2, nanoClock::get);
+
+    @Test
+    public void shouldAllowABurstOfOneSecondsMessagesAndThenSpaceThemOut() {
+        assertEquals(0, rateLimiter.reserve(1L));
+        assertEquals(0, rateLimiter.reserve(1L));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), rateLimiter.reserve(1L));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), rateLimiter.reserve(1L));
+
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(0, rateLimiter.reserve(1L));
+    }
+
+    @Test
+    public void shouldLimitEachOrganisationSeparately() {
+        rateLimiter.reserve(1L);
+        rateLimiter.reserve(1L);
+
+        assertEquals(0, rateLimiter.reserve(2L));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), rateLimiter.reserve(1L));
+    }
+}
@@ -0,0 +1,181 @@
+package org.avni.messaging.service;
+
+import com.bugsnag.Bugsnag;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.avni.messaging.domain.*;
+import org.avni.messaging.external.GlificRestClient;
+import org.avni.messaging.repository.GlificMessageRepository;
+import org.avni.messaging.repository.ManualMessageRepository;
+import org.avni.messaging.repository.MessageRequestQueueRepository;
+import org.avni.messaging.repository.MessageRuleRepository;
+import org.avni.server.dao.externalSystem.ExternalSystemConfigRepository;
+import org.avni.server.domain.JsonObject;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.UserContext;
+import org.avni.server.domain.extenalSystem.ExternalSystemConfig;
+import org.avni.server.domain.extenalSystem.SystemName;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.service.EntityTypeRetrieverService;
+import org.avni.server.service.IndividualService;
+import org.avni.server.service.RuleService;
+import org.avni.server.service.UserService;
+import org.avni.server.web.request.rules.response.MessageRuleResponseEntity;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * Sends the due message requests through the real Glific client, to a stand-in for Glific on a local port.
+ */
+public class MessagingServiceGlificStandInTest {
+    private static final int MESSAGE_REQUESTS = 250;
+    private static final String AUTH_RESPONSE = "{\"data\":{\"access_token\":\"standInToken\",\"renewal_token\":\"standInRenewalToken\",\"token_expiry_time\":\"2022-10-13T21:42:33.342529Z\"}}";
+
+    @Mock
+    private MessageRuleRepository messageRuleRepository;
+    @Mock
+    private MessageReceiverService messageReceiverService;
+    @Mock
+    private MessageRequestService messageRequestService;
+    @Mock
+    private MessageRequestQueueRepository messageRequestQueueRepository;
+    @Mock
+    private ManualMessageRepository manualMessageRepository;
+    @Mock
+    private RuleService ruleService;
+    @Mock
+    private GroupMessagingService groupMessagingService;
+    @Mock
+    private EntityTypeRetrieverService entityTypeRetrieverService;
+    @Mock
+    private ExternalSystemConfigRepository externalSystemConfigRepository;
+    @Mock
+    private PlatformTransactionManager platformTransactionManager;
+    @Captor
+    private ArgumentCaptor<List<Long>> sentIds;
+
+    private WireMockServer glificStandIn;
+    private MessagingService messagingService;
+    private final Duration scheduledSince = Duration.standardDays(4);
+
+    @Before
+    public void setup() throws Exception {
+        initMocks(this);
+        glificStandIn = new WireMockServer(options().dynamicPort());
+        glificStandIn.start();
+        glificStandIn.addStubMapping(WireMock.post(GlificRestClient.AUTH_URL).willReturn(okJson(AUTH_RESPONSE)).build());
+        glificStandIn.addStubMapping(WireMock.post("/api").willReturn(okJson("{\"data\":{}}")).build());
+
+        ExternalSystemConfig externalSystemConfig = new ExternalSystemConfig();
+        externalSystemConfig.setSystemName(SystemName.Glific);
+        externalSystemConfig.setConfig(new JsonObject()
+                .with("baseUrl", glificStandIn.baseUrl())
+                .with("phone", "919693847573")
+                .with("password", "seecretpass"));
+        when(externalSystemConfigRepository.findBySystemName(SystemName.Glific)).thenReturn(externalSystemConfig);
+        MessageRuleResponseEntity messageRuleResponse = new MessageRuleResponseEntity();
+        messageRuleResponse.setParameters(new String[]{"first", "second"});
+        when(ruleService.executeMessageRule(anyString(), anyLong(), anyString())).thenReturn(messageRuleResponse);
+
+        GlificMessageRepository glificMessageRepository = new GlificMessageRepository(new GlificRestClient(new RestTemplateBuilder(), externalSystemConfigRepository));
+        IndividualMessagingService individualMessagingService = new IndividualMessagingService(messageReceiverService, glificMessageRepository,
+                mock(IndividualService.class), mock(UserService.class), ruleService, mock(Bugsnag.class));
+        messagingService = new MessagingService(messageRuleRepository, messageReceiverService, messageRequestService, messageRequestQueueRepository,
+                manualMessageRepository, ruleService, groupMessagingService, individualMessagingService, mock(Bugsnag.class), entityTypeRetrieverService,
+                new MessageSendRateLimiter(10000), platformTransactionManager);
+
+        UserContext context = new UserContext();
+        Organisation organisation = new Organisation();
+        organisation.setId(1L);
+        organisation.setName("Glific stand-in");
+        context.setOrganisation(organisation);
+        UserContextHolder.create(context);
+    }
+
+    @After
+    public void tearDown() {
+        glificStandIn.stop();
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldSendEveryDueMessageAndCommitTheDeliveryStatusesABatchAtATime() {
+        List<MessageRequest> messageRequests = messageRequests();
+        when(messageRequestQueueRepository.findDueMessageRequests(scheduledSince)).thenReturn(messageRequests.stream());
+
+        messagingService.sendMessages(scheduledSince);
+
+        glificStandIn.verify(MESSAGE_REQUESTS, postRequestedFor(urlEqualTo("/api")).withHeader("Authorization", equalTo("standInToken")));
+        verify(messageRequestService, times(3)).updateDeliveryStatus(sentIds.capture(), eq(MessageDeliveryStatus.Sent));
+        assertEquals(100, sentIds.getAllValues().get(0).size());
+        assertEquals(100, sentIds.getAllValues().get(1).size());
+        assertEquals(50, sentIds.getAllValues().get(2).size());
+        assertEquals(ids(messageRequests), sentIds.getAllValues().stream().flatMap(List::stream).collect(Collectors.toList()));
+        verify(platformTransactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    public void shouldKeepTheBatchesCommittedBeforeARunFails() {
+        List<MessageRequest> messageRequests = messageRequests();
+        when(messageRequestQueueRepository.findDueMessageRequests(scheduledSince)).thenReturn(messageRequests.stream());
+        doNothing().doNothing().doThrow(new RuntimeException("Status update failed"))
+                .when(messageRequestService).updateDeliveryStatus(anyList(), any());
+
+        try {
+            messagingService.sendMessages(scheduledSince);
+            fail("The failed status update should fail the run");
+        } catch (RuntimeException e) {
+            assertEquals("Status update failed", e.getMessage());
+        }
+
+        glificStandIn.verify(MESSAGE_REQUESTS, postRequestedFor(urlEqualTo("/api")));
+        verify(platformTransactionManager, times(2)).commit(any());
+        verify(platformTransactionManager).rollback(any());
+    }
+
+    private static List<MessageRequest> messageRequests() {
+        MessageRule messageRule = new MessageRule();
+        messageRule.setId(10L);
+        messageRule.setMessageRule("I am a message rule");
+        messageRule.setMessageTemplateId("1001");
+        messageRule.setEntityType(EntityType.Subject);
+        List<MessageRequest> messageRequests = new ArrayList<>();
+        IntStream.range(0, MESSAGE_REQUESTS).forEach(i -> {
+            MessageReceiver messageReceiver = new MessageReceiver(ReceiverType.Subject, (long) i);
+            messageReceiver.setExternalId(String.valueOf(5000 + i));
+            MessageRequest messageRequest = new MessageRequest(messageRule, messageReceiver, (long) i, DateTime.now());
+            messageRequest.setId((long) i + 1);
+            messageRequests.add(messageRequest);
+        });
+        return messageRequests;
+    }
+
+    private static List<Long> ids(List<MessageRequest> messageRequests) {
+        return messageRequests.stream().map(MessageRequest::getId).collect(Collectors.toList());
+    }
+}
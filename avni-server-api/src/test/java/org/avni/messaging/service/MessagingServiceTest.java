@@ -23,10 +23,15 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -64,12 +69,18 @@ public class MessagingServiceTest {
     @Mock
     private EntityTypeRetrieverService entityTypeRetrieverService;
 
+    @Mock
+    private PlatformTransactionManager platformTransactionManager;
+
     @Captor
     ArgumentCaptor<MessageReceiver> messageReceiver;
 
     @Captor
     ArgumentCaptor<MessageRequest> messageRequest;
 
+    @Captor
+    ArgumentCaptor<List<MessageRequest>> messageRequests;
+
     private String scheduledSinceDays;
 
     @Before
@@ -77,7 +88,8 @@ public class MessagingServiceTest {
         initMocks(this);
         messagingService = new MessagingService(messageRuleRepository, messageReceiverService,
                 messageRequestService, messageRequestQueueRepository,
-                manualMessageRepository, ruleService, groupMessagingService, individualMessagingService, null, entityTypeRetrieverService);
+                manualMessageRepository, ruleService, groupMessagingService, individualMessagingService, null, entityTypeRetrieverService,
+                new MessageSendRateLimiter(1000), platformTransactionManager);
         scheduledSinceDays = "4";
     }
 
@@ -111,13 +123,15 @@ public class MessagingServiceTest {
         DateTime scheduledDateTime = formatter.parseDateTime("2013-02-04 10:35:24");
         ScheduleRuleResponseEntity scheduleRuleResponseEntity = new ScheduleRuleResponseEntity();
         scheduleRuleResponseEntity.setScheduledDateTime(scheduledDateTime);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRule)).thenReturn(scheduleRuleResponseEntity);
+        when(ruleService.executeScheduleRules(messageRule.getEntityType().name(), individualId, Collections.singletonList(scheduleRule))).thenReturn(Collections.singletonList(scheduleRuleResponseEntity));
 
         messagingService.onEntitySave(individualId, subjectTypeId, EntityType.Subject, individualId, userId);
 
         verify(messageReceiverService).saveReceiverIfRequired(eq(ReceiverType.Subject), eq(individualId));
-        verify(ruleService).executeScheduleRule(eq(messageRule.getEntityType().name()), eq(individualId), eq(scheduleRule));
-        verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, individualId, scheduledDateTime);
+        verify(ruleService).executeScheduleRules(eq(messageRule.getEntityType().name()), eq(individualId), eq(Collections.singletonList(scheduleRule)));
+        verify(messageRequestService).createOrUpdateAutomatedMessageRequests(eq(individualId), messageRequests.capture());
+        assertEquals(1, messageRequests.getValue().size());
+        assertMessageRequest(messageRequests.getValue().get(0), messageRule, messageReceiver, individualId, scheduledDateTime);
     }
 
     @Test
@@ -152,7 +166,6 @@ public class MessagingServiceTest {
         DateTime scheduledDateTime = formatter.parseDateTime("2013-02-04 10:35:24");
         ScheduleRuleResponseEntity scheduleRuleResponseEntity = new ScheduleRuleResponseEntity();
         scheduleRuleResponseEntity.setScheduledDateTime(scheduledDateTime);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRule)).thenReturn(scheduleRuleResponseEntity);
 
         String scheduleRuleAnother = "scheduleRule2";
         when(messageRuleAnother.getScheduleRule()).thenReturn(scheduleRuleAnother);
@@ -164,16 +177,17 @@ public class MessagingServiceTest {
         DateTime scheduledDateTimeOfAnotherRule = formatter.parseDateTime("2019-02-04 10:35:24");
         ScheduleRuleResponseEntity anotherScheduledRuleResponseEntity = new ScheduleRuleResponseEntity();
         anotherScheduledRuleResponseEntity.setScheduledDateTime(scheduledDateTimeOfAnotherRule);
-        when(ruleService.executeScheduleRule(messageRule.getEntityType().name(), individualId, scheduleRuleAnother)).thenReturn(anotherScheduledRuleResponseEntity);
+        when(ruleService.executeScheduleRules(messageRule.getEntityType().name(), individualId, Arrays.asList(scheduleRule, scheduleRuleAnother)))
+                .thenReturn(Arrays.asList(scheduleRuleResponseEntity, anotherScheduledRuleResponseEntity));
 
         messagingService.onEntitySave(individualId, subjectTypeId, EntityType.Subject, individualId, userId);
 
-        verify(messageReceiverService, times(2)).saveReceiverIfRequired(eq(ReceiverType.Subject), eq(individualId));
-        verify(ruleService).executeScheduleRule(eq(messageRule.getEntityType().name()), eq(individualId), eq(scheduleRule));
-        verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, individualId, scheduledDateTime);
-
-        verify(ruleService).executeScheduleRule(eq(messageRuleAnother.getEntityType().name()), eq(individualId), eq(scheduleRuleAnother));
-        verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRuleAnother, messageReceiver, individualId, scheduledDateTimeOfAnotherRule);
+        verify(messageReceiverService, times(1)).saveReceiverIfRequired(eq(ReceiverType.Subject), eq(individualId));
+        verify(ruleService).executeScheduleRules(eq(messageRule.getEntityType().name()), eq(individualId), eq(Arrays.asList(scheduleRule, scheduleRuleAnother)));
+        verify(messageRequestService).createOrUpdateAutomatedMessageRequests(eq(individualId), messageRequests.capture());
+        assertEquals(2, messageRequests.getValue().size());
+        assertMessageRequest(messageRequests.getValue().get(0), messageRule, messageReceiver, individualId, scheduledDateTime);
+        assertMessageRequest(messageRequests.getValue().get(1), messageRuleAnother, messageReceiver, individualId, scheduledDateTimeOfAnotherRule);
     }
 
     @Test
@@ -185,17 +199,21 @@ public class MessagingServiceTest {
         messageRule.setEntityType(EntityType.Subject);
         MessageReceiver messageReceiver = new MessageReceiver(ReceiverType.Subject, 1L);
         MessageRequest request = new MessageRequest(messageRule, messageReceiver, 3L, DateTime.now());
+        request.setId(20L);
         UserContext context = new UserContext();
-        context.setOrganisation(new Organisation());
+        Organisation organisation = new Organisation();
+        organisation.setId(1L);
+        context.setOrganisation(organisation);
         UserContextHolder.create(context);
         Duration scheduledSince = Duration.standardDays(Long.parseLong(scheduledSinceDays));
 
         when(messageRequestQueueRepository.findDueMessageRequests(scheduledSince)).thenReturn(Stream.<MessageRequest>builder().add(request).build());
-        when(messageRequestService.markComplete(request)).thenReturn(request);
 
         messagingService.sendMessages(scheduledSince);
 
         verify(individualMessagingService).sendAutomatedMessage(request);
+        verify(messageRequestService).updateDeliveryStatus(Collections.singletonList(20L), MessageDeliveryStatus.Sent);
+        verify(platformTransactionManager).commit(any());
     }
 
     @Test
@@ -231,6 +249,15 @@ public class MessagingServiceTest {
         messagingService.onUserEntitySave(userId, new User());
         verify(messageReceiverService).saveReceiverIfRequired(eq(ReceiverType.User), eq(userId));
         verify(ruleService).executeScheduleRuleForEntityTypeUser(eq(userId), eq(scheduleRule));
-        verify(messageRequestService).createOrUpdateAutomatedMessageRequest(messageRule, messageReceiver, userId, scheduledDateTime);
+        verify(messageRequestService).createOrUpdateAutomatedMessageRequests(eq(userId), messageRequests.capture());
+        assertEquals(1, messageRequests.getValue().size());
+        assertMessageRequest(messageRequests.getValue().get(0), messageRule, messageReceiver, userId, scheduledDateTime);
+    }
+
+    private static void assertMessageRequest(MessageRequest messageRequest, MessageRule messageRule, MessageReceiver messageReceiver, Long entityId, DateTime scheduledDateTime) {
+        assertEquals(messageRule, messageRequest.getMessageRule());
+        assertEquals(messageReceiver, messageRequest.getMessageReceiver());
+        assertEquals(entityId, messageRequest.getEntityId());
+        assertEquals(scheduledDateTime, messageRequest.getScheduledDateTime());
     }
 }
@@ -0,0 +1,46 @@
+package org.avni.server.dao;
+
+import org.avni.server.domain.Individual;
+import org.avni.server.util.BadRequestError;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import static org.junit.Assert.*;
+
+public class KeysetPageRequestTest {
+    @Test
+    public void shouldKeepPageableAsIsWhenClientDoesNotUseContinuationToken() {
+        PageRequest pageRequest = PageRequest.of(3, 100);
+        assertSame(pageRequest, KeysetPageRequest.of(pageRequest, null));
+    }
+
+    @Test
+    public void shouldReadCursorFromContinuationToken() {
+        Individual individual = new Individual();
+        individual.setId(42L);
+        individual.setLastModifiedDateTime(new DateTime(1700000000123L));
+
+        KeysetPageRequest keysetPageRequest = (KeysetPageRequest) KeysetPageRequest.of(PageRequest.of(3, 100), KeysetPageRequest.continuationTokenAfter(individual));
+
+        assertTrue(keysetPageRequest.hasCursor());
+        assertEquals(42L, keysetPageRequest.getId().longValue());
+        assertEquals(1700000000123L, keysetPageRequest.getLastModifiedDateTime().getTime());
+        assertEquals(300, keysetPageRequest.getOffset());
+        assertEquals(0, keysetPageRequest.seeking().getOffset());
+        assertEquals(3, keysetPageRequest.seeking().getPageNumber());
+    }
+
+    @Test
+    public void emptyTokenIsTheFirstPage() {
+        Pageable pageable = KeysetPageRequest.of(PageRequest.of(0, 100), "");
+        assertTrue(pageable instanceof KeysetPageRequest);
+        assertFalse(((KeysetPageRequest) pageable).hasCursor());
+    }
+
+    @Test(expected = BadRequestError.class)
+    public void shouldRejectInvalidToken() {
+        KeysetPageRequest.of(PageRequest.of(0, 100), "not-a-token");
+    }
+}
@@ -0,0 +1,101 @@
+package org.avni.server.domain.accessControl;
+
+import org.avni.server.domain.EncounterType;
+import org.avni.server.domain.Program;
+import org.avni.server.domain.SubjectType;
+import org.avni.server.domain.factory.access.TestGroupPrivilegeBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.avni.server.domain.accessControl.GroupPrivilegesTest.privilege;
+import static org.avni.server.domain.accessControl.GroupPrivilegesTest.withId;
+
+/**
+ * Compares the privilege index with the earlier scan of all the group privileges, for the checks SyncDetailsService makes
+ * for an organisation with 40 subject types and 200 form mappings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GroupPrivilegesBenchmark {
+    private static final int NUMBER_OF_SUBJECT_TYPES = 40;
+    private static final int NUMBER_OF_FORM_MAPPINGS = 200;
+    private static final PrivilegeType[] SUBJECT_PRIVILEGE_TYPES = {PrivilegeType.ViewSubject, PrivilegeType.RegisterSubject, PrivilegeType.EditSubject, PrivilegeType.VoidSubject};
+    private static final PrivilegeType[] VISIT_PRIVILEGE_TYPES = {PrivilegeType.ViewVisit, PrivilegeType.ScheduleVisit, PrivilegeType.PerformVisit, PrivilegeType.EditVisit, PrivilegeType.CancelVisit, PrivilegeType.VoidVisit};
+
+    private final List<SubjectType> subjectTypes = new ArrayList<>();
+    private final List<FormMappingTypes> formMappings = new ArrayList<>();
+    private List<GroupPrivilege> privileges;
+    private GroupPrivileges groupPrivileges;
+
+    @Setup
+    public void setup() {
+        privileges = new ArrayList<>();
+        long id = 1000;
+        for (int i = 0; i < NUMBER_OF_SUBJECT_TYPES; i++) {
+            SubjectType subjectType = withId(new SubjectType(), id++);
+            subjectTypes.add(subjectType);
+            for (PrivilegeType privilegeType : SUBJECT_PRIVILEGE_TYPES) {
+                privileges.add(new TestGroupPrivilegeBuilder().setPrivilege(privilege(privilegeType)).setSubjectType(subjectType).build());
+            }
+        }
+        for (int i = 0; i < NUMBER_OF_FORM_MAPPINGS; i++) {
+            SubjectType subjectType = subjectTypes.get(i % NUMBER_OF_SUBJECT_TYPES);
+            Program program = i % 2 == 0 ? withId(new Program(), id++) : null;
+            EncounterType encounterType = withId(new EncounterType(), id++);
+            formMappings.add(new FormMappingTypes(subjectType, program, encounterType));
+            for (PrivilegeType privilegeType : VISIT_PRIVILEGE_TYPES) {
+                TestGroupPrivilegeBuilder builder = new TestGroupPrivilegeBuilder().setPrivilege(privilege(privilegeType)).setSubjectType(subjectType).setProgram(program);
+                privileges.add(program == null ? builder.setEncounterType(encounterType).build() : builder.setProgramEncounterType(encounterType).build());
+            }
+        }
+        groupPrivileges = new GroupPrivileges(false, privileges);
+    }
+
+    @Benchmark
+    public int index() {
+        int allowed = 0;
+        for (SubjectType subjectType : subjectTypes) {
+            if (groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType, null, null, null)) allowed++;
+        }
+        for (FormMappingTypes formMapping : formMappings) {
+            if (groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, formMapping.subjectType, formMapping.program, formMapping.encounterType, null)) allowed++;
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    public int scan() {
+        int allowed = 0;
+        for (SubjectType subjectType : subjectTypes) {
+            if (privileges.stream().anyMatch(gp -> gp.matches(PrivilegeType.ViewSubject, subjectType, null, null, null))) allowed++;
+        }
+        for (FormMappingTypes formMapping : formMappings) {
+            if (privileges.stream().anyMatch(gp -> gp.matches(PrivilegeType.ViewVisit, formMapping.subjectType, formMapping.program, formMapping.encounterType, null))) allowed++;
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    public GroupPrivileges compile() {
+        return new GroupPrivileges(false, privileges);
+    }
+
+    private static class FormMappingTypes {
+        private final SubjectType subjectType;
+        private final Program program;
+        private final EncounterType encounterType;
+
+        private FormMappingTypes(SubjectType subjectType, Program program, EncounterType encounterType) {
+            this.subjectType = subjectType;
+            this.program = program;
+            this.encounterType = encounterType;
+        }
+    }
+}
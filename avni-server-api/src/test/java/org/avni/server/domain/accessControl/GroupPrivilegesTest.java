@@ -0,0 +1,67 @@
+package org.avni.server.domain.accessControl;
+
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.access.TestGroupPrivilegeBuilder;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GroupPrivilegesTest {
+    private final SubjectType subjectType = withId(new SubjectType(), 1000L);
+    private final Program program = withId(new Program(), 2000L);
+    private final EncounterType encounterType = withId(new EncounterType(), 3000L);
+    private final EncounterType programEncounterType = withId(new EncounterType(), 3001L);
+    private final ChecklistDetail checklistDetail = withId(new ChecklistDetail(), 4000L);
+
+    @Test
+    public void shouldMatchOnTypeAndTheIdsOfTheEntities() {
+        GroupPrivileges groupPrivileges = new GroupPrivileges(false,
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewSubject)).setSubjectType(subjectType).build());
+
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, withId(new SubjectType(), 1000L), null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.EditSubject, subjectType, null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, withId(new SubjectType(), 1001L), null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType, program, null, null));
+    }
+
+    @Test
+    public void shouldMatchTheEncounterTypeWithEitherTheEncounterTypeOrTheProgramEncounterType() {
+        GroupPrivileges groupPrivileges = new GroupPrivileges(false,
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewVisit)).setSubjectType(subjectType).setProgram(program).setProgramEncounterType(programEncounterType).build(),
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewVisit)).setSubjectType(subjectType).setEncounterType(encounterType).build());
+
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, program, programEncounterType, null));
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, program, null, null));
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, null, encounterType, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, program, encounterType, null));
+    }
+
+    @Test
+    public void shouldMatchChecklistPrivileges() {
+        GroupPrivileges groupPrivileges = new GroupPrivileges(PrivilegeIndex.compile(Collections.singletonList(
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewChecklist)).setSubjectType(subjectType).setChecklistDetail(checklistDetail).build())));
+
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewChecklist, subjectType, null, null, checklistDetail));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewChecklist, subjectType, null, null, null));
+    }
+
+    @Test
+    public void shouldHaveAllPrivilegesWithoutAnyGroupPrivilege() {
+        assertTrue(new GroupPrivileges().hasPrivilege(PrivilegeType.ViewSubject, subjectType, null, null, null));
+        assertFalse(new GroupPrivileges(false).hasPrivilege(PrivilegeType.ViewSubject, subjectType, null, null, null));
+    }
+
+    static Privilege privilege(PrivilegeType privilegeType) {
+        Privilege privilege = new Privilege();
+        privilege.setType(privilegeType);
+        return privilege;
+    }
+
+    static <T extends CHSBaseEntity> T withId(T entity, Long id) {
+        entity.setId(id);
+        return entity;
+    }
+}
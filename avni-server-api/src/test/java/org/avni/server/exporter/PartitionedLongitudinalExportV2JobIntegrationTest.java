@@ -0,0 +1,125 @@
+package org.avni.server.exporter;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.ExportJobParametersRepository;
+import org.avni.server.domain.ExportJobParameters;
+import org.avni.server.domain.JsonObject;
+import org.avni.server.domain.SubjectType;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.ExportS3Service;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.avni.server.service.builder.TestSubjectService;
+import org.avni.server.service.builder.TestSubjectTypeService;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.avni.server.web.external.request.export.ExportFilters;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.avni.server.web.request.ExportOutputBuilder;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the export job with its step scoped beans, in a context of its own with three partitions. Not transactional, as
+ * the partitions read the subjects in transactions of their own.
+ */
+@TestPropertySource(properties = {"avni.longitudinal.export.v2.partitions=3", "avni.longitudinal.export.v2.limit=5"})
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PartitionedLongitudinalExportV2JobIntegrationTest extends AbstractControllerIntegrationTest {
+    private static final int SUBJECTS = 7;
+    private static final int LIMIT = 5;
+
+    @Autowired
+    private Job exportV2Job;
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private ExportJobParametersRepository exportJobParametersRepository;
+    @Autowired
+    private ExportS3Service exportS3Service;
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
+    @Test
+    public void shouldExportTheSubjectsWithinTheLimitInIdOrderAcrossPartitions() throws Exception {
+        List<Long> subjectIds = new ArrayList<>();
+        JobParameters jobParameters = new TransactionTemplate(platformTransactionManager).execute(status -> {
+            TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+            TestDataSetupService.TestCatchmentData catchmentData = testDataSetupService.setupACatchment();
+            SubjectType subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().build());
+            for (int i = 0; i < SUBJECTS; i++) {
+                subjectIds.add(testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType)
+                        .withLocation(catchmentData.getAddressLevel1()).build()).getId());
+            }
+            ExportJobParameters exportJobParameters = exportJobParameters(subjectType, organisationData);
+            String jobUuid = UUID.randomUUID().toString();
+            return new JobParametersBuilder()
+                    .addString("uuid", jobUuid)
+                    .addString("organisationUUID", organisationRepository.findOne(organisationData.getOrganisationId()).getUuid())
+                    .addLong("userId", organisationData.getUser().getId(), false)
+                    .addLong("organisationId", organisationData.getOrganisationId())
+                    .addString("fileName", jobUuid.concat(ExportS3Service.FILE_NAME_EXTENSION))
+                    .addString("subjectTypeUUID", subjectType.getUuid(), false)
+                    .addString("reportType", "Custom")
+                    .addString("exportJobParamsUUID", exportJobParameters.getUuid())
+                    .toJobParameters();
+        });
+
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.afterPropertiesSet();
+        JobExecution jobExecution = jobLauncher.run(exportV2Job, jobParameters);
+
+        assertEquals(jobExecution.getAllFailureExceptions().toString(), BatchStatus.COMPLETED, jobExecution.getStatus());
+        List<String> lines = Files.readAllLines(exportS3Service.getLocalExportFile(jobParameters.getString("uuid")).toPath());
+        assertEquals(LIMIT + 1, lines.size());
+        List<Long> exportedIds = lines.subList(1, lines.size()).stream()
+                .map(line -> Long.valueOf(line.split(",")[0].replace("\"", "")))
+                .collect(Collectors.toList());
+        assertEquals(subjectIds.subList(0, LIMIT), exportedIds);
+    }
+
+    private ExportJobParameters exportJobParameters(SubjectType subjectType, TestDataSetupService.TestOrganisationData organisationData) {
+        ExportFilters exportFilters = new ExportFilters();
+        exportFilters.setAddressLevelIds(Collections.emptyList());
+        exportFilters.setDate(new ExportFilters.DateFilter(DateTime.now().plusDays(1), DateTime.now().minusDays(1)));
+        ExportOutput exportOutput = new ExportOutputBuilder()
+                .forSubjectType(subjectType.getUuid())
+                .withFields(Collections.singletonList("id"))
+                .usingFilters(exportFilters)
+                .build();
+        ExportJobParameters exportJobParameters = new ExportJobParameters();
+        exportJobParameters.setTimezone("Asia/Kolkata");
+        exportJobParameters.setReportFormat(ObjectMapperSingleton.getObjectMapper().convertValue(exportOutput, JsonObject.class));
+        exportJobParameters.setUser(organisationData.getUser());
+        exportJobParameters.assignUUID();
+        return exportJobParametersRepository.save(exportJobParameters);
+    }
+}
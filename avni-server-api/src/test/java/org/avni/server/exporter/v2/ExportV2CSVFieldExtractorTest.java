@@ -26,8 +26,10 @@ import org.mockito.Mock;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -179,6 +181,59 @@ public class ExportV2CSVFieldExtractorTest {
         assertEquals("\"32\"", getExtractValue(header, "\"ST1_C1_2_C3\"", extract));
     }
 
+    @Test
+    public void aggregateWritesTheExtractedValuesAsOneLine() throws IOException {
+        User user = new UserBuilder().build();
+        exportOutput.setUuid("st1");
+        SubjectType subjectType = new SubjectTypeBuilder().setUuid("st1").setName("ST1").build();
+        ObservationCollection observationCollection = new ObservationCollectionBuilder().addObservation("c2", "2").build();
+        Individual individual = new SubjectBuilder().withSubjectType(subjectType).withAuditUser(user).withObservations(observationCollection).withUUID("s1").build();
+        LongitudinalExportItemRow longitudinalExportItemRow = new LongitudinalExportItemRowBuilder().withSubject(individual).build();
+
+        when(addressLevelService.getAllAddressLevelTypeNames()).thenReturn(Arrays.asList("State", "District", "Block"));
+        when(exportJobParametersRepository.findByUuid("st1")).thenReturn(exportJobParameters);
+        when(subjectTypeRepository.findByUuid(any())).thenReturn(subjectType);
+        Concept concept2 = new ConceptBuilder().withUuid("c2").withName("C2").withDataType(ConceptDataType.Text).build();
+        LinkedHashMap<String, FormElement> formElementsMap = new LinkedHashMap<String, FormElement>() {{
+            put("c2", new TestFormElementBuilder().withConcept(concept2).build());
+        }};
+        when(formMappingService.findForSubject(any())).thenReturn(new FormMappingBuilder().withForm(new Form()).build());
+        when(formMappingService.getAllFormElementsAndDecisionMap("st1", null, null, FormType.IndividualProfile)).thenReturn(formElementsMap);
+
+        exportV2CSVFieldExtractor.init();
+        Object[] extract = exportV2CSVFieldExtractor.extract(longitudinalExportItemRow);
+        String line = exportV2CSVFieldExtractor.aggregate(longitudinalExportItemRow);
+
+        assertEquals(Arrays.stream(extract).map(value -> value == null ? "" : String.valueOf(value)).collect(Collectors.joining(",")), line);
+        assertEquals(line, exportV2CSVFieldExtractor.aggregate(longitudinalExportItemRow));
+    }
+
+    @Test
+    public void aggregateWritesAnEmptyColumnForAMissingCoreField() throws IOException {
+        User user = new UserBuilder().build();
+        exportOutput.setUuid("st1");
+        SubjectType subjectType = new SubjectTypeBuilder().setUuid("st1").setName("ST1").build();
+        Individual individual = new SubjectBuilder().withSubjectType(subjectType).withAuditUser(user).withUUID("s1").build();
+        LongitudinalExportItemRow longitudinalExportItemRow = new LongitudinalExportItemRowBuilder().withSubject(individual).build();
+
+        when(addressLevelService.getAllAddressLevelTypeNames()).thenReturn(Arrays.asList("State", "District", "Block"));
+        when(exportJobParametersRepository.findByUuid("st1")).thenReturn(exportJobParameters);
+        when(subjectTypeRepository.findByUuid(any())).thenReturn(subjectType);
+        when(formMappingService.getAllFormElementsAndDecisionMap("st1", null, null, FormType.IndividualProfile)).thenReturn(new LinkedHashMap<>());
+        when(formMappingService.findForSubject(any())).thenReturn(new FormMappingBuilder().withForm(new Form()).build());
+
+        exportV2CSVFieldExtractor.init();
+        StringBuilderWriter writer = new StringBuilderWriter();
+        exportV2CSVFieldExtractor.writeHeader(writer);
+        String header = writer.toString();
+        String line = exportV2CSVFieldExtractor.aggregate(longitudinalExportItemRow);
+
+        String[] values = line.split(",", -1);
+        assertEquals("s1", getExtractValue(header, "ST1_uuid", values));
+        assertEquals("", getExtractValue(header, "ST1_date_of_birth", values));
+        assertFalse(line.contains("null"));
+    }
+
     private Object getExtractValue(String header, String headerFieldName, Object[] extract) {
         String[] headerFields = getHeaderFields(header);
         for (int i = 0; i < headerFields.length; i++) {
@@ -0,0 +1,194 @@
+package org.avni.server.exporter.v2;
+
+import jakarta.persistence.EntityManager;
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.*;
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.metadata.ProgramBuilder;
+import org.avni.server.domain.factory.txn.ProgramEnrolmentBuilder;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.*;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.avni.server.web.external.request.export.ExportEntityType;
+import org.avni.server.web.external.request.export.ExportFilters;
+import org.avni.server.web.external.request.export.ExportOutput;
+import org.avni.server.web.request.ExportOutputBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exports a chunk of subjects with and without prefetching, each in a persistence context of its own, and counts the
+ * statements with the Hibernate statistics of a context of its own. Not transactional, as each export reads the
+ * committed subjects.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class ExportV2PrefetcherIntegrationTest extends AbstractControllerIntegrationTest {
+    private static final int SUBJECTS = 10;
+    private static final int MAX_STATEMENTS_PER_CHUNK = 10;
+
+    @Autowired
+    private ExportV2Prefetcher exportV2Prefetcher;
+    @Autowired
+    private IndividualRepository individualRepository;
+    @Autowired
+    private EncounterTypeRepository encounterTypeRepository;
+    @Autowired
+    private EncounterRepository encounterRepository;
+    @Autowired
+    private ProgramEncounterRepository programEncounterRepository;
+    @Autowired
+    private ExportJobParametersRepository exportJobParametersRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private TestProgramService testProgramService;
+    @Autowired
+    private TestProgramEnrolmentService testProgramEnrolmentService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
+    @Test
+    public void shouldExportTheRowsOfTheRowByRowPathWithABoundedNumberOfStatementsPerChunk() {
+        List<Long> subjectIds = new ArrayList<>();
+        ExportJobParameters exportJobParameters = new TransactionTemplate(platformTransactionManager).execute(status -> setupSubjects(subjectIds));
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        List<List<Object>> rowByRowRows = export(subjectIds, exportJobParameters, false, statistics);
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+        List<List<Object>> prefetchedRows = export(subjectIds, exportJobParameters, true, statistics);
+        long prefetchedStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(SUBJECTS, prefetchedRows.size());
+        assertEquals(rowByRowRows, prefetchedRows);
+        prefetchedRows.forEach(row -> {
+            assertEquals(1, ((Map<?, ?>) row.get(1)).size());
+            assertEquals(1, ((Map<?, ?>) row.get(2)).size());
+        });
+        assertTrue(String.format("%d statements for a chunk of %d subjects", prefetchedStatements, SUBJECTS), prefetchedStatements <= MAX_STATEMENTS_PER_CHUNK);
+        assertTrue(String.format("%d statements row by row", rowByRowStatements), rowByRowStatements > prefetchedStatements);
+    }
+
+    private ExportJobParameters setupSubjects(List<Long> subjectIds) {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        TestDataSetupService.TestCatchmentData catchmentData = testDataSetupService.setupACatchment();
+        SubjectType subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().build());
+        Program program = testProgramService.addProgram(new ProgramBuilder().withName("Program").build(), subjectType);
+        EncounterType encounterType = encounterType("Encounter");
+        EncounterType programEncounterType = encounterType("Program Encounter");
+        AddressLevel addressLevel = catchmentData.getAddressLevel1();
+        for (int i = 0; i < SUBJECTS; i++) {
+            Individual subject = testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType).withLocation(addressLevel).build());
+            subjectIds.add(subject.getId());
+            Encounter encounter = new Encounter();
+            encounter.setIndividual(subject);
+            initEncounter(encounter, encounterType, addressLevel, organisationData.getUser());
+            encounterRepository.save(encounter);
+
+            ProgramEnrolment programEnrolment = testProgramEnrolmentService.save(new ProgramEnrolmentBuilder().withMandatoryFieldsForNewEntity()
+                    .setProgram(program).setIndividual(subject).build());
+            ProgramEncounter programEncounter = new ProgramEncounter();
+            programEncounter.setProgramEnrolment(programEnrolment);
+            programEncounter.setIndividual(subject);
+            initEncounter(programEncounter, programEncounterType, addressLevel, organisationData.getUser());
+            programEncounterRepository.save(programEncounter);
+        }
+
+        ExportOutput.ExportNestedOutput programOutput = new ExportOutput.ExportNestedOutput();
+        programOutput.setUuid(program.getUuid());
+        programOutput.setEncounters(Collections.singletonList(exportEntityType(programEncounterType)));
+        ExportFilters exportFilters = new ExportFilters();
+        exportFilters.setAddressLevelIds(Collections.emptyList());
+        ExportOutput exportOutput = new ExportOutputBuilder()
+                .forSubjectType(subjectType.getUuid())
+                .withFields(Collections.singletonList("id"))
+                .usingFilters(exportFilters)
+                .withEncounterTypes(Collections.singletonList(exportEntityType(encounterType)))
+                .withProgram(Collections.singletonList(programOutput))
+                .build();
+        ExportJobParameters exportJobParameters = new ExportJobParameters();
+        exportJobParameters.setTimezone("Asia/Kolkata");
+        exportJobParameters.setReportFormat(ObjectMapperSingleton.getObjectMapper().convertValue(exportOutput, JsonObject.class));
+        exportJobParameters.setUser(organisationData.getUser());
+        exportJobParameters.assignUUID();
+        return exportJobParametersRepository.save(exportJobParameters);
+    }
+
+    /**
+     * Processes the chunk in a persistence context of its own, with the second level cache cleared. The statistics count
+     * the statements from after the chunk is read.
+     */
+    private List<List<Object>> export(List<Long> subjectIds, ExportJobParameters exportJobParameters, boolean prefetch, Statistics statistics) {
+        ExportOutput exportOutput = ObjectMapperSingleton.getObjectMapper().convertValue(exportJobParameters.getReportFormat(), ExportOutput.class);
+        ExportV2Processor exportV2Processor = new ExportV2Processor(exportJobParametersRepository, exportJobParameters.getUuid());
+        exportV2Processor.init();
+        exportV2Processor.setExportOutput(exportOutput);
+        return new TransactionTemplate(platformTransactionManager).execute(status -> {
+            entityManager.getEntityManagerFactory().getCache().evictAll();
+            List<Individual> individuals = individualRepository.findAllById(subjectIds).stream()
+                    .sorted(Comparator.comparing(Individual::getId))
+                    .collect(Collectors.toList());
+            statistics.clear();
+            if (prefetch) exportV2Prefetcher.prefetch(individuals, exportOutput);
+            return individuals.stream().map(exportV2Processor::process).map(ExportV2PrefetcherIntegrationTest::describe).collect(Collectors.toList());
+        });
+    }
+
+    private static List<Object> describe(LongitudinalExportItemRow row) {
+        Map<String, List<Long>> encounters = new LinkedHashMap<>();
+        row.getEncounterTypeToEncountersMap().forEach((encounterTypeUUID, typeEncounters) -> encounters.put(encounterTypeUUID, ids(typeEncounters)));
+        Map<Long, Map<String, List<Long>>> programEncounters = new LinkedHashMap<>();
+        row.getProgramEnrolmentToEncountersMap().forEach((programEnrolment, encountersOfTypes) -> {
+            Map<String, List<Long>> typeEncounters = new LinkedHashMap<>();
+            encountersOfTypes.forEach((encounterTypeUUID, programEncountersOfType) -> typeEncounters.put(encounterTypeUUID, ids(programEncountersOfType)));
+            programEncounters.put(programEnrolment.getId(), typeEncounters);
+        });
+        return Arrays.asList(row.getIndividual().getId(), encounters, programEncounters, row.getGroupSubjectToEncountersMap().size());
+    }
+
+    private static List<Long> ids(List<? extends CHSBaseEntity> entities) {
+        return entities.stream().map(CHSBaseEntity::getId).collect(Collectors.toList());
+    }
+
+    private EncounterType encounterType(String name) {
+        EncounterType encounterType = new EncounterTypeBuilder().withName(name).build();
+        encounterType.assignUUID();
+        encounterType.setActive(true);
+        return encounterTypeRepository.save(encounterType);
+    }
+
+    private static void initEncounter(AbstractEncounter encounter, EncounterType encounterType, AddressLevel addressLevel, User user) {
+        encounter.assignUUID();
+        encounter.setEncounterType(encounterType);
+        encounter.setEncounterDateTime(DateTime.now().minusDays(1), user);
+        encounter.setObservations(new ObservationCollection());
+        encounter.setAddressId(addressLevel.getId());
+    }
+
+    private static ExportEntityType exportEntityType(EncounterType encounterType) {
+        ExportEntityType exportEntityType = new ExportEntityType();
+        exportEntityType.setUuid(encounterType.getUuid());
+        return exportEntityType;
+    }
+}
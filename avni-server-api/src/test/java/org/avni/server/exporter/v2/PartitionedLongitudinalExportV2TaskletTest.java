@@ -0,0 +1,117 @@
+package org.avni.server.exporter.v2;
+
+import jakarta.persistence.EntityManager;
+import org.avni.server.domain.Individual;
+import org.avni.server.service.ExportS3Service;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class PartitionedLongitudinalExportV2TaskletTest {
+    private static final int PARTITIONS = 3;
+    private static final int CACHE_CLEAR_SIZE = 2;
+    private static final List<Long> SUBJECT_IDS = Arrays.asList(2L, 3L, 5L, 8L, 13L, 21L, 34L);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
+    @Mock
+    private ExportV2Processor exportV2Processor;
+    @Mock
+    private ExportV2Prefetcher exportV2Prefetcher;
+    @Mock
+    private ExportS3Service exportS3Service;
+    @Mock
+    private PlatformTransactionManager platformTransactionManager;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() throws IOException {
+        initMocks(this);
+        executor = Executors.newFixedThreadPool(PARTITIONS);
+        doAnswer(invocation -> {
+            ((Writer) invocation.getArgument(0)).write("Subject Id");
+            return null;
+        }).when(exportV2CSVFieldExtractor).writeHeader(any());
+        when(exportV2CSVFieldExtractor.aggregate(any())).thenAnswer(invocation -> {
+            LongitudinalExportItemRow row = invocation.getArgument(0);
+            return String.format("%d,\"subject %d\"", row.getIndividual().getId(), row.getIndividual().getId());
+        });
+        when(exportV2Processor.process(any())).thenAnswer(invocation -> new LongitudinalExportItemRowBuilder().withSubject(invocation.getArgument(0)).build());
+        when(exportS3Service.getLocalExportFile("partitioned")).thenReturn(temporaryFolder.newFile("partitioned.csv"));
+        when(exportS3Service.getLocalExportPartFile(eq("partitioned"), anyInt()))
+                .thenAnswer(invocation -> new File(temporaryFolder.getRoot(), String.format("partitioned.part-%d.csv", invocation.<Integer>getArgument(1))));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldMergePartitionsIntoTheHeaderAndRowsOfTheSingleStreamExport() throws Exception {
+        File singleStreamFile = temporaryFolder.newFile("single.csv");
+        LongitudinalExportV2TaskletImpl singleStreamTasklet = new LongitudinalExportV2TaskletImpl(CACHE_CLEAR_SIZE, entityManager, exportV2CSVFieldExtractor,
+                exportV2Processor, exportV2Prefetcher, exportS3Service, "single", subjects(0, Long.MAX_VALUE));
+        singleStreamTasklet.export(singleStreamFile, true, new ExecutionContext());
+        singleStreamTasklet.clean();
+
+        long idsPerPartition = PartitionedLongitudinalExportV2Tasklet.getIdsPerPartition(SUBJECT_IDS.get(SUBJECT_IDS.size() - 1), PARTITIONS);
+        PartitionedLongitudinalExportV2Tasklet partitionedTasklet = new PartitionedLongitudinalExportV2Tasklet(PARTITIONS, CACHE_CLEAR_SIZE, entityManager,
+                exportV2CSVFieldExtractor, exportV2Processor, exportV2Prefetcher, exportS3Service, "partitioned",
+                partition -> subjects(partition * idsPerPartition, (partition + 1) * idsPerPartition - 1),
+                new TransactionTemplate(platformTransactionManager), executor);
+        partitionedTasklet.execute(null, new ChunkContext(new StepContext(new StepExecution("exportV2Step", new JobExecution(1L)))));
+        partitionedTasklet.clean();
+
+        List<String> singleStreamLines = Files.readAllLines(singleStreamFile.toPath());
+        List<String> mergedLines = Files.readAllLines(exportS3Service.getLocalExportFile("partitioned").toPath());
+        assertEquals(SUBJECT_IDS.size() + 1, singleStreamLines.size());
+        assertEquals("Subject Id", mergedLines.get(0));
+        assertEquals(singleStreamLines, mergedLines);
+        verify(platformTransactionManager, times(PARTITIONS)).commit(any());
+    }
+
+    private static Stream<Individual> subjects(long fromId, long toId) {
+        return SUBJECT_IDS.stream()
+                .filter(id -> id >= fromId && id <= toId)
+                .map(id -> {
+                    Individual individual = new Individual();
+                    individual.setId(id);
+                    return individual;
+                })
+                .collect(Collectors.toList())
+                .stream();
+    }
+}
@@ -0,0 +1,61 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.domain.ObservationCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the structural copy used by the user types with the earlier java serialization copy, for observations similar
+ * to those of an encounter (coded, numeric, text, date and question group answers).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AbstractUserTypeBenchmark {
+    @Param({"20", "150"})
+    private int numberOfObservations;
+
+    private ObservationCollection observations;
+
+    @Setup
+    public void setup() {
+        observations = new ObservationCollection();
+        Random random = new Random(1);
+        for (int i = 0; i < numberOfObservations; i++) {
+            switch (i % 5) {
+                case 0:
+                    observations.put(UUID.randomUUID().toString(), new ArrayList<>(Arrays.asList(UUID.randomUUID().toString(), UUID.randomUUID().toString())));
+                    break;
+                case 1:
+                    observations.put(UUID.randomUUID().toString(), random.nextDouble() * 100);
+                    break;
+                case 2:
+                    observations.put(UUID.randomUUID().toString(), "Free text answer " + i);
+                    break;
+                case 3:
+                    observations.put(UUID.randomUUID().toString(), "2024-01-01T00:00:00.000Z");
+                    break;
+                default:
+                    Map<String, Object> group = new HashMap<>();
+                    group.put(UUID.randomUUID().toString(), random.nextInt(50));
+                    group.put(UUID.randomUUID().toString(), new ArrayList<>(Collections.singletonList(UUID.randomUUID().toString())));
+                    observations.put(UUID.randomUUID().toString(), new ArrayList<>(Arrays.asList(group, new HashMap<>(group))));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object structuralCopy() {
+        return JsonbValueCopier.copy(observations);
+    }
+
+    @Benchmark
+    public Object serializationCopy() {
+        return JsonbValueCopier.serializedCopy(observations);
+    }
+}
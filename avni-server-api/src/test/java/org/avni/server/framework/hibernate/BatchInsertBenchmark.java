@@ -0,0 +1,96 @@
+package org.avni.server.framework.hibernate;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second inserted with an id from the column default, one round trip per row (as with IDENTITY), against rows
+ * with ids allocated in blocks of 50 from the sequence and inserted in JDBC batches (as with the pooled-lo sequence ids).
+ * Needs a postgres database, OPENCHS_DATABASE_URL/USER/PASSWORD as for the server, and uses a temporary table.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BatchInsertBenchmark {
+    private static final int ROWS = 1000;
+    private static final int BLOCK_SIZE = 50;
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", getEnv("OPENCHS_DATABASE_USER", "openchs"));
+        properties.setProperty("password", getEnv("OPENCHS_DATABASE_PASSWORD", "password"));
+        properties.setProperty("reWriteBatchedInserts", "true");
+        connection = DriverManager.getConnection(getEnv("OPENCHS_DATABASE_URL", "jdbc:postgresql://localhost:5432/openchs_test"), properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create temporary table benchmark_row (id serial primary key, uuid text not null)");
+            statement.execute("alter sequence benchmark_row_id_seq increment by " + BLOCK_SIZE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("truncate benchmark_row");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identityInserts() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement("insert into benchmark_row (uuid) values (?) returning id")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setString(1, UUID.randomUUID().toString());
+                try (ResultSet resultSet = insert.executeQuery()) {
+                    resultSet.next();
+                    lastId = resultSet.getLong(1);
+                }
+            }
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long pooledBatchInserts() throws SQLException {
+        long nextId = 0;
+        long blockEnd = 0;
+        try (PreparedStatement sequence = connection.prepareStatement("select nextval('benchmark_row_id_seq')");
+             PreparedStatement insert = connection.prepareStatement("insert into benchmark_row (id, uuid) values (?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                if (nextId == blockEnd) {
+                    try (ResultSet resultSet = sequence.executeQuery()) {
+                        resultSet.next();
+                        nextId = resultSet.getLong(1);
+                        blockEnd = nextId + BLOCK_SIZE;
+                    }
+                }
+                insert.setLong(1, nextId++);
+                insert.setString(2, UUID.randomUUID().toString());
+                insert.addBatch();
+                if ((i + 1) % BLOCK_SIZE == 0) insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+        return nextId;
+    }
+
+    private static String getEnv(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,62 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.application.KeyValue;
+import org.avni.server.application.KeyValues;
+import org.avni.server.domain.ObservationCollection;
+import org.avni.server.domain.RuledEntity;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonbValueCopierTest {
+    @Test
+    public void shouldCopyContainersAndShareImmutableLeaves() {
+        ObservationCollection observations = new ObservationCollection();
+        String text = "some text";
+        observations.put("text", text);
+        observations.put("number", 10.5);
+        List<Object> answers = new ArrayList<>(Arrays.asList("answer-1", "answer-2"));
+        observations.put("coded", answers);
+        Map<String, Object> groupObservation = new HashMap<>();
+        groupObservation.put("nested", new ArrayList<>(Collections.singletonList("answer-3")));
+        observations.put("group", new ArrayList<>(Collections.singletonList(groupObservation)));
+
+        ObservationCollection copy = (ObservationCollection) JsonbValueCopier.copy(observations);
+
+        assertThat(copy).isEqualTo(observations).isNotSameAs(observations);
+        assertThat(copy.get("text")).isSameAs(text);
+        assertThat(copy.get("coded")).isNotSameAs(answers);
+        ((List<Object>) copy.get("coded")).add("answer-4");
+        assertThat(answers).hasSize(2);
+        Map<?, ?> copiedGroupObservation = (Map<?, ?>) ((List<?>) copy.get("group")).get(0);
+        assertThat(copiedGroupObservation).isEqualTo(groupObservation).isNotSameAs(groupObservation);
+    }
+
+    @Test
+    public void shouldCopyKeyValues() {
+        KeyValues keyValues = new KeyValues();
+        keyValues.add(new KeyValue("answers", new ArrayList<>(Collections.singletonList("a"))));
+
+        KeyValues copy = (KeyValues) JsonbValueCopier.copy(keyValues);
+
+        assertThat(copy).isEqualTo(keyValues);
+        assertThat(copy.get(0)).isNotSameAs(keyValues.get(0));
+        assertThat(copy.get(0).getValue()).isNotSameAs(keyValues.get(0).getValue());
+    }
+
+    @Test
+    public void shouldFallBackToSerializationForOtherValues() {
+        RuledEntity ruledEntity = new RuledEntity();
+        ruledEntity.setUuid("uuid");
+        List<String> unmodifiable = Collections.unmodifiableList(new ArrayList<>(Collections.singletonList("a")));
+
+        RuledEntity copy = (RuledEntity) JsonbValueCopier.copy(ruledEntity);
+
+        assertThat(copy).isNotSameAs(ruledEntity);
+        assertThat(copy.getUuid()).isEqualTo("uuid");
+        assertThat(JsonbValueCopier.copy(unmodifiable)).isEqualTo(unmodifiable).isNotSameAs(unmodifiable);
+        assertThat(JsonbValueCopier.copy(null)).isNull();
+    }
+}
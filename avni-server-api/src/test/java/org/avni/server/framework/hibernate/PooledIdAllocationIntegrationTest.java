@@ -0,0 +1,61 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.AddressLevelTypeRepository;
+import org.avni.server.domain.AddressLevelType;
+import org.avni.server.domain.factory.AddressLevelTypeBuilder;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * The other tests allocate ids without the optimizer, as tear-down.sql restarts the sequences. This one runs with the
+ * pooled-lo optimizer of production, in a context of its own, so no block handed out before a restart is used.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo")
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PooledIdAllocationIntegrationTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private AddressLevelTypeRepository addressLevelTypeRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void shouldAllocateIdsThatDoNotClashWithInsertsUsingTheColumnDefault() {
+        long organisationId = testDataSetupService.setupOrganisation().getOrganisationId();
+        List<AddressLevelType> firstBlocks = addressLevelTypeRepository.saveAll(newAddressLevelTypes(60));
+        Long insertedWithColumnDefault = jdbcTemplate.queryForObject("insert into address_level_type (uuid, name, level, organisation_id, version, created_by_id, last_modified_by_id, created_date_time, last_modified_date_time, is_voided) " +
+                        "select ?, ?, level, organisation_id, version, created_by_id, last_modified_by_id, created_date_time, last_modified_date_time, is_voided from address_level_type where id = ? returning id",
+                Long.class, UUID.randomUUID().toString(), UUID.randomUUID().toString(), firstBlocks.get(0).getId());
+        List<AddressLevelType> nextBlocks = addressLevelTypeRepository.saveAll(newAddressLevelTypes(60));
+
+        Set<Long> allocatedIds = new HashSet<>();
+        firstBlocks.forEach(addressLevelType -> allocatedIds.add(addressLevelType.getId()));
+        nextBlocks.forEach(addressLevelType -> allocatedIds.add(addressLevelType.getId()));
+        assertEquals(120, allocatedIds.size());
+        assertFalse(allocatedIds.contains(insertedWithColumnDefault));
+        assertEquals(Long.valueOf(121), jdbcTemplate.queryForObject("select count(distinct id) from address_level_type where organisation_id = ?", Long.class, organisationId));
+    }
+
+    private static List<AddressLevelType> newAddressLevelTypes(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new AddressLevelTypeBuilder().withDefaultValuesForNewEntity().build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,20 @@
+package org.avni.server.framework.hibernate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SerialSequenceNamingStrategyTest {
+    @Test
+    public void shouldNameTheSequenceLikeASerialColumnsSequence() {
+        assertEquals("individual_id_seq", SerialSequenceNamingStrategy.getSequenceName("individual"));
+        assertEquals("groups_id_seq", SerialSequenceNamingStrategy.getSequenceName("\"groups\""));
+    }
+
+    @Test
+    public void shouldTruncateLongTableNamesLikePostgres() {
+        String tableName = "a_table_name_that_is_long_enough_to_be_truncated_by_postgres";
+        assertEquals(63, SerialSequenceNamingStrategy.getSequenceName(tableName).length());
+        assertEquals(tableName.substring(0, 56) + "_id_seq", SerialSequenceNamingStrategy.getSequenceName(tableName));
+    }
+}
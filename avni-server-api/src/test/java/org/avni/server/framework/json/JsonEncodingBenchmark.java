@@ -0,0 +1,71 @@
+package org.avni.server.framework.json;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a sync upload sized request body by reading it into a string and encoding it as a tree, as the request filter
+ * did earlier, against encoding it as it is streamed. Run with -prof gc to compare the bytes allocated per body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx512m"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class JsonEncodingBenchmark {
+    @Param({"1000", "10000"})
+    private int numberOfEntities;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < numberOfEntities; i++) {
+            if (i > 0) json.append(",");
+            json.append("{\"uuid\":\"").append(UUID.randomUUID()).append("\",")
+                    .append("\"name\":\"Subject <b>").append(i).append("</b>\",")
+                    .append("\"voided\":false,")
+                    .append("\"observations\":{\"weight\":").append(i % 90).append(".5,\"notes\":\"")
+                    .append("Visited & counselled, next visit in 2 weeks. ".repeat(4)).append("\"}}");
+        }
+        body = json.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int bufferedEncoding() throws IOException {
+        StringBuilder stringBuilder = new StringBuilder();
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)) {
+            char[] charBuffer = new char[128];
+            int charsRead;
+            while ((charsRead = reader.read(charBuffer)) > 0) {
+                stringBuilder.append(charBuffer, 0, charsRead);
+            }
+        }
+        return consume(new ByteArrayInputStream(JsonEncoder.encode(stringBuilder.toString()).toString().getBytes()));
+    }
+
+    @Benchmark
+    public int streamingEncoding() throws IOException {
+        return consume(new JsonEncodingInputStream(new ByteArrayInputStream(body)));
+    }
+
+    private static int consume(InputStream inputStream) throws IOException {
+        int length = 0;
+        byte[] bytes = new byte[8192];
+        int bytesRead;
+        try (inputStream) {
+            while ((bytesRead = inputStream.read(bytes)) != -1) length += bytesRead;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,44 @@
+package org.avni.server.framework.json;
+
+import org.junit.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonEncodingInputStreamTest {
+    @Test
+    public void shouldEncodeLikeTheJsonEncoder() throws IOException {
+        String json = "{\"a\":1,\"b\":\"<alert>abc</alert>\",\"twos\":[{\"x\":2,\"y\":\"<b>xyz</b>\"},\"<i>\",null,true,1.5],\"<c>\":{\"y\":\"hsd\"}}";
+        assertEquals(JsonEncoder.encode(json).toString(), encode(json));
+    }
+
+    @Test
+    public void shouldEncodeADocumentLongerThanOneRead() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) json.append(",");
+            json.append("{\"id\":").append(i).append(",\"name\":\"<script>").append(i).append("</script> नाम\"}");
+        }
+        json.append("]");
+        assertEquals(JsonEncoder.encode(json.toString()).toString(), encode(json.toString()));
+    }
+
+    @Test
+    public void shouldGiveBackAnEmptyBodyAsEmpty() throws IOException {
+        JsonEncodingInputStream inputStream = new JsonEncodingInputStream(new ByteArrayInputStream(new byte[0]));
+        assertEquals(-1, inputStream.read());
+        assertTrue(inputStream.isFinished());
+    }
+
+    private static String encode(String json) throws IOException {
+        try (InputStream inputStream = new JsonEncodingInputStream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -11,10 +11,17 @@ import org.avni.server.domain.ProgramEncounter;
 import org.avni.server.domain.User;
 import org.avni.server.framework.hibernate.AbstractJsonbUserType;
 import org.avni.server.framework.hibernate.KeyValuePairsHibernateObject;
+import org.avni.server.framework.hibernate.ObservationCollectionUserType;
 
 import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Map;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 public class JsonbUserTypeTest {
     @Test
     public void returnedClass() throws IOException {
@@ -34,4 +41,17 @@ public class JsonbUserTypeTest {
         JSONObject jsonObject = new JSONObject(string);
         Assert.assertEquals(10, jsonObject.getJSONObject("observations").getInt("a8d3da51-33f8-4b0d-a867-678471603151"));
     }
+
+    @Test
+    public void readObservationCollection() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("{\"a8d3da51-33f8-4b0d-a867-678471603151\": 10, \"b8d3da51-33f8-4b0d-a867-678471603151\": [\"ಕನ್ನಡ\"]}", (String) null);
+        ObservationCollectionUserType userType = new ObservationCollectionUserType();
+
+        ObservationCollection observations = userType.nullSafeGet(resultSet, 1, null, null);
+
+        Assert.assertEquals(10, observations.get("a8d3da51-33f8-4b0d-a867-678471603151"));
+        Assert.assertEquals(Collections.singletonList("ಕನ್ನಡ"), observations.get("b8d3da51-33f8-4b0d-a867-678471603151"));
+        Assert.assertNull(userType.nullSafeGet(resultSet, 1, null, null));
+    }
 }
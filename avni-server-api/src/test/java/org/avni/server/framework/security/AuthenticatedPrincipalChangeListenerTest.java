@@ -0,0 +1,57 @@
+package org.avni.server.framework.security;
+
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class AuthenticatedPrincipalChangeListenerTest {
+    @Mock
+    private AuthenticatedPrincipalCache authenticatedPrincipalCache;
+    @Mock
+    private ObjectProvider<AuthenticatedPrincipalCache> authenticatedPrincipalCacheProvider;
+    private AuthenticatedPrincipalChangeListener authenticatedPrincipalChangeListener;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        when(authenticatedPrincipalCacheProvider.getObject()).thenReturn(authenticatedPrincipalCache);
+        authenticatedPrincipalChangeListener = new AuthenticatedPrincipalChangeListener(authenticatedPrincipalCacheProvider);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldLookUpTheCacheOnlyWhenAnEntityChanges() {
+        verify(authenticatedPrincipalCacheProvider, never()).getObject();
+
+        authenticatedPrincipalChangeListener.onChange(new User());
+
+        verify(authenticatedPrincipalCache).evictAll();
+    }
+
+    @Test
+    public void shouldEvictThePrincipalsWhenTheChangeIsFlushedAndAgainWhenTheTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        authenticatedPrincipalChangeListener.onChange(new Organisation());
+        verify(authenticatedPrincipalCache, times(1)).evictAll();
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        verify(authenticatedPrincipalCache, times(2)).evictAll();
+    }
+}
@@ -0,0 +1,89 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.importer.batch.model.Row;
+import org.junit.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PartitionedCsvRowReaderTest {
+    private static final String[] HEADERS = {"Id", "First name"};
+    private static final String CSV = "Id,First name\n" +
+            "s1,Ram\n" +
+            "s2,Shyam\n" +
+            ",Sita\n" +
+            "s1,Ram Kumar\n" +
+            ",Gita\n" +
+            "s3,Hari\n";
+
+    @Test
+    public void shouldReadEveryRowInExactlyOnePartitionKeepingRowsOfTheSameIdTogetherInOrder() throws Exception {
+        int partitionCount = 3;
+        List<String> allNames = new ArrayList<>();
+        Map<String, Integer> partitionOfId = new HashMap<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            List<Row> rows = readAll(reader(partition, partitionCount));
+            for (Row row : rows) {
+                allNames.add(row.get("First name"));
+                String id = row.get("Id");
+                if (!id.isEmpty()) {
+                    assertEquals(Integer.valueOf(partition), partitionOfId.getOrDefault(id, partition));
+                    partitionOfId.put(id, partition);
+                }
+            }
+            List<String> namesOfS1 = new ArrayList<>();
+            rows.stream().filter(row -> row.get("Id").equals("s1")).forEach(row -> namesOfS1.add(row.get("First name")));
+            if (!namesOfS1.isEmpty()) assertEquals(List.of("Ram", "Ram Kumar"), namesOfS1);
+        }
+        allNames.sort(String::compareTo);
+        assertEquals(List.of("Gita", "Hari", "Ram", "Ram Kumar", "Shyam", "Sita"), allNames);
+    }
+
+    @Test
+    public void shouldReadAllRowsWhenThereIsOnePartition() throws Exception {
+        assertEquals(6, readAll(new PartitionedCsvRowReader(flatFileReader(), null, 0, 1)).size());
+    }
+
+    @Test
+    public void shouldNotSplitUploadTypesWhoseRowsDependOnEachOther() {
+        assertEquals("Id", CsvRowPartitioner.getPartitionKeyHeader("Subject---Individual"));
+        assertNull(CsvRowPartitioner.getPartitionKeyHeader("locations"));
+        assertNull(CsvRowPartitioner.getPartitionKeyHeader("ProgramEncounter---Delivery"));
+    }
+
+    private PartitionedCsvRowReader reader(int partition, int partitionCount) {
+        return new PartitionedCsvRowReader(flatFileReader(), "Id", partition, partitionCount);
+    }
+
+    private static List<Row> readAll(PartitionedCsvRowReader reader) throws Exception {
+        reader.open(new ExecutionContext());
+        List<Row> rows = new ArrayList<>();
+        Row row;
+        while ((row = reader.read()) != null) rows.add(row);
+        reader.close();
+        return rows;
+    }
+
+    private static FlatFileItemReader<Row> flatFileReader() {
+        DefaultLineMapper<Row> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(new DelimitedLineTokenizer());
+        lineMapper.setFieldSetMapper(fieldSet -> new Row(HEADERS, fieldSet.getValues()));
+        return new FlatFileItemReaderBuilder<Row>()
+                .name("csvFileItemReader")
+                .resource(new ByteArrayResource(CSV.getBytes()))
+                .linesToSkip(1)
+                .lineMapper(lineMapper)
+                .build();
+    }
+}
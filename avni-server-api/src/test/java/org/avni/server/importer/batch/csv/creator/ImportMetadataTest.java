@@ -0,0 +1,80 @@
+package org.avni.server.importer.batch.csv.creator;
+
+import org.avni.server.dao.*;
+import org.avni.server.dao.application.FormElementRepository;
+import org.avni.server.dao.application.FormMappingRepository;
+import org.avni.server.dao.application.FormRepository;
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.Gender;
+import org.avni.server.domain.factory.metadata.ConceptBuilder;
+import org.avni.server.importer.batch.csv.writer.header.Headers;
+import org.avni.server.service.SubjectTypeService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ImportMetadataTest {
+    private static final Headers FIXED_HEADERS = () -> new String[]{"Id", "First name"};
+    @Mock
+    private ConceptRepository conceptRepository;
+    @Mock
+    private AddressLevelTypeRepository addressLevelTypeRepository;
+    @Mock
+    private GenderRepository genderRepository;
+    private ImportMetadata importMetadata;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        importMetadata = new ImportMetadata(conceptRepository, mock(FormRepository.class), mock(FormElementRepository.class),
+                addressLevelTypeRepository, genderRepository, mock(OperationalSubjectTypeRepository.class),
+                mock(SubjectTypeRepository.class), mock(FormMappingRepository.class), mock(SubjectTypeService.class));
+        when(addressLevelTypeRepository.findAll()).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void shouldResolveConceptHeadersOnceAndLoadTheConceptsById() {
+        Concept weight = new ConceptBuilder().withId(1).withName("Weight").build();
+        when(conceptRepository.findByName("Weight")).thenReturn(weight);
+        when(conceptRepository.findEntity(1L)).thenReturn(weight);
+        String[] fileHeaders = {"Id", "First name", "Weight", "Not a concept"};
+
+        assertEquals(Collections.singleton(weight), importMetadata.getConceptHeaders(FIXED_HEADERS, fileHeaders));
+        assertEquals(Collections.singleton(weight), importMetadata.getConceptHeaders(FIXED_HEADERS, fileHeaders));
+
+        verify(conceptRepository, times(1)).findByName("Weight");
+        verify(conceptRepository, times(1)).findByName("Not a concept");
+        verify(conceptRepository, times(2)).findEntity(1L);
+        verify(addressLevelTypeRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void shouldFindGendersIgnoringCaseAndPreferNotVoidedOnes() {
+        Gender voidedMale = gender(1L, "Male", true);
+        Gender male = gender(2L, "male", false);
+        when(genderRepository.findAll()).thenReturn(Arrays.asList(voidedMale, male));
+        when(genderRepository.findEntity(2L)).thenReturn(male);
+
+        assertEquals(male, importMetadata.findGender("MALE"));
+        assertNull(importMetadata.findGender("Other"));
+        verify(genderRepository, times(1)).findAll();
+        verify(conceptRepository, never()).findByName(anyString());
+    }
+
+    private static Gender gender(Long id, String name, boolean voided) {
+        Gender gender = new Gender();
+        gender.setId(id);
+        gender.setName(name);
+        gender.setVoided(voided);
+        return gender;
+    }
+}
@@ -5,7 +5,6 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import org.avni.server.config.IdpType;
-import org.avni.server.dao.AccountAdminRepository;
 import org.avni.server.dao.OrganisationRepository;
 import org.avni.server.dao.UserRepository;
 import org.avni.server.domain.AccountAdmin;
@@ -14,9 +13,16 @@ import org.avni.server.domain.User;
 import org.avni.server.domain.UserContext;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
 import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.AuthenticatedPrincipalCache;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +34,8 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -41,9 +49,8 @@ public class AuthServiceTest {
     @Mock
     private CognitoAuthServiceImpl cognitoAuthService;
     @Mock
-    private AccountAdminRepository accountAdminRepository;
-    @Mock
     private UserService userService;
+    private IdpServiceFactory idpServiceFactory;
     private User user;
     private AuthService authService;
     private AccountAdmin accountAdmin;
@@ -51,8 +58,8 @@ public class AuthServiceTest {
     @Before
     public void setup() {
         initMocks(this);
-        authService = new AuthService(userRepository, organisationRepository, accountAdminRepository,
-                new IdpServiceFactory(organisationRepository, null, null, cognitoAuthService, keycloakAuthService, IdpType.cognito, null), userService);
+        idpServiceFactory = new IdpServiceFactory(organisationRepository, null, null, cognitoAuthService, keycloakAuthService, IdpType.cognito, null);
+        authService = new AuthService(userRepository, idpServiceFactory, new AuthenticatedPrincipalCache(organisationRepository, userService), organisationRepository);
         String uuid = "9ecc2805-6528-47ee-8267-9368b266ad39";
         user = new User();
         user.setUuid(uuid);
@@ -76,6 +83,7 @@ public class AuthServiceTest {
     @Test
     public void shouldAddOrganisationToContext() throws SigningKeyNotFoundException {
         Organisation organisation = new Organisation();
+        organisation.setId(1L);
         when(organisationRepository.findOne(1L)).thenReturn(organisation);
         when(userRepository.findByUuid(user.getUuid())).thenReturn(user);
         when(cognitoAuthService.getUserFromToken("some token")).thenReturn(user);
@@ -86,6 +94,7 @@ public class AuthServiceTest {
     @Test
     public void shouldAddRolesToContext() throws SigningKeyNotFoundException {
         Organisation organisation = new Organisation();
+        organisation.setId(1L);
         List<AccountAdmin> adminUser = new ArrayList<>();
         adminUser.add(accountAdmin);
         when(organisationRepository.findOne(1L)).thenReturn(organisation);
@@ -121,6 +130,7 @@ public class AuthServiceTest {
     @Test
     public void shouldSetContextBasedOnUserId() throws SigningKeyNotFoundException {
         Organisation organisation = new Organisation();
+        organisation.setId(1L);
         when(organisationRepository.findOne(1L)).thenReturn(organisation);
         when(userRepository.findById(100L)).thenReturn(Optional.of(user));
         when(cognitoAuthService.getUserFromToken("some token")).thenReturn(user);
@@ -128,4 +138,44 @@ public class AuthServiceTest {
         assertThat(userContext.getUser(), is(equalTo(user)));
         assertThat(userContext.getOrganisation(), is(equalTo(organisation)));
     }
+
+    @Test
+    public void shouldReuseTheCachedPrincipalUntilTheUserVersionChangesOrThePrincipalsAreEvicted() throws SigningKeyNotFoundException {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(PrincipalCachingConfiguration.class);
+        context.registerBean(AuthenticatedPrincipalCache.class, () -> new AuthenticatedPrincipalCache(organisationRepository, userService));
+        context.refresh();
+        AuthenticatedPrincipalCache authenticatedPrincipalCache = context.getBean(AuthenticatedPrincipalCache.class);
+        authService = new AuthService(userRepository, idpServiceFactory, authenticatedPrincipalCache, organisationRepository);
+        Organisation organisation = new Organisation();
+        organisation.setId(1L);
+        user.setId(100L);
+        when(organisationRepository.findOne(1L)).thenReturn(organisation);
+        when(cognitoAuthService.getUserFromToken("some token")).thenReturn(user);
+        when(userRepository.getAuthenticatedPrincipalVersion(100L)).thenReturn("version1");
+
+        authService.authenticateByToken("some token", null);
+        UserContext userContext = authService.authenticateByToken("some token", null);
+        assertThat(userContext.getOrganisation(), is(equalTo(organisation)));
+        verify(userService, times(1)).isAdmin(user);
+
+        when(userRepository.getAuthenticatedPrincipalVersion(100L)).thenReturn("version2");
+        authService.authenticateByToken("some token", null);
+        authService.authenticateByToken("some token", null);
+        verify(userService, times(2)).isAdmin(user);
+
+        authenticatedPrincipalCache.evictAll();
+        authService.authenticateByToken("some token", null);
+        verify(userService, times(3)).isAdmin(user);
+        context.close();
+    }
+
+    @Configuration
+    @EnableCaching
+    static class PrincipalCachingConfiguration {
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package org.avni.server.service;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.Verification;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class BaseIAMServiceTest {
+    private static final String ISSUER = "http://localhost/realms/test";
+    private static final String AUDIENCE = "test-client";
+    private final AtomicInteger jwksFetches = new AtomicInteger();
+    private final List<Jwk> publishedKeys = new ArrayList<>();
+    private TestIAMService iamService;
+
+    @Before
+    public void setup() {
+        iamService = new TestIAMService();
+    }
+
+    @Test
+    public void shouldFetchTheSigningKeysOnceAcrossTokens() throws Exception {
+        KeyPair keyPair = publishKey("key-1");
+
+        iamService.verifyAndDecodeToken(token("key-1", keyPair, "user1", 10));
+        iamService.verifyAndDecodeToken(token("key-1", keyPair, "user2", 10));
+
+        assertEquals(1, jwksFetches.get());
+    }
+
+    @Test
+    public void shouldReturnTheVerifiedTokenFromCacheForARepeatedToken() throws Exception {
+        KeyPair keyPair = publishKey("key-1");
+        String token = token("key-1", keyPair, "user1", 10);
+
+        assertEquals("user1", iamService.verifyAndDecodeToken(token).getClaim("preferred_username").asString());
+        publishedKeys.clear();
+        assertEquals("user1", iamService.verifyAndDecodeToken(token).getClaim("preferred_username").asString());
+    }
+
+    @Test(expected = TokenExpiredException.class)
+    public void shouldNotAcceptAnExpiredToken() throws Exception {
+        KeyPair keyPair = publishKey("key-1");
+        iamService.verifyAndDecodeToken(token("key-1", keyPair, "user1", -10));
+    }
+
+    private KeyPair publishKey(String keyId) throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        Map<String, Object> values = new HashMap<>();
+        values.put("kid", keyId);
+        values.put("kty", "RSA");
+        values.put("alg", "RS256");
+        values.put("use", "sig");
+        values.put("n", base64Url(publicKey.getModulus()));
+        values.put("e", base64Url(publicKey.getPublicExponent()));
+        publishedKeys.add(Jwk.fromValues(values));
+        return keyPair;
+    }
+
+    private static String token(String keyId, KeyPair keyPair, String userName, int expiresInMinutes) {
+        return JWT.create()
+                .withKeyId(keyId)
+                .withIssuer(ISSUER)
+                .withAudience(AUDIENCE)
+                .withClaim("preferred_username", userName)
+                .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(expiresInMinutes)))
+                .sign(Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0) bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private class TestIAMService extends BaseIAMService {
+        TestIAMService() {
+            super(null);
+        }
+
+        @Override
+        protected JwksKeyStore.JwksSource getJwksSource() {
+            return () -> {
+                jwksFetches.incrementAndGet();
+                return new ArrayList<>(publishedKeys);
+            };
+        }
+
+        @Override
+        protected String getUserUuidField() {
+            return "custom:userUUID";
+        }
+
+        @Override
+        protected String getUsernameField() {
+            return "preferred_username";
+        }
+
+        @Override
+        protected void addClaim(Verification verification) {
+        }
+
+        @Override
+        protected String getAudience() {
+            return AUDIENCE;
+        }
+
+        @Override
+        protected String getJwkProviderUrl() {
+            return ISSUER + "/protocol/openid-connect/certs";
+        }
+
+        @Override
+        protected String getIssuer() {
+            return ISSUER;
+        }
+
+        @Override
+        public void logConfiguration() {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.avni.server.service;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.*;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latency of the extension check of a sync, listing the extension files of the organisation from storage (a local
+ * directory stands in for the bucket, so this is a lower bound of an S3 listing) against one indexed query on the
+ * extension_file manifest. Needs a postgres database, OPENCHS_DATABASE_URL/USER/PASSWORD as for the server, and uses a
+ * temporary table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ExtensionChangeDetectionBenchmark {
+    private static final int ORGANISATIONS = 200;
+    private static final long ORGANISATION_ID = 7;
+    @Param({"20", "200"})
+    private int filesPerOrganisation;
+
+    private Path storageRoot;
+    private Path organisationExtensions;
+    private Connection connection;
+    private Timestamp lastSync;
+
+    @Setup
+    public void setup() throws IOException, SQLException {
+        long now = System.currentTimeMillis();
+        lastSync = new Timestamp(now - TimeUnit.DAYS.toMillis(1));
+        storageRoot = Files.createTempDirectory("extensions");
+        Properties properties = new Properties();
+        properties.setProperty("user", getEnv("OPENCHS_DATABASE_USER", "openchs"));
+        properties.setProperty("password", getEnv("OPENCHS_DATABASE_PASSWORD", "password"));
+        connection = DriverManager.getConnection(getEnv("OPENCHS_DATABASE_URL", "jdbc:postgresql://localhost:5432/openchs_test"), properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create temporary table benchmark_extension_file (id serial primary key, organisation_id int not null, s3_key text not null, size bigint not null, e_tag varchar(255), file_modified_date_time timestamp(3) with time zone not null)");
+            statement.execute("create index on benchmark_extension_file (organisation_id, file_modified_date_time)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into benchmark_extension_file (organisation_id, s3_key, size, e_tag, file_modified_date_time) values (?, ?, ?, ?, ?)")) {
+            for (int organisation = 1; organisation <= ORGANISATIONS; organisation++) {
+                Path extensions = Files.createDirectories(storageRoot.resolve("org" + organisation).resolve("extensions"));
+                for (int i = 0; i < filesPerOrganisation; i++) {
+                    Path file = Files.write(extensions.resolve(i + ".html"), UUID.randomUUID().toString().getBytes());
+                    long modifiedAt = now - TimeUnit.DAYS.toMillis(30);
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedAt));
+                    insert.setLong(1, organisation);
+                    insert.setString(2, storageRoot.relativize(file).toString());
+                    insert.setLong(3, Files.size(file));
+                    insert.setString(4, UUID.randomUUID().toString());
+                    insert.setTimestamp(5, new Timestamp(modifiedAt));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze benchmark_extension_file");
+        }
+        organisationExtensions = storageRoot.resolve("org" + ORGANISATION_ID).resolve("extensions");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        connection.close();
+        FileUtils.deleteDirectory(storageRoot.toFile());
+    }
+
+    @Benchmark
+    public boolean storageListing() throws IOException {
+        try (Stream<Path> files = Files.walk(organisationExtensions)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> lastModified(file) > lastSync.getTime())
+                    .count() > 0;
+        }
+    }
+
+    @Benchmark
+    public boolean manifestQuery() throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement("select exists(select 1 from benchmark_extension_file where organisation_id = ? and file_modified_date_time > ?)")) {
+            query.setLong(1, ORGANISATION_ID);
+            query.setTimestamp(2, lastSync);
+            try (ResultSet resultSet = query.executeQuery()) {
+                resultSet.next();
+                return resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String getEnv(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null ? defaultValue : value;
+    }
+}
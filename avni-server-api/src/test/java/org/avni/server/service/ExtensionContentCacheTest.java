@@ -0,0 +1,84 @@
+package org.avni.server.service;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ExtensionContentCacheTest {
+    private ExtensionContentCache extensionContentCache;
+    private LocalStorage storage;
+
+    @Before
+    public void setup() {
+        extensionContentCache = new ExtensionContentCache(100, 50);
+        storage = new LocalStorage();
+    }
+
+    @Test
+    public void shouldServeRepeatedRequestsForAVersionFromTheCache() throws IOException {
+        storage.put("demo/extensions/print/index.html", "<html>v1</html>");
+
+        byte[] first = get("demo/extensions/print/index.html", "etag-1");
+        byte[] second = get("demo/extensions/print/index.html", "etag-1");
+
+        assertEquals("<html>v1</html>", new String(second, StandardCharsets.UTF_8));
+        assertArrayEquals(first, second);
+        assertEquals(1, storage.reads);
+        assertEquals(1, extensionContentCache.getStats().hitCount());
+        assertEquals(0.5, extensionContentCache.getStats().hitRate(), 0.001);
+    }
+
+    @Test
+    public void shouldLoadTheFileAgainWhenItsVersionChanges() throws IOException {
+        storage.put("demo/extensions/print/index.html", "<html>v1</html>");
+        get("demo/extensions/print/index.html", "etag-1");
+        storage.put("demo/extensions/print/index.html", "<html>v2</html>");
+
+        byte[] content = get("demo/extensions/print/index.html", "etag-2");
+
+        assertEquals("<html>v2</html>", new String(content, StandardCharsets.UTF_8));
+        assertEquals(2, storage.reads);
+    }
+
+    @Test
+    public void shouldEvictContentBeyondTheMaximumBytes() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            storage.put("demo/extensions/" + i + ".js", "x".repeat(40));
+            get("demo/extensions/" + i + ".js", "etag");
+        }
+
+        assertTrue(extensionContentCache.getStats().evictionCount() > 0);
+        assertEquals(extensionContentCache.getStats().evictionCount(), extensionContentCache.getStatistics().get("evictionCount"));
+    }
+
+    @Test
+    public void shouldNotCacheFilesLargerThanTheMaximumFileBytes() {
+        assertTrue(extensionContentCache.isCacheable(50));
+        assertFalse(extensionContentCache.isCacheable(51));
+    }
+
+    private byte[] get(String s3Key, String eTag) throws IOException {
+        return extensionContentCache.getContent(s3Key, eTag, () -> storage.read(s3Key));
+    }
+
+    private static class LocalStorage {
+        private final Map<String, byte[]> files = new HashMap<>();
+        private int reads;
+
+        void put(String s3Key, String content) {
+            files.put(s3Key, content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        ByteArrayInputStream read(String s3Key) {
+            reads++;
+            return new ByteArrayInputStream(files.get(s3Key));
+        }
+    }
+}
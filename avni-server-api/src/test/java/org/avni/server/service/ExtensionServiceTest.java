@@ -0,0 +1,121 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.ExtensionFileRepository;
+import org.avni.server.domain.ExtensionFile;
+import org.avni.server.domain.JsonObject;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.OrganisationConfig;
+import org.avni.server.domain.S3ExtensionFile;
+import org.avni.server.domain.factory.TestOrganisationBuilder;
+import org.avni.server.domain.factory.UserContextBuilder;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.util.S3File;
+import org.avni.server.util.S3FileType;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ExtensionServiceTest {
+    @Mock
+    private S3Service s3Service;
+    @Mock
+    private ExtensionFileRepository extensionFileRepository;
+    @Mock
+    private OrganisationConfigService organisationConfigService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager platformTransactionManager;
+    private ExtensionService extensionService;
+    private Organisation organisation;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        organisation = new TestOrganisationBuilder().setId(2).build();
+        organisation.setMediaDirectory("demo");
+        UserContextHolder.create(new UserContextBuilder().withOrganisation(organisation).build());
+        extensionService = new ExtensionService(s3Service, extensionFileRepository, organisationConfigService, jdbcTemplate, platformTransactionManager);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldDetectChangesFromTheManifestWithoutListingTheBucket() {
+        when(extensionFileRepository.isManifestBuilt(2L)).thenReturn(true);
+        when(extensionFileRepository.existsByFileModifiedDateTimeGreaterThan(any(Date.class))).thenReturn(true);
+
+        assertTrue(extensionService.isNonScopeEntityChanged(new DateTime(2024, 1, 1, 0, 0)));
+        verify(extensionFileRepository).existsByFileModifiedDateTimeGreaterThan(new DateTime(2024, 1, 1, 0, 0).toDate());
+        verify(s3Service, never()).listExtensionFiles(any());
+    }
+
+    @Test
+    public void shouldNotListTheBucketAgainForABuiltManifestWithoutFiles() {
+        when(extensionFileRepository.isManifestBuilt(2L)).thenReturn(true);
+        when(organisationConfigService.getOrganisationConfig(organisation)).thenReturn(organisationConfig(Collections.singletonList(new JsonObject().with("label", "Print"))));
+
+        assertFalse(extensionService.isNonScopeEntityChanged(null));
+        verify(s3Service, never()).listExtensionFiles(any());
+        verify(platformTransactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    public void shouldNotListTheBucketForAnOrganisationWithoutExtensions() {
+        when(organisationConfigService.getOrganisationConfig(organisation)).thenReturn(organisationConfig(Collections.emptyList()));
+
+        assertFalse(extensionService.isNonScopeEntityChanged(null));
+        verify(s3Service, never()).listExtensionFiles(any());
+    }
+
+    @Test
+    public void shouldCreateTheManifestFromTheBucketWhenItIsMissing() {
+        DateTime modifiedAt = new DateTime(2024, 3, 1, 10, 0);
+        when(organisationConfigService.getOrganisationConfig(organisation)).thenReturn(organisationConfig(Collections.singletonList(new JsonObject().with("label", "Print"))));
+        S3File s3File = S3File.organisationFileFromFullPath(organisation, "demo/extensions/print/index.html", S3FileType.Extensions);
+        when(s3Service.listExtensionFiles(Optional.empty())).thenReturn(Collections.singletonList(new S3ExtensionFile(s3File, modifiedAt, 120, "etag-1")));
+
+        extensionService.isNonScopeEntityChanged(null);
+
+        ArgumentCaptor<List<ExtensionFile>> savedFiles = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(jdbcTemplate, extensionFileRepository);
+        inOrder.verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), eq(2));
+        inOrder.verify(extensionFileRepository).deleteAllOfOrganisation(2L);
+        inOrder.verify(extensionFileRepository).saveAll(savedFiles.capture());
+        inOrder.verify(extensionFileRepository).markManifestBuilt(2L);
+        verify(platformTransactionManager).commit(any());
+        ExtensionFile extensionFile = savedFiles.getValue().get(0);
+        assertEquals("demo/extensions/print/index.html", extensionFile.getS3Key());
+        assertEquals(120, extensionFile.getSize());
+        assertEquals("etag-1", extensionFile.getETag());
+        assertEquals(modifiedAt, extensionFile.getFileModifiedDateTime());
+    }
+
+    private static OrganisationConfig organisationConfig(List<Object> extensions) {
+        OrganisationConfig organisationConfig = new OrganisationConfig();
+        organisationConfig.setSettings(new JsonObject().with(OrganisationConfig.Extension.EXTENSION_DIR, extensions));
+        return organisationConfig;
+    }
+}
@@ -0,0 +1,103 @@
+package org.avni.server.service;
+
+import org.avni.server.domain.User;
+import org.avni.server.domain.factory.UserBuilder;
+import org.avni.server.framework.security.AuthService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class IdentifierTopUpServiceTest {
+    @Mock
+    private IdentifierAssignmentService identifierAssignmentService;
+    @Mock
+    private AuthService authService;
+    private final List<Runnable> queuedTopUps = new ArrayList<>();
+    private IdentifierTopUpService identifierTopUpService;
+    private User user;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        identifierTopUpService = new IdentifierTopUpService(identifierAssignmentService, authService, queuedTopUps::add, 100);
+        user = new UserBuilder().id(1L).build();
+    }
+
+    @Test
+    public void shouldQueueOneTopUpPerUserWhileItIsInFlight() {
+        identifierTopUpService.requestTopUp(user, "device-1");
+        identifierTopUpService.requestTopUp(user, "device-1");
+        identifierTopUpService.requestTopUp(user, "device-2");
+        identifierTopUpService.requestTopUp(new UserBuilder().id(2L).build(), "device-3");
+        assertEquals(2, queuedTopUps.size());
+
+        runQueuedTopUps();
+        identifierTopUpService.requestTopUp(user, "device-1");
+        assertEquals(1, queuedTopUps.size());
+    }
+
+    @Test
+    public void shouldTopUpTheDevicesOfAUserOneAfterAnother() {
+        identifierTopUpService.requestTopUp(user, "device-1");
+        doAnswer(invocation -> {
+            identifierTopUpService.requestTopUp(user, "device-2");
+            return null;
+        }).when(identifierAssignmentService).generateIdentifiersIfNecessary(user, "device-1");
+
+        runQueuedTopUps();
+
+        InOrder inOrder = inOrder(identifierAssignmentService);
+        inOrder.verify(identifierAssignmentService).generateIdentifiersIfNecessary(user, "device-1");
+        inOrder.verify(identifierAssignmentService).generateIdentifiersIfNecessary(user, "device-2");
+        assertEquals(0, queuedTopUps.size());
+    }
+
+    @Test
+    public void shouldRetryAFailedTopUpOnTheSweep() {
+        doThrow(new RuntimeException("connection lost")).doNothing().when(identifierAssignmentService).generateIdentifiersIfNecessary(user, "device-1");
+        identifierTopUpService.requestTopUp(user, "device-1");
+        runQueuedTopUps();
+
+        identifierTopUpService.retryFailedTopUps();
+        runQueuedTopUps();
+        identifierTopUpService.retryFailedTopUps();
+
+        verify(identifierAssignmentService, times(2)).generateIdentifiersIfNecessary(user, "device-1");
+        verify(authService, times(1)).authenticateByUserId(any(), any());
+        assertEquals(0, queuedTopUps.size());
+    }
+
+    @Test
+    public void shouldNotWaitWhenNoTopUpIsInFlight() {
+        identifierTopUpService.awaitTopUp(user);
+        verify(identifierAssignmentService, never()).generateIdentifiersIfNecessary(any(User.class), anyString());
+    }
+
+    @Test
+    public void shouldStopWaitingForATopUpThatDoesNotFinishInTime() {
+        identifierTopUpService.requestTopUp(user, "device-1");
+
+        long start = System.currentTimeMillis();
+        identifierTopUpService.awaitTopUp(user);
+
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(1, queuedTopUps.size());
+    }
+
+    private void runQueuedTopUps() {
+        List<Runnable> topUps = new ArrayList<>(queuedTopUps);
+        queuedTopUps.clear();
+        topUps.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,75 @@
+package org.avni.server.service;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JwksKeyStoreTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final List<Jwk> publishedKeys = new ArrayList<>();
+    private final JwksKeyStore keyStore = new JwksKeyStore(() -> {
+        fetches.incrementAndGet();
+        return new ArrayList<>(publishedKeys);
+    }, clock::get);
+
+    @Test
+    public void shouldLoadTheKeysOnFirstUseAndServeLaterLookupsFromMemory() throws Exception {
+        publishedKeys.add(jwk("key-1"));
+        publishedKeys.add(jwk("key-2"));
+
+        assertEquals("key-1", keyStore.get("key-1").getId());
+        assertEquals("key-2", keyStore.get("key-2").getId());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void shouldReloadForAnUnknownKeyAtMostOnceAMinute() throws Exception {
+        publishedKeys.add(jwk("key-1"));
+        keyStore.get("key-1");
+        publishedKeys.add(jwk("key-2"));
+
+        assertKeyNotFound("key-2");
+        assertEquals(1, fetches.get());
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        assertEquals("key-2", keyStore.get("key-2").getId());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void shouldDropKeysThatAreNoLongerPublishedOnRefresh() throws Exception {
+        publishedKeys.add(jwk("key-1"));
+        keyStore.get("key-1");
+
+        publishedKeys.clear();
+        publishedKeys.add(jwk("key-2"));
+        keyStore.refresh();
+
+        assertEquals("key-2", keyStore.get("key-2").getId());
+        assertKeyNotFound("key-1");
+    }
+
+    private void assertKeyNotFound(String keyId) throws Exception {
+        try {
+            keyStore.get(keyId);
+            fail();
+        } catch (SigningKeyNotFoundException ignored) {
+        }
+    }
+
+    private static Jwk jwk(String keyId) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("kid", keyId);
+        values.put("kty", "RSA");
+        return Jwk.fromValues(values);
+    }
+}
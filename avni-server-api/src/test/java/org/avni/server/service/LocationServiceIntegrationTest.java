@@ -0,0 +1,105 @@
+package org.avni.server.service;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.LocationRepository;
+import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.AddressLevelType;
+import org.avni.server.domain.factory.AddressLevelBuilder;
+import org.avni.server.domain.factory.AddressLevelTypeBuilder;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.avni.server.service.builder.TestLocationService;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Not transactional, so that the move runs in a transaction of its own and stamps the descendants later than their
+ * creation.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class LocationServiceIntegrationTest extends AbstractControllerIntegrationTest {
+    private static final int BLOCKS = 20;
+    private static final int VILLAGES_PER_BLOCK = 100;
+
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestLocationService testLocationService;
+    @Autowired
+    private LocationService locationService;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
+    @Test
+    public void shouldMoveTheWholeSubtreeOfALocationToItsNewParent() {
+        Map<String, Long> ids = new TransactionTemplate(platformTransactionManager).execute(status -> setupLocations());
+        Long movedDistrictId = ids.get("District");
+        Timestamp moveStartTime = jdbcTemplate.queryForObject("select clock_timestamp()", Timestamp.class);
+
+        new TransactionTemplate(platformTransactionManager).executeWithoutResult(status ->
+                locationService.updateParent(locationRepository.findOne(movedDistrictId), locationRepository.findOne(ids.get("New State"))));
+
+        String districtLineage = ids.get("New State") + "." + movedDistrictId;
+        assertEquals(districtLineage, locationRepository.findOne(movedDistrictId).getLineage());
+        List<AddressLevel> descendants = locationRepository.getAllChildLocations(districtLineage + ".*{1,}");
+        assertEquals(BLOCKS + BLOCKS * VILLAGES_PER_BLOCK, descendants.size());
+        Map<Long, String> lineages = descendants.stream().collect(Collectors.toMap(AddressLevel::getId, AddressLevel::getLineage));
+        lineages.put(movedDistrictId, districtLineage);
+        descendants.forEach(descendant -> assertEquals(lineages.get(descendant.getParentId()) + "." + descendant.getId(), descendant.getLineage()));
+        assertEquals(0, locationRepository.getAllChildLocations(ids.get("Old State") + ".*{1,}").size());
+
+        List<Map<String, Object>> audits = jdbcTemplate.queryForList("select id, last_modified_date_time, last_modified_by_id from address_level " +
+                "where lineage <@ cast(? as ltree) and id <> ?", districtLineage, movedDistrictId);
+        assertEquals(descendants.size(), audits.size());
+        audits.forEach(audit -> {
+            Timestamp lastModifiedDateTime = (Timestamp) audit.get("last_modified_date_time");
+            assertTrue(String.format("Location %s modified at %s, before the move at %s", audit.get("id"), lastModifiedDateTime, moveStartTime),
+                    lastModifiedDateTime.after(moveStartTime));
+            assertEquals(ids.get("User"), ((Number) audit.get("last_modified_by_id")).longValue());
+        });
+    }
+
+    private Map<String, Long> setupLocations() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        AddressLevelType state = new AddressLevelTypeBuilder().name("State").level(4d).withUuid(UUID.randomUUID()).build();
+        AddressLevelType district = new AddressLevelTypeBuilder().name("District").level(3d).parent(state).withUuid(UUID.randomUUID()).build();
+        AddressLevelType block = new AddressLevelTypeBuilder().name("Block").level(2d).parent(district).withUuid(UUID.randomUUID()).build();
+        AddressLevelType village = new AddressLevelTypeBuilder().name("Village").level(1d).parent(block).withUuid(UUID.randomUUID()).build();
+        testDataSetupService.saveLocationTypes(Arrays.asList(village, block, district, state));
+
+        AddressLevel oldState = testLocationService.save(new AddressLevelBuilder().withDefaultValuesForNewEntity().title("Old State").type(state).build());
+        AddressLevel newState = testLocationService.save(new AddressLevelBuilder().withDefaultValuesForNewEntity().title("New State").type(state).build());
+        AddressLevel movedDistrict = testLocationService.save(new AddressLevelBuilder().withDefaultValuesForNewEntity().title("District").type(district).parent(oldState).build());
+        for (int i = 0; i < BLOCKS; i++) {
+            AddressLevel aBlock = testLocationService.save(new AddressLevelBuilder().withDefaultValuesForNewEntity().title("Block " + i).type(block).parent(movedDistrict).build());
+            for (int j = 0; j < VILLAGES_PER_BLOCK; j++) {
+                testLocationService.save(new AddressLevelBuilder().withDefaultValuesForNewEntity().title("Village " + i + "-" + j).type(village).parent(aBlock).build());
+            }
+        }
+        Map<String, Long> ids = new HashMap<>();
+        ids.put("Old State", oldState.getId());
+        ids.put("New State", newState.getId());
+        ids.put("District", movedDistrict.getId());
+        ids.put("User", organisationData.getUser().getId());
+        return ids;
+    }
+}
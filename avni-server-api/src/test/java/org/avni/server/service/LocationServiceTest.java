@@ -27,13 +27,15 @@ public class LocationServiceTest {
     private LocationRepository locationRepository;
     @Mock
     private ResetSyncService resetSyncService;
+    @Mock
+    private AddressLevelCache addressLevelCache;
 
     private LocationService locationService;
 
     @Before
     public void before() {
         initMocks(this);
-        locationService = new LocationService(locationRepository, addressLevelTypeRepository, organisationRepository, locationMappingRepository, resetSyncService);
+        locationService = new LocationService(locationRepository, addressLevelTypeRepository, organisationRepository, locationMappingRepository, resetSyncService, addressLevelCache);
     }
 
     @Test
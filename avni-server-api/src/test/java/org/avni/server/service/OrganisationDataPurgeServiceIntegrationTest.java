@@ -0,0 +1,145 @@
+package org.avni.server.service;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.domain.Organisation;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+
+/**
+ * Puts a row of the organisation in every table of the purge, filling in all the foreign keys between these tables, so that
+ * a table deleted before one referring to it fails the purge. The rows are generated from the database catalog, as the
+ * purge runs on tables rather than entities. Not transactional, as the purge commits its batches in transactions of their own.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class OrganisationDataPurgeServiceIntegrationTest extends AbstractControllerIntegrationTest {
+    private static final String COLUMNS_SQL = "select column_name, udt_name, is_nullable, column_default, character_maximum_length from information_schema.columns " +
+            "where table_schema = 'public' and table_name = ? and is_identity = 'NO' and is_generated = 'NEVER' order by ordinal_position";
+    private static final String FOREIGN_KEYS_SQL = "select a.attname as column_name, rt.relname as referenced_table from pg_constraint c " +
+            "join pg_class t on t.oid = c.conrelid join pg_namespace n on n.oid = t.relnamespace join pg_class rt on rt.oid = c.confrelid " +
+            "join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1] " +
+            "where c.contype = 'f' and n.nspname = 'public' and t.relname = ? and cardinality(c.conkey) = 1";
+    private static final Map<String, Map<String, String>> CHECK_CONSTRAINT_VALUES = new HashMap<String, Map<String, String>>() {{
+        put("dashboard_section", Collections.singletonMap("view_type", "Default"));
+        put("report_card", Collections.singletonMap("query", "select 1"));
+    }};
+
+    @Autowired
+    private OrganisationDataPurgeService organisationDataPurgeService;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long organisationId;
+    private long userId;
+    private Set<String> purgedTables;
+    private final Map<String, Long> insertedRows = new HashMap<>();
+    private final Set<String> tablesBeingInserted = new HashSet<>();
+
+    @Test
+    public void shouldPurgeAnOrganisationWithRowsInEveryTable() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        testDataSetupService.setupACatchment();
+        organisationId = organisationData.getOrganisationId();
+        userId = organisationData.getUser().getId();
+        purgedTables = Stream.concat(OrganisationDataPurgeService.TRANSACTIONAL_DATA.stream(), OrganisationDataPurgeService.METADATA.stream())
+                .filter(step -> !step.isStatement())
+                .map(OrganisationDataPurgeService.PurgeStep::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        purgedTables.add("decision_concept");
+        purgedTables.forEach(table -> insertRow(table, true));
+
+        Organisation organisation = organisationRepository.findOne(organisationId);
+        organisationDataPurgeService.purgeTransactionalData(organisation);
+        organisationDataPurgeService.purgeMetadata(organisation);
+
+        purgedTables.forEach(table -> assertEquals(table, Long.valueOf(0),
+                jdbcTemplate.queryForObject(format("select count(*) from %s where id = ?", table), Long.class, insertedRows.get(table))));
+    }
+
+    private Long insertRow(String table, boolean fillAllForeignKeys) {
+        if (insertedRows.containsKey(table)) return insertedRows.get(table);
+        if (!tablesBeingInserted.add(table)) return null;
+
+        Map<String, String> foreignKeys = jdbcTemplate.queryForList(FOREIGN_KEYS_SQL, table).stream()
+                .collect(Collectors.toMap(row -> (String) row.get("column_name"), row -> (String) row.get("referenced_table")));
+        List<Map<String, Object>> columns = jdbcTemplate.queryForList(COLUMNS_SQL, table);
+        assertFalse(format("No table %s", table), columns.isEmpty());
+
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        for (Map<String, Object> column : columns) {
+            String name = (String) column.get("column_name");
+            String type = (String) column.get("udt_name");
+            boolean required = "NO".equals(column.get("is_nullable")) && column.get("column_default") == null;
+            String referencedTable = foreignKeys.get(name);
+            Object value;
+            if (name.equals("organisation_id")) {
+                value = organisationId;
+            } else if (CHECK_CONSTRAINT_VALUES.getOrDefault(table, Collections.emptyMap()).containsKey(name)) {
+                value = CHECK_CONSTRAINT_VALUES.get(table).get(name);
+            } else if (referencedTable != null) {
+                value = referencedTable.equals(table) ? null : referencedRowId(referencedTable, required, fillAllForeignKeys);
+            } else {
+                value = required ? sampleValue(type, (Number) column.get("character_maximum_length")) : null;
+            }
+            if (value == null) {
+                assertFalse(format("No value for %s.%s", table, name), required);
+                continue;
+            }
+            names.add(name);
+            values.add(value.toString());
+            placeholders.add(format("cast(? as %s)", type));
+        }
+        Long id = jdbcTemplate.queryForObject(format("insert into %s (%s) values (%s) returning id", table, String.join(", ", names), String.join(", ", placeholders)),
+                Long.class, values.toArray());
+        insertedRows.put(table, id);
+        return id;
+    }
+
+    private Long referencedRowId(String referencedTable, boolean required, boolean fillAllForeignKeys) {
+        if (referencedTable.equals("organisation")) return organisationId;
+        if (referencedTable.equals("users")) return userId;
+        if (purgedTables.contains(referencedTable)) return required || fillAllForeignKeys ? insertRow(referencedTable, true) : null;
+        if (!required) return null;
+        Long existing = jdbcTemplate.queryForObject(format("select min(id) from %s", referencedTable), Long.class);
+        return existing != null ? existing : insertRow(referencedTable, false);
+    }
+
+    private static String sampleValue(String type, Number maximumLength) {
+        switch (type) {
+            case "int2":
+            case "int4":
+            case "int8":
+            case "numeric":
+            case "float4":
+            case "float8":
+                return "1";
+            case "bool":
+                return "false";
+            case "date":
+            case "timestamp":
+            case "timestamptz":
+                return "now";
+            case "json":
+            case "jsonb":
+                return "{}";
+            default:
+                if (type.startsWith("_")) return "{}";
+                String text = UUID.randomUUID().toString();
+                return maximumLength == null ? text : text.substring(0, Math.min(maximumLength.intValue(), text.length()));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.avni.server.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.factory.TestOrganisationBuilder;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class OrganisationDataPurgeServiceTest {
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private SessionFactory sessionFactory;
+    @Mock
+    private Cache cache;
+    @Mock
+    private PlatformTransactionManager platformTransactionManager;
+    private OrganisationDataPurgeService purgeService;
+    private Organisation organisation;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(0L);
+        organisation = new TestOrganisationBuilder().setId(2).build();
+        purgeService = new OrganisationDataPurgeService(jdbcTemplate, entityManagerFactory, platformTransactionManager, BATCH_SIZE);
+    }
+
+    @Test
+    public void shouldDeleteATableInBatchesUntilNoRowsAreLeft() {
+        when(jdbcTemplate.queryForObject("select count(*) from encounter where organisation_id = ? and organisation_id > 1", Long.class, 2L)).thenReturn(250L);
+        String deleteEncounters = "delete from encounter where id in (select id from encounter where organisation_id = ? and organisation_id > 1 limit ?)";
+        when(jdbcTemplate.update(deleteEncounters, 2L, BATCH_SIZE)).thenReturn(100, 100, 50);
+
+        purgeService.purgeTransactionalData(organisation);
+
+        verify(jdbcTemplate, times(3)).update(deleteEncounters, 2L, BATCH_SIZE);
+        verify(platformTransactionManager, times(3)).commit(any());
+        verify(cache).evictAllRegions();
+    }
+
+    @Test
+    public void shouldSkipTablesWithoutRowsSoThatAnInterruptedPurgeResumes() {
+        purgeService.purgeTransactionalData(organisation);
+
+        verify(jdbcTemplate, never()).update(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void shouldDeleteChildTablesBeforeTheirParents() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(1L);
+        when(jdbcTemplate.update(anyString(), anyLong(), anyInt())).thenReturn(1);
+
+        purgeService.purgeTransactionalData(organisation);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(startsWith("delete from program_encounter "), anyLong(), anyInt());
+        inOrder.verify(jdbcTemplate).update(startsWith("delete from program_enrolment "), anyLong(), anyInt());
+        inOrder.verify(jdbcTemplate).update(startsWith("delete from individual "), anyLong(), anyInt());
+    }
+
+    @Test
+    public void shouldNotPurgeTheDefaultOrganisation() {
+        OrganisationDataPurgeService.TRANSACTIONAL_DATA.forEach(step -> assertTrue(step.getDeleteSql().contains("organisation_id > 1")));
+        OrganisationDataPurgeService.METADATA.forEach(step -> assertTrue(step.getDeleteSql().contains("organisation_id > 1")));
+    }
+}
@@ -0,0 +1,127 @@
+package org.avni.server.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.AddressLevelType;
+import org.avni.server.domain.factory.AddressLevelBuilder;
+import org.avni.server.domain.factory.AddressLevelTypeBuilder;
+import org.avni.server.service.builder.TestDataSetupService;
+import org.avni.server.service.builder.TestLocationService;
+import org.avni.server.web.request.AddressLevelTypeContract;
+import org.avni.server.web.request.LocationContract;
+import org.avni.server.web.request.ReferenceDataContract;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Not transactional, as the locations are exported through an entity manager of their own, which only sees committed
+ * rows. The data is set up in a transaction of its own instead.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class OrganisationServiceIntegrationTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private OrganisationService organisationService;
+    @Autowired
+    private LocationService locationService;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestLocationService testLocationService;
+    @Autowired
+    private PlatformTransactionManager platformTransactionManager;
+
+    @Test
+    public void shouldExportAddressLevelTypesWithParentsBeforeChildren() throws IOException {
+        long organisationId = setupLocations();
+
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bundle)) {
+            organisationService.addAddressLevelTypesJson(organisationId, zos);
+        }
+
+        List<AddressLevelTypeContract> addressLevelTypes = readEntry(bundle, "addressLevelTypes.json", new TypeReference<List<AddressLevelTypeContract>>() {});
+        assertEquals(3, addressLevelTypes.size());
+        assertParentsBeforeChildren(addressLevelTypes, AddressLevelTypeContract::getUuid, AddressLevelTypeContract::getParent);
+    }
+
+    @Test
+    public void shouldExportLocationsOfSeveralPagesWithParentsBeforeChildren() throws IOException {
+        long organisationId = setupLocations();
+
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bundle)) {
+            organisationService.addAddressLevelsJson(organisationId, zos, 3);
+        }
+
+        List<LocationContract> locations = readEntry(bundle, "locations.json", new TypeReference<List<LocationContract>>() {});
+        assertEquals(10, locations.size());
+        assertEquals(10, locations.stream().map(LocationContract::getUuid).distinct().count());
+        assertParentsBeforeChildren(locations, LocationContract::getUuid, LocationContract::getParent);
+    }
+
+    /**
+     * The district moved to the state created last has a lower id than its new parent, so the locations are only in order
+     * when they are exported by their depth in the hierarchy.
+     */
+    private long setupLocations() {
+        return new TransactionTemplate(platformTransactionManager).execute(status -> {
+            long organisationId = testDataSetupService.setupOrganisation().getOrganisationId();
+            AddressLevelType state = new AddressLevelTypeBuilder().name("State").level(3d).withUuid(UUID.randomUUID()).build();
+            AddressLevelType district = new AddressLevelTypeBuilder().name("District").level(2d).parent(state).withUuid(UUID.randomUUID()).build();
+            AddressLevelType city = new AddressLevelTypeBuilder().name("City").level(1d).parent(district).withUuid(UUID.randomUUID()).build();
+            testDataSetupService.saveLocationTypes(Arrays.asList(city, district, state));
+
+            AddressLevel state1 = location("State 1", state, null);
+            AddressLevel state2 = location("State 2", state, null);
+            AddressLevel movedDistrict = location("District 1", district, state1);
+            AddressLevel district2 = location("District 2", district, state1);
+            AddressLevel district3 = location("District 3", district, state2);
+            location("City 1", city, movedDistrict);
+            location("City 2", city, movedDistrict);
+            location("City 3", city, district2);
+            location("City 4", city, district3);
+            AddressLevel state3 = location("State 3", state, null);
+            locationService.updateParent(movedDistrict, state3);
+            return organisationId;
+        });
+    }
+
+    private AddressLevel location(String title, AddressLevelType type, AddressLevel parent) {
+        AddressLevelBuilder addressLevelBuilder = new AddressLevelBuilder().withDefaultValuesForNewEntity().title(title).type(type);
+        if (parent != null) addressLevelBuilder.parent(parent);
+        return testLocationService.save(addressLevelBuilder.build());
+    }
+
+    private static <T> List<T> readEntry(ByteArrayOutputStream bundle, String fileName, TypeReference<List<T>> type) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(bundle.toByteArray()))) {
+            assertEquals(fileName, zis.getNextEntry().getName());
+            return mapper.readValue(zis.readAllBytes(), type);
+        }
+    }
+
+    private static <T> void assertParentsBeforeChildren(List<T> contracts, Function<T, String> uuid, Function<T, ReferenceDataContract> parent) {
+        Set<String> written = new HashSet<>();
+        for (T contract : contracts) {
+            ReferenceDataContract parentContract = parent.apply(contract);
+            if (parentContract != null) {
+                assertTrue(String.format("%s is before its parent %s", uuid.apply(contract), parentContract.getUuid()), written.contains(parentContract.getUuid()));
+            }
+            written.add(uuid.apply(contract));
+        }
+    }
+}
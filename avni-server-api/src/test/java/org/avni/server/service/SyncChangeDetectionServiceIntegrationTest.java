@@ -0,0 +1,110 @@
+package org.avni.server.service;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.ChecklistDetailRepository;
+import org.avni.server.dao.ChecklistRepository;
+import org.avni.server.dao.OrganisationConfigRepository;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.UserBuilder;
+import org.avni.server.domain.factory.metadata.ProgramBuilder;
+import org.avni.server.domain.factory.txn.ProgramEnrolmentBuilder;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.*;
+import org.avni.server.web.request.EntitySyncStatusContract;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Not transactional, so that the checks run on the worker threads of the sync change detection executor, as they do for a
+ * sync request.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SyncChangeDetectionServiceIntegrationTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private SyncChangeDetectionService syncChangeDetectionService;
+    @Autowired
+    private ChecklistService checklistService;
+    @Autowired
+    private ChecklistDetailRepository checklistDetailRepository;
+    @Autowired
+    private ChecklistRepository checklistRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestProgramService testProgramService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private TestProgramEnrolmentService testProgramEnrolmentService;
+    @Autowired
+    private ExtensionService extensionService;
+    @Autowired
+    private OrganisationConfigRepository organisationConfigRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void shouldDetectChangedChecklistsOnWorkerThreads() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        TestDataSetupService.TestCatchmentData catchmentData = testDataSetupService.setupACatchment();
+        SubjectType subjectType = testSubjectTypeService.createWithDefaults(
+                new SubjectTypeBuilder()
+                        .setMandatoryFieldsForNewEntity()
+                        .setUuid("subjectTypeWithChecklist")
+                        .setName("subjectTypeWithChecklist")
+                        .build());
+        Program program = testProgramService.addProgram(new ProgramBuilder().withName("programWithChecklist").build(), subjectType);
+        Individual subject = testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType).withLocation(catchmentData.getAddressLevel1()).build());
+        ProgramEnrolment enrolment = testProgramEnrolmentService.save(new ProgramEnrolmentBuilder().withMandatoryFieldsForNewEntity().setProgram(program).setIndividual(subject).build());
+
+        ChecklistDetail checklistDetail = new ChecklistDetail();
+        checklistDetail.setUuid(UUID.randomUUID().toString());
+        checklistDetail.setName("Vaccination");
+        checklistDetailRepository.save(checklistDetail);
+        Checklist checklist = new Checklist();
+        checklist.setUuid(UUID.randomUUID().toString());
+        checklist.setChecklistDetail(checklistDetail);
+        checklist.setProgramEnrolment(enrolment);
+        checklist.setBaseDate(new DateTime());
+        checklistRepository.save(checklist);
+
+        userRepository.save(new UserBuilder(organisationData.getUser()).withCatchment(catchmentData.getCatchment()).withOperatingIndividualScope(OperatingIndividualScope.ByCatchment).build());
+        setUser(organisationData.getUser().getUsername());
+
+        EntitySyncStatusContract checklistStatus = EntitySyncStatusContract.createForEntityWithSubType(SyncEntityName.Checklist, checklistDetail.getUuid());
+        Set<EntitySyncStatusContract> changed = syncChangeDetectionService.getChangedEntities(Collections.singletonList(checklistStatus),
+                Collections.emptyMap(), Collections.singletonMap(SyncEntityName.Checklist, checklistService));
+
+        assertThat(changed).containsExactly(checklistStatus);
+    }
+
+    @Test
+    public void shouldBuildAMissingExtensionManifestWhileCheckingInAReadOnlyTransaction() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        OrganisationConfig organisationConfig = organisationConfigRepository.findByOrganisationId(organisationData.getOrganisationId());
+        organisationConfig.setSettings(new JsonObject().with(OrganisationConfig.Extension.EXTENSION_DIR, Collections.singletonList(new JsonObject().with("label", "Print"))));
+        organisationConfigRepository.save(organisationConfig);
+        setUser(organisationData.getUser().getUsername());
+
+        EntitySyncStatusContract extensionStatus = EntitySyncStatusContract.createForEntityWithoutSubType(SyncEntityName.Extension);
+        Set<EntitySyncStatusContract> changed = syncChangeDetectionService.getChangedEntities(Collections.singletonList(extensionStatus),
+                Collections.singletonMap(SyncEntityName.Extension, extensionService), Collections.emptyMap());
+
+        assertThat(changed).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from extension_manifest where organisation_id = ?", Long.class, organisationData.getOrganisationId())).isEqualTo(1L);
+    }
+}
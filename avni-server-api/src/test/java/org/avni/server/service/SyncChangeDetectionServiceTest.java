@@ -0,0 +1,101 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.sync.SyncChangeDetectionRepository;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.domain.User;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.framework.security.UserContextTaskDecorator;
+import org.avni.server.web.request.EntitySyncStatusContract;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SyncChangeDetectionServiceTest {
+    private final SyncChangeDetectionRepository repository = mock(SyncChangeDetectionRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldAnswerPlainMetadataEntitiesWithSingleQuery() {
+        NonScopeAwareService formService = mock(NonScopeAwareService.class);
+        NonScopeAwareService conceptService = mock(NonScopeAwareService.class);
+        Map<SyncEntityName, NonScopeAwareService> nonScopeAwareServices = new HashMap<>();
+        nonScopeAwareServices.put(SyncEntityName.Form, formService);
+        nonScopeAwareServices.put(SyncEntityName.Concept, conceptService);
+        when(repository.getChangedEntities(anyMap())).thenReturn(EnumSet.of(SyncEntityName.Concept));
+
+        EntitySyncStatusContract form = EntitySyncStatusContract.createForEntityWithoutSubType(SyncEntityName.Form);
+        EntitySyncStatusContract concept = EntitySyncStatusContract.createForEntityWithoutSubType(SyncEntityName.Concept);
+        Set<EntitySyncStatusContract> changed = new SyncChangeDetectionService(repository, Runnable::run, transactionManager)
+                .getChangedEntities(Arrays.asList(form, concept), nonScopeAwareServices, new HashMap<>());
+
+        assertThat(changed).containsExactly(concept);
+        verify(repository, times(1)).getChangedEntities(anyMap());
+        verifyNoInteractions(formService, conceptService);
+    }
+
+    @Test
+    public void shouldUseServicesForEntitiesWithTheirOwnChangeLogic() {
+        NonScopeAwareService taskService = mock(NonScopeAwareService.class);
+        ScopeAwareService individualService = mock(ScopeAwareService.class);
+        when(taskService.isNonScopeEntityChanged(any())).thenReturn(true);
+        when(individualService.isScopeEntityChanged(any(), eq("st-1"))).thenReturn(false);
+        when(individualService.isScopeEntityChanged(any(), eq("st-2"))).thenReturn(true);
+        when(repository.getChangedEntities(anyMap())).thenReturn(Collections.emptySet());
+
+        EntitySyncStatusContract task = EntitySyncStatusContract.createForEntityWithoutSubType(SyncEntityName.Task);
+        EntitySyncStatusContract subjectType1 = EntitySyncStatusContract.createForEntityWithSubType(SyncEntityName.Individual, "st-1");
+        EntitySyncStatusContract subjectType2 = EntitySyncStatusContract.createForEntityWithSubType(SyncEntityName.Individual, "st-2");
+        EntitySyncStatusContract unknown = EntitySyncStatusContract.createForComparison("Unknown", null);
+        Set<EntitySyncStatusContract> changed = new SyncChangeDetectionService(repository, Runnable::run, transactionManager)
+                .getChangedEntities(Arrays.asList(task, subjectType1, subjectType2, unknown),
+                        Collections.singletonMap(SyncEntityName.Task, taskService),
+                        Collections.singletonMap(SyncEntityName.Individual, individualService));
+
+        assertThat(changed).containsExactlyInAnyOrder(task, subjectType2);
+    }
+
+    @Test
+    public void shouldRunChecksWithUserContextOfRequest() {
+        User user = new User();
+        user.setUsername("user@example");
+        UserContext userContext = new UserContext();
+        userContext.setUser(user);
+        UserContextHolder.create(userContext);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setTaskDecorator(new UserContextTaskDecorator());
+        executor.initialize();
+
+        List<String> userNamesSeen = Collections.synchronizedList(new ArrayList<>());
+        NonScopeAwareService taskService = lastModifiedDateTime -> {
+            userNamesSeen.add(UserContextHolder.getUserName());
+            return true;
+        };
+        when(repository.getChangedEntities(anyMap())).thenReturn(Collections.emptySet());
+
+        EntitySyncStatusContract task = EntitySyncStatusContract.createForEntityWithoutSubType(SyncEntityName.Task);
+        task.setLoadedSince(new DateTime());
+        Set<EntitySyncStatusContract> changed = new SyncChangeDetectionService(repository, executor, transactionManager)
+                .getChangedEntities(Collections.singletonList(task), Collections.singletonMap(SyncEntityName.Task, taskService), new HashMap<>());
+        executor.shutdown();
+
+        assertThat(changed).containsExactly(task);
+        assertThat(userNamesSeen).containsExactly("user@example");
+        verify(transactionManager).commit(any());
+    }
+}
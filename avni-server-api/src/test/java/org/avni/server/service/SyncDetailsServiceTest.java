@@ -0,0 +1,113 @@
+package org.avni.server.service;
+
+import org.avni.server.application.FormMapping;
+import org.avni.server.application.Subject;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.dao.sync.SyncMetadataVersionRepository;
+import org.avni.server.domain.EncounterType;
+import org.avni.server.domain.SubjectType;
+import org.avni.server.domain.SyncableItem;
+import org.avni.server.domain.UserContext;
+import org.avni.server.domain.accessControl.GroupPrivileges;
+import org.avni.server.domain.accessControl.PrivilegeType;
+import org.avni.server.domain.factory.access.TestGroupPrivilegeBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.service.accessControl.GroupPrivilegeService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.avni.server.domain.accessControl.GroupPrivilegesTest.privilege;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class SyncDetailsServiceTest {
+    @Mock
+    private SyncMetadataVersionRepository syncMetadataVersionRepository;
+    @Mock
+    private SyncableMetadataCache syncableMetadataCache;
+    @Mock
+    private OrganisationConfigService organisationConfigService;
+    @Mock
+    private GroupPrivilegeService groupPrivilegeService;
+    private SyncDetailsService syncDetailsService;
+    private SubjectType subjectType;
+    private EncounterType allowedEncounterType;
+    private EncounterType otherEncounterType;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        UserContextHolder.create(new UserContext());
+        syncDetailsService = new SyncDetailsService(syncMetadataVersionRepository, syncableMetadataCache, organisationConfigService, groupPrivilegeService);
+
+        subjectType = new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().setId(1000L).setType(Subject.Individual).build();
+        allowedEncounterType = encounterType(2000L);
+        otherEncounterType = encounterType(2001L);
+        FormMapping registration = formMapping(subjectType, null);
+        registration.setEnableApproval(true);
+        SyncableMetadata syncableMetadata = new SyncableMetadata(Collections.singletonList(subjectType), Collections.singletonList(registration),
+                asList(formMapping(subjectType, allowedEncounterType), formMapping(subjectType, otherEncounterType)),
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        when(syncMetadataVersionRepository.getSyncMetadataVersion()).thenReturn("v1");
+        when(syncableMetadataCache.getSyncableMetadata(any(), any())).thenReturn(syncableMetadata);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldApplyTheUsersPrivilegesToTheOrganisationsMetadata() {
+        when(groupPrivilegeService.getGroupPrivileges()).thenReturn(new GroupPrivileges(false,
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewSubject)).setSubjectType(subjectType).build(),
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewVisit)).setSubjectType(subjectType).setEncounterType(allowedEncounterType).build()));
+
+        Set<String> syncableItems = toStrings(syncDetailsService.getAllSyncableItems(true, false));
+
+        assertTrue(syncableItems.contains(SyncEntityName.Individual + ":" + subjectType.getUuid()));
+        assertTrue(syncableItems.contains(SyncEntityName.SubjectEntityApprovalStatus + ":" + subjectType.getUuid()));
+        assertTrue(syncableItems.contains(SyncEntityName.Encounter + ":" + allowedEncounterType.getUuid()));
+        assertFalse(syncableItems.contains(SyncEntityName.Encounter + ":" + otherEncounterType.getUuid()));
+    }
+
+    @Test
+    public void shouldNotSyncSubjectsWithoutViewPrivilege() {
+        when(groupPrivilegeService.getGroupPrivileges()).thenReturn(new GroupPrivileges(false));
+
+        Set<String> syncableItems = toStrings(syncDetailsService.getAllSyncableItems(true, false));
+
+        assertFalse(syncableItems.contains(SyncEntityName.Individual + ":" + subjectType.getUuid()));
+        assertFalse(syncableItems.contains(SyncEntityName.Encounter + ":" + allowedEncounterType.getUuid()));
+        assertTrue(syncableItems.contains(SyncEntityName.SubjectType + ":"));
+    }
+
+    private static Set<String> toStrings(Set<SyncableItem> syncableItems) {
+        return syncableItems.stream().map(item -> item.getSyncEntityName() + ":" + item.getEntityTypeUuid()).collect(Collectors.toSet());
+    }
+
+    private static EncounterType encounterType(Long id) {
+        EncounterType encounterType = new EncounterType();
+        encounterType.setId(id);
+        encounterType.assignUUID();
+        return encounterType;
+    }
+
+    private static FormMapping formMapping(SubjectType subjectType, EncounterType encounterType) {
+        FormMapping formMapping = new FormMapping();
+        formMapping.setSubjectType(subjectType);
+        formMapping.setEncounterType(encounterType);
+        return formMapping;
+    }
+}
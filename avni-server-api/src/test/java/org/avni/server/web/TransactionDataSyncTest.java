@@ -19,6 +19,7 @@ import org.avni.server.service.builder.*;
 import org.avni.server.service.sync.TestSyncService;
 import org.avni.server.web.request.EntitySyncStatusContract;
 import org.avni.server.web.request.syncAttribute.UserSyncSettings;
+import org.avni.server.web.response.slice.SlicedResources;
 import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
@@ -26,12 +27,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -43,6 +48,10 @@ public class TransactionDataSyncTest extends AbstractControllerIntegrationTest {
     @Autowired
     private GroupSubjectController groupSubjectController;
     @Autowired
+    private IndividualController individualController;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
     private UserRepository userRepository;
     @Autowired
     private UserSubjectAssignmentRepository userSubjectAssignmentRepository;
@@ -357,6 +366,52 @@ public class TransactionDataSyncTest extends AbstractControllerIntegrationTest {
         assertFalse(hasEntity(enrolmentAssigned, enrolments));
     }
 
+    @Test
+    @Transactional
+    public void syncUsingContinuationToken() {
+        List<Individual> saved = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            saved.add(testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectTypeWithCatchmentBasedSync).withLocation(catchmentData.getAddressLevel1()).build()));
+        userRepository.save(new UserBuilder(organisationData.getUser()).withCatchment(catchmentData.getCatchment()).withOperatingIndividualScope(OperatingIndividualScope.ByCatchment).build());
+        setUser(organisationData.getUser().getUsername());
+
+        List<Individual> synced = new ArrayList<>();
+        String continuationToken = "";
+        SlicedResources<EntityModel<Individual>> slice;
+        int page = 0;
+        do {
+            slice = individualController.getIndividualsByOperatingIndividualScopeAsSlice(DateTime.now().minusDays(1), DateTime.now(), subjectTypeWithCatchmentBasedSync.getUuid(), continuationToken, PageRequest.of(page++, 2));
+            slice.getContent().forEach(entityModel -> synced.add(entityModel.getContent()));
+            continuationToken = slice.getMetadata().getContinuationToken();
+        } while (slice.getMetadata().hasNext());
+
+        assertEquals(saved.stream().map(Individual::getUuid).collect(Collectors.toList()), synced.stream().map(Individual::getUuid).collect(Collectors.toList()));
+    }
+
+    @Test
+    @Transactional
+    public void syncUsingContinuationTokenWhenTheLastSyncedEntityIsModifiedBetweenPages() {
+        List<Individual> saved = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            saved.add(testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectTypeWithCatchmentBasedSync).withLocation(catchmentData.getAddressLevel1()).build()));
+        userRepository.save(new UserBuilder(organisationData.getUser()).withCatchment(catchmentData.getCatchment()).withOperatingIndividualScope(OperatingIndividualScope.ByCatchment).build());
+        setUser(organisationData.getUser().getUsername());
+        DateTime now = DateTime.now().plusMinutes(5);
+
+        List<Individual> synced = new ArrayList<>();
+        SlicedResources<EntityModel<Individual>> slice = individualController.getIndividualsByOperatingIndividualScopeAsSlice(DateTime.now().minusDays(1), now, subjectTypeWithCatchmentBasedSync.getUuid(), "", PageRequest.of(0, 2));
+        slice.getContent().forEach(entityModel -> synced.add(entityModel.getContent()));
+        jdbcTemplate.update("update individual set last_modified_date_time = last_modified_date_time + interval '1 minute' where id = ?", saved.get(1).getId());
+        int page = 1;
+        while (slice.getMetadata().hasNext()) {
+            slice = individualController.getIndividualsByOperatingIndividualScopeAsSlice(DateTime.now().minusDays(1), now, subjectTypeWithCatchmentBasedSync.getUuid(), slice.getMetadata().getContinuationToken(), PageRequest.of(page++, 2));
+            slice.getContent().forEach(entityModel -> synced.add(entityModel.getContent()));
+        }
+
+        List<Individual> expected = Arrays.asList(saved.get(0), saved.get(1), saved.get(2), saved.get(3), saved.get(1));
+        assertEquals(expected.stream().map(Individual::getUuid).collect(Collectors.toList()), synced.stream().map(Individual::getUuid).collect(Collectors.toList()));
+    }
+
     private boolean hasEntity(CHSEntity entity, List<? extends CHSEntity> entities) {
         return entities.stream().anyMatch(x -> x.getUuid().equals(entity.getUuid()));
     }
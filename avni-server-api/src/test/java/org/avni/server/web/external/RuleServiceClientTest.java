@@ -0,0 +1,81 @@
+package org.avni.server.web.external;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.factory.TestOrganisationBuilder;
+import org.avni.server.domain.factory.UserContextBuilder;
+import org.avni.server.framework.security.AuthenticationFilter;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.web.request.rules.response.ScheduleRuleResponseEntity;
+import org.avni.server.web.util.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.Assert.assertEquals;
+
+public class RuleServiceClientTest {
+    private WireMockServer nodeServer;
+    private ExecutorService executor;
+    private RuleServiceClient ruleServiceClient;
+
+    @Before
+    public void setup() {
+        nodeServer = new WireMockServer(options().dynamicPort());
+        nodeServer.start();
+        executor = Executors.newFixedThreadPool(3);
+        ruleServiceClient = new RuleServiceClient(new Configuration().ruleServerRestTemplate(3), executor);
+        ReflectionTestUtils.setField(ruleServiceClient, "NODE_SERVER_HOST", nodeServer.baseUrl());
+
+        Organisation organisation = new TestOrganisationBuilder().withUuid("org-uuid").build();
+        UserContextHolder.create(new UserContextBuilder().withOrganisation(organisation).build());
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+        executor.shutdown();
+        nodeServer.stop();
+    }
+
+    @Test
+    public void postAsyncShouldSendTheCallersHeadersAndReturnEachRulesResponse() {
+        List<String> rules = Arrays.asList("rule1", "rule2", "rule3");
+        rules.forEach(rule -> nodeServer.addStubMapping(WireMock.post("/api/messagingRule")
+                .withHeader(AuthenticationFilter.ORGANISATION_UUID, equalTo("org-uuid"))
+                .withRequestBody(matchingJsonPath("$.rule", equalTo(rule)))
+                .willReturn(okJson(String.format("{\"status\": \"success\", \"shouldSend\": %s}", !rule.equals("rule2")))
+                        .withFixedDelay(200))
+                .build()));
+
+        List<CompletableFuture<ScheduleRuleResponseEntity>> responses = rules.stream()
+                .map(rule -> ruleServiceClient.postAsync("/api/messagingRule", new TestRuleRequest(rule), ScheduleRuleResponseEntity.class))
+                .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(true, false, true), responses.stream().map(response -> response.join().getShouldSend()).collect(Collectors.toList()));
+        nodeServer.verify(3, postRequestedFor(urlEqualTo("/api/messagingRule")));
+    }
+
+    public static class TestRuleRequest {
+        private final String rule;
+
+        TestRuleRequest(String rule) {
+            this.rule = rule;
+        }
+
+        public String getRule() {
+            return rule;
+        }
+    }
+}
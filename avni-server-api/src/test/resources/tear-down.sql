@@ -35,6 +35,8 @@ DELETE FROM account_admin
 DELETE FROM user_group where 1 = 1;
 DELETE FROM external_system_config where 1 = 1;
 DELETE FROM organisation_config where 1 = 1;
+delete from extension_file where 1 = 1;
+delete from extension_manifest where 1 = 1;
 delete from message_request_queue where 1 = 1;
 delete from message_receiver where 1 = 1;
 delete from message_rule where 1 = 1;